@@ -34,6 +34,8 @@ import android.text.method.LinkMovementMethod;
 import android.widget.TextView;
 
 import com.github.ruleant.getback_gps.lib.DebugLevel;
+import com.github.ruleant.getback_gps.lib.SettingsCache;
+import com.github.ruleant.getback_gps.lib.SettingsSnapshot;
 
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
@@ -53,10 +55,11 @@ public class AboutActivity extends Activity {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_about);
         Resources res = getResources();
-        DebugLevel debug = new DebugLevel(this);
+        SettingsSnapshot settings
+                = SettingsCache.getInstance(this).getSnapshot();
 
         DateFormat formatter;
-        if (debug.checkDebugLevel(DebugLevel.DEBUG_LEVEL_LOW)) {
+        if (settings.checkDebugLevel(DebugLevel.DEBUG_LEVEL_LOW)) {
             formatter = SimpleDateFormat.getDateTimeInstance();
         } else {
             formatter = SimpleDateFormat.getDateInstance();
@@ -42,7 +42,9 @@ import android.widget.Toast;
 import com.github.ruleant.getback_gps.LocationService.LocationBinder;
 import com.github.ruleant.getback_gps.lib.CardinalDirection;
 import com.github.ruleant.getback_gps.lib.FormatUtils;
+import com.github.ruleant.getback_gps.lib.LocalizedFormatter;
 import com.github.ruleant.getback_gps.lib.Navigator;
+import com.github.ruleant.getback_gps.lib.TextBuffer;
 import com.github.ruleant.getback_gps.lib.Tools;
 
 import de.keyboardsurfer.android.widget.crouton.Configuration;
@@ -96,6 +98,26 @@ abstract class AbstractGetBackGpsActivity extends Activity {
      */
     private Crouton crDestinationReached;
 
+    /**
+     * Text of the current speed, reused when refreshing.
+     */
+    private final TextBuffer mCurrentSpeedText = new TextBuffer();
+
+    /**
+     * Text of the current bearing, reused when refreshing.
+     */
+    private final TextBuffer mCurrentBearingText = new TextBuffer();
+
+    /**
+     * Current speed view, resolved when the content view is set.
+     */
+    private TextView mCurrentSpeedView;
+
+    /**
+     * Current bearing view, resolved when the content view is set.
+     */
+    private TextView mCurrentBearingView;
+
     @Override
     public boolean onCreateOptionsMenu(final Menu menu) {
         // Inflate the menu;
@@ -122,6 +144,24 @@ abstract class AbstractGetBackGpsActivity extends Activity {
         }
     }
 
+    @Override
+    protected void onResume() {
+        super.onResume();
+        // deliver sensor events immediately while activity is in foreground
+        if (mBound) {
+            mService.setSensorBatching(false);
+        }
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        // batch sensor events while activity is not in the foreground
+        if (mBound) {
+            mService.setSensorBatching(true);
+        }
+    }
+
     @Override
     protected void onCreate(final Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -152,6 +192,17 @@ abstract class AbstractGetBackGpsActivity extends Activity {
         crDestinationReached.setConfiguration(croutonConfig);
     }
 
+    @Override
+    public void onContentChanged() {
+        super.onContentChanged();
+
+        // resolve the "current" views once, not on every refresh,
+        // subclasses set the content view in onCreate()
+        mCurrentSpeedView = (TextView) findViewById(R.id.textView_currSpeed);
+        mCurrentBearingView
+                = (TextView) findViewById(R.id.textView_currBearing);
+    }
+
     @Override
     protected final void onDestroy() {
         super.onDestroy();
@@ -452,35 +503,27 @@ abstract class AbstractGetBackGpsActivity extends Activity {
 
         Resources res = getResources();
 
-        // Get "Current" TextViews
-        TextView tvCurrentSpeed
-                = (TextView) findViewById(R.id.textView_currSpeed);
-        TextView tvCurrentBearing
-                = (TextView) findViewById(R.id.textView_currBearing);
-
         // Define strings
-        String currentSpeedText = res.getString(R.string.inaccurate);
-        String currentBearingText = res.getString(R.string.inaccurate);
+        mCurrentSpeedText.reset().append(res.getString(R.string.inaccurate));
+        mCurrentBearingText.reset().append(res.getString(R.string.inaccurate));
 
         // Update current speed
         if (displayInaccurate || navigator.isLocationAccurate()) {
-            currentSpeedText = FormatUtils.formatSpeed(
-                    navigator.getCurrentSpeed(), this);
+            LocalizedFormatter.getInstance(this).appendSpeed(
+                    mCurrentSpeedText.reset(), navigator.getCurrentSpeed());
         }
 
         // Update current bearing
         if (displayInaccurate || navigator.isBearingAccurate()) {
-            CardinalDirection cd = new CardinalDirection(
+            CardinalDirection.appendFormatted(mCurrentBearingText.reset(),
                     this,
                     FormatUtils.normalizeAngle(
                             navigator.getCurrentBearing()));
-
-            currentBearingText = cd.format();
         }
 
         // update views
-        tvCurrentSpeed.setText(currentSpeedText);
-        tvCurrentBearing.setText(currentBearingText);
+        mCurrentSpeedText.setText(mCurrentSpeedView);
+        mCurrentBearingText.setText(mCurrentBearingView);
     }
 
     /**
@@ -538,6 +581,9 @@ abstract class AbstractGetBackGpsActivity extends Activity {
             // connected to it.
             binder.registerCallback(mCallback);
 
+            // deliver sensor events immediately while activity is visible
+            mService.setSensorBatching(false);
+
             refreshDisplay();
         }
 
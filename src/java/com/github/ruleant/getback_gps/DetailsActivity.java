@@ -29,6 +29,8 @@ import com.github.ruleant.getback_gps.lib.AriadneLocation;
 import com.github.ruleant.getback_gps.lib.CardinalDirection;
 import com.github.ruleant.getback_gps.lib.FormatUtils;
 import com.github.ruleant.getback_gps.lib.Navigator;
+import com.github.ruleant.getback_gps.lib.SensorOrientation;
+import com.github.ruleant.getback_gps.lib.Tools;
 
 /**
  * Main Activity class.
@@ -36,10 +38,64 @@ import com.github.ruleant.getback_gps.lib.Navigator;
  * @author Dieter Adriaenssens <ruleant@users.sourceforge.net>
  */
 public class DetailsActivity extends AbstractGetBackGpsActivity {
+    /**
+     * Formatted direction to destination, reused when refreshing.
+     */
+    private final StringBuilder mDirectionText = new StringBuilder();
+
+    /**
+     * Location provider view.
+     */
+    private TextView mProviderView;
+
+    /**
+     * Current location view.
+     */
+    private TextView mLocationView;
+
+    /**
+     * Destination view.
+     */
+    private TextView mDestinationView;
+
+    /**
+     * Sensor bearing offset view.
+     */
+    private TextView mBearingOffsetView;
+
+    /**
+     * Travel direction view.
+     */
+    private TextView mTravelDirectionView;
+
+    /**
+     * Sensor update rate view.
+     */
+    private TextView mSensorUpdateRateView;
+
+    /**
+     * 'To destination' view.
+     */
+    private TextView mToDestinationView;
+
     @Override
     protected final void onCreate(final Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_details);
+
+        // resolve views once, they are used on every refresh
+        mProviderView
+                = (TextView) findViewById(R.id.textView_LocationProvider);
+        mLocationView = (TextView) findViewById(R.id.textView_Location);
+        mDestinationView = (TextView) findViewById(R.id.textView_Destination);
+        mBearingOffsetView
+                = (TextView) findViewById(R.id.textView_BearingOffset);
+        mTravelDirectionView
+                = (TextView) findViewById(R.id.textView_TravelDirection);
+        mSensorUpdateRateView
+                = (TextView) findViewById(R.id.textView_SensorUpdateRate);
+        mToDestinationView
+                = (TextView) findViewById(R.id.textView_ToDestination);
     }
 
     @Override
@@ -67,8 +123,6 @@ public class DetailsActivity extends AbstractGetBackGpsActivity {
         AriadneLocation currentLocation = service.getLocation();
 
         // Refresh locationProvider
-        TextView tvProvider
-                = (TextView) findViewById(R.id.textView_LocationProvider);
         String providerText = res.getString(R.string.location_provider) + ": ";
         if (!service.isSetLocationProvider()) {
             providerText += res.getString(R.string.none);
@@ -76,11 +130,9 @@ public class DetailsActivity extends AbstractGetBackGpsActivity {
             providerText += FormatUtils.localizeProviderName(
                     this, service.getLocationProvider());
         }
-        tvProvider.setText(providerText);
+        mProviderView.setText(providerText);
 
         // Refresh Location
-        TextView tvLocation
-                = (TextView) findViewById(R.id.textView_Location);
         String locationText
                 = res.getString(R.string.curr_location) + ":\n";
 
@@ -89,11 +141,9 @@ public class DetailsActivity extends AbstractGetBackGpsActivity {
         } else {
             locationText += currentLocation.toFormattedString(this);
         }
-        tvLocation.setText(locationText);
+        mLocationView.setText(locationText);
 
         // Refresh Destination
-        TextView tvDestination
-                = (TextView) findViewById(R.id.textView_Destination);
         String destinationText
                 = res.getString(R.string.destination) + ":\n";
 
@@ -110,18 +160,14 @@ public class DetailsActivity extends AbstractGetBackGpsActivity {
         } else {
             destinationText += destination.toFormattedString(this);
         }
-        tvDestination.setText(destinationText);
+        mDestinationView.setText(destinationText);
 
         // Refresh Bearing offset
-        TextView tvBearingOffset
-                = (TextView) findViewById(R.id.textView_BearingOffset);
-        tvBearingOffset.setText(res.getString(R.string.sensor_bearing_offset)
+        mBearingOffsetView.setText(res.getString(R.string.sensor_bearing_offset)
                 + " : " + FormatUtils.formatAngle(
                     navigator.getSensorBearingOffset(), 0));
 
         // Refresh travel direction
-        TextView tvTravelDirection
-                = (TextView) findViewById(R.id.textView_TravelDirection);
         String travelDirectionText = res.getString(R.string.travel_direction)
                 + " : ";
         switch (navigator.getTravelDirection()) {
@@ -138,11 +184,24 @@ public class DetailsActivity extends AbstractGetBackGpsActivity {
                     += res.getString(R.string.travel_direction_backwards);
             break;
         }
-        tvTravelDirection.setText(travelDirectionText);
+        mTravelDirectionView.setText(travelDirectionText);
+
+        // Refresh sensor update rate
+        String sensorUpdateRateText = res.getString(R.string.sensor_update_rate)
+                + " : ";
+        SensorOrientation sensorOrientation = service.getSensorOrientation();
+        if (sensorOrientation == null) {
+            sensorUpdateRateText += res.getString(R.string.unknown);
+        } else {
+            sensorUpdateRateText += res.getString(
+                    R.string.sensor_update_rate_value,
+                    sensorOrientation.getSensorUpdateRate()
+                        / Tools.MILLI_IN_MICRO,
+                    sensorOrientation.getSensorUpdateRateChanges());
+        }
+        mSensorUpdateRateView.setText(sensorUpdateRateText);
 
         // Refresh Directions to destination
-        TextView tvToDestination
-                = (TextView) findViewById(R.id.textView_ToDestination);
         String toDestinationText
                 = res.getString(R.string.to_dest) + ":\n";
         if (destination == null || currentLocation == null) {
@@ -164,14 +223,15 @@ public class DetailsActivity extends AbstractGetBackGpsActivity {
                 toDestinationText += res.getString(R.string.unknown) + "\n";
             }
 
-            CardinalDirection cd = new CardinalDirection(
+            mDirectionText.setLength(0);
+            CardinalDirection.appendFormatted(mDirectionText,
                     this,
                     FormatUtils.normalizeAngle(
                             navigator.getAbsoluteDirection()));
 
             toDestinationText += " "
                     + res.getString(R.string.direction) + ": "
-                    + cd.format();
+                    + mDirectionText;
 
             boolean isBearingAccurate = navigator.isBearingAccurate();
 
@@ -184,7 +244,7 @@ public class DetailsActivity extends AbstractGetBackGpsActivity {
                         navigator.getRelativeDirection(), 2);
             }
         }
-        tvToDestination.setText(toDestinationText);
+        mToDestinationView.setText(toDestinationText);
 
         return true;
     }
@@ -24,7 +24,6 @@ package com.github.ruleant.getback_gps;
 import android.app.Service;
 import android.content.Context;
 import android.content.Intent;
-import android.content.SharedPreferences;
 import android.location.Criteria;
 import android.location.Location;
 import android.location.LocationListener;
@@ -35,13 +34,14 @@ import android.os.Bundle;
 import android.os.IBinder;
 import android.os.RemoteCallbackList;
 import android.os.RemoteException;
-import android.preference.PreferenceManager;
 import android.widget.Toast;
 
 import com.github.ruleant.getback_gps.lib.AriadneLocation;
 import com.github.ruleant.getback_gps.lib.DebugLevel;
 import com.github.ruleant.getback_gps.lib.Navigator;
 import com.github.ruleant.getback_gps.lib.SensorOrientation;
+import com.github.ruleant.getback_gps.lib.SettingsCache;
+import com.github.ruleant.getback_gps.lib.SettingsSnapshot;
 import com.github.ruleant.getback_gps.lib.StoredDestination;
 import com.github.ruleant.getback_gps.lib.StoredLocation;
 
@@ -70,6 +70,18 @@ public class LocationService extends Service
      */
     public static final String PREFS_PREV_LOC = "prev_location";
 
+    /**
+     * Maximum number of orientation updates per second
+     * sent to the bound Activities.
+     */
+    private static final int ORIENTATION_UPDATE_RATE = 30;
+
+    /**
+     * Minimum orientation change in degrees
+     * before an update is sent to the bound Activities.
+     */
+    private static final double ORIENTATION_UPDATE_DELTA = 0.5;
+
     /**
      * Binder given to clients.
      */
@@ -157,7 +169,8 @@ public class LocationService extends Service
         // Subscribe to sensor events
         if (mSensorOrientation.hasSensors()
                 && mSensorOrientation.isSensorsEnabled()) {
-            mSensorOrientation.addEventListener(this);
+            mSensorOrientation.addEventListener(this,
+                    ORIENTATION_UPDATE_RATE, ORIENTATION_UPDATE_DELTA);
         }
     }
 
@@ -338,6 +351,27 @@ public class LocationService extends Service
         return mNavigator;
     }
 
+    /**
+     * Retrieve SensorOrientation.
+     *
+     * @return SensorOrientation SensorOrientation object
+     */
+    public final SensorOrientation getSensorOrientation() {
+        return mSensorOrientation;
+    }
+
+    /**
+     * Enable or disable batching of sensor events,
+     * fe. when the app is not in the foreground.
+     *
+     * @param batching true to enable batching of sensor events
+     */
+    public final void setSensorBatching(final boolean batching) {
+        if (mSensorOrientation != null) {
+            mSensorOrientation.setBatching(batching);
+        }
+    }
+
     /**
      * Checks if Location Provider is defined.
      *
@@ -508,17 +542,12 @@ public class LocationService extends Service
                 && mLocationManager != null
                 && mLocationManager.isProviderEnabled(mProviderName)) {
 
-            // Get debug level from SharedPreferences
-            SharedPreferences sharedPref
-                    = PreferenceManager.getDefaultSharedPreferences(this);
-            String prefLocationUpdateDistance
-                    = sharedPref.getString(
-                    SettingsActivity.KEY_PREF_LOC_UPDATE_DIST,
-                    SettingsActivity.DEFAULT_PREF_LOC_UPDATE_DIST);
-            String prefLocationUpdateTime
-                    = sharedPref.getString(
-                    SettingsActivity.KEY_PREF_LOC_UPDATE_TIME,
-                    SettingsActivity.DEFAULT_PREF_LOC_UPDATE_TIME);
+            // Get location update settings from cached settings
+            SettingsSnapshot settings
+                    = SettingsCache.getInstance(this).getSnapshot();
+            int prefLocationUpdateDistance
+                    = settings.getLocationUpdateDistance();
+            int prefLocationUpdateTime = settings.getLocationUpdateTime();
 
             /* don't allow to disable distance based updates
              * before Jelly Bean, because the time based update parameter
@@ -526,15 +555,15 @@ public class LocationService extends Service
              * so the distance based update parameter should have a value.
              */
             if (Build.VERSION.SDK_INT < Build.VERSION_CODES.JELLY_BEAN
-                    && Integer.parseInt(prefLocationUpdateDistance) == 0) {
-                prefLocationUpdateDistance =
-                        SettingsActivity.DEFAULT_PREF_LOC_UPDATE_DIST;
+                    && prefLocationUpdateDistance == 0) {
+                prefLocationUpdateDistance = Integer.parseInt(
+                        SettingsActivity.DEFAULT_PREF_LOC_UPDATE_DIST);
             }
 
             mLocationManager.requestLocationUpdates(
                     mProviderName,
-                    Integer.parseInt(prefLocationUpdateTime),
-                    Integer.parseInt(prefLocationUpdateDistance),
+                    prefLocationUpdateTime,
+                    prefLocationUpdateDistance,
                     mListener);
             Location location
                     = mLocationManager.getLastKnownLocation(mProviderName);
@@ -35,7 +35,11 @@ import com.github.ruleant.getback_gps.lib.AriadneLocation;
 import com.github.ruleant.getback_gps.lib.CardinalDirection;
 import com.github.ruleant.getback_gps.lib.DebugLevel;
 import com.github.ruleant.getback_gps.lib.FormatUtils;
+import com.github.ruleant.getback_gps.lib.LocalizedFormatter;
 import com.github.ruleant.getback_gps.lib.Navigator;
+import com.github.ruleant.getback_gps.lib.SettingsCache;
+import com.github.ruleant.getback_gps.lib.SettingsSnapshot;
+import com.github.ruleant.getback_gps.lib.TextBuffer;
 
 /**
  * Main Activity class.
@@ -59,26 +63,88 @@ public class MainActivity extends AbstractGetBackGpsActivity
      */
     private static final String SHORTENER = "(...)";
 
+    /**
+     * Text of the distance to destination, reused when refreshing.
+     */
+    private final TextBuffer mDistanceText = new TextBuffer();
+
+    /**
+     * Text of the height difference, reused when refreshing.
+     */
+    private final TextBuffer mHeightDifferenceText = new TextBuffer();
+
+    /**
+     * Text of the direction to destination, reused when refreshing.
+     */
+    private final TextBuffer mDirectionText = new TextBuffer();
+
+    /**
+     * Navigation view, pointing to the destination.
+     */
+    private NavigationView mNavigationView;
+
+    /**
+     * Destination name view.
+     */
+    private TextView mDestinationNameView;
+
+    /**
+     * Distance to destination view.
+     */
+    private TextView mDistanceView;
+
+    /**
+     * Direction to destination view.
+     */
+    private TextView mDirectionView;
+
+    /**
+     * Height difference view.
+     */
+    private TextView mHeightDifferenceView;
+
+    /**
+     * Section with the 'to destination' info.
+     */
+    private LinearLayout mToDestinationSection;
+
+    /**
+     * Message view, displayed instead of the 'to destination' info.
+     */
+    private TextView mToDestinationMessageView;
 
     @Override
     protected final void onCreate(final Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_main);
 
-        // add onClicklistener to Destination name text view
-        TextView tvDestinationName
+        // resolve views once, they are used on every refresh
+        mNavigationView
+                = (NavigationView) findViewById(R.id.navigationView_ToDest);
+        mDestinationNameView
                 = (TextView) findViewById(R.id.textView_toDestName);
-        tvDestinationName.setOnClickListener(this);
+        mDistanceView = (TextView) findViewById(R.id.textView_toDestDist);
+        mDirectionView = (TextView) findViewById(R.id.textView_toDestDir);
+        mHeightDifferenceView
+                = (TextView) findViewById(R.id.textView_heightDifference);
+        mToDestinationSection
+                = (LinearLayout) findViewById(R.id.section_toDestination);
+        mToDestinationMessageView
+                = (TextView) findViewById(R.id.textView_toDest_Message);
+
+        // add onClicklistener to Destination name text view
+        mDestinationNameView.setOnClickListener(this);
     }
 
     @Override
     public final boolean onCreateOptionsMenu(final Menu menu) {
         boolean superResult = super.onCreateOptionsMenu(menu);
 
-        DebugLevel debug = new DebugLevel(this);
+        SettingsSnapshot settings
+                = SettingsCache.getInstance(this).getSnapshot();
 
         // don't add details button when debugging is disabled
-        if (debug.checkDebugLevel(DebugLevel.DEBUG_LEVEL_LOW)) {
+        if (settings.checkDebugLevel(DebugLevel.DEBUG_LEVEL_LOW)) {
             // Inflate the menu;
             // this adds items to the action bar if it is present.
             getMenuInflater().inflate(R.menu.main, menu);
@@ -103,12 +169,13 @@ public class MainActivity extends AbstractGetBackGpsActivity
     @Override
     public boolean onPrepareOptionsMenu(final Menu menu) {
         MenuItem miDetails = menu.findItem(R.id.menu_details);
-        DebugLevel debug = new DebugLevel(this);
+        SettingsSnapshot settings
+                = SettingsCache.getInstance(this).getSnapshot();
 
         if (miDetails != null) {
             // hide details button when debugging is disabled
             miDetails.setVisible(
-                    debug.checkDebugLevel(DebugLevel.DEBUG_LEVEL_LOW));
+                    settings.checkDebugLevel(DebugLevel.DEBUG_LEVEL_LOW));
         }
 
         return super.onPrepareOptionsMenu(menu);
@@ -148,27 +215,11 @@ public class MainActivity extends AbstractGetBackGpsActivity
         AriadneLocation destination = navigator.getDestination();
 
         // Refresh Directions to destination
-        NavigationView nvToDestination
-                = (NavigationView) findViewById(R.id.navigationView_ToDest);
-        TextView tvToDestinationName
-                = (TextView) findViewById(R.id.textView_toDestName);
-        TextView tvToDestinationDistance
-                = (TextView) findViewById(R.id.textView_toDestDist);
-        TextView tvToDestinationDirection
-                = (TextView) findViewById(R.id.textView_toDestDir);
-        TextView tvHeightDifference
-                = (TextView) findViewById(R.id.textView_heightDifference);
-
-        LinearLayout sectionToDestination
-                = (LinearLayout) findViewById(R.id.section_toDestination);
-        TextView tvToDestinationMessage
-                = (TextView) findViewById(R.id.textView_toDest_Message);
-
         String toDestinationNameText = res.getString(R.string.notset);
-        String toDestinationDistanceText = res.getString(R.string.unknown);
-        String toDestinationDirectionText = res.getString(R.string.unknown);
         String toDestinationMessage = res.getString(R.string.unknown);
-        String heightDifferenceText = res.getString(R.string.unknown);
+        mDistanceText.reset().append(res.getString(R.string.unknown));
+        mHeightDifferenceText.reset().append(res.getString(R.string.unknown));
+        mDirectionText.reset().append(res.getString(R.string.unknown));
         NavigationView.Mode nvNavigationMode = NavigationView.Mode.Disabled;
         NavigationView.Mode nvOrientationMode = NavigationView.Mode.Disabled;
         Boolean displayToDest = false;
@@ -187,7 +238,7 @@ public class MainActivity extends AbstractGetBackGpsActivity
 
             // if name is not set, use 'location name'
             if (toDestinationNameText == null
-                    || toDestinationDirectionText.length() == 0) {
+                    || toDestinationNameText.length() == 0) {
                 toDestinationNameText = res.getString(R.string.location_name);
             }
 
@@ -210,36 +261,39 @@ public class MainActivity extends AbstractGetBackGpsActivity
             }
 
             if (navigator.isLocationAccurate()) {
+                LocalizedFormatter formatter
+                        = LocalizedFormatter.getInstance(this);
+
                 // Set distance to destination
-                toDestinationDistanceText
-                        = FormatUtils.formatDist(navigator.getDistance(), this);
+                formatter.appendDist(
+                        mDistanceText.reset(), navigator.getDistance());
 
                 // Set height difference
                 if (destination.hasAltitude() &&
                         getService().getLocation().hasAltitude()
                 ) {
-                    heightDifferenceText = FormatUtils.formatHeight(
-                            navigator.getHeightDifference(),
-                            this
-                    );
+                    formatter.appendHeight(mHeightDifferenceText.reset(),
+                            navigator.getHeightDifference());
                 }
 
                 // Set direction to destination
-                CardinalDirection cd = new CardinalDirection(
+                CardinalDirection.appendFormatted(mDirectionText.reset(),
                         this,
                         FormatUtils.normalizeAngle(
                                 navigator.getAbsoluteDirection()));
-                toDestinationDirectionText = cd.format();
 
                 // if bearing is accurate, display relative direction
                 // if not, display absolute direction
                 if (navigator.isBearingAccurate()) {
-                    nvToDestination.setDirection(
+                    mNavigationView.setDirection(
                             navigator.getRelativeDirection());
+                    mNavigationView.setBearingUncertainty(
+                            navigator.getBearingUncertainty());
                     nvNavigationMode = NavigationView.Mode.Accurate;
                 } else {
-                    nvToDestination.setDirection(
+                    mNavigationView.setDirection(
                             navigator.getAbsoluteDirection());
+                    mNavigationView.setBearingUncertainty(0);
                     nvNavigationMode = NavigationView.Mode.Inaccurate;
                 }
             }
@@ -247,34 +301,34 @@ public class MainActivity extends AbstractGetBackGpsActivity
 
         // if orientation is accurate, display compass rose
         if (navigator.isBearingAccurate()) {
-            nvToDestination.setAzimuth(
+            mNavigationView.setAzimuth(
                     navigator.getCurrentBearing());
             nvOrientationMode = NavigationView.Mode.Accurate;
         }
 
         if (displayToDest) {
             // show 'to Destination' info, hide message
-            sectionToDestination.setVisibility(LinearLayout.VISIBLE);
-            tvToDestinationMessage.setVisibility(LinearLayout.INVISIBLE);
+            mToDestinationSection.setVisibility(LinearLayout.VISIBLE);
+            mToDestinationMessageView.setVisibility(LinearLayout.INVISIBLE);
 
             // update views
-            tvToDestinationName.setText(toDestinationNameText);
-            tvToDestinationDistance.setText(toDestinationDistanceText);
-            tvToDestinationDirection.setText(toDestinationDirectionText);
-            tvHeightDifference.setText(heightDifferenceText);
+            mDestinationNameView.setText(toDestinationNameText);
+            mDistanceText.setText(mDistanceView);
+            mDirectionText.setText(mDirectionView);
+            mHeightDifferenceText.setText(mHeightDifferenceView);
         } else {
             // hide 'to Destination' info, show message
-            sectionToDestination.setVisibility(LinearLayout.INVISIBLE);
-            tvToDestinationMessage.setVisibility(LinearLayout.VISIBLE);
+            mToDestinationSection.setVisibility(LinearLayout.INVISIBLE);
+            mToDestinationMessageView.setVisibility(LinearLayout.VISIBLE);
 
             // update views
-            tvToDestinationMessage.setText(toDestinationMessage);
+            mToDestinationMessageView.setText(toDestinationMessage);
         }
 
         // update views
-        nvToDestination.setNavigationMode(nvNavigationMode);
-        nvToDestination.setOrientationMode(nvOrientationMode);
-        nvToDestination.invalidate();
+        mNavigationView.setNavigationMode(nvNavigationMode);
+        mNavigationView.setOrientationMode(nvOrientationMode);
+        mNavigationView.invalidate();
 
         return true;
     }
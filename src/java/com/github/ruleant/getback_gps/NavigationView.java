@@ -28,15 +28,17 @@ import android.content.res.TypedArray;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.RectF;
 import android.os.Build;
 import android.util.AttributeSet;
+import android.view.Choreographer;
 import android.view.ViewGroup;
 import android.widget.ImageView;
 
-import com.github.ruleant.getback_gps.lib.Coordinate;
-import com.github.ruleant.getback_gps.lib.CoordinateRotation;
-import com.github.ruleant.getback_gps.lib.Coordinates;
+import com.github.ruleant.getback_gps.lib.AngleAnimator;
 import com.github.ruleant.getback_gps.lib.FormatUtils;
+import com.github.ruleant.getback_gps.lib.NavigationRenderer;
 
 import de.keyboardsurfer.android.widget.crouton.Style;
 
@@ -77,54 +79,71 @@ public class NavigationView extends ImageView {
     private final Paint mPaintArrowSolidWhite = new Paint();
 
     /**
-     * Arrow indicating direction (lines).
+     * Paint used for drawing the bearing uncertainty wedge.
      */
-    private final Coordinates mArrowLines = new Coordinates();
+    private final Paint mPaintUncertainty = new Paint();
 
     /**
-     * Arrow indicating direction (solid right part).
+     * Bounds of the bearing uncertainty wedge.
      */
-    private final Coordinates mArrowBodyRight = new Coordinates();
+    private final RectF mUncertaintyBounds = new RectF();
 
     /**
-     * Arrow indicating direction (solid left part).
+     * Renders the compass rose and the arrow.
      */
-    private final Coordinates mArrowBodyLeft = new Coordinates();
+    private final NavigationRenderer mRenderer = new NavigationRenderer();
 
     /**
-     * Compass rose.
+     * Sink drawing the renderer commands on a Canvas.
      */
-    private final Coordinates mCompassRose = new Coordinates();
+    private final CanvasSink mCanvasSink = new CanvasSink();
 
     /**
-     * Compass rose solid body.
+     * Direction to destination.
      */
-    private final Coordinates mCompassRoseBody = new Coordinates();
+    private double mDirection = 0;
 
     /**
-     * Compass rose rotation converter.
+     * Direction to azimuth.
      */
-    private CoordinateRotation mRoseRotationConverter;
+    private double mAzimuth = 0;
 
     /**
-     * Arrow indicating direction.
+     * Uncertainty of the direction to destination.
      */
-    private CoordinateRotation mRotationConverter;
+    private double mBearingUncertainty = 0;
 
     /**
-     * Rotation center.
+     * Animates the displayed direction to destination.
      */
-    private Coordinate mRotationCenter;
+    private final AngleAnimator mDirectionAnimator
+            = new AngleAnimator(ANIMATION_TIME_CONSTANT);
 
     /**
-     * Direction to destination.
+     * Animates the displayed azimuth.
      */
-    private double mDirection = 0;
+    private final AngleAnimator mAzimuthAnimator
+            = new AngleAnimator(ANIMATION_TIME_CONSTANT);
 
     /**
-     * Direction to azimuth.
+     * True if a frame is scheduled to animate the arrow or compass rose.
      */
-    private double mAzimuth = 0;
+    private boolean mAnimating = false;
+
+    /**
+     * Frame callback, synchronized with the display (API 16 and up).
+     */
+    private AnimationFrameCallback mFrameCallback;
+
+    /**
+     * Frame callback, using a fixed frame delay (before API 16).
+     */
+    private final Runnable mFrameRunnable = new Runnable() {
+        @Override
+        public void run() {
+            onAnimationFrame(System.nanoTime());
+        }
+    };
 
     /**
      * Navigation mode enum.
@@ -160,44 +179,26 @@ public class NavigationView extends ImageView {
     private int mAttributeLayoutHeight = ViewGroup.LayoutParams.WRAP_CONTENT;
 
     /**
-     * Line thickness.
-     */
-    private static final float LINE_THICKNESS = 1;
-
-    /**
-     * 10 %.
-     */
-    private static final double D_10PCT = 0.1;
-
-    /**
-     * 40 %.
-     */
-    private static final double D_40PCT = 0.4;
-
-    /**
-     * 80 %.
+     * Time constant of the arrow and compass rose animation
+     * (in nanoseconds) : 150 ms.
      */
-    private static final double D_80PCT = 0.8;
+    private static final long ANIMATION_TIME_CONSTANT = 150000000;
 
     /**
-     * Compass rose arm length.
+     * Delay between animation frames, if Choreographer
+     * is not available (in milliseconds).
      */
-    private static final double ROSE_LENGTH = 0.95;
+    private static final long FRAME_DELAY = 16;
 
     /**
-     * Compass rose intersection length.
-     */
-    private static final double ROSE_INTER_LENGTH = 0.25;
-
-    /**
-     * arrow side angle.
+     * Line thickness.
      */
-    private static final double ARROW_ANGLE = 35.0;
+    private static final float LINE_THICKNESS = 1;
 
     /**
-     * Compass rose intersection angle.
+     * Opacity of the bearing uncertainty wedge (0-255).
      */
-    private static final double INTERSECTION_ANGLE = 45.0;
+    private static final int UNCERTAINTY_ALPHA = 64;
 
     /**
      * Constructor.
@@ -248,6 +249,8 @@ public class NavigationView extends ImageView {
      */
     public final void setDirection(final double direction) {
         this.mDirection = FormatUtils.normalizeAngle(direction);
+        mDirectionAnimator.setTarget(mDirection);
+        startAnimation();
     }
 
     /**
@@ -263,6 +266,31 @@ public class NavigationView extends ImageView {
         }
     }
 
+    /**
+     * Sets uncertainty of the direction to destination,
+     * drawn as a wedge around the arrow. 0 disables the wedge.
+     *
+     * @param uncertainty Uncertainty in degrees (0°-180°)
+     */
+    public final void setBearingUncertainty(final double uncertainty) {
+        this.mBearingUncertainty = Math.max(0,
+                Math.min(uncertainty, FormatUtils.CIRCLE_HALF));
+    }
+
+    /**
+     * Get uncertainty of the direction to destination,
+     * return nothing if mode is DISABLED.
+     *
+     * @return Uncertainty in degrees (0°-180°)
+     */
+    public final double getBearingUncertainty() {
+        if (getNavigationMode() == Mode.Disabled) {
+            return 0;
+        } else {
+            return mBearingUncertainty;
+        }
+    }
+
     /**
      * Sets Azimuth.
      *
@@ -270,6 +298,8 @@ public class NavigationView extends ImageView {
      */
     public final void setAzimuth(final double azimuth) {
         this.mAzimuth = FormatUtils.normalizeAngle(-1 * azimuth);
+        mAzimuthAnimator.setTarget(mAzimuth);
+        startAnimation();
     }
 
     /**
@@ -328,6 +358,10 @@ public class NavigationView extends ImageView {
                 }
                 break;
         }
+
+        // uncertainty wedge is a translucent version of the arrow solid
+        mPaintUncertainty.setColor(mPaintSolids.getColor());
+        mPaintUncertainty.setAlpha(UNCERTAINTY_ALPHA);
     }
 
     /**
@@ -385,49 +419,95 @@ public class NavigationView extends ImageView {
             setLayoutParams(layoutParams);
         }
 
-        // Set up rotation converter
-        mRotationCenter.setCartesianCoordinate(getWidth() / 2, getHeight() / 2);
-        double mRoseRotation = getAzimuth();
-        mRoseRotationConverter.setScaleRadius((double) getHeight() / 2);
-        mRotationConverter.setRotationAngle(getDirection());
-        mRotationConverter.setScaleRadius((double) getHeight() / 2);
-        // no need to reassign mRotationCenter to mRotationConverter,
-        // and mRotationConverter to mArrowLines, mArrowBodyLeft/Right,
-        // the instances were assigned in init().
-
-        // draw circle with diameter scaled to length of compass rose arrow
-        canvas.drawCircle(
-                mRotationCenter.getCartesianX(),
-                mRotationCenter.getCartesianY(),
-                ((float) getHeight() / 2) * (float) ROSE_LENGTH,
-                mPaintRoseLines);
+        // calculate geometry if the size of the view changed
+        mRenderer.setSize(getWidth(), getHeight());
+
+        // displayed direction, animating towards getDirection()
+        double direction = 0;
+        if (getNavigationMode() != Mode.Disabled) {
+            direction = mDirectionAnimator.getValue();
+        }
+
+        mCanvasSink.setCanvas(canvas);
+        mRenderer.render(mCanvasSink,
+                direction,
+                mAzimuthAnimator.getValue(),
+                getBearingUncertainty(),
+                getOrientationMode() == Mode.Accurate);
+        mCanvasSink.setCanvas(null);
+    }
+
+    @Override
+    protected final void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+
+        // stop animating, jump to the target angles
+        stopAnimation();
+        mDirectionAnimator.setValue(mDirectionAnimator.getTarget());
+        mAzimuthAnimator.setValue(mAzimuthAnimator.getTarget());
+    }
+
+    /**
+     * Schedules animation frames, if the arrow or compass rose
+     * didn't reach its target angle and no frame is scheduled yet.
+     */
+    private void startAnimation() {
+        if (!mAnimating && (mDirectionAnimator.isRunning()
+                || mAzimuthAnimator.isRunning())) {
+            mAnimating = true;
+            scheduleFrame();
+        }
+    }
+
+    /**
+     * Stops animation, removes scheduled frames.
+     */
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    private void stopAnimation() {
+        mAnimating = false;
+        if (mFrameCallback != null) {
+            mFrameCallback.remove();
+        }
+        removeCallbacks(mFrameRunnable);
+    }
+
+    /**
+     * Schedules the next animation frame,
+     * synchronized with the display if Choreographer is available.
+     */
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    private void scheduleFrame() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            if (mFrameCallback == null) {
+                mFrameCallback = new AnimationFrameCallback();
+            }
+            mFrameCallback.post();
+        } else {
+            postDelayed(mFrameRunnable, FRAME_DELAY);
+        }
+    }
 
-        // draw compass rose
-        if (getOrientationMode() == Mode.Accurate) {
-            mRoseRotationConverter.setRotationAngle(mRoseRotation);
-            canvas.drawPath(mCompassRoseBody.toPath(), mPaintRoseSolidNorth);
-            canvas.drawLines(mCompassRose.toLinesArray(), mPaintRoseLines);
-
-            mRoseRotationConverter.setRotationAngle(
-                    FormatUtils.CIRCLE_1Q + mRoseRotation);
-            canvas.drawPath(mCompassRoseBody.toPath(), mPaintRoseSolids);
-            canvas.drawLines(mCompassRose.toLinesArray(), mPaintRoseLines);
-
-            mRoseRotationConverter.setRotationAngle(
-                    FormatUtils.CIRCLE_HALF + mRoseRotation);
-            canvas.drawPath(mCompassRoseBody.toPath(), mPaintRoseSolids);
-            canvas.drawLines(mCompassRose.toLinesArray(), mPaintRoseLines);
-
-            mRoseRotationConverter.setRotationAngle(
-                    FormatUtils.CIRCLE_3Q + mRoseRotation);
-            canvas.drawPath(mCompassRoseBody.toPath(), mPaintRoseSolids);
-            canvas.drawLines(mCompassRose.toLinesArray(), mPaintRoseLines);
+    /**
+     * Moves the arrow and compass rose towards their target angles,
+     * and schedules a next frame until both are reached.
+     *
+     * @param frameTime Time of the frame (in nanoseconds)
+     */
+    private void onAnimationFrame(final long frameTime) {
+        if (!mAnimating) {
+            return;
         }
 
-        // draw arrow to destination
-        canvas.drawPath(mArrowBodyRight.toPath(), mPaintSolids);
-        canvas.drawPath(mArrowBodyLeft.toPath(), mPaintArrowSolidWhite);
-        canvas.drawLines(mArrowLines.toLinesArray(), mPaintLines);
+        // update both animators
+        boolean running = mDirectionAnimator.update(frameTime);
+        running = mAzimuthAnimator.update(frameTime) || running;
+        invalidate();
+
+        if (running) {
+            scheduleFrame();
+        } else {
+            mAnimating = false;
+        }
     }
 
     /**
@@ -445,11 +525,21 @@ public class NavigationView extends ImageView {
         mPaintRoseLines.setStyle(Paint.Style.STROKE);
         mPaintLines.setStrokeWidth(Math.round(LINE_THICKNESS * scale));
 
+        // draw with sub-pixel precision
+        mPaintRoseLines.setAntiAlias(true);
+        mPaintRoseSolids.setAntiAlias(true);
+        mPaintRoseSolidNorth.setAntiAlias(true);
+        mPaintLines.setAntiAlias(true);
+        mPaintSolids.setAntiAlias(true);
+        mPaintArrowSolidWhite.setAntiAlias(true);
+        mPaintUncertainty.setAntiAlias(true);
+
         // initialise paint color
         mPaintRoseLines.setColor(Color.DKGRAY);
         mPaintRoseSolids.setColor(Color.LTGRAY);
         mPaintRoseSolidNorth.setColor(Color.GRAY);
         mPaintArrowSolidWhite.setColor(Color.WHITE);
+        mPaintUncertainty.setStyle(Paint.Style.FILL);
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.ICE_CREAM_SANDWICH) {
             mPaintLines.setColor(
                     res.getColor(android.R.color.holo_red_dark));
@@ -460,58 +550,157 @@ public class NavigationView extends ImageView {
             mPaintSolids.setColor(Color.RED);
         }
 
-        // initialise rotationConverter
-        mRotationCenter = new Coordinate(0, 0);
-        mRotationConverter = new CoordinateRotation(mRotationCenter, 0.0, 1.0);
-        mRoseRotationConverter
-                = new CoordinateRotation(mRotationCenter, 0.0, 1.0);
-        mCompassRose.setCoordinateConverter(mRoseRotationConverter);
-        mCompassRoseBody.setCoordinateConverter(mRoseRotationConverter);
-        mArrowLines.setCoordinateConverter(mRotationConverter);
-        mArrowBodyRight.setCoordinateConverter(mRotationConverter);
-        mArrowBodyLeft.setCoordinateConverter(mRotationConverter);
-
-        // draw compass rose
-
-        // left side/outline in lines
-        mCompassRose.addCoordinate(ROSE_LENGTH, 0);
-        mCompassRose.addCoordinate(0, 0);
-        mCompassRose.addCoordinate(ROSE_INTER_LENGTH, INTERSECTION_ANGLE);
-        mCompassRose.addCoordinate(ROSE_LENGTH, 0);
-        mCompassRose.addCoordinate(ROSE_INTER_LENGTH, -1 * INTERSECTION_ANGLE);
-        // don't close line
-        mCompassRose.setCloseLine(false);
-
-        // right side filled body
-        mCompassRoseBody.addCoordinate(0, 0);
-        mCompassRoseBody.addCoordinate(ROSE_LENGTH, 0);
-        mCompassRoseBody.addCoordinate(ROSE_INTER_LENGTH,
-                -1 * INTERSECTION_ANGLE);
-
-        // draw arrow
-
-        double arrowLength = D_80PCT;
-        double arrowLengthDivide = -1 * D_10PCT;
-        double arrowLengthTail = -1 * D_40PCT;
-
-        // left side/outline in lines
-        mArrowLines.addCoordinate(arrowLength, 0);
-        mArrowLines.addCoordinate(arrowLengthTail, -1 * ARROW_ANGLE);
-        mArrowLines.addCoordinate(arrowLengthDivide, 0);
-        mArrowLines.addCoordinate(arrowLengthTail, ARROW_ANGLE);
-        mArrowLines.addCoordinate(arrowLength, 0);
-        mArrowLines.addCoordinate(arrowLengthDivide, 0);
-        // don't close line
-        mArrowLines.setCloseLine(false);
-
-        // right side of the filled arrow body
-        mArrowBodyRight.addCoordinate(arrowLength, 0);
-        mArrowBodyRight.addCoordinate(arrowLengthTail, -1 * ARROW_ANGLE);
-        mArrowBodyRight.addCoordinate(arrowLengthDivide, 0);
-
-        // left side of the filled arrow body
-        mArrowBodyLeft.addCoordinate(arrowLength, 0);
-        mArrowBodyLeft.addCoordinate(arrowLengthTail, ARROW_ANGLE);
-        mArrowBodyLeft.addCoordinate(arrowLengthDivide, 0);
+        // map renderer paint ids to paints
+        mCanvasSink.setPaint(NavigationRenderer.PAINT_ROSE_LINES,
+                mPaintRoseLines);
+        mCanvasSink.setPaint(NavigationRenderer.PAINT_ROSE_SOLIDS,
+                mPaintRoseSolids);
+        mCanvasSink.setPaint(NavigationRenderer.PAINT_ROSE_SOLID_NORTH,
+                mPaintRoseSolidNorth);
+        mCanvasSink.setPaint(NavigationRenderer.PAINT_LINES, mPaintLines);
+        mCanvasSink.setPaint(NavigationRenderer.PAINT_SOLIDS, mPaintSolids);
+        mCanvasSink.setPaint(NavigationRenderer.PAINT_ARROW_SOLID_WHITE,
+                mPaintArrowSolidWhite);
+        mCanvasSink.setPaint(NavigationRenderer.PAINT_UNCERTAINTY,
+                mPaintUncertainty);
+    }
+
+    /**
+     * Choreographer frame callback, only used on API 16 and up,
+     * in a separate class so older versions don't load Choreographer.
+     */
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    private final class AnimationFrameCallback
+            implements Choreographer.FrameCallback {
+        @Override
+        public void doFrame(final long frameTimeNanos) {
+            onAnimationFrame(frameTimeNanos);
+        }
+
+        /**
+         * Posts callback for the next frame.
+         */
+        public void post() {
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+
+        /**
+         * Removes posted callback.
+         */
+        public void remove() {
+            Choreographer.getInstance().removeFrameCallback(this);
+        }
+    }
+
+    /**
+     * Draws the commands of the renderer on a Canvas.
+     * Paths of the shapes are cached, until the geometry changes.
+     */
+    private final class CanvasSink implements NavigationRenderer.Sink {
+        /**
+         * Canvas to draw on.
+         */
+        private Canvas mCanvas;
+
+        /**
+         * Paints, by renderer paint id.
+         */
+        private final Paint[] mPaints = new Paint[NavigationRenderer.PAINTS];
+
+        /**
+         * Cached paths, by renderer shape id.
+         */
+        private final Path[] mPaths = new Path[NavigationRenderer.SHAPES];
+
+        /**
+         * Geometry version of each cached path.
+         */
+        private final int[] mPathVersions = new int[NavigationRenderer.SHAPES];
+
+        /**
+         * Constructor.
+         */
+        CanvasSink() {
+            for (int i = 0; i < NavigationRenderer.SHAPES; i++) {
+                mPaths[i] = new Path();
+                mPathVersions[i] = -1;
+            }
+        }
+
+        /**
+         * Sets Canvas to draw on.
+         *
+         * @param canvas Canvas
+         */
+        void setCanvas(final Canvas canvas) {
+            mCanvas = canvas;
+        }
+
+        /**
+         * Sets Paint for a renderer paint id.
+         *
+         * @param id Renderer paint id
+         * @param paint Paint
+         */
+        void setPaint(final int id, final Paint paint) {
+            mPaints[id] = paint;
+        }
+
+        @Override
+        public void drawCircle(final float centerX, final float centerY,
+                               final float radius, final int paint) {
+            mCanvas.drawCircle(centerX, centerY, radius, mPaints[paint]);
+        }
+
+        @Override
+        public void drawWedge(final float centerX, final float centerY,
+                              final float radius, final float startAngle,
+                              final float sweepAngle, final int paint) {
+            mUncertaintyBounds.set(
+                    centerX - radius,
+                    centerY - radius,
+                    centerX + radius,
+                    centerY + radius);
+            mCanvas.drawArc(mUncertaintyBounds, startAngle, sweepAngle,
+                    true, mPaints[paint]);
+        }
+
+        @Override
+        public void drawPolygon(final int shape, final float[] points,
+                                final int count, final int paint) {
+            Path path = mPaths[shape];
+            int version = mRenderer.getGeometryVersion();
+
+            // rebuild path if geometry changed
+            if (mPathVersions[shape] != version) {
+                path.rewind();
+                path.moveTo(points[0], points[1]);
+                for (int i = 1; i < count; i++) {
+                    path.lineTo(points[i * 2], points[i * 2 + 1]);
+                }
+                path.close();
+                mPathVersions[shape] = version;
+            }
+
+            mCanvas.drawPath(path, mPaints[paint]);
+        }
+
+        @Override
+        public void drawLines(final float[] lines, final int count,
+                              final int paint) {
+            mCanvas.drawLines(lines, 0, count, mPaints[paint]);
+        }
+
+        @Override
+        public void rotate(final float angle, final float centerX,
+                           final float centerY) {
+            mCanvas.save();
+            mCanvas.rotate(angle, centerX, centerY);
+        }
+
+        @Override
+        public void restore() {
+            mCanvas.restore();
+        }
     }
 }
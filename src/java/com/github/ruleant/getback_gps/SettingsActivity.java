@@ -107,6 +107,68 @@ public class SettingsActivity extends PreferenceActivity {
      */
     public static final String DEFAULT_PREF_GEO_ORIENTATION_SENSOR = "0";
 
+    /**
+     * Key of preference Coordinate format.
+     */
+    public static final String KEY_PREF_COORDINATE_FORMAT
+            = "coordinate_format";
+
+    /**
+     * Coordinate format value : degrees, minutes and seconds.
+     */
+    public static final int COORDINATE_FORMAT_DMS = 0;
+
+    /**
+     * Coordinate format value : decimal degrees.
+     */
+    public static final int COORDINATE_FORMAT_DECIMAL = 1;
+
+    /**
+     * Coordinate format value : UTM.
+     */
+    public static final int COORDINATE_FORMAT_UTM = 2;
+
+    /**
+     * Coordinate format value : MGRS.
+     */
+    public static final int COORDINATE_FORMAT_MGRS = 3;
+
+    /**
+     * Coordinate format value : Open Location Code (Plus Code).
+     */
+    public static final int COORDINATE_FORMAT_OLC = 4;
+
+    /**
+     * Default value of preference Coordinate format :
+     * degrees, minutes and seconds.
+     */
+    public static final String DEFAULT_PREF_COORDINATE_FORMAT = "0";
+
+    /**
+     * Key of preference Units.
+     */
+    public static final String KEY_PREF_UNITS = "units";
+
+    /**
+     * Units value : metric (m, km, km/h).
+     */
+    public static final int UNITS_METRIC = 0;
+
+    /**
+     * Units value : imperial (ft, mi, mph).
+     */
+    public static final int UNITS_IMPERIAL = 1;
+
+    /**
+     * Units value : nautical (NM, kn, heights in m).
+     */
+    public static final int UNITS_NAUTICAL = 2;
+
+    /**
+     * Default value of preference Units : metric.
+     */
+    public static final String DEFAULT_PREF_UNITS = "0";
+
     /**
      * 60 seconds.
      */
@@ -167,6 +229,9 @@ public class SettingsActivity extends PreferenceActivity {
                 findPreference(KEY_PREF_LOC_UPDATE_TIME));
         bindPreferenceSummaryToValue(
                 findPreference(KEY_PREF_GEO_ORIENTATION_SENSOR));
+        bindPreferenceSummaryToValue(
+                findPreference(KEY_PREF_COORDINATE_FORMAT));
+        bindPreferenceSummaryToValue(findPreference(KEY_PREF_UNITS));
         if (BuildConfig.DEBUG) {
             bindPreferenceSummaryToValue(
                     findPreference(DebugLevel.PREF_DEBUG_LEVEL));
@@ -381,6 +446,9 @@ public class SettingsActivity extends PreferenceActivity {
                     findPreference(KEY_PREF_LOC_UPDATE_TIME));
             bindPreferenceSummaryToValue(
                     findPreference(KEY_PREF_GEO_ORIENTATION_SENSOR));
+            bindPreferenceSummaryToValue(
+                    findPreference(KEY_PREF_COORDINATE_FORMAT));
+            bindPreferenceSummaryToValue(findPreference(KEY_PREF_UNITS));
         }
 
         /**
@@ -23,14 +23,32 @@ package com.github.ruleant.getback_gps.lib;
 
 import android.content.Context;
 
-import com.github.ruleant.getback_gps.R;
-
 /**
  * Abstract class for formatting a geological coordinate.
  *
  * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
  */
 public abstract class AbstractGeoCoordinate {
+    /**
+     * Number of decimals of the seconds in a formatted coordinate.
+     */
+    public static final int SECONDS_DECIMALS = 5;
+
+    /**
+     * Seconds in a degree.
+     */
+    private static final long SECONDS_IN_DEGREE = 3600;
+
+    /**
+     * Seconds in a minute.
+     */
+    private static final long SECONDS_IN_MINUTE = 60;
+
+    /**
+     * Scale of the seconds, 10 to the power of SECONDS_DECIMALS.
+     */
+    private static final long SECONDS_SCALE = 100000;
+
     /**
      * Unformatted coordinate value.
      */
@@ -160,18 +178,75 @@ public abstract class AbstractGeoCoordinate {
      */
     public final String format() {
         try {
-            return String.format("%1$s %2$s", formatValue(), getSegmentUnit());
+            return appendTo(new StringBuilder()).toString();
         } catch (Exception e) {
-            return getContext().getResources().getString(R.string.none);
+            return StringCache.getInstance(getContext())
+                    .get(StringCache.NONE);
         }
     }
 
     /**
-     * Format value.
+     * Appends the formatted coordinate, value and segment unit,
+     * fe. 4° 7' 24.4416" N.
      *
-     * @return formatted value
+     * @param builder StringBuilder to append to
+     * @return builder
      */
-    protected abstract String formatValue();
+    public final StringBuilder appendTo(final StringBuilder builder) {
+        appendValue(builder);
+        builder.append(' ');
+
+        return builder.append(getSegmentUnit());
+    }
+
+    /**
+     * Appends formatted value, in degrees, minutes and seconds.
+     * Subclasses can override this to use another format.
+     *
+     * @param builder StringBuilder to append to
+     * @return builder
+     */
+    protected StringBuilder appendValue(final StringBuilder builder) {
+        return appendDms(builder, getConvertedValue());
+    }
+
+    /**
+     * Appends an angle in degrees, minutes and seconds,
+     * fe. 4° 7' 24.4416".
+     *
+     * The angle is rounded to SECONDS_DECIMALS decimals of a second,
+     * before it is split, so rounding carries over to minutes and degrees,
+     * fe. 59.999999" is formatted as 1' 0".
+     * Trailing zeros of the seconds are left out.
+     *
+     * @param builder StringBuilder to append to
+     * @param angle angle in degrees
+     * @return builder
+     */
+    public static StringBuilder appendDms(final StringBuilder builder,
+                                          final double angle) {
+        LocalizedFormatter formatter = LocalizedFormatter.getInstance();
+
+        if (angle < 0) {
+            builder.append('-');
+        }
+
+        // angle in units of the last decimal of a second
+        long units = Math.round(
+                Math.abs(angle) * SECONDS_IN_DEGREE * SECONDS_SCALE);
+        long seconds = units / SECONDS_SCALE;
+
+        formatter.appendLong(builder, seconds / SECONDS_IN_DEGREE, false);
+        builder.append("° ");
+        formatter.appendLong(builder,
+                seconds % SECONDS_IN_DEGREE / SECONDS_IN_MINUTE, false);
+        builder.append("' ");
+        formatter.appendLong(builder, seconds % SECONDS_IN_MINUTE, false);
+        formatter.appendFraction(
+                builder, units % SECONDS_SCALE, SECONDS_DECIMALS);
+
+        return builder.append('"');
+    }
 
     /**
      * Determine value segment.
@@ -0,0 +1,155 @@
+/**
+ * Animates an angle along the shortest arc.
+ *
+ * Copyright (C) 2015 Dieter Adriaenssens
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * @package com.github.ruleant.getback_gps.lib
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+package com.github.ruleant.getback_gps.lib;
+
+/**
+ * Animates an angle towards a target angle, fe. the direction of an arrow,
+ * along the shortest arc.
+ *
+ * Every frame, the angle moves a part of the remaining arc,
+ * depending on the time since the previous frame, so the motion
+ * doesn't depend on the frame rate. When the angle is close enough
+ * to the target, it is set to the target and the animation stops.
+ *
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+public class AngleAnimator {
+    /**
+     * Remaining arc (in degrees) at which the target is reached.
+     */
+    public static final double PRECISION = 0.1;
+
+    /**
+     * Time constant of the animation (in nanoseconds).
+     */
+    private final long mTimeConstant;
+
+    /**
+     * Displayed angle.
+     */
+    private double mValue = 0;
+
+    /**
+     * Target angle.
+     */
+    private double mTarget = 0;
+
+    /**
+     * Time of the previous frame (in nanoseconds), 0 if not running.
+     */
+    private long mFrameTime = 0;
+
+    /**
+     * Constructor.
+     *
+     * @param timeConstant Time constant of the animation (in nanoseconds),
+     *                     after this time 63% of the arc is done.
+     * @throws IllegalArgumentException if timeConstant is not positive
+     */
+    public AngleAnimator(final long timeConstant) {
+        if (timeConstant <= 0) {
+            throw new IllegalArgumentException(
+                    "parameter timeConstant should be positive");
+        }
+
+        mTimeConstant = timeConstant;
+    }
+
+    /**
+     * Sets target angle, the displayed angle animates towards it.
+     *
+     * @param target Target angle in degrees
+     */
+    public final void setTarget(final double target) {
+        mTarget = FormatUtils.normalizeAngle(target);
+    }
+
+    /**
+     * Gets target angle.
+     *
+     * @return target angle in degrees (0°-360°)
+     */
+    public final double getTarget() {
+        return mTarget;
+    }
+
+    /**
+     * Sets displayed and target angle, without animating.
+     *
+     * @param value Angle in degrees
+     */
+    public final void setValue(final double value) {
+        setTarget(value);
+        mValue = mTarget;
+        mFrameTime = 0;
+    }
+
+    /**
+     * Gets displayed angle.
+     *
+     * @return displayed angle in degrees (0°-360°)
+     */
+    public final double getValue() {
+        return mValue;
+    }
+
+    /**
+     * Checks if the displayed angle hasn't reached the target angle.
+     *
+     * @return true if the animation is running
+     */
+    public final boolean isRunning() {
+        return Math.abs(FormatUtils.getAngleDifference(mValue, mTarget))
+                >= PRECISION;
+    }
+
+    /**
+     * Moves the displayed angle towards the target angle.
+     *
+     * @param frameTime Time of the frame (in nanoseconds),
+     *                  fe. from Choreographer or System.nanoTime()
+     * @return true if the animation is still running,
+     * and a next frame is needed
+     */
+    public final boolean update(final long frameTime) {
+        double difference = FormatUtils.getAngleDifference(mValue, mTarget);
+
+        if (Math.abs(difference) < PRECISION) {
+            mValue = mTarget;
+            mFrameTime = 0;
+            return false;
+        }
+
+        // first frame of the animation, the next frame moves the angle
+        if (mFrameTime == 0) {
+            mFrameTime = frameTime;
+            return true;
+        }
+
+        float alpha = LowPassFilter.getAlpha(
+                frameTime - mFrameTime, mTimeConstant);
+        mFrameTime = frameTime;
+        mValue = FormatUtils.normalizeAngle(mValue + alpha * difference);
+
+        return true;
+    }
+}
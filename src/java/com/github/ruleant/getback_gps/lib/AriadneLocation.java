@@ -23,20 +23,25 @@ package com.github.ruleant.getback_gps.lib;
 
 import android.annotation.TargetApi;
 import android.content.Context;
-import android.content.res.Resources;
 import android.location.Location;
 import android.os.Build;
 
-import com.github.ruleant.getback_gps.R;
+import com.github.ruleant.getback_gps.SettingsActivity;
 
 import java.text.DateFormat;
-import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.Locale;
 
 /**
  * Custom Ariadne Location object, it inherits from Location class,
  * but overrides the getString() method.
  *
+ * The formatted text of a location is cached, it is built again
+ * when the name, the settings, the locale or the recent state changed.
+ * A location is considered to be unchanged after it is formatted,
+ * changes made with the setters of Location are not detected.
+ * The formatted text is used on the UI thread.
+ *
  * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
  */
 public class AriadneLocation extends Location {
@@ -46,11 +51,73 @@ public class AriadneLocation extends Location {
      */
     private static final long LOC_EXPIRE = 300000;
 
+    /**
+     * Recent state : recent message isn't displayed.
+     */
+    private static final int RECENT_HIDDEN = 0;
+
+    /**
+     * Recent state : location recently updated.
+     */
+    private static final int RECENT = 1;
+
+    /**
+     * Recent state : location not recently updated.
+     */
+    private static final int NOT_RECENT = 2;
+
+    /**
+     * Date, reused when formatting a timestamp.
+     */
+    private static final Date DATE = new Date();
+
+    /**
+     * Date formatter shared by all locations.
+     */
+    private static DateFormat sDateFormat = null;
+
+    /**
+     * Locale of the shared date formatter.
+     */
+    private static Locale sDateFormatLocale = null;
+
+    /**
+     * Position formatter shared by all locations,
+     * its UTM coordinate is reused for every conversion.
+     */
+    private static final PositionFormatter POSITION_FORMATTER
+            = new PositionFormatter();
+
     /**
      * Location name.
      */
     private String mName = null;
 
+    /**
+     * Cached formatted text, null if it isn't formatted yet.
+     */
+    private String mFormattedText = null;
+
+    /**
+     * Settings used to format the cached text.
+     */
+    private SettingsSnapshot mFormattedSettings = null;
+
+    /**
+     * Strings used to format the cached text.
+     */
+    private StringCache mFormattedStrings = null;
+
+    /**
+     * Number formatter used to format the cached text.
+     */
+    private LocalizedFormatter mFormattedFormatter = null;
+
+    /**
+     * Recent state of the cached text, fe. RECENT.
+     */
+    private int mFormattedRecent = RECENT_HIDDEN;
+
     /**
      * Constructor.
      *
@@ -87,6 +154,7 @@ public class AriadneLocation extends Location {
      */
     public final void setName(final String name) {
         mName = name;
+        mFormattedText = null;
     }
 
     /**
@@ -116,91 +184,185 @@ public class AriadneLocation extends Location {
 
     /**
      * Returns a formatted String representing the object.
+     * The text is cached, the same text is returned when nothing changed
+     * since it was formatted.
      *
      * @param context Context of the App
      * @return formatted string
      */
     public final String toFormattedString(final Context context) {
-        Resources res = context.getResources();
-        DebugLevel debug = new DebugLevel(context);
+        StringCache strings = StringCache.getInstance(context);
+        SettingsSnapshot settings
+                = SettingsCache.getInstance(context).getSnapshot();
+        LocalizedFormatter formatter = LocalizedFormatter.getInstance(context);
+        int recent = getRecentState(settings);
 
-        String locationText = "";
+        if (mFormattedText == null || settings != mFormattedSettings
+                || strings != mFormattedStrings
+                || formatter != mFormattedFormatter
+                || recent != mFormattedRecent) {
+            mFormattedText = format(context, strings, settings, formatter,
+                    recent);
+            mFormattedSettings = settings;
+            mFormattedStrings = strings;
+            mFormattedFormatter = formatter;
+            mFormattedRecent = recent;
+        }
+
+        return mFormattedText;
+    }
+
+    /**
+     * Formats the location, the sections are only formatted
+     * if they are displayed.
+     *
+     * @param context Context of the App
+     * @param strings Localized strings
+     * @param settings App settings
+     * @param formatter Number formatter
+     * @param recent Recent state, fe. RECENT
+     * @return formatted string
+     */
+    private String format(final Context context, final StringCache strings,
+                          final SettingsSnapshot settings,
+                          final LocalizedFormatter formatter,
+                          final int recent) {
+        StringBuilder builder = new StringBuilder();
 
         // Location name
         String locationName = getName();
         if (locationName != null && locationName.length() > 0) {
-            locationText += " " + res.getString(R.string.name)
-                    + ": " + locationName + "\n";
+            appendLabel(builder, strings.get(StringCache.NAME))
+                    .append(locationName).append('\n');
         }
 
-        // Format location
-        Latitude latitude = new Latitude(context, getLatitude());
-        locationText += " "
-                + res.getString(R.string.latitude) + ": " + latitude.format();
-
-        Longitude longitude = new Longitude(context, getLongitude());
-        locationText += "\n "
-                + res.getString(R.string.longitude) + ": " + longitude.format();
+        // Format location, in the selected coordinate format
+        int coordinateFormat = settings.getCoordinateFormat();
+        if (coordinateFormat == SettingsActivity.COORDINATE_FORMAT_DMS) {
+            appendLabel(builder, strings.get(StringCache.LATITUDE));
+            Latitude.appendFormatted(builder, context, getLatitude());
+            appendLabel(builder, strings.get(StringCache.LONGITUDE));
+            Longitude.appendFormatted(builder, context, getLongitude());
+        } else if (coordinateFormat
+                == SettingsActivity.COORDINATE_FORMAT_DECIMAL) {
+            appendLabel(builder, strings.get(StringCache.LATITUDE));
+            PositionFormatter.appendDecimalDegrees(
+                    builder, context, getLatitude());
+            appendLabel(builder, strings.get(StringCache.LONGITUDE));
+            PositionFormatter.appendDecimalDegrees(
+                    builder, context, getLongitude());
+        } else {
+            appendLabel(builder, strings.get(
+                    PositionFormatter.getLabel(coordinateFormat)));
+            synchronized (POSITION_FORMATTER) {
+                POSITION_FORMATTER.append(builder, context,
+                        coordinateFormat, getLatitude(), getLongitude());
+            }
+        }
 
         if (hasAltitude()) {
-            locationText += "\n "
-                    + res.getString(R.string.altitude) + ": "
-                    + FormatUtils.formatHeight(getAltitude(), context);
+            appendLabel(builder, strings.get(StringCache.ALTITUDE));
+            formatter.appendHeight(builder, getAltitude());
         }
         if (hasBearing()) {
-            CardinalDirection cd = new CardinalDirection(context, getBearing());
-
-            locationText += "\n "
-                    + res.getString(R.string.bearing) + ": "
-                    + cd.format();
+            appendLabel(builder, strings.get(StringCache.BEARING));
+            CardinalDirection.appendFormatted(builder, context, getBearing());
         }
         if (hasSpeed()) {
-            locationText += "\n "
-                    + res.getString(R.string.speed) + ": "
-                    + FormatUtils.formatSpeed(getSpeed(), context);
+            appendLabel(builder, strings.get(StringCache.SPEED));
+            formatter.appendSpeed(builder, getSpeed());
         }
         if (hasAccuracy()) {
-            locationText += "\n "
-                    + res.getString(R.string.accuracy) + ": "
-                    + FormatUtils.formatDist(getAccuracy(), context);
+            appendLabel(builder, strings.get(StringCache.ACCURACY));
+            formatter.appendDist(builder, getAccuracy());
         }
 
         // Location provider
         String providerName = getProvider();
         if (providerName != null && providerName.length() > 0) {
-            locationText += "\n "
-                    + res.getString(R.string.provider) + ": "
-                    + FormatUtils.localizeProviderName(context, providerName);
+            appendLabel(builder, strings.get(StringCache.PROVIDER))
+                    .append(FormatUtils.localizeProviderName(
+                            context, providerName));
         }
 
         // Format Timestamp
         if (getTime() > 0) {
-            Date date = new Date(getTime());
-            DateFormat formatter
-                    = SimpleDateFormat.getDateTimeInstance();
-            locationText += "\n "
-                    + res.getString(R.string.timestamp) + ": "
-                    + formatter.format(date);
+            appendLabel(builder, strings.get(StringCache.TIMESTAMP))
+                    .append(formatTimestamp(getTime()));
 
             // display "recent" message
-            if (debug.checkDebugLevel(DebugLevel.DEBUG_LEVEL_MEDIUM)) {
-                if (isRecent()) {
-                    locationText += "\n "
-                            + res.getString(R.string.loc_updated_recent);
-                } else {
-                    locationText += "\n "
-                            + res.getString(R.string.loc_updated_not_recent);
-                }
+            if (recent == RECENT) {
+                builder.append("\n ")
+                        .append(strings.get(StringCache.LOC_UPDATED_RECENT));
+            } else if (recent == NOT_RECENT) {
+                builder.append("\n ").append(
+                        strings.get(StringCache.LOC_UPDATED_NOT_RECENT));
             }
         }
 
         // Display raw when in debug mode
-        if (debug.checkDebugLevel(DebugLevel.DEBUG_LEVEL_HIGH)) {
-            locationText += "\n\n "
-                    + res.getString(R.string.raw) + ": "
-                    + toString();
+        if (settings.checkDebugLevel(DebugLevel.DEBUG_LEVEL_HIGH)) {
+            builder.append("\n\n ").append(strings.get(StringCache.RAW))
+                    .append(": ").append(toString());
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * Gets recent state of the location,
+     * the state is only checked if it is displayed.
+     *
+     * @param settings App settings
+     * @return recent state, fe. RECENT_HIDDEN
+     */
+    private int getRecentState(final SettingsSnapshot settings) {
+        if (getTime() <= 0
+                || !settings.checkDebugLevel(DebugLevel.DEBUG_LEVEL_MEDIUM)) {
+            return RECENT_HIDDEN;
+        }
+
+        if (isRecent()) {
+            return RECENT;
+        } else {
+            return NOT_RECENT;
+        }
+    }
+
+    /**
+     * Appends a label, on a new line if the text isn't empty.
+     *
+     * @param builder StringBuilder to append to
+     * @param label Localized label
+     * @return builder
+     */
+    private static StringBuilder appendLabel(final StringBuilder builder,
+                                             final String label) {
+        int length = builder.length();
+        if (length > 0 && builder.charAt(length - 1) != '\n') {
+            builder.append('\n');
+        }
+
+        return builder.append(' ').append(label).append(": ");
+    }
+
+    /**
+     * Formats a timestamp, with a date formatter shared by all locations.
+     * The formatter is created again when the default locale changes.
+     *
+     * @param time Timestamp in milliseconds
+     * @return formatted date and time
+     */
+    private static synchronized String formatTimestamp(final long time) {
+        Locale locale = Locale.getDefault();
+
+        if (sDateFormat == null || !locale.equals(sDateFormatLocale)) {
+            sDateFormat = DateFormat.getDateTimeInstance(
+                    DateFormat.DEFAULT, DateFormat.DEFAULT, locale);
+            sDateFormatLocale = locale;
         }
 
-        return locationText;
+        DATE.setTime(time);
+        return sDateFormat.format(DATE);
     }
 }
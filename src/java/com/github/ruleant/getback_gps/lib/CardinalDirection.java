@@ -23,8 +23,6 @@ package com.github.ruleant.getback_gps.lib;
 
 import android.content.Context;
 
-import com.github.ruleant.getback_gps.R;
-
 /**
  * Class for formatting cardinal direction.
  *
@@ -138,6 +136,15 @@ public class CardinalDirection extends AbstractGeoCoordinate {
         setRange(SEGMENT_NE_LOW, SEGMENT_NW_HIGH);
     }
 
+    /**
+     * Determine value segment.
+     *
+     * @return segment code
+     */
+    public final int getSegment() {
+        return getSegment(getValue());
+    }
+
     /**
      * Determine segment :
      * Northeast (SEGMENT_NORTHEAST) if angle is in range 0..90,
@@ -145,10 +152,10 @@ public class CardinalDirection extends AbstractGeoCoordinate {
      * Southwest (SEGMENT_SOUTHWEST) if angle is in range 180..270,
      * Northwest (SEGMENT_NORTHWEST) if angle is in range 270..360.
      *
+     * @param coordinate Coordinate value
      * @return segment code.
      */
-    public final int getSegment() {
-        double coordinate = getValue();
+    public static int getSegment(final double coordinate) {
         int retVal = 0;
 
         if (coordinate <= SEGMENT_NE_HIGH && coordinate >= SEGMENT_NE_LOW) {
@@ -173,17 +180,28 @@ public class CardinalDirection extends AbstractGeoCoordinate {
      * @return unit
      */
     public final String getSegmentUnit() {
+        return getSegmentUnit(getContext(), getSegment());
+    }
+
+    /**
+     * Get segment unit.
+     *
+     * @param context App Context, null to use untranslated units
+     * @param segment Segment code
+     * @return unit
+     */
+    public static String getSegmentUnit(final Context context,
+                                        final int segment) {
         String unit = null;
-        Context context = getContext();
 
-        switch (getSegment()) {
+        switch (segment) {
             case SEGMENT_NORTHEAST :
                 // if context is defined, use android string
                 if (context == null) {
                     unit = SEGMENT_NE_UNIT;
                 } else {
-                    unit = context.getResources()
-                            .getString(R.string.northeast_unit);
+                    unit = StringCache.getInstance(context)
+                            .get(StringCache.NORTHEAST_UNIT);
                 }
                 break;
             case SEGMENT_SOUTHEAST :
@@ -191,8 +209,8 @@ public class CardinalDirection extends AbstractGeoCoordinate {
                 if (context == null) {
                     unit = SEGMENT_SE_UNIT;
                 } else {
-                    unit = context.getResources()
-                            .getString(R.string.southeast_unit);
+                    unit = StringCache.getInstance(context)
+                            .get(StringCache.SOUTHEAST_UNIT);
                 }
                 break;
             case SEGMENT_SOUTHWEST :
@@ -200,8 +218,8 @@ public class CardinalDirection extends AbstractGeoCoordinate {
                 if (context == null) {
                     unit = SEGMENT_SW_UNIT;
                 } else {
-                    unit = context.getResources()
-                            .getString(R.string.southwest_unit);
+                    unit = StringCache.getInstance(context)
+                            .get(StringCache.SOUTHWEST_UNIT);
                 }
                 break;
             case SEGMENT_NORTHWEST :
@@ -209,8 +227,8 @@ public class CardinalDirection extends AbstractGeoCoordinate {
                 if (context == null) {
                     unit = SEGMENT_NW_UNIT;
                 } else {
-                    unit = context.getResources()
-                            .getString(R.string.northwest_unit);
+                    unit = StringCache.getInstance(context)
+                            .get(StringCache.NORTHWEST_UNIT);
                 }
                 break;
             default:
@@ -229,11 +247,42 @@ public class CardinalDirection extends AbstractGeoCoordinate {
     }
 
     /**
-     * Format value.
+     * Appends formatted value, as an angle without decimals.
      *
-     * @return formatted value
+     * @param builder StringBuilder to append to
+     * @return builder
      */
-    protected final String formatValue() {
-        return FormatUtils.formatAngle(getConvertedValue(), 0);
+    @Override
+    protected final StringBuilder appendValue(final StringBuilder builder) {
+        return LocalizedFormatter.getInstance()
+                .appendAngle(builder, getConvertedValue(), 0);
+    }
+
+    /**
+     * Appends a formatted direction, fe. 45° NE,
+     * without creating an instance.
+     * It uses the shared LocalizedFormatter, which isn't thread safe,
+     * so it should only be called on the UI thread.
+     *
+     * @param builder StringBuilder to append to
+     * @param context App Context, null to use untranslated units
+     * @param coordinate Coordinate value (0°-360°)
+     * @return builder
+     * @throws IllegalArgumentException if coordinate is out of range
+     */
+    public static StringBuilder appendFormatted(final StringBuilder builder,
+                                                final Context context,
+                                                final double coordinate) {
+        int segment = getSegment(coordinate);
+        if (segment == 0) {
+            throw new IllegalArgumentException(
+                    "parameter coordinate is not in range "
+                            + SEGMENT_NE_LOW + " .. " + SEGMENT_NW_HIGH);
+        }
+
+        LocalizedFormatter.getInstance().appendAngle(builder, coordinate, 0);
+        builder.append(' ');
+
+        return builder.append(getSegmentUnit(context, segment));
     }
 }
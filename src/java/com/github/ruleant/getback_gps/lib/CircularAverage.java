@@ -79,4 +79,21 @@ public class CircularAverage {
         return (float) FormatUtils.normalizeAngle(
                 LowPassFilter.filterValue(lPreviousValue, lNewValue, alpha));
     }
+
+    /**
+     * Calculates the average value of a circular range, with an alpha value
+     * derived from the time elapsed since the previous value.
+     *
+     * @param previousValue previous value
+     * @param newValue      new value
+     * @param elapsedTime   Time since previous value (in nanoseconds)
+     * @param timeConstant  Time constant of the filter (in nanoseconds)
+     * @return average value
+     */
+    public static float getAverageValue(
+            final float previousValue, final float newValue,
+            final long elapsedTime, final long timeConstant) {
+        return getAverageValue(previousValue, newValue,
+                LowPassFilter.getAlpha(elapsedTime, timeConstant));
+    }
 }
@@ -0,0 +1,274 @@
+/**
+ * Exponential filter for angles with preallocated state.
+ *
+ * Copyright (C) 2015 Dieter Adriaenssens
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * @package com.github.ruleant.getback_gps.lib
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+package com.github.ruleant.getback_gps.lib;
+
+/**
+ * Exponential filter for angles, fe. a bearing.
+ *
+ * The angles are filtered as unit vectors (sine and cosine),
+ * so crossing 0°/360° needs no special handling.
+ * The filtered angle is the direction of the filtered vector.
+ *
+ * A block of angles is filtered in passes : converting all angles
+ * to vectors, filtering the sines, filtering the cosines,
+ * and converting all filtered vectors to angles.
+ * The vectors are kept in arrays owned by the filter,
+ * they are only allocated when a larger block is filtered.
+ *
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+public class CircularMeanFilter {
+    /**
+     * Filtered sine of the angle.
+     */
+    private double mSin = 0;
+
+    /**
+     * Filtered cosine of the angle.
+     */
+    private double mCos = 0;
+
+    /**
+     * Sines of the angles of a block.
+     */
+    private double[] mBlockSin = new double[0];
+
+    /**
+     * Cosines of the angles of a block.
+     */
+    private double[] mBlockCos = new double[0];
+
+    /**
+     * True if the filter state is set by a first sample.
+     */
+    private boolean mInitialized = false;
+
+    /**
+     * Alpha value of the filter.
+     */
+    private double mAlpha;
+
+    /**
+     * Constructor.
+     *
+     * @param alpha Alpha value of the filter (valid range : 0-1)
+     * @throws IllegalArgumentException if alpha is out of range
+     */
+    public CircularMeanFilter(final double alpha) {
+        setAlpha(alpha);
+    }
+
+    /**
+     * Sets alpha value, 1 means no filtering,
+     * a smaller value filters more.
+     *
+     * @param alpha Alpha value of the filter (valid range : 0-1)
+     * @throws IllegalArgumentException if alpha is out of range
+     */
+    public final void setAlpha(final double alpha) {
+        if (alpha > 1 || alpha < 0) {
+            throw new IllegalArgumentException(
+                    "parameter alpha is not in range 0.0 .. 1.0");
+        }
+
+        mAlpha = alpha;
+    }
+
+    /**
+     * Gets alpha value.
+     *
+     * @return alpha value
+     */
+    public final double getAlpha() {
+        return mAlpha;
+    }
+
+    /**
+     * Resets filter, the next sample sets the filter state.
+     */
+    public final void reset() {
+        mInitialized = false;
+    }
+
+    /**
+     * Filters an angle.
+     *
+     * @param angle New angle in degrees
+     * @return filtered angle in degrees (0°-360°)
+     */
+    public final double filter(final double angle) {
+        double radians = Math.toRadians(angle);
+        double sin = Math.sin(radians);
+        double cos = Math.cos(radians);
+
+        if (mInitialized) {
+            mSin += mAlpha * (sin - mSin);
+            mCos += mAlpha * (cos - mCos);
+        } else {
+            mSin = sin;
+            mCos = cos;
+            mInitialized = true;
+        }
+
+        return getMean();
+    }
+
+    /**
+     * Filters a block of float angles.
+     *
+     * @param src Source angles in degrees
+     * @param dst Array to write the filtered angles to,
+     *            can be the same array as src
+     * @param samples Number of samples
+     */
+    public final void filter(final float[] src, final float[] dst,
+                             final int samples) {
+        if (samples <= 0) {
+            return;
+        }
+        prepareBlock(samples);
+        final double[] sin = mBlockSin;
+        final double[] cos = mBlockCos;
+
+        for (int i = 0; i < samples; i++) {
+            double radians = Math.toRadians(src[i]);
+            sin[i] = Math.sin(radians);
+            cos[i] = Math.cos(radians);
+        }
+
+        filterBlock(samples);
+
+        for (int i = 0; i < samples; i++) {
+            dst[i] = (float) toAngle(sin[i], cos[i]);
+        }
+    }
+
+    /**
+     * Filters a block of double angles.
+     *
+     * @param src Source angles in degrees
+     * @param dst Array to write the filtered angles to,
+     *            can be the same array as src
+     * @param samples Number of samples
+     */
+    public final void filter(final double[] src, final double[] dst,
+                             final int samples) {
+        if (samples <= 0) {
+            return;
+        }
+        prepareBlock(samples);
+        final double[] sin = mBlockSin;
+        final double[] cos = mBlockCos;
+
+        for (int i = 0; i < samples; i++) {
+            double radians = Math.toRadians(src[i]);
+            sin[i] = Math.sin(radians);
+            cos[i] = Math.cos(radians);
+        }
+
+        filterBlock(samples);
+
+        for (int i = 0; i < samples; i++) {
+            dst[i] = toAngle(sin[i], cos[i]);
+        }
+    }
+
+    /**
+     * Makes sure the vector arrays can hold a block.
+     *
+     * @param samples Number of samples
+     */
+    private void prepareBlock(final int samples) {
+        if (mBlockSin.length < samples) {
+            mBlockSin = new double[samples];
+            mBlockCos = new double[samples];
+        }
+    }
+
+    /**
+     * Filters the vectors of a block, the sines and the cosines
+     * in separate passes, replacing them with the filtered values.
+     *
+     * @param samples Number of samples
+     */
+    private void filterBlock(final int samples) {
+        final double[] sin = mBlockSin;
+        final double[] cos = mBlockCos;
+        final double alpha = mAlpha;
+
+        if (!mInitialized) {
+            mSin = sin[0];
+            mCos = cos[0];
+            mInitialized = true;
+        }
+
+        double value = mSin;
+        for (int i = 0; i < samples; i++) {
+            value += alpha * (sin[i] - value);
+            sin[i] = value;
+        }
+        mSin = value;
+
+        value = mCos;
+        for (int i = 0; i < samples; i++) {
+            value += alpha * (cos[i] - value);
+            cos[i] = value;
+        }
+        mCos = value;
+    }
+
+    /**
+     * Converts a vector to an angle.
+     *
+     * @param sin Sine of the angle
+     * @param cos Cosine of the angle
+     * @return angle in degrees (0°-360°)
+     */
+    private static double toAngle(final double sin, final double cos) {
+        double angle = Math.toDegrees(Math.atan2(sin, cos));
+        if (angle < 0) {
+            angle += FormatUtils.CIRCLE_FULL;
+        }
+
+        return angle;
+    }
+
+    /**
+     * Gets filtered angle.
+     *
+     * @return filtered angle in degrees (0°-360°)
+     */
+    public final double getMean() {
+        return toAngle(mSin, mCos);
+    }
+
+    /**
+     * Gets length of the filtered vector, a measure of the spread
+     * of the filtered angles : 1 if all angles are equal,
+     * close to 0 if they are spread evenly.
+     *
+     * @return length of the filtered vector (0-1)
+     */
+    public final double getResultantLength() {
+        return Math.sqrt(mSin * mSin + mCos * mCos);
+    }
+}
@@ -0,0 +1,203 @@
+/**
+ * Windowed circular mean and variance of angles.
+ *
+ * Copyright (C) 2015 Dieter Adriaenssens
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * @package com.github.ruleant.getback_gps.lib
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+package com.github.ruleant.getback_gps.lib;
+
+/**
+ * Circular mean and variance of the most recent angles, fe. bearings.
+ *
+ * The sine and cosine of the angles in the window are kept in a ring buffer,
+ * with their sums. Adding an angle replaces the oldest one in the sums,
+ * so each sample costs a fixed number of operations.
+ * The sums are recalculated once per window, to prevent rounding errors
+ * from accumulating.
+ *
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+public class CircularStatistics {
+    /**
+     * Sine of the angles in the window.
+     */
+    private final double[] mSin;
+
+    /**
+     * Cosine of the angles in the window.
+     */
+    private final double[] mCos;
+
+    /**
+     * Sum of the sines in the window.
+     */
+    private double mSinSum = 0;
+
+    /**
+     * Sum of the cosines in the window.
+     */
+    private double mCosSum = 0;
+
+    /**
+     * Number of angles in the window.
+     */
+    private int mCount = 0;
+
+    /**
+     * Index where the next angle is stored.
+     */
+    private int mIndex = 0;
+
+    /**
+     * Constructor.
+     *
+     * @param windowSize Number of angles the statistics are calculated of
+     * @throws IllegalArgumentException if windowSize is smaller than 1
+     */
+    public CircularStatistics(final int windowSize) {
+        if (windowSize < 1) {
+            throw new IllegalArgumentException(
+                    "parameter windowSize should be at least 1");
+        }
+
+        mSin = new double[windowSize];
+        mCos = new double[windowSize];
+    }
+
+    /**
+     * Removes all angles from the window.
+     */
+    public final void reset() {
+        mSinSum = 0;
+        mCosSum = 0;
+        mCount = 0;
+        mIndex = 0;
+    }
+
+    /**
+     * Adds an angle, replacing the oldest angle if the window is full.
+     *
+     * @param angle Angle in degrees
+     */
+    public final void add(final double angle) {
+        double radians = Math.toRadians(angle);
+        double sin = Math.sin(radians);
+        double cos = Math.cos(radians);
+
+        if (mCount < mSin.length) {
+            mCount++;
+        } else {
+            mSinSum -= mSin[mIndex];
+            mCosSum -= mCos[mIndex];
+        }
+
+        mSin[mIndex] = sin;
+        mCos[mIndex] = cos;
+        mSinSum += sin;
+        mCosSum += cos;
+
+        mIndex++;
+        if (mIndex == mSin.length) {
+            mIndex = 0;
+            recalculateSums();
+        }
+    }
+
+    /**
+     * Gets number of angles in the window.
+     *
+     * @return number of angles
+     */
+    public final int getCount() {
+        return mCount;
+    }
+
+    /**
+     * Gets circular mean of the angles in the window.
+     *
+     * @return mean angle in degrees (0°-360°), 0 if the window is empty
+     */
+    public final double getMean() {
+        if (mCount == 0) {
+            return 0;
+        }
+
+        return FormatUtils.normalizeAngle(
+                Math.toDegrees(Math.atan2(mSinSum, mCosSum)));
+    }
+
+    /**
+     * Gets mean resultant length of the angles in the window :
+     * 1 if all angles are equal, close to 0 if they are spread evenly.
+     *
+     * @return mean resultant length (0-1), 0 if the window is empty
+     */
+    public final double getResultantLength() {
+        if (mCount == 0) {
+            return 0;
+        }
+
+        double length = Math.sqrt(mSinSum * mSinSum + mCosSum * mCosSum)
+                / mCount;
+
+        // prevent rounding errors exceeding 1
+        return Math.min(length, 1);
+    }
+
+    /**
+     * Gets circular variance of the angles in the window.
+     *
+     * @return circular variance (0-1), 1 if the window is empty
+     */
+    public final double getVariance() {
+        return 1 - getResultantLength();
+    }
+
+    /**
+     * Gets angular uncertainty, the circular standard deviation
+     * of the angles in the window.
+     *
+     * @return uncertainty in degrees (0°-180°),
+     * 180° if the window is empty or the angles are spread evenly
+     */
+    public final double getUncertainty() {
+        double length = getResultantLength();
+
+        if (length <= 0) {
+            return FormatUtils.CIRCLE_HALF;
+        }
+
+        double uncertainty = Math.toDegrees(Math.sqrt(-2 * Math.log(length)));
+
+        return Math.min(uncertainty, FormatUtils.CIRCLE_HALF);
+    }
+
+    /**
+     * Recalculates the sums of sine and cosine of the angles in the window.
+     */
+    private void recalculateSums() {
+        double sinSum = 0;
+        double cosSum = 0;
+        for (int i = 0; i < mCount; i++) {
+            sinSum += mSin[i];
+            cosSum += mCos[i];
+        }
+        mSinSum = sinSum;
+        mCosSum = cosSum;
+    }
+}
@@ -114,6 +114,17 @@ public class Coordinate {
      * @param y Y coordinate
      */
     public final void setCartesianCoordinate(final long x, final long y) {
+        setPreciseCartesianCoordinate(x, y);
+    }
+
+    /**
+     * Set coordinate in Cartesian format, with sub-pixel precision.
+     *
+     * @param x X coordinate
+     * @param y Y coordinate
+     */
+    public final void setPreciseCartesianCoordinate(final double x,
+                                                    final double y) {
         // calculate radius
         mRadius = Math.sqrt(x * x + y * y);
 
@@ -192,7 +203,16 @@ public class Coordinate {
      * @return X coordinate
      */
     public final long getCartesianX() {
-        return Math.round(Math.cos(Math.toRadians(mAngle)) * mRadius);
+        return Math.round(getPreciseCartesianX());
+    }
+
+    /**
+     * Get Cartesian X coordinate, with sub-pixel precision.
+     *
+     * @return X coordinate
+     */
+    public final double getPreciseCartesianX() {
+        return Math.cos(Math.toRadians(mAngle)) * mRadius;
     }
 
     /**
@@ -201,6 +221,15 @@ public class Coordinate {
      * @return Y coordinate
      */
     public final long getCartesianY() {
-        return Math.round(Math.sin(Math.toRadians(mAngle)) * mRadius);
+        return Math.round(getPreciseCartesianY());
+    }
+
+    /**
+     * Get Cartesian Y coordinate, with sub-pixel precision.
+     *
+     * @return Y coordinate
+     */
+    public final double getPreciseCartesianY() {
+        return Math.sin(Math.toRadians(mAngle)) * mRadius;
     }
 }
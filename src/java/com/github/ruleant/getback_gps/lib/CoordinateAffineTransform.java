@@ -0,0 +1,254 @@
+/**
+ * Affine coordinate converter.
+ *
+ * Copyright (C) 2015 Dieter Adriaenssens
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * @package com.github.ruleant.getback_gps.lib
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+package com.github.ruleant.getback_gps.lib;
+
+/**
+ * Converts coordinates with an affine transformation,
+ * a 2x3 matrix :
+ * X = a * x + b * y + tx
+ * Y = c * x + d * y + ty
+ *
+ * Rotating, scaling, translating and mirroring are composed
+ * into the matrix, each operation is applied after the previous ones,
+ * so a chain of transformations costs one matrix multiplication per point.
+ * Angles are clockwise in screen coordinates (Y axis pointing down).
+ *
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+public class CoordinateAffineTransform
+        implements CoordinateConverterInterface {
+    /**
+     * Matrix element a (X scale/rotation).
+     */
+    private double mA;
+
+    /**
+     * Matrix element b (X shear/rotation).
+     */
+    private double mB;
+
+    /**
+     * Matrix element c (Y shear/rotation).
+     */
+    private double mC;
+
+    /**
+     * Matrix element d (Y scale/rotation).
+     */
+    private double mD;
+
+    /**
+     * X translation.
+     */
+    private double mTx;
+
+    /**
+     * Y translation.
+     */
+    private double mTy;
+
+    /**
+     * Constructor, creates an identity transformation.
+     */
+    public CoordinateAffineTransform() {
+        reset();
+    }
+
+    /**
+     * Resets to identity transformation.
+     */
+    public final void reset() {
+        setMatrix(1, 0, 0, 1, 0, 0);
+    }
+
+    /**
+     * Sets transformation matrix.
+     *
+     * @param a X scale/rotation
+     * @param b X shear/rotation
+     * @param c Y shear/rotation
+     * @param d Y scale/rotation
+     * @param tx X translation
+     * @param ty Y translation
+     */
+    public final void setMatrix(final double a, final double b,
+                                final double c, final double d,
+                                final double tx, final double ty) {
+        mA = a;
+        mB = b;
+        mC = c;
+        mD = d;
+        mTx = tx;
+        mTy = ty;
+    }
+
+    /**
+     * Sets transformation matrix, copied from another transformation.
+     *
+     * @param transform Transformation to copy
+     */
+    public final void set(final CoordinateAffineTransform transform) {
+        if (transform == null) {
+            throw new IllegalArgumentException(
+                    "Parameter transform should not be null");
+        }
+
+        setMatrix(transform.mA, transform.mB, transform.mC, transform.mD,
+                transform.mTx, transform.mTy);
+    }
+
+    /**
+     * Applies a transformation after the current transformation.
+     *
+     * @param transform Transformation to apply
+     */
+    public final void concat(final CoordinateAffineTransform transform) {
+        if (transform == null) {
+            throw new IllegalArgumentException(
+                    "Parameter transform should not be null");
+        }
+
+        postMultiply(transform.mA, transform.mB, transform.mC, transform.mD,
+                transform.mTx, transform.mTy);
+    }
+
+    /**
+     * Applies a rotation after the current transformation.
+     *
+     * @param angle Rotation angle in degrees, clockwise
+     */
+    public final void rotate(final double angle) {
+        double radians = Math.toRadians(angle);
+        double sin = Math.sin(radians);
+        double cos = Math.cos(radians);
+
+        postMultiply(cos, -1 * sin, sin, cos, 0, 0);
+    }
+
+    /**
+     * Applies scaling after the current transformation.
+     *
+     * @param scaleX X scale ratio
+     * @param scaleY Y scale ratio
+     */
+    public final void scale(final double scaleX, final double scaleY) {
+        postMultiply(scaleX, 0, 0, scaleY, 0, 0);
+    }
+
+    /**
+     * Applies a translation after the current transformation.
+     *
+     * @param dx X translation
+     * @param dy Y translation
+     */
+    public final void translate(final double dx, final double dy) {
+        mTx += dx;
+        mTy += dy;
+    }
+
+    /**
+     * Applies mirroring around the Y axis (X = -x)
+     * after the current transformation.
+     */
+    public final void mirrorX() {
+        scale(-1, 1);
+    }
+
+    /**
+     * Applies mirroring around the X axis (Y = -y)
+     * after the current transformation.
+     */
+    public final void mirrorY() {
+        scale(1, -1);
+    }
+
+    /**
+     * Converts a Coordinate instance.
+     *
+     * @param coordinate Unconverted coordinate
+     * @return Converted coordinate
+     */
+    @Override
+    public final Coordinate getConvertedCoordinate(
+            final Coordinate coordinate) {
+        double x = coordinate.getPreciseCartesianX();
+        double y = coordinate.getPreciseCartesianY();
+
+        Coordinate converted = new Coordinate(0, 0);
+        converted.setPreciseCartesianCoordinate(
+                mA * x + mB * y + mTx, mC * x + mD * y + mTy);
+
+        return converted;
+    }
+
+    /**
+     * Converts a block of Cartesian coordinates, with sub-pixel precision.
+     *
+     * @param src Unconverted coordinates, packed as x0, y0, x1, y1, ...
+     * @param dst Array to write the converted coordinates to,
+     *            packed like src
+     * @param n Number of points
+     */
+    @Override
+    public final void convert(final double[] src, final float[] dst,
+                              final int n) {
+        final double a = mA;
+        final double b = mB;
+        final double c = mC;
+        final double d = mD;
+        final double tx = mTx;
+        final double ty = mTy;
+
+        int index = 0;
+        for (int i = 0; i < n; i++) {
+            double x = src[index];
+            double y = src[index + 1];
+            dst[index] = (float) (a * x + b * y + tx);
+            dst[index + 1] = (float) (c * x + d * y + ty);
+            index += 2;
+        }
+    }
+
+    /**
+     * Multiplies a matrix with the current matrix (M = T * M),
+     * applying it after the current transformation.
+     *
+     * @param a X scale/rotation
+     * @param b X shear/rotation
+     * @param c Y shear/rotation
+     * @param d Y scale/rotation
+     * @param tx X translation
+     * @param ty Y translation
+     */
+    private void postMultiply(final double a, final double b,
+                              final double c, final double d,
+                              final double tx, final double ty) {
+        double newA = a * mA + b * mC;
+        double newB = a * mB + b * mD;
+        double newC = c * mA + d * mC;
+        double newD = c * mB + d * mD;
+        double newTx = a * mTx + b * mTy + tx;
+        double newTy = c * mTx + d * mTy + ty;
+
+        setMatrix(newA, newB, newC, newD, newTx, newTy);
+    }
+}
@@ -34,4 +34,15 @@ public interface CoordinateConverterInterface {
      * @return Converted coordinate
      */
     Coordinate getConvertedCoordinate(Coordinate coordinate);
+
+    /**
+     * Converts a block of Cartesian coordinates,
+     * without creating Coordinate instances.
+     *
+     * @param src Unconverted coordinates, packed as x0, y0, x1, y1, ...
+     * @param dst Array to write the converted coordinates to,
+     *            packed like src
+     * @param n Number of points
+     */
+    void convert(double[] src, float[] dst, int n);
 }
@@ -24,11 +24,16 @@ package com.github.ruleant.getback_gps.lib;
 /**
  * Coordinate converter class rotating a set of coordinates.
  *
+ * Converting to screen coordinates, rotating and scaling are composed
+ * into a single affine transformation when they are set,
+ * the rotation center is added as a translation when converting,
+ * so each point costs one matrix multiplication.
+ *
  * @author Dieter Adriaenssens <ruleant@users.sourceforge.net>
  */
 public class CoordinateRotation  implements CoordinateConverterInterface {
     /**
-     * Rotation angle in radians (0-2*PI).
+     * Rotation angle (0-360°).
      */
     private double mAngle;
 
@@ -42,6 +47,18 @@ public class CoordinateRotation  implements CoordinateConverterInterface {
      */
     private double mScaleRadius;
 
+    /**
+     * Rotation and scaling, around the origin.
+     */
+    private final CoordinateAffineTransform mRotationScale
+            = new CoordinateAffineTransform();
+
+    /**
+     * Rotation and scaling, around the rotation center.
+     */
+    private final CoordinateAffineTransform mTransform
+            = new CoordinateAffineTransform();
+
     /**
      * Constructor.
      *
@@ -62,7 +79,8 @@ public class CoordinateRotation  implements CoordinateConverterInterface {
      * @param angle Rotation angle to apply to coordinate (0-360°)
      */
     public final void setRotationAngle(final double angle) {
-        mAngle = Math.toRadians(FormatUtils.normalizeAngle(angle));
+        mAngle = FormatUtils.normalizeAngle(angle);
+        updateRotationScale();
     }
 
     /**
@@ -94,30 +112,63 @@ public class CoordinateRotation  implements CoordinateConverterInterface {
      */
     public final void setScaleRadius(final double scaleRadius) {
         mScaleRadius = scaleRadius;
+        updateRotationScale();
     }
 
     /**
-     * Rotate coordinates with an angle, around a center.
+     * Composes rotation and scaling into a single transformation.
      *
      * A couple of transformations are applied to convert the coordinates :
-     * - to clockwise : a => -a
-     * - rotate 90° counter-clockwise : -a => PI/2 - a
-     * X = cos(PI/2 - a) = sin(a)
-     * Y = sin(PI/2 - a) = cos(a)
-     * - flip Y coordinate
-     * Y = -cos(a)
+     * - rotate 90° counter-clockwise and flip Y coordinate,
+     *   0° points up on the screen : X = y, Y = -x
+     * - rotate clockwise with the rotation angle
+     * - scale with the radius scale ratio
+     */
+    private void updateRotationScale() {
+        mRotationScale.setMatrix(0, 1, -1, 0, 0, 0);
+        mRotationScale.rotate(mAngle);
+        mRotationScale.scale(mScaleRadius, mScaleRadius);
+    }
+
+    /**
+     * Updates the transformation with the current rotation center.
+     *
+     * @return transformation around the rotation center
+     */
+    private CoordinateAffineTransform updateTransform() {
+        mTransform.set(mRotationScale);
+        mTransform.translate(mCenter.getPreciseCartesianX(),
+                mCenter.getPreciseCartesianY());
+
+        return mTransform;
+    }
+
+    /**
+     * Rotate coordinates with an angle, around a center.
+     * Converted coordinates aren't rounded.
      *
      * @param coordinate Unconverted coordinate
      * @return Converted coordinate
      */
     public final Coordinate getConvertedCoordinate(
             final Coordinate coordinate) {
-        double angle = Math.toRadians(coordinate.getPolarAngle()) + mAngle;
-        double radius = coordinate.getPolarRadius() * mScaleRadius;
+        return updateTransform().getConvertedCoordinate(coordinate);
+    }
 
-        // Transform angle and convert to Cartesian
-        return new Coordinate(
-                mCenter.getCartesianX() + Math.round(Math.sin(angle) * radius),
-                mCenter.getCartesianY() - Math.round(Math.cos(angle) * radius));
+    /**
+     * Rotates a block of Cartesian coordinates, using the same
+     * transformation as getConvertedCoordinate() :
+     * X = Xc + s * (x * sin(a) + y * cos(a))
+     * Y = Yc - s * (x * cos(a) - y * sin(a))
+     * Converted coordinates aren't rounded, to draw with sub-pixel precision.
+     *
+     * @param src Unconverted coordinates, packed as x0, y0, x1, y1, ...
+     * @param dst Array to write the converted coordinates to,
+     *            packed like src
+     * @param n Number of points
+     */
+    public final void convert(final double[] src, final float[] dst,
+                              final int n) {
+        updateTransform().convert(src, dst, n);
     }
 }
@@ -24,12 +24,19 @@ package com.github.ruleant.getback_gps.lib;
 import android.graphics.Path;
 
 import java.util.ArrayList;
-import java.util.Iterator;
 
 /**
  * Coordinates is a container that can contain
  * multiple instances of a Coordinate class.
  *
+ * Next to the Coordinate instances, the points are kept packed
+ * in Cartesian format (x = r * cos(a), y = r * sin(a)),
+ * calculated once when a coordinate is added. Converting the collection
+ * (fe. to draw it) transforms the packed points in one batch,
+ * so the sine and cosine of each point aren't calculated again.
+ * Changing a Coordinate instance after it was added
+ * doesn't change the packed points.
+ *
  * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
  */
 public class Coordinates {
@@ -39,9 +46,14 @@ public class Coordinates {
     private final ArrayList<Coordinate> mCoordinates;
 
     /**
-     * Iterator for Coordinates collection.
+     * Packed Cartesian coordinates : x0, y0, x1, y1, ...
+     */
+    private double[] mPoints = new double[INITIAL_CAPACITY * 2];
+
+    /**
+     * Converted coordinates, packed like mPoints.
      */
-    private Iterator<Coordinate> mCoordinateIterator;
+    private float[] mConvertedPoints = new float[INITIAL_CAPACITY * 2];
 
     /**
      * Coordinate converter.
@@ -53,6 +65,11 @@ public class Coordinates {
      */
     private boolean mCloseLine = true;
 
+    /**
+     * Initial number of points the packed arrays can contain.
+     */
+    private static final int INITIAL_CAPACITY = 8;
+
     /**
      * Number of coordinates per line : x,y of start and end point.
      */
@@ -115,6 +132,18 @@ public class Coordinates {
         addCoordinate(new Coordinate(x, y));
     }
 
+    /**
+     * Add coordinate in Cartesian format, with sub-pixel precision.
+     *
+     * @param x X coordinate
+     * @param y Y coordinate
+     */
+    public final void addPreciseCoordinate(final double x, final double y) {
+        Coordinate coordinate = new Coordinate(0, 0);
+        coordinate.setPreciseCartesianCoordinate(x, y);
+        addCoordinate(coordinate);
+    }
+
     /**
      * Add coordinate with a Coordinate instance.
      *
@@ -126,6 +155,17 @@ public class Coordinates {
                     "Parameter coordinate should not be null");
         }
 
+        int index = mCoordinates.size() * 2;
+        if (index + 2 > mPoints.length) {
+            double[] points = new double[mPoints.length * 2];
+            System.arraycopy(mPoints, 0, points, 0, index);
+            mPoints = points;
+            mConvertedPoints = new float[points.length];
+        }
+
+        mPoints[index + Coordinate.X] = coordinate.getPreciseCartesianX();
+        mPoints[index + Coordinate.Y] = coordinate.getPreciseCartesianY();
+
         mCoordinates.add(coordinate);
     }
 
@@ -173,6 +213,37 @@ public class Coordinates {
         return mCoordinates.toArray();
     }
 
+    /**
+     * Converts all coordinates with the defined CoordinateConverter class
+     * and writes them to an array, packed as x0, y0, x1, y1, ...
+     * Coordinates aren't rounded, to draw with sub-pixel precision.
+     *
+     * @param dst Array to write the converted coordinates to,
+     *            at least 2 * getSize() long
+     * @return number of points written to dst
+     * @throws IllegalArgumentException if dst is too short
+     */
+    public final int transform(final float[] dst) {
+        int size = getSize();
+
+        if (dst == null || dst.length < size * 2) {
+            throw new IllegalArgumentException(
+                    "Parameter dst should contain at least 2 * size values");
+        }
+
+        if (mCoordinateConverter == null) {
+            // if CoordinateConverter is not set, copy unconverted points
+            for (int i = 0; i < size * 2; i++) {
+                dst[i] = (float) mPoints[i];
+            }
+        } else {
+            // convert packed points in one batch
+            mCoordinateConverter.convert(mPoints, dst, size);
+        }
+
+        return size;
+    }
+
     /**
      * Return Coordinates as Path.
      *
@@ -180,158 +251,131 @@ public class Coordinates {
      */
     public final Path toPath() {
         Path path = new Path();
+        toPath(path);
 
-        // 2 points or more are required to draw a line
-        if (getSize() <= 1) {
-            return path;
+        return path;
+    }
+
+    /**
+     * Writes Coordinates to an existing Path, replacing its contents.
+     * The Path is rewound, so it keeps its allocated memory,
+     * which makes it possible to reuse it every time a view is drawn.
+     *
+     * @param path Path instance to write to
+     */
+    public final void toPath(final Path path) {
+        if (path == null) {
+            throw new IllegalArgumentException(
+                    "Parameter path should not be null");
         }
 
-        long[] firstPoint = getFirstCoordinateCartesian();
-        // skip point if it is null
-        while (firstPoint == null) {
-            firstPoint = getNextCoordinateCartesian();
+        path.rewind();
+
+        // 2 points or more are required to draw a line
+        if (getSize() <= 1) {
+            return;
         }
 
-        path.moveTo(firstPoint[Coordinate.X], firstPoint[Coordinate.Y]);
+        final float[] points = mConvertedPoints;
+        int totalPoints = transform(points);
 
-        long[] currentPoint;
-        while (mCoordinateIterator.hasNext()) {
-            currentPoint = getNextCoordinateCartesian();
+        path.moveTo(points[Coordinate.X], points[Coordinate.Y]);
 
-            // skip point if it is null
-            if (currentPoint != null) {
-                path.lineTo(currentPoint[Coordinate.X],
-                        currentPoint[Coordinate.Y]);
-            }
+        for (int i = 1; i < totalPoints; i++) {
+            path.lineTo(points[i * 2 + Coordinate.X],
+                    points[i * 2 + Coordinate.Y]);
         }
 
         if (mCloseLine) {
             path.close();
         }
-
-        return path;
     }
 
     /**
-     * Return Coordinates as Canvas.DrawLines array.
+     * Get length of the Canvas.DrawLines array of the Coordinates.
      *
-     * @return coordinates as array
+     * @return number of values needed to draw the lines
      */
-    public final float[] toLinesArray() {
+    public final int getLinesArrayLength() {
         int totalPoints = getSize();
 
         // 2 points or more are required to draw a line
         if (totalPoints <= 1) {
-            return new float[0];
+            return 0;
         }
 
-        int arrayLength;
-
         // only 1 line between 2 points (no need to close),
         // else use class property mCloseLine
-        boolean closeLine = totalPoints != 2 && mCloseLine;
-
-        if (closeLine) {
+        if (totalPoints != 2 && mCloseLine) {
             // calculate array length, based on number of coordinates
             // length = #points * 4 (=number of coordinates needed to draw
             // a line between 2 points)
-            arrayLength = totalPoints * NUM_COORD_LINE;
+            return totalPoints * NUM_COORD_LINE;
         } else {
             // when not closing, one set of coordinates less is needed.
-            arrayLength = (totalPoints - 1) * NUM_COORD_LINE;
+            return (totalPoints - 1) * NUM_COORD_LINE;
         }
+    }
 
-        float[] array = new float[arrayLength];
+    /**
+     * Return Coordinates as Canvas.DrawLines array.
+     *
+     * @return coordinates as array
+     */
+    public final float[] toLinesArray() {
+        float[] array = new float[getLinesArrayLength()];
+        toLinesArray(array);
 
-        long[] firstPoint = getFirstCoordinateCartesian();
-        // skip point if it is null
-        while (firstPoint == null) {
-            firstPoint = getNextCoordinateCartesian();
-        }
+        return array;
+    }
 
-        long[] previousPoint = firstPoint;
-        long[] currentPoint;
-        int arrayPosition = 0;
+    /**
+     * Writes Coordinates to an existing Canvas.DrawLines array,
+     * which makes it possible to reuse it every time a view is drawn.
+     *
+     * @param array Array to write to, at least getLinesArrayLength() long
+     * @return number of values written to array
+     * @throws IllegalArgumentException if array is too short
+     */
+    public final int toLinesArray(final float[] array) {
+        int arrayLength = getLinesArrayLength();
 
-        while (mCoordinateIterator.hasNext()) {
-            currentPoint = getNextCoordinateCartesian();
+        if (array == null || array.length < arrayLength) {
+            throw new IllegalArgumentException(
+                    "Parameter array should contain at least "
+                    + "getLinesArrayLength() values");
+        }
 
-            // skip point if it is null
-            if (currentPoint == null) {
-                continue;
-            }
+        // 2 points or more are required to draw a line
+        if (arrayLength == 0) {
+            return 0;
+        }
 
-            // prevent overfilling array in case the
-            // coordinates collection changes
-            if (arrayPosition >= arrayLength) {
-                return array;
-            }
+        final float[] points = mConvertedPoints;
+        int totalPoints = transform(points);
 
+        int arrayPosition = 0;
+        for (int i = 1; i < totalPoints; i++) {
             // add next line
-            array[arrayPosition + POS_START_X] = previousPoint[Coordinate.X];
-            array[arrayPosition + POS_START_Y] = previousPoint[Coordinate.Y];
-            array[arrayPosition + POS_END_X] = currentPoint[Coordinate.X];
-            array[arrayPosition + POS_END_Y] = currentPoint[Coordinate.Y];
+            array[arrayPosition + POS_START_X] = points[i * 2 - 2];
+            array[arrayPosition + POS_START_Y] = points[i * 2 - 1];
+            array[arrayPosition + POS_END_X] = points[i * 2];
+            array[arrayPosition + POS_END_Y] = points[i * 2 + 1];
 
             arrayPosition += NUM_COORD_LINE;
-            previousPoint = currentPoint;
         }
 
-        // prevent overfilling array in case the
-        // coordinates collection changes
-        // or when line doesn't need to be closed
-        if (!closeLine || arrayPosition >= arrayLength) {
-            return array;
+        if (arrayPosition >= arrayLength) {
+            return arrayLength;
         }
 
         // close figure
-        array[arrayPosition + POS_START_X] = previousPoint[Coordinate.X];
-        array[arrayPosition + POS_START_Y] = previousPoint[Coordinate.Y];
-        array[arrayPosition + POS_END_X] = firstPoint[Coordinate.X];
-        array[arrayPosition + POS_END_Y] = firstPoint[Coordinate.Y];
-
-        return array;
-    }
-
-    /**
-     * Get first Coordinate and return it as Cartesian coordinate array.
-     *
-     * @return Cartesian coordinate array
-     */
-    private long[] getFirstCoordinateCartesian() {
-        mCoordinateIterator = mCoordinates.iterator();
-        return getNextCoordinateCartesian();
-    }
-
-    /**
-     * Get next Coordinate and return it as Cartesian coordinate array.
-     *
-     * @return Cartesian coordinate array
-     */
-    private long[] getNextCoordinateCartesian() {
-        if (mCoordinateIterator != null && mCoordinateIterator.hasNext()) {
-            return convertCoordinate(mCoordinateIterator.next())
-                    .getCartesianCoordinate();
-        }
-
-        return null;
-    }
-
-    /**
-     * Converts a Coordinate using the defined CoordinateConverter class,
-     * it returns an unconverted Coordinate if the CoordinateConverter class
-     * is not set.
-     *
-     * @param coordinate Unconverted coordinate
-     * @return Converted coordinate
-     */
-    private Coordinate convertCoordinate(final Coordinate coordinate) {
-        // if CoordinateConverter is not set, return coordinate unconverted
-        if (mCoordinateConverter == null) {
-            return coordinate;
-        }
+        int last = (totalPoints - 1) * 2;
+        array[arrayPosition + POS_START_X] = points[last + Coordinate.X];
+        array[arrayPosition + POS_START_Y] = points[last + Coordinate.Y];
+        array[arrayPosition + POS_END_X] = points[Coordinate.X];
+        array[arrayPosition + POS_END_Y] = points[Coordinate.Y];
 
-        // convert Coordinate using defined CoordinateConverter
-        return mCoordinateConverter.getConvertedCoordinate(coordinate);
+        return arrayLength;
     }
 }
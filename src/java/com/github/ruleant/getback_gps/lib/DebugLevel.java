@@ -22,29 +22,27 @@
 package com.github.ruleant.getback_gps.lib;
 
 import android.content.Context;
-import android.content.SharedPreferences;
-import android.preference.PreferenceManager;
 
 import com.github.ruleant.getback_gps.BuildConfig;
 
 /**
  * Class checking debug level
  *
- * This class will get the current Debug level from SharedPreferences.
+ * This class will get the current Debug level from the cached settings.
  * And checks if the current level matches the required level
  *
  * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
  */
 public class DebugLevel {
     /**
-     * Context of the App.
+     * Cached settings of the App.
      */
-    private final Context mContext;
+    private final SettingsCache mSettings;
 
     /**
      * Default debug level (string).
      */
-    private static final String DEFAULT_DEBUG_LEVEL = "0";
+    static final String DEFAULT_DEBUG_LEVEL = "0";
 
     /**
      * Name of Debug Level in Shared Preferences.
@@ -77,26 +75,24 @@ public class DebugLevel {
      * @param context Context of the App
      */
     public DebugLevel(final Context context) {
-        mContext = context;
+        if (context == null) {
+            mSettings = null;
+        } else {
+            mSettings = SettingsCache.getInstance(context);
+        }
     }
 
     /**
-     * Get current debug level from SharedPreferences.
+     * Get current debug level from the cached settings.
      *
      * @return current debugLevel
      */
     public final int getDebugLevel() {
-        if (!BuildConfig.DEBUG || mContext == null) {
+        if (!BuildConfig.DEBUG || mSettings == null) {
             return DEBUG_LEVEL_OFF;
         }
 
-        // Get debug level from SharedPreferences
-        SharedPreferences sharedPref
-                = PreferenceManager.getDefaultSharedPreferences(mContext);
-        String prefDebugLevel
-                = sharedPref.getString(PREF_DEBUG_LEVEL, DEFAULT_DEBUG_LEVEL);
-
-        return Integer.parseInt(prefDebugLevel);
+        return mSettings.getSnapshot().getDebugLevel();
     }
 
     /**
@@ -0,0 +1,225 @@
+/**
+ * Exponential (low pass) filter with preallocated state.
+ *
+ * Copyright (C) 2015 Dieter Adriaenssens
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * @package com.github.ruleant.getback_gps.lib
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+package com.github.ruleant.getback_gps.lib;
+
+/**
+ * Exponential (low pass) filter on one or more channels,
+ * fe. the 3 axes of a sensor.
+ *
+ * The state of the filter is kept in the object, so filtering
+ * doesn't allocate memory. Parameters are validated when they are set,
+ * not for every value.
+ * Blocks of samples are interleaved : channel c of sample i
+ * is at index i * channels + c.
+ * A block is filtered one channel at a time, keeping the filtered value
+ * in a local variable, so the inner loop has no calls or array reads
+ * of the filter state. Each value depends on the previous one,
+ * so the samples of a channel are filtered sequentially.
+ *
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+public class ExponentialFilter {
+    /**
+     * Filtered value of each channel.
+     */
+    private final double[] mState;
+
+    /**
+     * True if the filter state is set by a first sample.
+     */
+    private boolean mInitialized = false;
+
+    /**
+     * Alpha value of the filter.
+     */
+    private double mAlpha;
+
+    /**
+     * Constructor.
+     *
+     * @param channels Number of channels
+     * @param alpha Alpha value of the filter (valid range : 0-1)
+     * @throws IllegalArgumentException if channels is smaller than 1
+     * or alpha is out of range
+     */
+    public ExponentialFilter(final int channels, final double alpha) {
+        if (channels < 1) {
+            throw new IllegalArgumentException(
+                    "parameter channels should be at least 1");
+        }
+
+        mState = new double[channels];
+        setAlpha(alpha);
+    }
+
+    /**
+     * Sets alpha value, 1 means no filtering,
+     * a smaller value filters more.
+     *
+     * @param alpha Alpha value of the filter (valid range : 0-1)
+     * @throws IllegalArgumentException if alpha is out of range
+     */
+    public final void setAlpha(final double alpha) {
+        if (alpha > 1 || alpha < 0) {
+            throw new IllegalArgumentException(
+                    "parameter alpha is not in range 0.0 .. 1.0");
+        }
+
+        mAlpha = alpha;
+    }
+
+    /**
+     * Gets alpha value.
+     *
+     * @return alpha value
+     */
+    public final double getAlpha() {
+        return mAlpha;
+    }
+
+    /**
+     * Gets number of channels.
+     *
+     * @return number of channels
+     */
+    public final int getChannels() {
+        return mState.length;
+    }
+
+    /**
+     * Resets filter, the next sample sets the filter state.
+     */
+    public final void reset() {
+        mInitialized = false;
+    }
+
+    /**
+     * Gets filtered value of a channel.
+     *
+     * @param channel Channel
+     * @return filtered value
+     */
+    public final double getValue(final int channel) {
+        return mState[channel];
+    }
+
+    /**
+     * Filters a single value (first channel).
+     *
+     * @param value New value
+     * @return filtered value
+     */
+    public final double filter(final double value) {
+        initialize(value);
+        mState[0] += mAlpha * (value - mState[0]);
+
+        return mState[0];
+    }
+
+    /**
+     * Filters one sample of all channels.
+     *
+     * @param values New value of each channel
+     * @param result Array to write the filtered values to,
+     *               can be the same array as values
+     */
+    public final void filter(final float[] values, final float[] result) {
+        filter(values, result, 1);
+    }
+
+    /**
+     * Filters a block of interleaved float samples.
+     *
+     * @param src Source samples
+     * @param dst Array to write the filtered samples to,
+     *            can be the same array as src
+     * @param samples Number of samples
+     */
+    public final void filter(final float[] src, final float[] dst,
+                             final int samples) {
+        final int channels = mState.length;
+        final double[] state = mState;
+        final double alpha = mAlpha;
+
+        if (samples > 0 && !mInitialized) {
+            for (int c = 0; c < channels; c++) {
+                state[c] = src[c];
+            }
+            mInitialized = true;
+        }
+
+        final int length = samples * channels;
+        for (int c = 0; c < channels; c++) {
+            double value = state[c];
+            for (int index = c; index < length; index += channels) {
+                value += alpha * (src[index] - value);
+                dst[index] = (float) value;
+            }
+            state[c] = value;
+        }
+    }
+
+    /**
+     * Filters a block of interleaved double samples.
+     *
+     * @param src Source samples
+     * @param dst Array to write the filtered samples to,
+     *            can be the same array as src
+     * @param samples Number of samples
+     */
+    public final void filter(final double[] src, final double[] dst,
+                             final int samples) {
+        final int channels = mState.length;
+        final double[] state = mState;
+        final double alpha = mAlpha;
+
+        if (samples > 0 && !mInitialized) {
+            System.arraycopy(src, 0, state, 0, channels);
+            mInitialized = true;
+        }
+
+        final int length = samples * channels;
+        for (int c = 0; c < channels; c++) {
+            double value = state[c];
+            for (int index = c; index < length; index += channels) {
+                value += alpha * (src[index] - value);
+                dst[index] = value;
+            }
+            state[c] = value;
+        }
+    }
+
+    /**
+     * Sets state of all channels to the first value,
+     * if the filter isn't initialized.
+     *
+     * @param value First value
+     */
+    private void initialize(final double value) {
+        if (!mInitialized) {
+            for (int c = 0; c < mState.length; c++) {
+                mState[c] = value;
+            }
+            mInitialized = true;
+        }
+    }
+}
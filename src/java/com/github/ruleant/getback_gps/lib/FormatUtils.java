@@ -34,10 +34,10 @@ import android.content.res.Resources.NotFoundException;
 
 import com.github.ruleant.getback_gps.R;
 
-import java.util.Locale;
-
 /**
  * Methods to convert values to formatted string.
+ * Values are formatted by LocalizedFormatter, use it directly
+ * to append to a reusable StringBuilder.
  *
  * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
  */
@@ -47,21 +47,6 @@ public class FormatUtils {
      */
     public static final String SPEED_KPH = "km/h";
 
-    /**
-     * Conversion rate from m/s to km/h.
-     */
-    private static final double SPEED_CONV_MPS_KPH = 3.6; // 3600s/1000m
-
-    /**
-     * Conversion rate from kilometer to meter.
-     */
-    private static final double CONV_KM_M = 1000.0;
-
-    /**
-     * 1 decimal difference.
-     */
-    private static final double ONE_DEC = 10.0;
-
     /**
      * Minimal angle value = 0°.
      */
@@ -111,48 +96,17 @@ public class FormatUtils {
 
     /**
      * Formats a distance (in meter) to a string,
-     * in meter or kilometer, depending on the size.
+     * in the units selected in the settings (fe. meter or kilometer),
+     * depending on the size.
      * The number format is localized.
      *
      * @param distance distance in m
      * @param context App context
-     * @return formatted distance with unit (m or km)
+     * @return formatted distance with unit (fe. m or km)
      */
     public static String formatDist(final double distance, final Context context) {
-        String shortUnit = "m";
-        String longUnit = "km";
-        double scaleUnit = CONV_KM_M;
-
-        // if context is defined, use android string
-        if (context != null) {
-            shortUnit = context.getResources().getString(R.string.distance_m);
-            longUnit = context.getResources().getString(R.string.distance_km);
-        }
-
-        // distance shouldn't be negative
-        double distanceAbs = Math.abs(distance);
-
-        // conversion and formatting
-        if (Math.round(distanceAbs) < scaleUnit) {
-            // display as short unit, as integer
-            return String.format(Locale.getDefault(), "%1$d%2$s",
-                    Math.round(distanceAbs), shortUnit);
-        } else {
-            double scaledDistance = distanceAbs / scaleUnit;
-            // round to one decimal and check if it is
-            // smaller than a 1 decimal difference
-            if ((Math.round(scaledDistance * ONE_DEC) / ONE_DEC) < ONE_DEC) {
-                // display as long unit, with 1 decimal
-                return String.format(
-                        Locale.getDefault(), "%1$,.1f%2$s",
-                        scaledDistance, longUnit);
-            } else {
-                // display as long unit, as integer
-                return String.format(
-                        Locale.getDefault(), "%1$,d%2$s",
-                        Math.round(scaledDistance), longUnit);
-            }
-        }
+        return LocalizedFormatter.getInstance(context)
+                .appendDist(new StringBuilder(), distance).toString();
     }
 
     /**
@@ -167,23 +121,17 @@ public class FormatUtils {
     }
 
     /**
-     * Formats a height (in meter) to a string, in meter.
+     * Formats a height (in meter) to a string,
+     * in the units selected in the settings (meter or feet).
      * The number format is localized.
      *
      * @param height height in m
-     * @return formatted height with unit (m)
+     * @param context App context
+     * @return formatted height with unit (fe. m)
      */
     public static String formatHeight(final double height, final Context context) {
-        String unit = "m";
-
-        // if context is defined, use android string
-        if (context != null) {
-            unit = context.getResources().getString(R.string.distance_m);
-        }
-
-        return String.format(
-                Locale.getDefault(), "%1$,d%2$s",
-                Math.round(height), unit);
+        return LocalizedFormatter.getInstance(context)
+                .appendHeight(new StringBuilder(), height).toString();
     }
 
     /**
@@ -199,37 +147,18 @@ public class FormatUtils {
     }
 
     /**
-     * Formats a distance (in meter per second (m/s)) to a string,
-     * in kilometer per hour (km/h).
+     * Formats a speed (in meter per second (m/s)) to a string,
+     * in the units selected in the settings (fe. km/h).
      * The number format is localized and speed unit is translatable.
      *
      * @param speed speed in m/s
      * @param context App context.
-     * @return formatted speed with unit (km/h)
+     * @return formatted speed with unit (fe. km/h)
      */
     public static String formatSpeed(final double speed,
                                      final Context context) {
-        String unit = SPEED_KPH;
-
-        // if context is defined, use android string
-        if (context != null) {
-            unit = context.getResources().getString(R.string.speed_kph);
-        }
-
-        // speed shouldn't be negative, conversion to kph
-        double convertedSpeed = Math.abs(speed) * SPEED_CONV_MPS_KPH;
-
-        // formatting
-        if (convertedSpeed < ONE_DEC) {
-            // display with 1 decimal
-            return String.format(
-                    Locale.getDefault(), "%1$,.1f%2$s", convertedSpeed, unit);
-        } else {
-            // display as integer
-            return String.format(
-                    Locale.getDefault(), "%1$,d%2$s",
-                    Math.round(convertedSpeed), unit);
-        }
+        return LocalizedFormatter.getInstance(context)
+                .appendSpeed(new StringBuilder(), speed).toString();
     }
 
     /**
@@ -241,21 +170,8 @@ public class FormatUtils {
      * @return formatted angle with unit (°)
      */
     public static String formatAngle(final double angle, final int precision) {
-        if (precision < 0) {
-            throw new IllegalArgumentException(
-                    "Precision can't be a negative value");
-        }
-
-        String unit = "°";
-
-        // generate format string
-        // format number with variable precision (%s.xf), with x = precision
-        String formatString = "%1$." + String.format(Locale.US, "%d", precision) + "f";
-        // add unit
-        formatString += "%2$s";
-
-        // formatting
-        return String.format(Locale.getDefault(), formatString, angle, unit);
+        return LocalizedFormatter.getInstance()
+                .appendAngle(new StringBuilder(), angle, precision).toString();
     }
 
     /**
@@ -289,6 +205,25 @@ public class FormatUtils {
         return normalizeAngle(angle - CIRCLE_HALF);
     }
 
+    /**
+     * Get the shortest angle to turn from one angle to another.
+     *
+     * @param fromAngle Angle in degrees to start from
+     * @param toAngle Angle in degrees to turn to
+     * @return angle to turn (-180°-180°), positive is clockwise
+     */
+    public static double getAngleDifference(final double fromAngle,
+                                            final double toAngle) {
+        double difference = normalizeAngle(toAngle - fromAngle);
+
+        // turn counter clockwise if that is shorter
+        if (difference > CIRCLE_HALF) {
+            difference -= CIRCLE_FULL;
+        }
+
+        return difference;
+    }
+
     /**
      * Localize location provider name.
      *
@@ -0,0 +1,162 @@
+/**
+ * One dimensional Kalman filter with preallocated state.
+ *
+ * Copyright (C) 2015 Dieter Adriaenssens
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * @package com.github.ruleant.getback_gps.lib
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+package com.github.ruleant.getback_gps.lib;
+
+/**
+ * One dimensional Kalman filter, for a value that is assumed constant
+ * between measurements, changing by random process noise,
+ * fe. the altitude of a location.
+ *
+ * Contrary to an exponential filter, the gain adapts
+ * to the estimated error, so the filter converges fast at the start.
+ *
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+public class KalmanFilter {
+    /**
+     * Process noise variance.
+     */
+    private final double mProcessNoise;
+
+    /**
+     * Measurement noise variance.
+     */
+    private final double mMeasurementNoise;
+
+    /**
+     * Estimated value.
+     */
+    private double mEstimate = 0;
+
+    /**
+     * Variance of the estimated value.
+     */
+    private double mErrorVariance = 0;
+
+    /**
+     * True if the estimate is set by a first measurement.
+     */
+    private boolean mInitialized = false;
+
+    /**
+     * Constructor.
+     *
+     * @param processNoise Process noise variance
+     * @param measurementNoise Measurement noise variance
+     * @throws IllegalArgumentException if processNoise is negative
+     * or measurementNoise is not positive
+     */
+    public KalmanFilter(final double processNoise,
+                        final double measurementNoise) {
+        if (processNoise < 0) {
+            throw new IllegalArgumentException(
+                    "parameter processNoise should not be negative");
+        }
+        if (measurementNoise <= 0) {
+            throw new IllegalArgumentException(
+                    "parameter measurementNoise should be positive");
+        }
+
+        mProcessNoise = processNoise;
+        mMeasurementNoise = measurementNoise;
+    }
+
+    /**
+     * Resets filter, the next measurement sets the estimate.
+     */
+    public final void reset() {
+        mInitialized = false;
+    }
+
+    /**
+     * Adds a measurement and returns the new estimate.
+     *
+     * @param measurement New measurement
+     * @return estimated value
+     */
+    public final double filter(final double measurement) {
+        if (!mInitialized) {
+            mEstimate = measurement;
+            mErrorVariance = mMeasurementNoise;
+            mInitialized = true;
+            return mEstimate;
+        }
+
+        // predict
+        double variance = mErrorVariance + mProcessNoise;
+
+        // update
+        double gain = variance / (variance + mMeasurementNoise);
+        mEstimate += gain * (measurement - mEstimate);
+        mErrorVariance = (1 - gain) * variance;
+
+        return mEstimate;
+    }
+
+    /**
+     * Filters a block of float samples.
+     *
+     * @param src Source samples
+     * @param dst Array to write the filtered samples to,
+     *            can be the same array as src
+     * @param samples Number of samples
+     */
+    public final void filter(final float[] src, final float[] dst,
+                             final int samples) {
+        for (int i = 0; i < samples; i++) {
+            dst[i] = (float) filter(src[i]);
+        }
+    }
+
+    /**
+     * Filters a block of double samples.
+     *
+     * @param src Source samples
+     * @param dst Array to write the filtered samples to,
+     *            can be the same array as src
+     * @param samples Number of samples
+     */
+    public final void filter(final double[] src, final double[] dst,
+                             final int samples) {
+        for (int i = 0; i < samples; i++) {
+            dst[i] = filter(src[i]);
+        }
+    }
+
+    /**
+     * Gets estimated value.
+     *
+     * @return estimated value
+     */
+    public final double getEstimate() {
+        return mEstimate;
+    }
+
+    /**
+     * Gets variance of the estimated value.
+     *
+     * @return error variance
+     */
+    public final double getErrorVariance() {
+        return mErrorVariance;
+    }
+}
@@ -22,9 +22,6 @@
 package com.github.ruleant.getback_gps.lib;
 
 import android.content.Context;
-import android.location.Location;
-
-import com.github.ruleant.getback_gps.R;
 
 /**
  * Class for formatting latitude.
@@ -99,14 +96,23 @@ public class Latitude extends AbstractGeoCoordinate {
         setRange(SEGMENT_SOUTH_LOW, SEGMENT_NORTH_HIGH);
     }
 
+    /**
+     * Determine value segment.
+     *
+     * @return segment code
+     */
+    public final int getSegment() {
+        return getSegment(getValue());
+    }
+
     /**
      * Determine value segment, North if latitude is in the range 0..90,
      * South if latitude is in the range -90..0.
      *
+     * @param coordinate Coordinate value
      * @return segment code : SEGMENT_NORTH or SEGMENT_SOUTH
      */
-    public final int getSegment() {
-        double coordinate = getValue();
+    public static int getSegment(final double coordinate) {
         int retVal = 0;
 
         if (coordinate <= SEGMENT_NORTH_HIGH
@@ -122,22 +128,33 @@ public class Latitude extends AbstractGeoCoordinate {
     }
 
     /**
-     * Get segment unit, N for SEGMENT_NORTH, S for SEGMENT_SOUTH.
+     * Get segment unit.
      *
      * @return unit
      */
     public final String getSegmentUnit() {
+        return getSegmentUnit(getContext(), getSegment());
+    }
+
+    /**
+     * Get segment unit, N for SEGMENT_NORTH, S for SEGMENT_SOUTH.
+     *
+     * @param context App Context, null to use untranslated units
+     * @param segment Segment code
+     * @return unit
+     */
+    public static String getSegmentUnit(final Context context,
+                                        final int segment) {
         String unit = null;
-        Context context = getContext();
 
-        switch (getSegment()) {
+        switch (segment) {
             case SEGMENT_NORTH :
                 // if context is defined, use android string
                 if (context == null) {
                     unit = SEGMENT_NORTH_UNIT;
                 } else {
-                    unit = context.getResources()
-                            .getString(R.string.latitude_north_unit);
+                    unit = StringCache.getInstance(context)
+                            .get(StringCache.LATITUDE_NORTH_UNIT);
                 }
                 break;
             case SEGMENT_SOUTH :
@@ -145,8 +162,8 @@ public class Latitude extends AbstractGeoCoordinate {
                 if (context == null) {
                     unit = SEGMENT_SOUTH_UNIT;
                 } else {
-                    unit = context.getResources()
-                            .getString(R.string.latitude_south_unit);
+                    unit = StringCache.getInstance(context)
+                            .get(StringCache.LATITUDE_SOUTH_UNIT);
                 }
                 break;
             default:
@@ -171,19 +188,30 @@ public class Latitude extends AbstractGeoCoordinate {
     }
 
     /**
-     * Format value.
+     * Appends a formatted latitude, fe. 4° 7' 24.4416" N,
+     * without creating an instance.
+     * It uses the shared LocalizedFormatter, which isn't thread safe,
+     * so it should only be called on the UI thread.
      *
-     * @return formatted value
-     */
-    protected final String formatValue() {
-        String[] components = Location.convert(
-                    getConvertedValue(),
-                    Location.FORMAT_SECONDS
-            ).split(":");
-        return String.format("%1$d° %2$d' %3$s\"",
-                Integer.parseInt(components[0]),
-                Integer.parseInt(components[1]),
-                components[2]
-        );
+     * @param builder StringBuilder to append to
+     * @param context App Context, null to use untranslated units
+     * @param coordinate Coordinate value (-90°-90°)
+     * @return builder
+     * @throws IllegalArgumentException if coordinate is out of range
+     */
+    public static StringBuilder appendFormatted(final StringBuilder builder,
+                                                final Context context,
+                                                final double coordinate) {
+        int segment = getSegment(coordinate);
+        if (segment == 0) {
+            throw new IllegalArgumentException(
+                    "parameter coordinate is not in range "
+                            + SEGMENT_SOUTH_LOW + " .. " + SEGMENT_NORTH_HIGH);
+        }
+
+        appendDms(builder, Math.abs(coordinate));
+        builder.append(' ');
+
+        return builder.append(getSegmentUnit(context, segment));
     }
 }
@@ -0,0 +1,604 @@
+/**
+ * Localized number formatting into reusable buffers.
+ *
+ * Copyright (C) 2015 Dieter Adriaenssens
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * @package com.github.ruleant.getback_gps.lib
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+package com.github.ruleant.getback_gps.lib;
+
+import android.content.Context;
+import android.content.res.Resources;
+
+import com.github.ruleant.getback_gps.R;
+import com.github.ruleant.getback_gps.SettingsActivity;
+import com.github.ruleant.unitconversion.AbstractUnitConversion;
+import com.github.ruleant.unitconversion.DistanceConversion;
+import com.github.ruleant.unitconversion.LengthConversion;
+import com.github.ruleant.unitconversion.SpeedConversion;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.NumberFormat;
+import java.util.Locale;
+
+/**
+ * Formats distance, height, speed and angle values,
+ * appending them to a caller owned StringBuilder.
+ *
+ * Digits, separators and units are resolved once for a locale,
+ * numbers are formatted without String.format(), so formatting
+ * doesn't allocate memory. The output is the same as the
+ * String.format() based methods in FormatUtils.
+ * Values are converted to the selected unit system (metric, imperial
+ * or nautical) by unit conversions that are reused for every value.
+ *
+ * Use getInstance() to get a formatter for the current locale,
+ * a new one is created when the locale changes.
+ * A formatter isn't thread safe, it should be used on the UI thread.
+ *
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+public final class LocalizedFormatter {
+    /**
+     * Maximum number of decimals formatted without String.format().
+     */
+    private static final int MAX_DECIMALS = 9;
+
+    /**
+     * Default grouping size.
+     */
+    private static final int DEFAULT_GROUPING_SIZE = 3;
+
+    /**
+     * Maximum number of digits of a long value.
+     */
+    private static final int MAX_DIGITS = 19;
+
+    /**
+     * Number base.
+     */
+    private static final int BASE = 10;
+
+    /**
+     * Scaled values from this limit on have no exact fraction
+     * in a double (2^52).
+     */
+    private static final double MAX_EXACT_SCALED = 4503599627370496d;
+
+    /**
+     * Angle unit.
+     */
+    private static final String UNIT_DEGREE = "°";
+
+    /**
+     * Formatter for the default locale, without resources.
+     */
+    private static volatile LocalizedFormatter sInstance;
+
+    /**
+     * Formatter for the default locale, with units from resources.
+     */
+    private static volatile LocalizedFormatter sResourcesInstance;
+
+    /**
+     * Locale of the number format.
+     */
+    private final Locale mLocale;
+
+    /**
+     * Locale of the unit resources, null if units aren't localized.
+     */
+    private final Locale mResourcesLocale;
+
+    /**
+     * Localized zero digit.
+     */
+    private final char mZeroDigit;
+
+    /**
+     * Localized decimal separator.
+     */
+    private final char mDecimalSeparator;
+
+    /**
+     * Localized grouping separator.
+     */
+    private final char mGroupingSeparator;
+
+    /**
+     * Number of digits in a group.
+     */
+    private final int mGroupingSize;
+
+    /**
+     * Conversion of distances.
+     */
+    private final DistanceConversion mDistance = new DistanceConversion();
+
+    /**
+     * Conversion of heights.
+     */
+    private final LengthConversion mHeight = new LengthConversion();
+
+    /**
+     * Conversion of speeds.
+     */
+    private final SpeedConversion mSpeed = new SpeedConversion();
+
+    /**
+     * Unit system, fe. SettingsActivity.UNITS_METRIC.
+     */
+    private int mUnitSystem = -1;
+
+    /**
+     * Digits of the number being formatted, least significant first.
+     */
+    private final char[] mDigits = new char[MAX_DIGITS];
+
+    /**
+     * Powers of ten, by number of decimals.
+     */
+    private final long[] mPowers = new long[MAX_DECIMALS + 1];
+
+    /**
+     * Constructor.
+     *
+     * @param locale Locale of the number format
+     * @param resources Resources to get the units from,
+     *                  null to use untranslated units
+     */
+    public LocalizedFormatter(final Locale locale, final Resources resources) {
+        if (locale == null) {
+            throw new IllegalArgumentException(
+                    "Parameter locale should not be null");
+        }
+
+        mLocale = locale;
+
+        DecimalFormatSymbols symbols = new DecimalFormatSymbols(locale);
+        mZeroDigit = symbols.getZeroDigit();
+        mDecimalSeparator = symbols.getDecimalSeparator();
+        mGroupingSeparator = symbols.getGroupingSeparator();
+
+        NumberFormat numberFormat = NumberFormat.getIntegerInstance(locale);
+        if (numberFormat instanceof DecimalFormat
+                && ((DecimalFormat) numberFormat).getGroupingSize() > 0) {
+            mGroupingSize = ((DecimalFormat) numberFormat).getGroupingSize();
+        } else {
+            mGroupingSize = DEFAULT_GROUPING_SIZE;
+        }
+
+        if (resources == null) {
+            mResourcesLocale = null;
+        } else {
+            mResourcesLocale = getResourcesLocale(resources);
+            setLengthUnitLabels(mDistance, resources);
+            setLengthUnitLabels(mHeight, resources);
+            mSpeed.setUnitLabel(SpeedConversion.METER_PER_SECOND,
+                    resources.getString(R.string.speed_mps));
+            mSpeed.setUnitLabel(SpeedConversion.KILOMETER_PER_HOUR,
+                    resources.getString(R.string.speed_kph));
+            mSpeed.setUnitLabel(SpeedConversion.MILE_PER_HOUR,
+                    resources.getString(R.string.speed_mph));
+            mSpeed.setUnitLabel(SpeedConversion.KNOT,
+                    resources.getString(R.string.speed_kn));
+        }
+        setUnitSystem(SettingsActivity.UNITS_METRIC);
+
+        mPowers[0] = 1;
+        for (int i = 1; i < mPowers.length; i++) {
+            mPowers[i] = mPowers[i - 1] * BASE;
+        }
+    }
+
+    /**
+     * Gets formatter for the default locale, with untranslated units.
+     *
+     * @return formatter
+     */
+    public static LocalizedFormatter getInstance() {
+        Locale locale = Locale.getDefault();
+        LocalizedFormatter formatter = sInstance;
+
+        if (formatter == null || !formatter.mLocale.equals(locale)) {
+            formatter = new LocalizedFormatter(locale, null);
+            sInstance = formatter;
+        }
+
+        return formatter;
+    }
+
+    /**
+     * Gets formatter for the default locale, with units translated
+     * to the locale of the app resources, in the unit system
+     * selected in the settings.
+     * The formatter is recreated if one of the locales changed.
+     *
+     * @param context App context, null to use untranslated units
+     * @return formatter
+     */
+    public static LocalizedFormatter getInstance(final Context context) {
+        if (context == null) {
+            return getInstance();
+        }
+
+        Locale locale = Locale.getDefault();
+        Resources resources = context.getResources();
+        LocalizedFormatter formatter = sResourcesInstance;
+
+        if (formatter == null || !formatter.mLocale.equals(locale)
+                || !formatter.mResourcesLocale.equals(
+                        getResourcesLocale(resources))) {
+            formatter = new LocalizedFormatter(locale, resources);
+            sResourcesInstance = formatter;
+        }
+
+        formatter.setUnitSystem(SettingsCache.getInstance(context)
+                .getSnapshot().getUnitSystem());
+
+        return formatter;
+    }
+
+    /**
+     * Gets locale of the number format.
+     *
+     * @return locale
+     */
+    public Locale getLocale() {
+        return mLocale;
+    }
+
+    /**
+     * Sets unit system of distances, heights and speeds.
+     *
+     * @param unitSystem Unit system, fe. SettingsActivity.UNITS_IMPERIAL
+     * @throws IllegalArgumentException if unitSystem is not valid
+     */
+    public void setUnitSystem(final int unitSystem) {
+        if (unitSystem == mUnitSystem) {
+            return;
+        }
+
+        switch (unitSystem) {
+            case SettingsActivity.UNITS_METRIC:
+                mDistance.setOutputUnit(LengthConversion.METER);
+                mHeight.setOutputUnit(LengthConversion.METER);
+                mSpeed.setOutputUnit(SpeedConversion.KILOMETER_PER_HOUR);
+                break;
+            case SettingsActivity.UNITS_IMPERIAL:
+                mDistance.setOutputUnit(LengthConversion.FOOT);
+                mHeight.setOutputUnit(LengthConversion.FOOT);
+                mSpeed.setOutputUnit(SpeedConversion.MILE_PER_HOUR);
+                break;
+            case SettingsActivity.UNITS_NAUTICAL:
+                mDistance.setOutputUnit(LengthConversion.NAUTICAL_MILE);
+                mHeight.setOutputUnit(LengthConversion.METER);
+                mSpeed.setOutputUnit(SpeedConversion.KNOT);
+                break;
+            default:
+                throw new IllegalArgumentException(
+                        "parameter unitSystem is not a valid unit system : "
+                                + unitSystem);
+        }
+
+        mUnitSystem = unitSystem;
+    }
+
+    /**
+     * Gets unit system of distances, heights and speeds.
+     *
+     * @return unit system, fe. SettingsActivity.UNITS_METRIC
+     */
+    public int getUnitSystem() {
+        return mUnitSystem;
+    }
+
+    /**
+     * Appends a distance (in meter),
+     * in a short or long unit (fe. meter or kilometer),
+     * depending on the size.
+     *
+     * @param builder StringBuilder to append to
+     * @param distance distance in m
+     * @return builder
+     */
+    public StringBuilder appendDist(final StringBuilder builder,
+                                    final double distance) {
+        // distance shouldn't be negative
+        mDistance.setValue(Math.abs(distance), LengthConversion.METER);
+
+        return appendConverted(builder, mDistance);
+    }
+
+    /**
+     * Appends a height (in meter), in meter or feet.
+     *
+     * @param builder StringBuilder to append to
+     * @param height height in m
+     * @return builder
+     */
+    public StringBuilder appendHeight(final StringBuilder builder,
+                                      final double height) {
+        mHeight.setValue(height, LengthConversion.METER);
+
+        return appendConverted(builder, mHeight);
+    }
+
+    /**
+     * Appends a speed (in meter per second (m/s)),
+     * in kilometer per hour (km/h), mile per hour or knot.
+     *
+     * @param builder StringBuilder to append to
+     * @param speed speed in m/s
+     * @return builder
+     */
+    public StringBuilder appendSpeed(final StringBuilder builder,
+                                     final double speed) {
+        // speed shouldn't be negative
+        mSpeed.setValue(Math.abs(speed), SpeedConversion.METER_PER_SECOND);
+
+        return appendConverted(builder, mSpeed);
+    }
+
+    /**
+     * Appends an angle (in °).
+     *
+     * @param builder StringBuilder to append to
+     * @param angle Angle in °
+     * @param precision number of decimals
+     * @return builder
+     */
+    public StringBuilder appendAngle(final StringBuilder builder,
+                                     final double angle,
+                                     final int precision) {
+        if (precision < 0) {
+            throw new IllegalArgumentException(
+                    "Precision can't be a negative value");
+        }
+
+        appendDecimal(builder, angle, precision, false);
+
+        return builder.append(UNIT_DEGREE);
+    }
+
+    /**
+     * Appends an integer value.
+     *
+     * @param builder StringBuilder to append to
+     * @param value value
+     * @param grouping true to group digits
+     * @return builder
+     */
+    public StringBuilder appendLong(final StringBuilder builder,
+                                    final long value,
+                                    final boolean grouping) {
+        if (value < 0) {
+            builder.append('-');
+        }
+
+        appendDigits(builder, value, grouping);
+
+        return builder;
+    }
+
+    /**
+     * Appends a value with a fixed number of decimals,
+     * rounded half up on the decimal representation of the value,
+     * like String.format(), fe. 1.005 with 2 decimals is 1.01.
+     *
+     * @param builder StringBuilder to append to
+     * @param value value
+     * @param decimals number of decimals
+     * @param grouping true to group digits
+     * @return builder
+     */
+    public StringBuilder appendDecimal(final StringBuilder builder,
+                                       final double value,
+                                       final int decimals,
+                                       final boolean grouping) {
+        if (decimals < 0) {
+            throw new IllegalArgumentException(
+                    "Parameter decimals can't be a negative value");
+        }
+
+        // very precise values, or values too large to round exactly
+        if (decimals > MAX_DECIMALS || Double.isNaN(value)
+                || Math.abs(value) * mPowers[decimals] >= MAX_EXACT_SCALED) {
+            String format = grouping ? "%,." : "%.";
+            return builder.append(String.format(
+                    mLocale, format + decimals + "f", value));
+        }
+
+        // sign of negative values, even when rounded to 0, like Formatter
+        if (value < 0 || 1 / value < 0) {
+            builder.append('-');
+        }
+
+        long power = mPowers[decimals];
+        double absValue = Math.abs(value);
+        long scaled = (long) (absValue * power);
+        // Compare with the halfway decimal instead of rounding the
+        // scaled value : 1.005 * 100 is 100.49999999999999, but 1.005
+        // is the double nearest to 201 / 200, so it is rounded up.
+        // The division is exact or correctly rounded, so the comparison
+        // also holds when the scaled value is off by one.
+        if (absValue >= (2 * scaled + 1) / (2d * power)) {
+            scaled++;
+        }
+
+        appendDigits(builder, scaled / power, grouping);
+        appendFractionDigits(builder, scaled % power, decimals, false);
+
+        return builder;
+    }
+
+    /**
+     * Appends the fractional part of a value, as a decimal separator
+     * followed by the decimals, without trailing zeros.
+     * Nothing is appended if the fraction is 0.
+     *
+     * @param builder StringBuilder to append to
+     * @param fraction fractional part, scaled to an integer number
+     *                 of decimals, fe. 25 for .25 with 2 decimals
+     * @param decimals number of decimals (0-9)
+     * @return builder
+     */
+    public StringBuilder appendFraction(final StringBuilder builder,
+                                        final long fraction,
+                                        final int decimals) {
+        if (decimals < 0 || decimals > MAX_DECIMALS) {
+            throw new IllegalArgumentException(
+                    "Parameter decimals should be in range 0 .. "
+                            + MAX_DECIMALS);
+        }
+
+        if (fraction != 0) {
+            appendFractionDigits(builder, fraction, decimals, true);
+        }
+
+        return builder;
+    }
+
+    /**
+     * Appends the digits of a value, without sign.
+     *
+     * @param builder StringBuilder to append to
+     * @param value value
+     * @param grouping true to group digits
+     */
+    private void appendDigits(final StringBuilder builder, final long value,
+                              final boolean grouping) {
+        final char[] digits = mDigits;
+        int count = 0;
+        long remaining = value;
+
+        // collect digits, least significant first
+        do {
+            digits[count] = (char) (mZeroDigit
+                    + Math.abs(remaining % BASE));
+            remaining /= BASE;
+            count++;
+        } while (remaining != 0);
+
+        for (int i = count - 1; i >= 0; i--) {
+            builder.append(digits[i]);
+            if (grouping && i > 0 && i % mGroupingSize == 0) {
+                builder.append(mGroupingSeparator);
+            }
+        }
+    }
+
+    /**
+     * Appends a decimal separator and the decimals of a fraction.
+     *
+     * @param builder StringBuilder to append to
+     * @param fraction fractional part, scaled to an integer
+     * @param decimals number of decimals
+     * @param trimZeros true to leave out trailing zeros
+     */
+    private void appendFractionDigits(final StringBuilder builder,
+                                      final long fraction,
+                                      final int decimals,
+                                      final boolean trimZeros) {
+        if (decimals == 0) {
+            return;
+        }
+
+        long remaining = Math.abs(fraction) % mPowers[decimals];
+        int count = decimals;
+        if (trimZeros) {
+            while (count > 0 && remaining % BASE == 0) {
+                remaining /= BASE;
+                count--;
+            }
+            if (count == 0) {
+                return;
+            }
+        }
+
+        builder.append(mDecimalSeparator);
+
+        // fraction, with leading zeros
+        for (long divisor = mPowers[count - 1]; divisor > 0;
+                divisor /= BASE) {
+            builder.append((char) (mZeroDigit + remaining / divisor));
+            remaining %= divisor;
+        }
+    }
+
+    /**
+     * Appends the value of a unit conversion, in its display unit,
+     * with its number of decimals, followed by the unit.
+     *
+     * @param builder StringBuilder to append to
+     * @param conversion Unit conversion containing the value
+     * @return builder
+     */
+    private StringBuilder appendConverted(
+            final StringBuilder builder,
+            final AbstractUnitConversion conversion) {
+        int unit = conversion.getDisplayUnit();
+        int decimals = conversion.getDisplayDecimals();
+        boolean grouping = conversion.isDisplayGrouped();
+        double value = conversion.getDisplayValue();
+
+        if (decimals == 0) {
+            appendLong(builder, Math.round(value), grouping);
+        } else {
+            appendDecimal(builder, value, decimals, grouping);
+        }
+
+        return builder.append(conversion.getUnit(unit));
+    }
+
+    /**
+     * Sets localized labels of the length units.
+     *
+     * @param conversion Length conversion
+     * @param resources App resources
+     */
+    private static void setLengthUnitLabels(
+            final LengthConversion conversion, final Resources resources) {
+        conversion.setUnitLabel(LengthConversion.METER,
+                resources.getString(R.string.distance_m));
+        conversion.setUnitLabel(LengthConversion.KILOMETER,
+                resources.getString(R.string.distance_km));
+        conversion.setUnitLabel(LengthConversion.FOOT,
+                resources.getString(R.string.distance_ft));
+        conversion.setUnitLabel(LengthConversion.MILE,
+                resources.getString(R.string.distance_mi));
+        conversion.setUnitLabel(LengthConversion.NAUTICAL_MILE,
+                resources.getString(R.string.distance_nmi));
+    }
+
+    /**
+     * Gets locale of the app resources.
+     *
+     * @param resources App resources
+     * @return locale of the resources, or the default locale
+     */
+    private static Locale getResourcesLocale(final Resources resources) {
+        Locale locale = resources.getConfiguration().locale;
+
+        if (locale == null) {
+            return Locale.getDefault();
+        }
+
+        return locale;
+    }
+}
@@ -22,9 +22,6 @@
 package com.github.ruleant.getback_gps.lib;
 
 import android.content.Context;
-import android.location.Location;
-
-import com.github.ruleant.getback_gps.R;
 
 /**
  * Class for formatting longitude.
@@ -99,14 +96,23 @@ public class Longitude extends AbstractGeoCoordinate {
         setRange(SEGMENT_WEST_LOW, SEGMENT_EAST_HIGH);
     }
 
+    /**
+     * Determine value segment.
+     *
+     * @return segment code
+     */
+    public final int getSegment() {
+        return getSegment(getValue());
+    }
+
     /**
      * Determine value segment, East if longitude is in the range 0..180,
      * West if longitude is in the range -180..0.
      *
+     * @param coordinate Coordinate value
      * @return segment code : SEGMENT_EAST or SEGMENT_WEST
      */
-    public final int getSegment() {
-        double coordinate = getValue();
+    public static int getSegment(final double coordinate) {
         int retVal = 0;
 
         if (coordinate <= SEGMENT_EAST_HIGH && coordinate >= SEGMENT_EAST_LOW) {
@@ -120,22 +126,33 @@ public class Longitude extends AbstractGeoCoordinate {
     }
 
     /**
-     * Get segment unit, E for SEGMENT_EAST, W for SEGMENT_WEST.
+     * Get segment unit.
      *
      * @return unit
      */
     public final String getSegmentUnit() {
+        return getSegmentUnit(getContext(), getSegment());
+    }
+
+    /**
+     * Get segment unit, E for SEGMENT_EAST, W for SEGMENT_WEST.
+     *
+     * @param context App Context, null to use untranslated units
+     * @param segment Segment code
+     * @return unit
+     */
+    public static String getSegmentUnit(final Context context,
+                                        final int segment) {
         String unit = null;
-        Context context = getContext();
 
-        switch (getSegment()) {
+        switch (segment) {
             case SEGMENT_EAST :
                 // if context is defined, use android string
                 if (context == null) {
                     unit = SEGMENT_EAST_UNIT;
                 } else {
-                    unit = context.getResources()
-                            .getString(R.string.longitude_east_unit);
+                    unit = StringCache.getInstance(context)
+                            .get(StringCache.LONGITUDE_EAST_UNIT);
                 }
                 break;
             case SEGMENT_WEST :
@@ -143,8 +160,8 @@ public class Longitude extends AbstractGeoCoordinate {
                 if (context == null) {
                     unit = SEGMENT_WEST_UNIT;
                 } else {
-                    unit = context.getResources()
-                            .getString(R.string.longitude_west_unit);
+                    unit = StringCache.getInstance(context)
+                            .get(StringCache.LONGITUDE_WEST_UNIT);
                 }
                 break;
             default:
@@ -169,19 +186,30 @@ public class Longitude extends AbstractGeoCoordinate {
     }
 
     /**
-     * Format value.
+     * Appends a formatted longitude, fe. 4° 7' 24.4416" E,
+     * without creating an instance.
+     * It uses the shared LocalizedFormatter, which isn't thread safe,
+     * so it should only be called on the UI thread.
      *
-     * @return formatted value
-     */
-    protected final String formatValue() {
-        String[] components = Location.convert(
-                getConvertedValue(),
-                Location.FORMAT_SECONDS
-        ).split(":");
-        return String.format("%1$d° %2$d' %3$s\"",
-                Integer.parseInt(components[0]),
-                Integer.parseInt(components[1]),
-                components[2]
-        );
+     * @param builder StringBuilder to append to
+     * @param context App Context, null to use untranslated units
+     * @param coordinate Coordinate value (-180°-180°)
+     * @return builder
+     * @throws IllegalArgumentException if coordinate is out of range
+     */
+    public static StringBuilder appendFormatted(final StringBuilder builder,
+                                                final Context context,
+                                                final double coordinate) {
+        int segment = getSegment(coordinate);
+        if (segment == 0) {
+            throw new IllegalArgumentException(
+                    "parameter coordinate is not in range "
+                            + SEGMENT_WEST_LOW + " .. " + SEGMENT_EAST_HIGH);
+        }
+
+        appendDms(builder, Math.abs(coordinate));
+        builder.append(' ');
+
+        return builder.append(getSegmentUnit(context, segment));
     }
 }
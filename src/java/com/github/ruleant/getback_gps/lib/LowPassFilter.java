@@ -57,6 +57,77 @@ public class LowPassFilter {
         return previousValue + alpha * (newValue - previousValue);
     }
 
+    /**
+     * Calculates the alpha value of a low pass filter,
+     * for a sample that arrives a certain time after the previous sample.
+     *
+     * With a fixed alpha value, the smoothing depends on the sample rate.
+     * Deriving alpha from the elapsed time and a time constant
+     * gives the same smoothing for any sample rate :
+     * after one time constant, 63% of a step is reached.
+     *
+     * @param elapsedTime Time since previous sample (in nanoseconds)
+     * @param timeConstant Time constant of the filter (in nanoseconds)
+     * @return alpha value (range : 0-1)
+     */
+    public static float getAlpha(final long elapsedTime,
+                                 final long timeConstant) {
+        if (timeConstant <= 0) {
+            throw new IllegalArgumentException(
+                    "parameter timeConstant should be positive");
+        }
+
+        // samples with the same timestamp don't change the filtered value
+        if (elapsedTime <= 0) {
+            return 0;
+        }
+
+        return (float) (1 - Math.exp(
+                -1 * (double) elapsedTime / timeConstant));
+    }
+
+    /**
+     * Calculates the time constant of a low pass filter,
+     * that gives the same smoothing as an alpha value
+     * at a fixed sample rate.
+     *
+     * @param sampleInterval Time between samples (in nanoseconds)
+     * @param alpha Alpha value of low pass filter (valid range : 0-1)
+     * @return time constant (in nanoseconds)
+     */
+    public static long getTimeConstant(final long sampleInterval,
+                                       final float alpha) {
+        if (sampleInterval <= 0) {
+            throw new IllegalArgumentException(
+                    "parameter sampleInterval should be positive");
+        }
+
+        // alpha = 0 never changes the value, alpha = 1 doesn't filter
+        if (alpha >= 1 || alpha <= 0) {
+            throw new IllegalArgumentException(
+                    "parameter alpha is not in range 0.0 .. 1.0 (exclusive)");
+        }
+
+        return Math.round(-1 * sampleInterval / Math.log(1 - alpha));
+    }
+
+    /**
+     * Implements a low pass filter, with an alpha value derived
+     * from the time elapsed since the previous value.
+     *
+     * @param previousValue previous sensor value
+     * @param newValue new sensor value
+     * @param elapsedTime Time since previous value (in nanoseconds)
+     * @param timeConstant Time constant of the filter (in nanoseconds)
+     * @return filtered value
+     */
+    public static float filterValue(
+            final float previousValue, final float newValue,
+            final long elapsedTime, final long timeConstant) {
+        return filterValue(previousValue, newValue,
+                getAlpha(elapsedTime, timeConstant));
+    }
+
     /**
      * Runs a low pass filter on an array of unrelated values in parallel.
      *
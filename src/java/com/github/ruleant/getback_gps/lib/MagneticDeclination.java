@@ -0,0 +1,207 @@
+/**
+ * Magnetic declination, interpolated on a grid of coarse cells.
+ *
+ * Copyright (C) 2015 Dieter Adriaenssens
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * @package com.github.ruleant.getback_gps.lib
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+package com.github.ruleant.getback_gps.lib;
+
+import android.hardware.GeomagneticField;
+
+/**
+ * Calculates the magnetic declination, the angle between magnetic North
+ * and true North, for a location.
+ *
+ * Evaluating the geomagnetic model is expensive, so it is only evaluated
+ * for the corners of the coarse grid cell containing the location.
+ * The declination inside the cell is interpolated between the corners.
+ * The corner values are cached until a location in another cell is used.
+ *
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+public class MagneticDeclination {
+    /**
+     * Size of a grid cell in degrees latitude and longitude.
+     */
+    public static final int CELL_SIZE = 5;
+
+    /**
+     * Maximum latitude.
+     */
+    private static final int LATITUDE_MAX = 90;
+
+    /**
+     * Number of corners of a grid cell.
+     */
+    private static final int CORNERS = 4;
+
+    /**
+     * Corner with lowest latitude and lowest longitude.
+     */
+    private static final int CORNER_LOW_LOW = 0;
+
+    /**
+     * Corner with lowest latitude and highest longitude.
+     */
+    private static final int CORNER_LOW_HIGH = 1;
+
+    /**
+     * Corner with highest latitude and lowest longitude.
+     */
+    private static final int CORNER_HIGH_LOW = 2;
+
+    /**
+     * Corner with highest latitude and highest longitude.
+     */
+    private static final int CORNER_HIGH_HIGH = 3;
+
+    /**
+     * Declination at the corners of the current grid cell.
+     */
+    private final double[] mCornerDeclination = new double[CORNERS];
+
+    /**
+     * Latitude index of the current grid cell.
+     */
+    private int mCellLatitude = 0;
+
+    /**
+     * Longitude index of the current grid cell.
+     */
+    private int mCellLongitude = 0;
+
+    /**
+     * True if the corners of the current grid cell are calculated.
+     */
+    private boolean mCellValid = false;
+
+    /**
+     * Number of times the geomagnetic model was evaluated.
+     */
+    private int mModelEvaluations = 0;
+
+    /**
+     * Gets magnetic declination for a location.
+     *
+     * @param latitude Latitude in degrees (-90°-90°)
+     * @param longitude Longitude in degrees (-180°-180°)
+     * @return declination in degrees, positive if magnetic North
+     * is East of true North
+     */
+    public final double getDeclination(final double latitude,
+                                       final double longitude) {
+        int cellLatitude = (int) Math.floor(latitude / CELL_SIZE);
+        int cellLongitude = (int) Math.floor(longitude / CELL_SIZE);
+
+        // the cell containing the pole is the last cell below the pole
+        cellLatitude = Math.min(cellLatitude, LATITUDE_MAX / CELL_SIZE - 1);
+
+        if (!mCellValid || cellLatitude != mCellLatitude
+                || cellLongitude != mCellLongitude) {
+            updateCell(cellLatitude, cellLongitude);
+        }
+
+        double latitudeFraction
+                = (latitude - (double) cellLatitude * CELL_SIZE) / CELL_SIZE;
+        double longitudeFraction
+                = (longitude - (double) cellLongitude * CELL_SIZE) / CELL_SIZE;
+
+        // interpolate relative to the first corner,
+        // along the shortest arc, in case declination crosses ±180°
+        double base = mCornerDeclination[CORNER_LOW_LOW];
+        double lowHigh = FormatUtils.getAngleDifference(
+                base, mCornerDeclination[CORNER_LOW_HIGH]);
+        double highLow = FormatUtils.getAngleDifference(
+                base, mCornerDeclination[CORNER_HIGH_LOW]);
+        double highHigh = FormatUtils.getAngleDifference(
+                base, mCornerDeclination[CORNER_HIGH_HIGH]);
+
+        double low = lowHigh * longitudeFraction;
+        double high = highLow + (highHigh - highLow) * longitudeFraction;
+
+        double declination = base + low + (high - low) * latitudeFraction;
+
+        // return declination in range -180°-180°
+        return FormatUtils.getAngleDifference(0, declination);
+    }
+
+    /**
+     * Gets the number of times the geomagnetic model was evaluated.
+     *
+     * @return number of geomagnetic model evaluations
+     */
+    public final int getModelEvaluations() {
+        return mModelEvaluations;
+    }
+
+    /**
+     * Evaluates the geomagnetic model at the corners of a grid cell.
+     *
+     * @param cellLatitude Latitude index of the grid cell
+     * @param cellLongitude Longitude index of the grid cell
+     */
+    private void updateCell(final int cellLatitude, final int cellLongitude) {
+        double latitudeLow = (double) cellLatitude * CELL_SIZE;
+        double latitudeHigh = latitudeLow + CELL_SIZE;
+        double longitudeLow = (double) cellLongitude * CELL_SIZE;
+        double longitudeHigh = longitudeLow + CELL_SIZE;
+
+        mCornerDeclination[CORNER_LOW_LOW]
+                = evaluateModel(latitudeLow, longitudeLow);
+        mCornerDeclination[CORNER_LOW_HIGH]
+                = evaluateModel(latitudeLow, longitudeHigh);
+        mCornerDeclination[CORNER_HIGH_LOW]
+                = evaluateModel(latitudeHigh, longitudeLow);
+        mCornerDeclination[CORNER_HIGH_HIGH]
+                = evaluateModel(latitudeHigh, longitudeHigh);
+
+        mCellLatitude = cellLatitude;
+        mCellLongitude = cellLongitude;
+        mCellValid = true;
+    }
+
+    /**
+     * Evaluates the geomagnetic model and counts the evaluation.
+     *
+     * @param latitude Latitude in degrees
+     * @param longitude Longitude in degrees
+     * @return declination in degrees
+     */
+    private double evaluateModel(final double latitude,
+                                 final double longitude) {
+        mModelEvaluations++;
+        return calculateDeclination(latitude, longitude);
+    }
+
+    /**
+     * Calculates declination with the geomagnetic model,
+     * at sea level, at the current time.
+     *
+     * @param latitude Latitude in degrees
+     * @param longitude Longitude in degrees
+     * @return declination in degrees
+     */
+    protected double calculateDeclination(final double latitude,
+                                          final double longitude) {
+        GeomagneticField field = new GeomagneticField(
+                (float) latitude, (float) longitude, 0,
+                System.currentTimeMillis());
+
+        return field.getDeclination();
+    }
+}
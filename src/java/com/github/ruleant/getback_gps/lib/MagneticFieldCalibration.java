@@ -0,0 +1,427 @@
+/**
+ * Online calibration of the magnetic field sensor.
+ *
+ * Copyright (C) 2015 Dieter Adriaenssens
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * @package com.github.ruleant.getback_gps.lib
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+package com.github.ruleant.getback_gps.lib;
+
+import android.hardware.SensorManager;
+
+/**
+ * Online calibration of the magnetic field sensor,
+ * and detection of magnetic interference.
+ *
+ * Measurements of the earth magnetic field by a rotating device
+ * lie on an ellipsoid instead of a sphere around the origin,
+ * because of magnetised parts of the device (hard-iron, offset of the center)
+ * and nearby materials distorting the field (soft-iron, scaling of the axes).
+ *
+ * An axis aligned ellipsoid, A x² + B y² + C z² + D x + E y + F z = 1,
+ * is fitted to the measurements with recursive least squares,
+ * with a forgetting factor, so the fit follows a changing environment.
+ * Each sample updates the fit with a fixed number of operations,
+ * without allocating memory.
+ * The center of the ellipsoid is the hard-iron offset,
+ * the ratio of the radii is the soft-iron scale.
+ *
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+public class MagneticFieldCalibration {
+    /**
+     * Number of axes.
+     */
+    private static final int AXES = 3;
+
+    /**
+     * Number of ellipsoid parameters.
+     */
+    private static final int PARAMETERS = 6;
+
+    /**
+     * Forgetting factor of the recursive least squares fit.
+     */
+    private static final double FORGETTING_FACTOR = 0.995;
+
+    /**
+     * Initial value of the diagonal of the inverse correlation matrix.
+     */
+    private static final double INITIAL_COVARIANCE = 1.0;
+
+    /**
+     * Minimum number of samples before the calibration is used.
+     */
+    public static final int MIN_SAMPLES = 50;
+
+    /**
+     * Minimum distance (in µT) from the previous sample,
+     * to add a sample to the fit.
+     * Prevents a device that isn't rotated from degrading the fit.
+     */
+    private static final double MIN_SAMPLE_DISTANCE = 2.0;
+
+    /**
+     * Relative margin on the range of the earth magnetic field strength,
+     * before a field strength is considered magnetic interference.
+     */
+    private static final double FIELD_STRENGTH_MARGIN = 0.2;
+
+    /**
+     * Minimum expected field strength, in µT.
+     */
+    private static final double FIELD_STRENGTH_MIN
+            = SensorManager.MAGNETIC_FIELD_EARTH_MIN
+            * (1 - FIELD_STRENGTH_MARGIN);
+
+    /**
+     * Maximum expected field strength, in µT.
+     */
+    private static final double FIELD_STRENGTH_MAX
+            = SensorManager.MAGNETIC_FIELD_EARTH_MAX
+            * (1 + FIELD_STRENGTH_MARGIN);
+
+    /**
+     * Maximum relative deviation from the average field strength,
+     * before a field strength is considered magnetic interference.
+     */
+    private static final double FIELD_STRENGTH_DEVIATION = 0.15;
+
+    /**
+     * Alpha value of the low pass filter of the average field strength.
+     */
+    private static final double ALPHA_FIELD_STRENGTH = 0.05;
+
+    /**
+     * Ellipsoid parameters A, B, C, D, E, F.
+     */
+    private final double[] mParameters = new double[PARAMETERS];
+
+    /**
+     * Inverse correlation matrix of the recursive least squares fit.
+     */
+    private final double[][] mCovariance
+            = new double[PARAMETERS][PARAMETERS];
+
+    /**
+     * Regressor of the current sample.
+     */
+    private final double[] mRegressor = new double[PARAMETERS];
+
+    /**
+     * Gain of the current sample.
+     */
+    private final double[] mGain = new double[PARAMETERS];
+
+    /**
+     * Product of regressor and inverse correlation matrix.
+     */
+    private final double[] mRegressorCovariance = new double[PARAMETERS];
+
+    /**
+     * Previous sample added to the fit.
+     */
+    private final double[] mPreviousSample = new double[AXES];
+
+    /**
+     * Hard-iron offset, in µT.
+     */
+    private final double[] mOffset = new double[AXES];
+
+    /**
+     * Soft-iron scale.
+     */
+    private final double[] mScale = {1, 1, 1};
+
+    /**
+     * Number of samples added to the fit.
+     */
+    private int mSamples = 0;
+
+    /**
+     * True if the fit resulted in a valid ellipsoid.
+     */
+    private boolean mCalibrated = false;
+
+    /**
+     * Average field strength, in µT.
+     */
+    private double mAverageFieldStrength = 0;
+
+    /**
+     * Current field strength, in µT.
+     */
+    private double mFieldStrength = 0;
+
+    /**
+     * True if magnetic interference is detected.
+     */
+    private boolean mInterference = false;
+
+    /**
+     * Constructor.
+     */
+    public MagneticFieldCalibration() {
+        reset();
+    }
+
+    /**
+     * Resets calibration.
+     */
+    public final void reset() {
+        for (int i = 0; i < PARAMETERS; i++) {
+            mParameters[i] = 0;
+            for (int j = 0; j < PARAMETERS; j++) {
+                mCovariance[i][j] = (i == j) ? INITIAL_COVARIANCE : 0;
+            }
+        }
+        resetCorrection();
+        mSamples = 0;
+        mAverageFieldStrength = 0;
+        mInterference = false;
+    }
+
+    /**
+     * Resets hard-iron offset and soft-iron scale,
+     * so measurements are no longer corrected.
+     */
+    private void resetCorrection() {
+        for (int i = 0; i < AXES; i++) {
+            mOffset[i] = 0;
+            mScale[i] = 1;
+        }
+        mCalibrated = false;
+    }
+
+    /**
+     * Adds a measurement of the magnetic field sensor to the fit,
+     * and writes the corrected measurement.
+     *
+     * @param values Magnetic field measurement (x, y, z in µT)
+     * @param result Array to write the corrected measurement to,
+     *               can be the same array as values
+     * @throws IllegalArgumentException if values or result
+     * have less than 3 elements
+     */
+    public final void addSample(final float[] values, final float[] result) {
+        if (values == null || values.length < AXES
+                || result == null || result.length < AXES) {
+            throw new IllegalArgumentException(
+                    "values and result should contain 3 axes");
+        }
+
+        double x = values[0];
+        double y = values[1];
+        double z = values[2];
+
+        if (mSamples == 0 || distance(x, y, z) >= MIN_SAMPLE_DISTANCE) {
+            updateFit(x, y, z);
+            mPreviousSample[0] = x;
+            mPreviousSample[1] = y;
+            mPreviousSample[2] = z;
+        }
+
+        correct(values, result);
+        updateFieldStrength(result);
+    }
+
+    /**
+     * Writes the corrected measurement,
+     * values are not corrected while the fit is not valid.
+     *
+     * @param values Magnetic field measurement (x, y, z in µT)
+     * @param result Array to write the corrected measurement to,
+     *               can be the same array as values
+     */
+    public final void correct(final float[] values, final float[] result) {
+        for (int i = 0; i < AXES; i++) {
+            result[i] = (float) ((values[i] - mOffset[i]) * mScale[i]);
+        }
+    }
+
+    /**
+     * Returns true if the fit is valid and used to correct measurements.
+     *
+     * @return true if calibrated
+     */
+    public final boolean isCalibrated() {
+        return mCalibrated;
+    }
+
+    /**
+     * Gets hard-iron offset of an axis.
+     *
+     * @param axis Axis (0 = x, 1 = y, 2 = z)
+     * @return offset in µT
+     */
+    public final double getOffset(final int axis) {
+        return mOffset[axis];
+    }
+
+    /**
+     * Gets soft-iron scale of an axis.
+     *
+     * @param axis Axis (0 = x, 1 = y, 2 = z)
+     * @return scale
+     */
+    public final double getScale(final int axis) {
+        return mScale[axis];
+    }
+
+    /**
+     * Gets strength of the last corrected measurement.
+     *
+     * @return field strength in µT
+     */
+    public final double getFieldStrength() {
+        return mFieldStrength;
+    }
+
+    /**
+     * Returns true if the last measurement indicates magnetic interference,
+     * the field strength is outside the range of the earth magnetic field,
+     * or suddenly deviates from the average field strength.
+     *
+     * @return true if magnetic interference is detected
+     */
+    public final boolean isInterference() {
+        return mInterference;
+    }
+
+    /**
+     * Calculates distance of a sample to the previous sample.
+     *
+     * @param x X value in µT
+     * @param y Y value in µT
+     * @param z Z value in µT
+     * @return distance in µT
+     */
+    private double distance(final double x, final double y, final double z) {
+        double dx = x - mPreviousSample[0];
+        double dy = y - mPreviousSample[1];
+        double dz = z - mPreviousSample[2];
+
+        return Math.sqrt(dx * dx + dy * dy + dz * dz);
+    }
+
+    /**
+     * Updates the ellipsoid fit with a sample, using recursive least squares.
+     *
+     * @param x X value in µT
+     * @param y Y value in µT
+     * @param z Z value in µT
+     */
+    private void updateFit(final double x, final double y, final double z) {
+        mRegressor[0] = x * x;
+        mRegressor[1] = y * y;
+        mRegressor[2] = z * z;
+        mRegressor[3] = x;
+        mRegressor[4] = y;
+        mRegressor[5] = z;
+
+        // P * phi, and phi' * P (P is symmetric)
+        double denominator = FORGETTING_FACTOR;
+        double prediction = 0;
+        for (int i = 0; i < PARAMETERS; i++) {
+            double sum = 0;
+            for (int j = 0; j < PARAMETERS; j++) {
+                sum += mCovariance[i][j] * mRegressor[j];
+            }
+            mRegressorCovariance[i] = sum;
+            denominator += mRegressor[i] * sum;
+            prediction += mRegressor[i] * mParameters[i];
+        }
+
+        // gain and parameter update, the model value is always 1
+        double error = 1 - prediction;
+        for (int i = 0; i < PARAMETERS; i++) {
+            mGain[i] = mRegressorCovariance[i] / denominator;
+            mParameters[i] += mGain[i] * error;
+        }
+
+        // update inverse correlation matrix
+        for (int i = 0; i < PARAMETERS; i++) {
+            for (int j = 0; j < PARAMETERS; j++) {
+                mCovariance[i][j] = (mCovariance[i][j]
+                        - mGain[i] * mRegressorCovariance[j])
+                        / FORGETTING_FACTOR;
+            }
+        }
+
+        mSamples++;
+        updateCorrection();
+    }
+
+    /**
+     * Calculates hard-iron offset and soft-iron scale
+     * from the ellipsoid parameters.
+     */
+    private void updateCorrection() {
+        if (mSamples < MIN_SAMPLES) {
+            return;
+        }
+
+        // center of the ellipsoid, and right hand side of
+        // A (x - cx)² + B (y - cy)² + C (z - cz)² = g
+        double g = 1;
+        for (int i = 0; i < AXES; i++) {
+            if (mParameters[i] <= 0) {
+                // the fit is no ellipsoid, don't use the last valid one
+                resetCorrection();
+                return;
+            }
+            g += mParameters[i + AXES] * mParameters[i + AXES]
+                    / (2 * 2 * mParameters[i]);
+        }
+
+        // radius of each axis is sqrt(g / A), the axes are scaled
+        // to the geometric mean of the radii
+        double meanRadius = 1;
+        for (int i = 0; i < AXES; i++) {
+            meanRadius *= Math.sqrt(g / mParameters[i]);
+        }
+        meanRadius = Math.cbrt(meanRadius);
+
+        for (int i = 0; i < AXES; i++) {
+            mOffset[i] = -1 * mParameters[i + AXES] / (2 * mParameters[i]);
+            mScale[i] = meanRadius / Math.sqrt(g / mParameters[i]);
+        }
+        mCalibrated = true;
+    }
+
+    /**
+     * Updates field strength and detects magnetic interference.
+     *
+     * @param values Corrected magnetic field measurement
+     */
+    private void updateFieldStrength(final float[] values) {
+        mFieldStrength = Math.sqrt(values[0] * values[0]
+                + values[1] * values[1] + values[2] * values[2]);
+
+        if (mAverageFieldStrength == 0) {
+            mAverageFieldStrength = mFieldStrength;
+        }
+
+        mInterference = mFieldStrength < FIELD_STRENGTH_MIN
+                || mFieldStrength > FIELD_STRENGTH_MAX
+                || Math.abs(mFieldStrength - mAverageFieldStrength)
+                    > mAverageFieldStrength * FIELD_STRENGTH_DEVIATION;
+
+        mAverageFieldStrength += ALPHA_FIELD_STRENGTH
+                * (mFieldStrength - mAverageFieldStrength);
+    }
+}
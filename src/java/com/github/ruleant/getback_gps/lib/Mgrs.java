@@ -0,0 +1,269 @@
+/**
+ * Military Grid Reference System coordinates.
+ *
+ * Copyright (C) 2015 Dieter Adriaenssens
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * @package com.github.ruleant.getback_gps.lib
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+package com.github.ruleant.getback_gps.lib;
+
+/**
+ * Formats and parses Military Grid Reference System (MGRS) coordinates,
+ * fe. 31U DQ 48251 11932.
+ *
+ * An MGRS coordinate is a UTM coordinate, with the easting and northing
+ * replaced by the letters of a 100 km square and the position inside it.
+ * Digits are truncated, not rounded, as the coordinate denotes
+ * the square the location is in.
+ *
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+public final class Mgrs {
+    /**
+     * Highest precision : 5 digits, 1 meter.
+     */
+    public static final int PRECISION_MAX = 5;
+
+    /**
+     * Default precision : 5 digits, 1 meter.
+     */
+    public static final int PRECISION_DEFAULT = PRECISION_MAX;
+
+    /**
+     * Column letters of the 100 km squares, for each set of zones.
+     */
+    private static final String[] COLUMN_LETTERS = {
+        "STUVWXYZ", "ABCDEFGH", "JKLMNPQR",
+    };
+
+    /**
+     * Row letters of the 100 km squares.
+     */
+    private static final String ROW_LETTERS = "ABCDEFGHJKLMNPQRSTUV";
+
+    /**
+     * Row letter offset in even zones.
+     */
+    private static final int EVEN_ZONE_ROW_OFFSET = 5;
+
+    /**
+     * Size of a square (in meters).
+     */
+    private static final int SQUARE_SIZE = 100000;
+
+    /**
+     * Northing cycle of the row letters (in meters).
+     */
+    private static final int ROW_CYCLE = 2000000;
+
+    /**
+     * Powers of ten, by number of digits.
+     */
+    private static final int[] POWERS = {1, 10, 100, 1000, 10000, 100000};
+
+    /**
+     * Millimeters in a meter, to round before truncating.
+     */
+    private static final double MM_IN_M = 1000;
+
+    /**
+     * Hidden constructor, to prevent instantiating.
+     */
+    private Mgrs() {
+    }
+
+    /**
+     * Appends a UTM coordinate as MGRS coordinate.
+     *
+     * @param builder StringBuilder to append to
+     * @param utm UTM coordinate
+     * @param precision Number of digits of easting and northing (0-5)
+     * @return builder
+     * @throws IllegalArgumentException if precision is out of range
+     */
+    public static StringBuilder append(final StringBuilder builder,
+                                       final UtmCoordinate utm,
+                                       final int precision) {
+        if (precision < 0 || precision > PRECISION_MAX) {
+            throw new IllegalArgumentException(
+                    "parameter precision is not in range 0 .. "
+                            + PRECISION_MAX);
+        }
+
+        int zone = utm.getZone();
+        // round to mm first, so fe. 99999.9999 isn't truncated to 99999
+        long easting = (long) Math.floor(
+                Math.round(utm.getEasting() * MM_IN_M) / MM_IN_M);
+        long northing = (long) Math.floor(
+                Math.round(utm.getNorthing() * MM_IN_M) / MM_IN_M);
+
+        int column = (int) (easting / SQUARE_SIZE) - 1;
+        int row = (int) (northing % ROW_CYCLE / SQUARE_SIZE);
+        if (zone % 2 == 0) {
+            row = (row + EVEN_ZONE_ROW_OFFSET) % ROW_LETTERS.length();
+        }
+
+        builder.append(zone).append(utm.getBand()).append(' ')
+                .append(COLUMN_LETTERS[zone % COLUMN_LETTERS.length]
+                        .charAt(column))
+                .append(ROW_LETTERS.charAt(row));
+
+        if (precision > 0) {
+            int divisor = POWERS[PRECISION_MAX - precision];
+            builder.append(' ');
+            appendDigits(builder,
+                    (int) (easting % SQUARE_SIZE) / divisor, precision);
+            builder.append(' ');
+            appendDigits(builder,
+                    (int) (northing % SQUARE_SIZE) / divisor, precision);
+        }
+
+        return builder;
+    }
+
+    /**
+     * Parses an MGRS coordinate, fe. 31U DQ 48251 11932 or 31UDQ4825111932.
+     * Returns the south west corner of the denoted square.
+     *
+     * @param text MGRS coordinate, spaces are ignored
+     * @param dst UTM coordinate to set
+     * @throws IllegalArgumentException if text is not a valid coordinate
+     */
+    public static void parse(final CharSequence text,
+                             final UtmCoordinate dst) {
+        if (text == null) {
+            throw new IllegalArgumentException(
+                    "Parameter text should not be null");
+        }
+
+        // remove spaces
+        StringBuilder code = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (!Character.isWhitespace(c)) {
+                code.append(Character.toUpperCase(c));
+            }
+        }
+
+        // zone
+        int index = 0;
+        int zone = 0;
+        while (index < code.length() && index < 2
+                && Character.isDigit(code.charAt(index))) {
+            zone = zone * 10 + Character.digit(code.charAt(index), 10);
+            index++;
+        }
+
+        int digits = code.length() - index - 3;
+        if (index == 0 || digits < 0 || digits % 2 != 0
+                || digits / 2 > PRECISION_MAX) {
+            throw invalid(text);
+        }
+
+        char band = code.charAt(index);
+        int column = COLUMN_LETTERS[zone % COLUMN_LETTERS.length]
+                .indexOf(code.charAt(index + 1));
+        int row = ROW_LETTERS.indexOf(code.charAt(index + 2));
+        if (zone < UtmCoordinate.ZONE_MIN || zone > UtmCoordinate.ZONE_MAX
+                || UtmCoordinate.BANDS.indexOf(band) < 0
+                || column < 0 || row < 0) {
+            throw invalid(text);
+        }
+
+        if (zone % 2 == 0) {
+            row = (row - EVEN_ZONE_ROW_OFFSET + ROW_LETTERS.length())
+                    % ROW_LETTERS.length();
+        }
+
+        // position inside the square
+        int precision = digits / 2;
+        int multiplier = POWERS[PRECISION_MAX - precision];
+        int start = index + 3;
+        long easting = (column + 1) * (long) SQUARE_SIZE
+                + parseDigits(code, start, precision, text) * multiplier;
+        long northing = row * (long) SQUARE_SIZE
+                + parseDigits(code, start + precision, precision, text)
+                * multiplier;
+
+        // northing repeats every 2000 km, add cycles until the square
+        // is in the latitude band, the bottom of the band is lowered
+        // by a square, as squares aren't aligned with the band
+        double bandLatitude = TransverseMercator.getBandLatitude(band);
+        double[] position = {
+            bandLatitude, TransverseMercator.getCentralMeridian(zone),
+        };
+        TransverseMercator.toUtm(zone, bandLatitude >= 0,
+                position, position, 1);
+        double bandNorthing = (Math.floor(position[1] / SQUARE_SIZE) - 1)
+                * SQUARE_SIZE;
+        while (northing < bandNorthing) {
+            northing += ROW_CYCLE;
+        }
+
+        dst.set(zone, band, easting, northing);
+    }
+
+    /**
+     * Appends a number with leading zeros.
+     *
+     * @param builder StringBuilder to append to
+     * @param value value
+     * @param digits number of digits
+     */
+    private static void appendDigits(final StringBuilder builder,
+                                     final int value, final int digits) {
+        for (int i = digits - 1; i >= 0; i--) {
+            builder.append((char) ('0' + value / POWERS[i] % 10));
+        }
+    }
+
+    /**
+     * Parses digits.
+     *
+     * @param code code to parse
+     * @param start index of the first digit
+     * @param digits number of digits
+     * @param text original text, for the exception message
+     * @return value
+     * @throws IllegalArgumentException if a character is not a digit
+     */
+    private static int parseDigits(final CharSequence code, final int start,
+                                   final int digits,
+                                   final CharSequence text) {
+        int value = 0;
+        for (int i = start; i < start + digits; i++) {
+            int digit = Character.digit(code.charAt(i), 10);
+            if (digit < 0) {
+                throw invalid(text);
+            }
+            value = value * 10 + digit;
+        }
+
+        return value;
+    }
+
+    /**
+     * Creates exception for an invalid coordinate.
+     *
+     * @param text invalid coordinate
+     * @return exception
+     */
+    private static IllegalArgumentException invalid(final CharSequence text) {
+        return new IllegalArgumentException(
+                "parameter text is not a valid MGRS coordinate : " + text);
+    }
+}
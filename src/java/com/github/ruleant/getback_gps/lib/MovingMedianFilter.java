@@ -0,0 +1,165 @@
+/**
+ * Moving median filter with preallocated state.
+ *
+ * Copyright (C) 2015 Dieter Adriaenssens
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * @package com.github.ruleant.getback_gps.lib
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+package com.github.ruleant.getback_gps.lib;
+
+import java.util.Arrays;
+
+/**
+ * Moving median filter, removes spikes from a signal,
+ * fe. a single wrong sensor value.
+ *
+ * The values in the window are kept in a ring buffer and in a sorted array,
+ * a new value replaces the oldest value in the sorted array,
+ * without allocating memory.
+ *
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+public class MovingMedianFilter {
+    /**
+     * Values in the window, in order of arrival.
+     */
+    private final double[] mWindow;
+
+    /**
+     * Values in the window, sorted.
+     */
+    private final double[] mSorted;
+
+    /**
+     * Number of values in the window.
+     */
+    private int mCount = 0;
+
+    /**
+     * Index of the oldest value in the window.
+     */
+    private int mOldest = 0;
+
+    /**
+     * Constructor.
+     *
+     * @param windowSize Number of values the median is taken from
+     * @throws IllegalArgumentException if windowSize is smaller than 1
+     */
+    public MovingMedianFilter(final int windowSize) {
+        if (windowSize < 1) {
+            throw new IllegalArgumentException(
+                    "parameter windowSize should be at least 1");
+        }
+
+        mWindow = new double[windowSize];
+        mSorted = new double[windowSize];
+    }
+
+    /**
+     * Resets filter, removes all values from the window.
+     */
+    public final void reset() {
+        mCount = 0;
+        mOldest = 0;
+    }
+
+    /**
+     * Adds a value and returns the median of the window.
+     *
+     * @param value New value
+     * @return median value
+     */
+    public final double filter(final double value) {
+        int position;
+
+        if (mCount < mWindow.length) {
+            // window isn't full yet
+            mWindow[mCount] = value;
+            position = mCount;
+            mCount++;
+        } else {
+            // replace oldest value
+            double oldest = mWindow[mOldest];
+            mWindow[mOldest] = value;
+            mOldest = (mOldest + 1) % mWindow.length;
+
+            position = Arrays.binarySearch(mSorted, 0, mCount, oldest);
+        }
+
+        // move new value to its sorted position
+        while (position > 0 && mSorted[position - 1] > value) {
+            mSorted[position] = mSorted[position - 1];
+            position--;
+        }
+        while (position < mCount - 1 && mSorted[position + 1] < value) {
+            mSorted[position] = mSorted[position + 1];
+            position++;
+        }
+        mSorted[position] = value;
+
+        return getMedian();
+    }
+
+    /**
+     * Filters a block of float samples.
+     *
+     * @param src Source samples
+     * @param dst Array to write the filtered samples to,
+     *            can be the same array as src
+     * @param samples Number of samples
+     */
+    public final void filter(final float[] src, final float[] dst,
+                             final int samples) {
+        for (int i = 0; i < samples; i++) {
+            dst[i] = (float) filter(src[i]);
+        }
+    }
+
+    /**
+     * Filters a block of double samples.
+     *
+     * @param src Source samples
+     * @param dst Array to write the filtered samples to,
+     *            can be the same array as src
+     * @param samples Number of samples
+     */
+    public final void filter(final double[] src, final double[] dst,
+                             final int samples) {
+        for (int i = 0; i < samples; i++) {
+            dst[i] = filter(src[i]);
+        }
+    }
+
+    /**
+     * Gets median of the values in the window.
+     *
+     * @return median value, 0 if window is empty
+     */
+    public final double getMedian() {
+        if (mCount == 0) {
+            return 0;
+        }
+
+        int middle = mCount / 2;
+        if (mCount % 2 == 1) {
+            return mSorted[middle];
+        }
+
+        return (mSorted[middle - 1] + mSorted[middle]) / 2;
+    }
+}
@@ -0,0 +1,481 @@
+/**
+ * Renders the navigation view geometry.
+ *
+ * Copyright (C) 2015 Dieter Adriaenssens
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * @package com.github.ruleant.getback_gps.lib
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+package com.github.ruleant.getback_gps.lib;
+
+/**
+ * Renders the compass rose and the arrow pointing to the destination,
+ * by emitting draw commands to a Sink.
+ *
+ * The renderer doesn't depend on the Android drawing classes,
+ * so the geometry can be generated (and measured) on any JVM.
+ * A view implements the Sink with a Canvas.
+ *
+ * The geometry is calculated once for each size, pointing North,
+ * and rotated by the Sink when it is drawn.
+ *
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+public class NavigationRenderer {
+    /**
+     * Receives the draw commands of the renderer.
+     * Arrays passed to the Sink are owned by the renderer,
+     * they shouldn't be changed.
+     */
+    public interface Sink {
+        /**
+         * Draws a circle.
+         *
+         * @param centerX X coordinate of the center
+         * @param centerY Y coordinate of the center
+         * @param radius Radius
+         * @param paint Paint id, fe. PAINT_ROSE_LINES
+         */
+        void drawCircle(float centerX, float centerY, float radius,
+                        int paint);
+
+        /**
+         * Draws a filled wedge of a circle.
+         *
+         * @param centerX X coordinate of the center
+         * @param centerY Y coordinate of the center
+         * @param radius Radius
+         * @param startAngle Start angle in degrees, 0° is at 3 o'clock
+         * @param sweepAngle Sweep angle in degrees, clockwise
+         * @param paint Paint id
+         */
+        void drawWedge(float centerX, float centerY, float radius,
+                       float startAngle, float sweepAngle, int paint);
+
+        /**
+         * Draws a filled, closed polygon.
+         * The points of a shape only change when the geometry version
+         * changes, so the Sink can cache the shape.
+         *
+         * @param shape Shape id, fe. SHAPE_ARROW_RIGHT
+         * @param points Points, packed as x0, y0, x1, y1, ...
+         * @param count Number of points
+         * @param paint Paint id
+         */
+        void drawPolygon(int shape, float[] points, int count, int paint);
+
+        /**
+         * Draws lines, in Canvas.drawLines() format.
+         *
+         * @param lines Lines, packed as start x, y and end x, y
+         * @param count Number of values in lines
+         * @param paint Paint id
+         */
+        void drawLines(float[] lines, int count, int paint);
+
+        /**
+         * Saves the current transformation and rotates
+         * the next draw commands around a point.
+         *
+         * @param angle Rotation angle in degrees, clockwise
+         * @param centerX X coordinate of the rotation center
+         * @param centerY Y coordinate of the rotation center
+         */
+        void rotate(float angle, float centerX, float centerY);
+
+        /**
+         * Restores the transformation saved by rotate().
+         */
+        void restore();
+    }
+
+    /**
+     * Paint of the compass rose lines.
+     */
+    public static final int PAINT_ROSE_LINES = 0;
+
+    /**
+     * Paint of the compass rose solids.
+     */
+    public static final int PAINT_ROSE_SOLIDS = 1;
+
+    /**
+     * Paint of the compass rose North solid.
+     */
+    public static final int PAINT_ROSE_SOLID_NORTH = 2;
+
+    /**
+     * Paint of the arrow lines.
+     */
+    public static final int PAINT_LINES = 3;
+
+    /**
+     * Paint of the arrow solid.
+     */
+    public static final int PAINT_SOLIDS = 4;
+
+    /**
+     * Paint of the white part of the arrow solid.
+     */
+    public static final int PAINT_ARROW_SOLID_WHITE = 5;
+
+    /**
+     * Paint of the bearing uncertainty wedge.
+     */
+    public static final int PAINT_UNCERTAINTY = 6;
+
+    /**
+     * Number of paints.
+     */
+    public static final int PAINTS = 7;
+
+    /**
+     * Number of compass rose quadrants.
+     */
+    public static final int ROSE_QUADRANTS = 4;
+
+    /**
+     * Shape of the first compass rose quadrant (North),
+     * the other quadrants follow clockwise.
+     */
+    public static final int SHAPE_ROSE_QUADRANT = 0;
+
+    /**
+     * Shape of the solid right part of the arrow.
+     */
+    public static final int SHAPE_ARROW_RIGHT = ROSE_QUADRANTS;
+
+    /**
+     * Shape of the solid left part of the arrow.
+     */
+    public static final int SHAPE_ARROW_LEFT = SHAPE_ARROW_RIGHT + 1;
+
+    /**
+     * Number of shapes.
+     */
+    public static final int SHAPES = SHAPE_ARROW_LEFT + 1;
+
+    /**
+     * 10 %.
+     */
+    private static final double D_10PCT = 0.1;
+
+    /**
+     * 40 %.
+     */
+    private static final double D_40PCT = 0.4;
+
+    /**
+     * 80 %.
+     */
+    private static final double D_80PCT = 0.8;
+
+    /**
+     * Compass rose arm length.
+     */
+    private static final double ROSE_LENGTH = 0.95;
+
+    /**
+     * Compass rose intersection length.
+     */
+    private static final double ROSE_INTER_LENGTH = 0.25;
+
+    /**
+     * arrow side angle.
+     */
+    private static final double ARROW_ANGLE = 35.0;
+
+    /**
+     * Compass rose intersection angle.
+     */
+    private static final double INTERSECTION_ANGLE = 45.0;
+
+    /**
+     * Arrow indicating direction (lines).
+     */
+    private final Coordinates mArrowLines = new Coordinates();
+
+    /**
+     * Arrow indicating direction (solid right part).
+     */
+    private final Coordinates mArrowBodyRight = new Coordinates();
+
+    /**
+     * Arrow indicating direction (solid left part).
+     */
+    private final Coordinates mArrowBodyLeft = new Coordinates();
+
+    /**
+     * Compass rose.
+     */
+    private final Coordinates mCompassRose = new Coordinates();
+
+    /**
+     * Compass rose solid body.
+     */
+    private final Coordinates mCompassRoseBody = new Coordinates();
+
+    /**
+     * Rotation center.
+     */
+    private final Coordinate mRotationCenter = new Coordinate(0, 0);
+
+    /**
+     * Compass rose rotation converter.
+     */
+    private final CoordinateRotation mRoseRotationConverter
+            = new CoordinateRotation(mRotationCenter, 0.0, 1.0);
+
+    /**
+     * Arrow rotation converter.
+     */
+    private final CoordinateRotation mRotationConverter
+            = new CoordinateRotation(mRotationCenter, 0.0, 1.0);
+
+    /**
+     * Points of each shape.
+     */
+    private final float[][] mShapePoints = new float[SHAPES][];
+
+    /**
+     * Lines of all compass rose quadrants.
+     */
+    private final float[] mCompassRoseLines;
+
+    /**
+     * Lines of a single compass rose quadrant, used to build the rose.
+     */
+    private final float[] mCompassRoseQuadrantLines;
+
+    /**
+     * Lines of the arrow.
+     */
+    private final float[] mArrowLinesArray;
+
+    /**
+     * Width the geometry was calculated for.
+     */
+    private int mWidth = -1;
+
+    /**
+     * Height the geometry was calculated for.
+     */
+    private int mHeight = -1;
+
+    /**
+     * X coordinate of the center.
+     */
+    private float mCenterX = 0;
+
+    /**
+     * Y coordinate of the center.
+     */
+    private float mCenterY = 0;
+
+    /**
+     * Radius of the circle around the compass rose.
+     */
+    private float mRadius = 0;
+
+    /**
+     * Version of the geometry, changes when the geometry is recalculated.
+     */
+    private int mGeometryVersion = 0;
+
+    /**
+     * Constructor.
+     */
+    public NavigationRenderer() {
+        mCompassRose.setCoordinateConverter(mRoseRotationConverter);
+        mCompassRoseBody.setCoordinateConverter(mRoseRotationConverter);
+        mArrowLines.setCoordinateConverter(mRotationConverter);
+        mArrowBodyRight.setCoordinateConverter(mRotationConverter);
+        mArrowBodyLeft.setCoordinateConverter(mRotationConverter);
+
+        // draw compass rose
+
+        // left side/outline in lines
+        mCompassRose.addCoordinate(ROSE_LENGTH, 0);
+        mCompassRose.addCoordinate(0, 0);
+        mCompassRose.addCoordinate(ROSE_INTER_LENGTH, INTERSECTION_ANGLE);
+        mCompassRose.addCoordinate(ROSE_LENGTH, 0);
+        mCompassRose.addCoordinate(ROSE_INTER_LENGTH, -1 * INTERSECTION_ANGLE);
+        // don't close line
+        mCompassRose.setCloseLine(false);
+
+        // right side filled body
+        mCompassRoseBody.addCoordinate(0, 0);
+        mCompassRoseBody.addCoordinate(ROSE_LENGTH, 0);
+        mCompassRoseBody.addCoordinate(ROSE_INTER_LENGTH,
+                -1 * INTERSECTION_ANGLE);
+
+        // draw arrow
+
+        double arrowLength = D_80PCT;
+        double arrowLengthDivide = -1 * D_10PCT;
+        double arrowLengthTail = -1 * D_40PCT;
+
+        // left side/outline in lines
+        mArrowLines.addCoordinate(arrowLength, 0);
+        mArrowLines.addCoordinate(arrowLengthTail, -1 * ARROW_ANGLE);
+        mArrowLines.addCoordinate(arrowLengthDivide, 0);
+        mArrowLines.addCoordinate(arrowLengthTail, ARROW_ANGLE);
+        mArrowLines.addCoordinate(arrowLength, 0);
+        mArrowLines.addCoordinate(arrowLengthDivide, 0);
+        // don't close line
+        mArrowLines.setCloseLine(false);
+
+        // right side of the filled arrow body
+        mArrowBodyRight.addCoordinate(arrowLength, 0);
+        mArrowBodyRight.addCoordinate(arrowLengthTail, -1 * ARROW_ANGLE);
+        mArrowBodyRight.addCoordinate(arrowLengthDivide, 0);
+
+        // left side of the filled arrow body
+        mArrowBodyLeft.addCoordinate(arrowLength, 0);
+        mArrowBodyLeft.addCoordinate(arrowLengthTail, ARROW_ANGLE);
+        mArrowBodyLeft.addCoordinate(arrowLengthDivide, 0);
+
+        // allocate arrays used when drawing
+        for (int i = 0; i < ROSE_QUADRANTS; i++) {
+            mShapePoints[SHAPE_ROSE_QUADRANT + i]
+                    = new float[mCompassRoseBody.getSize() * 2];
+        }
+        mShapePoints[SHAPE_ARROW_RIGHT]
+                = new float[mArrowBodyRight.getSize() * 2];
+        mShapePoints[SHAPE_ARROW_LEFT]
+                = new float[mArrowBodyLeft.getSize() * 2];
+        mCompassRoseQuadrantLines
+                = new float[mCompassRose.getLinesArrayLength()];
+        mCompassRoseLines
+                = new float[ROSE_QUADRANTS * mCompassRoseQuadrantLines.length];
+        mArrowLinesArray = new float[mArrowLines.getLinesArrayLength()];
+    }
+
+    /**
+     * Sets size of the drawing area,
+     * the geometry is recalculated if the size changed.
+     *
+     * @param width Width
+     * @param height Height
+     */
+    public final void setSize(final int width, final int height) {
+        if (width == mWidth && height == mHeight) {
+            return;
+        }
+
+        mWidth = width;
+        mHeight = height;
+        mGeometryVersion++;
+
+        // Set up rotation converters
+        mRotationCenter.setPreciseCartesianCoordinate(
+                width / 2.0, height / 2.0);
+        mCenterX = (float) mRotationCenter.getPreciseCartesianX();
+        mCenterY = (float) mRotationCenter.getPreciseCartesianY();
+        mRadius = ((float) height / 2) * (float) ROSE_LENGTH;
+        mRoseRotationConverter.setScaleRadius((double) height / 2);
+        mRotationConverter.setRotationAngle(0);
+        mRotationConverter.setScaleRadius((double) height / 2);
+
+        // compass rose, a quadrant at a time
+        int linesLength = mCompassRoseQuadrantLines.length;
+        for (int i = 0; i < ROSE_QUADRANTS; i++) {
+            mRoseRotationConverter.setRotationAngle(i * FormatUtils.CIRCLE_1Q);
+            mCompassRoseBody.transform(mShapePoints[SHAPE_ROSE_QUADRANT + i]);
+            mCompassRose.toLinesArray(mCompassRoseQuadrantLines);
+            System.arraycopy(mCompassRoseQuadrantLines, 0,
+                    mCompassRoseLines, i * linesLength, linesLength);
+        }
+
+        // arrow
+        mArrowBodyRight.transform(mShapePoints[SHAPE_ARROW_RIGHT]);
+        mArrowBodyLeft.transform(mShapePoints[SHAPE_ARROW_LEFT]);
+        mArrowLines.toLinesArray(mArrowLinesArray);
+    }
+
+    /**
+     * Gets version of the geometry,
+     * it changes every time the geometry is recalculated.
+     *
+     * @return geometry version
+     */
+    public final int getGeometryVersion() {
+        return mGeometryVersion;
+    }
+
+    /**
+     * Emits the draw commands of a frame to a Sink.
+     * setSize() should be called first.
+     *
+     * @param sink Sink receiving the draw commands
+     * @param direction Direction of the arrow in degrees, 0° points up
+     * @param azimuth Rotation of the compass rose in degrees
+     * @param uncertainty Uncertainty of the direction in degrees,
+     *                    0 doesn't draw the uncertainty wedge
+     * @param drawRose true to draw the compass rose
+     */
+    public final void render(final Sink sink, final double direction,
+                             final double azimuth, final double uncertainty,
+                             final boolean drawRose) {
+        final float centerX = mCenterX;
+        final float centerY = mCenterY;
+        final float radius = mRadius;
+
+        // draw circle with diameter scaled to length of compass rose arrow
+        sink.drawCircle(centerX, centerY, radius, PAINT_ROSE_LINES);
+
+        // draw compass rose, rotated by the sink
+        if (drawRose) {
+            sink.rotate((float) azimuth, centerX, centerY);
+            for (int i = 0; i < ROSE_QUADRANTS; i++) {
+                // North quadrant is darker
+                drawShape(sink, SHAPE_ROSE_QUADRANT + i,
+                        i == 0 ? PAINT_ROSE_SOLID_NORTH : PAINT_ROSE_SOLIDS);
+            }
+            sink.drawLines(mCompassRoseLines, mCompassRoseLines.length,
+                    PAINT_ROSE_LINES);
+            sink.restore();
+        }
+
+        // draw wedge indicating uncertainty of the direction,
+        // arcs start at 3 o'clock, direction 0° points up
+        if (uncertainty > 0) {
+            sink.drawWedge(centerX, centerY, radius,
+                    (float) (direction - FormatUtils.CIRCLE_1Q - uncertainty),
+                    (float) (2 * uncertainty),
+                    PAINT_UNCERTAINTY);
+        }
+
+        // draw arrow to destination, rotated by the sink
+        sink.rotate((float) direction, centerX, centerY);
+        drawShape(sink, SHAPE_ARROW_RIGHT, PAINT_SOLIDS);
+        drawShape(sink, SHAPE_ARROW_LEFT, PAINT_ARROW_SOLID_WHITE);
+        sink.drawLines(mArrowLinesArray, mArrowLinesArray.length, PAINT_LINES);
+        sink.restore();
+    }
+
+    /**
+     * Emits a shape to a Sink.
+     *
+     * @param sink Sink receiving the draw command
+     * @param shape Shape id
+     * @param paint Paint id
+     */
+    private void drawShape(final Sink sink, final int shape, final int paint) {
+        float[] points = mShapePoints[shape];
+        sink.drawPolygon(shape, points, points.length / 2, paint);
+    }
+}
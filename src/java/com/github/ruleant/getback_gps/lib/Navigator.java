@@ -57,6 +57,17 @@ public class Navigator {
      */
     private static final double DIRECTION_ANGLE_RANGE = 60;
 
+    /**
+     * Maximum uncertainty (in degrees) of an accurate sensor based bearing.
+     */
+    private static final double SENSOR_UNCERTAINTY_LIMIT = 30;
+
+    /**
+     * Number of location based bearings
+     * used to calculate the uncertainty.
+     */
+    private static final int LOCATION_BEARING_WINDOW = 5;
+
     /**
      * Zero distance.
      */
@@ -104,6 +115,12 @@ public class Navigator {
      */
     private TravelDirection mTravelDirection = TravelDirection.Unknown;
 
+    /**
+     * Statistics of the most recent location based bearings.
+     */
+    private final CircularStatistics mLocationBearingStatistics
+            = new CircularStatistics(LOCATION_BEARING_WINDOW);
+
     /**
      * Constructor.
      */
@@ -133,6 +150,16 @@ public class Navigator {
         mPreviousLocation = mCurrentLocation;
         mCurrentLocation = location;
 
+        // correct sensor orientation to true North at new location
+        if (mSensorOrientation != null) {
+            mSensorOrientation.setLocation(location);
+        }
+
+        if (mCurrentLocation != null && mCurrentLocation.hasBearing()
+                || isLocationBearingAccurate()) {
+            mLocationBearingStatistics.add(getLocationBearing());
+        }
+
         calculateSensorBearingOffset();
     }
 
@@ -385,13 +412,57 @@ public class Navigator {
     }
 
     /**
-     * Determines if sensor based bearing is accurate.
+     * Determines if sensor based bearing is accurate,
+     * if the sensors recently provided an orientation
+     * and if the compass is reliable.
      *
      * @return true if sensor based bearing is accurate
      */
     public final boolean isSensorBearingAccurate() {
         return  mSensorOrientation != null
-                && mSensorOrientation.hasOrientation();
+                && mSensorOrientation.hasOrientation()
+                && !mSensorOrientation.isOrientationUnreliable()
+                && mSensorOrientation.getOrientationUncertainty()
+                    <= SENSOR_UNCERTAINTY_LIMIT;
+    }
+
+    /**
+     * Gets uncertainty of the current bearing,
+     * sensor based if it is accurate, otherwise location based.
+     *
+     * @return uncertainty in degrees (0°-180°)
+     */
+    public final double getBearingUncertainty() {
+        if (isSensorBearingAccurate()) {
+            return getSensorBearingUncertainty();
+        } else {
+            return getLocationBearingUncertainty();
+        }
+    }
+
+    /**
+     * Gets uncertainty of the sensor based bearing.
+     *
+     * @return uncertainty in degrees (0°-180°),
+     * 180° if there is no sensor based bearing
+     */
+    public final double getSensorBearingUncertainty() {
+        if (mSensorOrientation == null) {
+            return FormatUtils.CIRCLE_HALF;
+        }
+
+        return mSensorOrientation.getOrientationUncertainty();
+    }
+
+    /**
+     * Gets uncertainty of the location based bearing,
+     * the spread of the most recent location based bearings.
+     *
+     * @return uncertainty in degrees (0°-180°),
+     * 180° if there is no location based bearing
+     */
+    public final double getLocationBearingUncertainty() {
+        return mLocationBearingStatistics.getUncertainty();
     }
 
     /**
@@ -0,0 +1,330 @@
+/**
+ * Open Location Code (Plus Code) encoding and decoding.
+ *
+ * Copyright (C) 2015 Dieter Adriaenssens
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * @package com.github.ruleant.getback_gps.lib
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+package com.github.ruleant.getback_gps.lib;
+
+/**
+ * Encodes and decodes Open Location Codes (Plus Codes),
+ * fe. 8FVC2222+22.
+ *
+ * The location is converted to integers in units of the smallest cell
+ * once, the digits are taken from those integers, so floating point
+ * errors don't accumulate over the digits.
+ * Only full codes are supported, not codes shortened
+ * relative to a reference location.
+ *
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+public final class OpenLocationCode {
+    /**
+     * Default code length : 10 digits, a cell of about 14 by 14 meters.
+     */
+    public static final int CODE_LENGTH_DEFAULT = 10;
+
+    /**
+     * Maximum code length : 15 digits.
+     */
+    public static final int CODE_LENGTH_MAX = 15;
+
+    /**
+     * Minimum code length : 2 digits.
+     */
+    public static final int CODE_LENGTH_MIN = 2;
+
+    /**
+     * Separator between the first 8 digits and the rest of the code.
+     */
+    public static final char SEPARATOR = '+';
+
+    /**
+     * Padding character of codes shorter than 8 digits.
+     */
+    public static final char PADDING = '0';
+
+    /**
+     * Digits of the code.
+     */
+    private static final String ALPHABET = "23456789CFGHJMPQRVWX";
+
+    /**
+     * Number base of the digit pairs.
+     */
+    private static final int BASE = 20;
+
+    /**
+     * Position of the separator.
+     */
+    private static final int SEPARATOR_POSITION = 8;
+
+    /**
+     * Number of digits encoded as latitude, longitude pairs.
+     */
+    private static final int PAIR_CODE_LENGTH = 10;
+
+    /**
+     * Number of pairs.
+     */
+    private static final int PAIRS = PAIR_CODE_LENGTH / 2;
+
+    /**
+     * Number of grid digits.
+     */
+    private static final int GRID_DIGITS = CODE_LENGTH_MAX - PAIR_CODE_LENGTH;
+
+    /**
+     * Rows of a grid cell (latitude).
+     */
+    private static final int GRID_ROWS = 5;
+
+    /**
+     * Columns of a grid cell (longitude).
+     */
+    private static final int GRID_COLUMNS = 4;
+
+    /**
+     * Maximum latitude.
+     */
+    private static final int LATITUDE_MAX = 90;
+
+    /**
+     * Maximum longitude.
+     */
+    private static final int LONGITUDE_MAX = 180;
+
+    /**
+     * Units of the smallest latitude cell in a degree.
+     */
+    private static final long LATITUDE_UNITS = 8000L * 3125;
+
+    /**
+     * Units of the smallest longitude cell in a degree.
+     */
+    private static final long LONGITUDE_UNITS = 8000L * 1024;
+
+    /**
+     * Scale used to round values very close to a cell border,
+     * before converting them to integer units.
+     */
+    private static final double ROUNDING_SCALE = 1e6;
+
+    /**
+     * Latitude units of each digit, most significant first.
+     */
+    private static final long[] LATITUDE_PLACES = new long[CODE_LENGTH_MAX];
+
+    /**
+     * Longitude units of each digit, most significant first.
+     */
+    private static final long[] LONGITUDE_PLACES = new long[CODE_LENGTH_MAX];
+
+    static {
+        // place values of the grid digits, from the last digit
+        long latitudePlace = 1;
+        long longitudePlace = 1;
+        for (int i = CODE_LENGTH_MAX - 1; i >= PAIR_CODE_LENGTH; i--) {
+            LATITUDE_PLACES[i] = latitudePlace;
+            LONGITUDE_PLACES[i] = longitudePlace;
+            latitudePlace *= GRID_ROWS;
+            longitudePlace *= GRID_COLUMNS;
+        }
+
+        // place values of the pairs, shared by latitude and longitude digit
+        for (int i = PAIR_CODE_LENGTH - 2; i >= 0; i -= 2) {
+            LATITUDE_PLACES[i] = latitudePlace;
+            LATITUDE_PLACES[i + 1] = latitudePlace;
+            LONGITUDE_PLACES[i] = longitudePlace;
+            LONGITUDE_PLACES[i + 1] = longitudePlace;
+            latitudePlace *= BASE;
+            longitudePlace *= BASE;
+        }
+    }
+
+    /**
+     * Hidden constructor, to prevent instantiating.
+     */
+    private OpenLocationCode() {
+    }
+
+    /**
+     * Appends the code of a location.
+     *
+     * @param builder StringBuilder to append to
+     * @param latitude Latitude in degrees, clipped to -90°-90°
+     * @param longitude Longitude in degrees, normalized to -180°-180°
+     * @param codeLength Number of digits (2, 4, 6, 8 or 10-15)
+     * @return builder
+     * @throws IllegalArgumentException if codeLength is invalid
+     */
+    public static StringBuilder append(final StringBuilder builder,
+                                       final double latitude,
+                                       final double longitude,
+                                       final int codeLength) {
+        if (codeLength < CODE_LENGTH_MIN || codeLength > CODE_LENGTH_MAX
+                || (codeLength < PAIR_CODE_LENGTH && codeLength % 2 != 0)) {
+            throw new IllegalArgumentException(
+                    "parameter codeLength should be 2, 4, 6, 8 or 10-15");
+        }
+
+        long latitudeMax = 2 * LATITUDE_MAX * LATITUDE_UNITS;
+        double clipped = Math.max(-LATITUDE_MAX,
+                Math.min(LATITUDE_MAX, latitude));
+        long latitudeValue = toUnits(clipped + LATITUDE_MAX, LATITUDE_UNITS);
+        // the northern border belongs to the cell below it
+        latitudeValue = Math.min(latitudeValue, latitudeMax - 1);
+
+        long longitudeValue = toUnits(
+                FormatUtils.normalizeAngle(longitude + LONGITUDE_MAX),
+                LONGITUDE_UNITS);
+        longitudeValue %= 2 * LONGITUDE_MAX * LONGITUDE_UNITS;
+
+        int digits = Math.max(codeLength, SEPARATOR_POSITION);
+        for (int i = 0; i < digits; i++) {
+            if (i == SEPARATOR_POSITION) {
+                builder.append(SEPARATOR);
+            }
+
+            if (i >= codeLength) {
+                builder.append(PADDING);
+            } else if (i < PAIR_CODE_LENGTH) {
+                // latitude digit, followed by longitude digit
+                if (i % 2 == 0) {
+                    builder.append(ALPHABET.charAt((int)
+                            (latitudeValue / LATITUDE_PLACES[i] % BASE)));
+                } else {
+                    builder.append(ALPHABET.charAt((int)
+                            (longitudeValue / LONGITUDE_PLACES[i] % BASE)));
+                }
+            } else {
+                int row = (int) (latitudeValue / LATITUDE_PLACES[i]
+                        % GRID_ROWS);
+                int column = (int) (longitudeValue / LONGITUDE_PLACES[i]
+                        % GRID_COLUMNS);
+                builder.append(ALPHABET.charAt(row * GRID_COLUMNS + column));
+            }
+        }
+
+        if (digits == SEPARATOR_POSITION) {
+            builder.append(SEPARATOR);
+        }
+
+        return builder;
+    }
+
+    /**
+     * Decodes a code to the center of its cell.
+     *
+     * @param code Full Open Location Code, fe. 8FVC2222+22
+     * @param dst array to write latitude and longitude (in degrees) to
+     * @return number of digits of the code
+     * @throws IllegalArgumentException if code is not a valid full code
+     */
+    public static int decode(final CharSequence code, final double[] dst) {
+        if (code == null) {
+            throw new IllegalArgumentException(
+                    "Parameter code should not be null");
+        }
+
+        int length = code.length();
+        if (length <= SEPARATOR_POSITION
+                || code.charAt(SEPARATOR_POSITION) != SEPARATOR
+                || length == SEPARATOR_POSITION + 2
+                || length > CODE_LENGTH_MAX + 1) {
+            throw invalid(code);
+        }
+
+        long latitudeValue = 0;
+        long longitudeValue = 0;
+        int digits = 0;
+        boolean padding = false;
+
+        for (int i = 0; i < length; i++) {
+            if (i == SEPARATOR_POSITION) {
+                continue;
+            }
+            char c = Character.toUpperCase(code.charAt(i));
+            if (c == PADDING && i < SEPARATOR_POSITION && digits % 2 == 0
+                    && digits > 0) {
+                padding = true;
+                continue;
+            }
+            int value = ALPHABET.indexOf(c);
+            if (value < 0 || padding) {
+                throw invalid(code);
+            }
+
+            if (digits < PAIR_CODE_LENGTH) {
+                if (digits % 2 == 0) {
+                    latitudeValue += value * LATITUDE_PLACES[digits];
+                } else {
+                    longitudeValue += value * LONGITUDE_PLACES[digits];
+                }
+            } else {
+                latitudeValue += value / GRID_COLUMNS
+                        * LATITUDE_PLACES[digits];
+                longitudeValue += value % GRID_COLUMNS
+                        * LONGITUDE_PLACES[digits];
+            }
+            digits++;
+        }
+
+        if (latitudeValue >= 2 * LATITUDE_MAX * LATITUDE_UNITS
+                || longitudeValue >= 2 * LONGITUDE_MAX * LONGITUDE_UNITS) {
+            throw invalid(code);
+        }
+
+        // center of the cell, the size is the place value of the last digit
+        int last = Math.max(digits - 1, 1);
+        long latitudeSize = LATITUDE_PLACES[last];
+        long longitudeSize = LONGITUDE_PLACES[last];
+
+        dst[0] = Math.min(LATITUDE_MAX,
+                (latitudeValue + latitudeSize / 2.0) / LATITUDE_UNITS
+                        - LATITUDE_MAX);
+        dst[1] = (longitudeValue + longitudeSize / 2.0) / LONGITUDE_UNITS
+                - LONGITUDE_MAX;
+
+        return digits;
+    }
+
+    /**
+     * Converts degrees to integer units, rounding down.
+     *
+     * @param degrees positive value in degrees
+     * @param units units in a degree
+     * @return value in units
+     */
+    private static long toUnits(final double degrees, final long units) {
+        return (long) Math.floor(Math.round(degrees * units * ROUNDING_SCALE)
+                / ROUNDING_SCALE);
+    }
+
+    /**
+     * Creates exception for an invalid code.
+     *
+     * @param code invalid code
+     * @return exception
+     */
+    private static IllegalArgumentException invalid(final CharSequence code) {
+        return new IllegalArgumentException(
+                "parameter code is not a valid full Open Location Code : "
+                        + code);
+    }
+}
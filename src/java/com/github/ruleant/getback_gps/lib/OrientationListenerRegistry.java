@@ -0,0 +1,281 @@
+/**
+ * Registry of orientation event listeners.
+ *
+ * Copyright (C) 2015 Dieter Adriaenssens
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * @package com.github.ruleant.getback_gps.lib
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+package com.github.ruleant.getback_gps.lib;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Copy-on-write registry of orientation event listeners,
+ * with per-listener throttling.
+ *
+ * Adding or removing a listener replaces the array of registered listeners
+ * with a modified copy, using compare-and-set, so no locks are needed.
+ * Dispatching iterates the current array without locking or allocating,
+ * so listeners can be added or removed while an event is dispatched,
+ * fe. by a listener, from another thread.
+ *
+ * Each listener can set a maximum delivery rate
+ * and a minimum heading change, events that don't meet these
+ * requirements are not delivered to that listener.
+ *
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+public class OrientationListenerRegistry {
+    /**
+     * Maximum delivery rate : unlimited.
+     */
+    public static final int DELIVERY_RATE_UNLIMITED = 0;
+
+    /**
+     * Minimum heading change : every change.
+     */
+    public static final double HEADING_DELTA_NONE = 0;
+
+    /**
+     * Empty array of registered listeners.
+     */
+    private static final Registration[] EMPTY = new Registration[0];
+
+    /**
+     * Registered listeners.
+     */
+    private final AtomicReference<Registration[]> mRegistrations
+            = new AtomicReference<Registration[]>(EMPTY);
+
+    /**
+     * Adds a listener without throttling.
+     *
+     * @param listener Orientation event listener
+     * @return number of registered listeners
+     */
+    public final int add(
+            final SensorOrientation.OrientationEventListener listener) {
+        return add(listener, DELIVERY_RATE_UNLIMITED, HEADING_DELTA_NONE);
+    }
+
+    /**
+     * Adds a listener, or changes the throttling settings
+     * if the listener is already registered.
+     *
+     * @param listener Orientation event listener
+     * @param maxDeliveryRate Maximum number of events per second,
+     *                        DELIVERY_RATE_UNLIMITED to deliver every event
+     * @param minHeadingDelta Minimum heading change in degrees,
+     *                        since the last delivered event
+     * @return number of registered listeners
+     * @throws IllegalArgumentException if listener is not defined
+     * or if maxDeliveryRate or minHeadingDelta is negative
+     */
+    public final int add(
+            final SensorOrientation.OrientationEventListener listener,
+            final int maxDeliveryRate, final double minHeadingDelta) {
+        if (listener == null) {
+            throw new IllegalArgumentException("listener is not defined");
+        }
+        if (maxDeliveryRate < 0) {
+            throw new IllegalArgumentException(
+                    "maxDeliveryRate should not be negative");
+        }
+        if (minHeadingDelta < 0) {
+            throw new IllegalArgumentException(
+                    "minHeadingDelta should not be negative");
+        }
+
+        Registration registration
+                = new Registration(listener, maxDeliveryRate, minHeadingDelta);
+
+        Registration[] current;
+        Registration[] updated;
+        do {
+            current = mRegistrations.get();
+            int index = indexOf(current, listener);
+
+            if (index >= 0) {
+                // replace existing registration
+                updated = current.clone();
+            } else {
+                index = current.length;
+                updated = new Registration[current.length + 1];
+                System.arraycopy(current, 0, updated, 0, current.length);
+            }
+            updated[index] = registration;
+        } while (!mRegistrations.compareAndSet(current, updated));
+
+        return updated.length;
+    }
+
+    /**
+     * Removes a listener.
+     *
+     * @param listener Orientation event listener
+     * @return number of registered listeners
+     */
+    public final int remove(
+            final SensorOrientation.OrientationEventListener listener) {
+        Registration[] current;
+        Registration[] updated;
+        do {
+            current = mRegistrations.get();
+            int index = indexOf(current, listener);
+
+            if (index < 0) {
+                return current.length;
+            }
+
+            if (current.length == 1) {
+                updated = EMPTY;
+            } else {
+                updated = new Registration[current.length - 1];
+                System.arraycopy(current, 0, updated, 0, index);
+                System.arraycopy(current, index + 1, updated, index,
+                        current.length - index - 1);
+            }
+        } while (!mRegistrations.compareAndSet(current, updated));
+
+        return updated.length;
+    }
+
+    /**
+     * Gets the number of registered listeners.
+     *
+     * @return number of registered listeners
+     */
+    public final int size() {
+        return mRegistrations.get().length;
+    }
+
+    /**
+     * Delivers an orientation change to all registered listeners,
+     * taking into account the throttling settings of each listener.
+     *
+     * Events should be dispatched from one thread, fe. the sensor thread.
+     *
+     * @param heading Current heading in degrees (0°-360°)
+     * @param timestamp Timestamp of the event in nanoseconds
+     */
+    public final void dispatch(final double heading, final long timestamp) {
+        final Registration[] registrations = mRegistrations.get();
+
+        for (int i = 0; i < registrations.length; i++) {
+            registrations[i].deliver(heading, timestamp);
+        }
+    }
+
+    /**
+     * Finds the registration of a listener.
+     *
+     * @param registrations Registered listeners
+     * @param listener Orientation event listener
+     * @return index of the listener, -1 if it isn't registered
+     */
+    private static int indexOf(
+            final Registration[] registrations,
+            final SensorOrientation.OrientationEventListener listener) {
+        for (int i = 0; i < registrations.length; i++) {
+            if (registrations[i].mListener == listener) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Registered listener with its throttling settings and state.
+     */
+    private static final class Registration {
+        /**
+         * Orientation event listener.
+         */
+        private final SensorOrientation.OrientationEventListener mListener;
+
+        /**
+         * Minimum time between delivered events, in nanoseconds.
+         */
+        private final long mMinInterval;
+
+        /**
+         * Minimum heading change since last delivered event, in degrees.
+         */
+        private final double mMinHeadingDelta;
+
+        /**
+         * True if an event was delivered.
+         */
+        private boolean mDelivered = false;
+
+        /**
+         * Timestamp of last delivered event, in nanoseconds.
+         */
+        private long mLastTimestamp = 0;
+
+        /**
+         * Heading of last delivered event, in degrees.
+         */
+        private double mLastHeading = 0;
+
+        /**
+         * Constructor.
+         *
+         * @param listener Orientation event listener
+         * @param maxDeliveryRate Maximum number of events per second
+         * @param minHeadingDelta Minimum heading change in degrees
+         */
+        private Registration(
+                final SensorOrientation.OrientationEventListener listener,
+                final int maxDeliveryRate, final double minHeadingDelta) {
+            mListener = listener;
+            if (maxDeliveryRate == DELIVERY_RATE_UNLIMITED) {
+                mMinInterval = 0;
+            } else {
+                mMinInterval = Tools.SECOND_IN_MILLIS * Tools.MILLI_IN_NANO
+                        / maxDeliveryRate;
+            }
+            mMinHeadingDelta = minHeadingDelta;
+        }
+
+        /**
+         * Delivers event to the listener,
+         * if the throttling requirements are met.
+         *
+         * @param heading Current heading in degrees
+         * @param timestamp Timestamp of the event in nanoseconds
+         */
+        private void deliver(final double heading, final long timestamp) {
+            if (mDelivered) {
+                if (timestamp - mLastTimestamp < mMinInterval) {
+                    return;
+                }
+                if (Math.abs(FormatUtils.getAngleDifference(
+                        mLastHeading, heading)) < mMinHeadingDelta) {
+                    return;
+                }
+            }
+
+            mDelivered = true;
+            mLastTimestamp = timestamp;
+            mLastHeading = heading;
+
+            mListener.onOrientationChanged();
+        }
+    }
+}
@@ -0,0 +1,199 @@
+/**
+ * Formats a position in the coordinate format selected in the settings.
+ *
+ * Copyright (C) 2015 Dieter Adriaenssens
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * @package com.github.ruleant.getback_gps.lib
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+package com.github.ruleant.getback_gps.lib;
+
+import android.content.Context;
+
+import com.github.ruleant.getback_gps.SettingsActivity;
+
+/**
+ * Formats positions in one of the coordinate formats
+ * (fe. SettingsActivity.COORDINATE_FORMAT_UTM).
+ *
+ * The UTM coordinate used for the conversion is reused,
+ * so formatting a position, or a track of positions,
+ * doesn't create objects besides the appended text.
+ * Positions outside the UTM range (polar regions) are formatted
+ * as decimal degrees when UTM or MGRS is selected.
+ *
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+public final class PositionFormatter {
+    /**
+     * Number of decimals of decimal degrees, about 0.1 meter.
+     */
+    public static final int DECIMAL_DEGREES_DECIMALS = 6;
+
+    /**
+     * Degree sign.
+     */
+    private static final char DEGREE = '°';
+
+    /**
+     * UTM coordinate, reused for every conversion.
+     */
+    private final UtmCoordinate mUtm = new UtmCoordinate();
+
+    /**
+     * Gets label of a coordinate format, as an index in StringCache.
+     * Degrees are labeled per coordinate (latitude and longitude),
+     * so they don't have a single label.
+     *
+     * @param format Coordinate format
+     * @return StringCache index, fe. StringCache.UTM,
+     * StringCache.NONE for degrees
+     * @throws IllegalArgumentException if format is not valid
+     */
+    public static int getLabel(final int format) {
+        switch (format) {
+            case SettingsActivity.COORDINATE_FORMAT_DMS:
+            case SettingsActivity.COORDINATE_FORMAT_DECIMAL:
+                return StringCache.NONE;
+            case SettingsActivity.COORDINATE_FORMAT_UTM:
+                return StringCache.UTM;
+            case SettingsActivity.COORDINATE_FORMAT_MGRS:
+                return StringCache.MGRS;
+            case SettingsActivity.COORDINATE_FORMAT_OLC:
+                return StringCache.PLUS_CODE;
+            default:
+                throw invalidFormat(format);
+        }
+    }
+
+    /**
+     * Appends a formatted position.
+     *
+     * @param builder StringBuilder to append to
+     * @param context Context of the App
+     * @param format Coordinate format,
+     *               fe. SettingsActivity.COORDINATE_FORMAT_MGRS
+     * @param latitude Latitude in degrees
+     * @param longitude Longitude in degrees
+     * @return builder
+     * @throws IllegalArgumentException if format is not valid
+     */
+    public StringBuilder append(final StringBuilder builder,
+                                final Context context,
+                                final int format,
+                                final double latitude,
+                                final double longitude) {
+        switch (format) {
+            case SettingsActivity.COORDINATE_FORMAT_DMS:
+                Latitude.appendFormatted(builder, context, latitude)
+                        .append(' ');
+                return Longitude.appendFormatted(builder, context, longitude);
+            case SettingsActivity.COORDINATE_FORMAT_DECIMAL:
+                return appendDecimalDegrees(builder, context,
+                        latitude, longitude);
+            case SettingsActivity.COORDINATE_FORMAT_UTM:
+            case SettingsActivity.COORDINATE_FORMAT_MGRS:
+                if (!TransverseMercator.isInRange(latitude)) {
+                    return appendDecimalDegrees(builder, context,
+                            latitude, longitude);
+                }
+                TransverseMercator.toUtm(latitude, longitude, mUtm);
+                if (format == SettingsActivity.COORDINATE_FORMAT_UTM) {
+                    return mUtm.appendTo(builder);
+                }
+                return Mgrs.append(builder, mUtm, Mgrs.PRECISION_DEFAULT);
+            case SettingsActivity.COORDINATE_FORMAT_OLC:
+                return OpenLocationCode.append(builder, latitude, longitude,
+                        OpenLocationCode.CODE_LENGTH_DEFAULT);
+            default:
+                throw invalidFormat(format);
+        }
+    }
+
+    /**
+     * Appends a track of formatted positions, one position per line.
+     *
+     * @param builder StringBuilder to append to
+     * @param context Context of the App
+     * @param format Coordinate format,
+     *               fe. SettingsActivity.COORDINATE_FORMAT_MGRS
+     * @param positions latitude and longitude pairs in degrees,
+     *                  fe. {lat0, lon0, lat1, lon1, ...}
+     * @param count number of positions
+     * @return builder
+     * @throws IllegalArgumentException if format is not valid
+     */
+    public StringBuilder appendTrack(final StringBuilder builder,
+                                     final Context context,
+                                     final int format,
+                                     final double[] positions,
+                                     final int count) {
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                builder.append('\n');
+            }
+            append(builder, context, format,
+                    positions[2 * i], positions[2 * i + 1]);
+        }
+
+        return builder;
+    }
+
+    /**
+     * Appends a coordinate in decimal degrees, fe. -33.857000°.
+     *
+     * @param builder StringBuilder to append to
+     * @param context Context of the App
+     * @param coordinate Latitude or longitude in degrees
+     * @return builder
+     */
+    public static StringBuilder appendDecimalDegrees(
+            final StringBuilder builder, final Context context,
+            final double coordinate) {
+        return LocalizedFormatter.getInstance(context).appendDecimal(
+                builder, coordinate, DECIMAL_DEGREES_DECIMALS, false)
+                .append(DEGREE);
+    }
+
+    /**
+     * Appends a position in decimal degrees,
+     * fe. -33.857000° 151.215000°.
+     *
+     * @param builder StringBuilder to append to
+     * @param context Context of the App
+     * @param latitude Latitude in degrees
+     * @param longitude Longitude in degrees
+     * @return builder
+     */
+    private static StringBuilder appendDecimalDegrees(
+            final StringBuilder builder, final Context context,
+            final double latitude, final double longitude) {
+        appendDecimalDegrees(builder, context, latitude).append(' ');
+        return appendDecimalDegrees(builder, context, longitude);
+    }
+
+    /**
+     * Creates exception for an invalid coordinate format.
+     *
+     * @param format invalid format
+     * @return exception
+     */
+    private static IllegalArgumentException invalidFormat(final int format) {
+        return new IllegalArgumentException(
+                "parameter format is not a valid coordinate format : "
+                        + format);
+    }
+}
@@ -21,16 +21,19 @@
  */
 package com.github.ruleant.getback_gps.lib;
 
+import android.annotation.TargetApi;
 import android.content.Context;
 import android.hardware.Sensor;
 import android.hardware.SensorEvent;
 import android.hardware.SensorEventListener;
 import android.hardware.SensorManager;
-import android.preference.PreferenceManager;
+import android.location.Location;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
 
 import com.github.ruleant.getback_gps.SettingsActivity;
 
-import java.util.ArrayList;
 import java.util.EventListener;
 
 /**
@@ -49,11 +52,16 @@ public class SensorOrientation implements SensorEventListener {
      */
     private Context mContext;
 
+    /**
+     * Cached settings of the App.
+     */
+    private final SettingsCache mSettings;
+
     /**
      * List with subscribed listeners.
      */
-    private ArrayList<OrientationEventListener> eventListenerList
-            = new ArrayList<OrientationEventListener>();
+    private final OrientationListenerRegistry eventListenerList
+            = new OrientationListenerRegistry();
 
     /**
      * Current calculated orientation.
@@ -70,6 +78,18 @@ public class SensorOrientation implements SensorEventListener {
      */
     private long mOrientationRTTimestamp = 0;
 
+    /**
+     * Magnetic declination calculator.
+     */
+    private final MagneticDeclination mMagneticDeclination
+            = new MagneticDeclination();
+
+    /**
+     * Magnetic declination at current location in degrees,
+     * to convert magnetic orientation to true orientation.
+     */
+    private double mDeclination = 0;
+
     /**
      * Sensor manager.
      */
@@ -81,9 +101,16 @@ public class SensorOrientation implements SensorEventListener {
     private Sensor mAccelerometer;
 
     /**
-     * Accelerometer Sensor values.
+     * Accelerometer Sensor values, filtered.
      */
-    private float[] mAccelerometerValues;
+    private final float[] mAccelerometerValues
+            = new float[SENSOR_VALUES_SIZE];
+
+    /**
+     * Low pass filter of the accelerometer sensor values.
+     */
+    private final ExponentialFilter mAccelerometerFilter
+            = new ExponentialFilter(SENSOR_VALUES_SIZE, 1);
 
     /**
      * Accelerometer Sensor values timestamp.
@@ -101,9 +128,16 @@ public class SensorOrientation implements SensorEventListener {
     private Sensor mMagneticFieldSensor;
 
     /**
-     * Magnetic field sensor values.
+     * Magnetic field sensor values, calibrated and filtered.
      */
-    private float[] mMagneticFieldValues;
+    private final float[] mMagneticFieldValues
+            = new float[SENSOR_VALUES_SIZE];
+
+    /**
+     * Low pass filter of the magnetic field sensor values.
+     */
+    private final ExponentialFilter mMagneticFieldFilter
+            = new ExponentialFilter(SENSOR_VALUES_SIZE, 1);
 
     /**
      * Magnetic field sensor values timestamp.
@@ -115,6 +149,26 @@ public class SensorOrientation implements SensorEventListener {
      */
     private long mMagneticFieldRTTimestamp = 0;
 
+    /**
+     * Accuracy of the magnetic field sensor,
+     * fe. SensorManager.SENSOR_STATUS_ACCURACY_HIGH.
+     * Assumed accurate until reported otherwise.
+     */
+    private int mMagneticFieldAccuracy
+            = SensorManager.SENSOR_STATUS_ACCURACY_HIGH;
+
+    /**
+     * Accuracy of the orientation sensor.
+     */
+    private int mOrientationAccuracy
+            = SensorManager.SENSOR_STATUS_ACCURACY_HIGH;
+
+    /**
+     * Online calibration of the magnetic field sensor.
+     */
+    private final MagneticFieldCalibration mMagneticFieldCalibration
+            = new MagneticFieldCalibration();
+
     /**
      * Sensor timestamp expiration,
      * 5 seconds in nanoseconds (5 * 10^9).
@@ -122,9 +176,134 @@ public class SensorOrientation implements SensorEventListener {
     private static final long TIMESTAMP_EXPIRE = 5000 * Tools.MILLI_IN_NANO;
 
     /**
-     * Sensor update rate in microseconds.
+     * Sensor update rate in microseconds, when the device is held still.
+     */
+    static final int SENSOR_UPDATE_RATE_SLOW = 400000;
+
+    /**
+     * Sensor update rate in microseconds, when the device is turning.
+     */
+    static final int SENSOR_UPDATE_RATE_FAST = 60000;
+
+    /**
+     * Angular velocity (in °/s) above which the fast update rate is used.
+     */
+    private static final double ANGULAR_VELOCITY_FAST = 30;
+
+    /**
+     * Angular velocity (in °/s) below which the slow update rate is used.
+     * The gap with ANGULAR_VELOCITY_FAST prevents switching back and forth.
+     */
+    private static final double ANGULAR_VELOCITY_SLOW = 10;
+
+    /**
+     * Time window over which the angular velocity is calculated,
+     * 500 milliseconds in nanoseconds.
+     * Sensor noise on consecutive orientation values is spread
+     * over the window, instead of over the time between two events.
+     */
+    private static final long ANGULAR_VELOCITY_WINDOW
+            = 500 * Tools.MILLI_IN_NANO;
+
+    /**
+     * Time constant of the low pass filter of the angular velocity,
+     * 500 milliseconds in nanoseconds.
+     */
+    private static final long ANGULAR_VELOCITY_TIME_CONSTANT
+            = 500 * Tools.MILLI_IN_NANO;
+
+    /**
+     * Current sensor update rate in microseconds.
+     */
+    private int mSensorUpdateRate = SENSOR_UPDATE_RATE_SLOW;
+
+    /**
+     * Number of times the sensor update rate was changed.
+     */
+    private int mSensorUpdateRateChanges = 0;
+
+    /**
+     * Angular velocity of the orientation in °/s.
+     */
+    private double mAngularVelocity = 0;
+
+    /**
+     * Unfiltered orientation at the start of the time window
+     * used to calculate the angular velocity.
+     */
+    private double mAngularVelocityOrientation = 0;
+
+    /**
+     * Timestamp in nanoseconds of the start of the time window
+     * used to calculate the angular velocity.
+     */
+    private long mAngularVelocityTimestamp = 0;
+
+    /**
+     * Number of orientation values used to calculate the uncertainty.
+     */
+    private static final int ORIENTATION_STATISTICS_WINDOW = 25;
+
+    /**
+     * Reference orientation, the unfiltered orientation values
+     * are compared with to determine their spread.
+     */
+    private double mOrientationReference = 0;
+
+    /**
+     * Timestamp in nanoseconds of the last value
+     * of the reference orientation.
+     */
+    private long mOrientationReferenceTimestamp = 0;
+
+    /**
+     * Statistics of the difference between the unfiltered orientation
+     * and the reference orientation.
+     */
+    private final CircularStatistics mOrientationStatistics
+            = new CircularStatistics(ORIENTATION_STATISTICS_WINDOW);
+
+    /**
+     * Maximum sensor report latency in microseconds (2 seconds),
+     * used when sensor events are batched.
+     */
+    private static final int SENSOR_MAX_REPORT_LATENCY = 2000000;
+
+    /**
+     * Sensor report latency in microseconds,
+     * 0 if sensor events are delivered when they occur.
      */
-    private static final int SENSOR_UPDATE_RATE = 200000;
+    private int mMaxReportLatency = 0;
+
+    /**
+     * Handler of the thread sensor events are delivered on.
+     */
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+
+    /**
+     * True if an orientation update is posted to the handler,
+     * and hasn't run yet.
+     */
+    private boolean mUpdatePending = false;
+
+    /**
+     * True if the posted orientation update calculates the orientation
+     * from accelerometer and magnetic field values,
+     * false if it uses the value of the orientation sensor.
+     */
+    private boolean mUpdateCalculated = false;
+
+    /**
+     * Orientation update, posted when sensor events are batched,
+     * so a batch of events results in a single update.
+     */
+    private final Runnable mUpdateOrientation = new Runnable() {
+        @Override
+        public void run() {
+            mUpdatePending = false;
+            updateOrientation(mUpdateCalculated);
+        }
+    };
 
     /**
      * Number of sensor value components.
@@ -137,15 +316,89 @@ public class SensorOrientation implements SensorEventListener {
     private static final int MATRIX_SIZE = 9;
 
     /**
-     * Low pass filter alpha value.
+     * Inclination (in °) of the device above which it is held upright.
+     * The inclination is the angle between the screen normal
+     * and the vertical axis, 0° when the device is lying flat,
+     * 90° when the device is held upright.
+     */
+    private static final double INCLINATION_UPRIGHT = 55;
+
+    /**
+     * Inclination (in °) of the device below which it is held flat.
+     * The gap with INCLINATION_UPRIGHT prevents switching back and forth.
+     */
+    private static final double INCLINATION_FLAT = 35;
+
+    /**
+     * True if the device is held upright,
+     * the heading is the direction the back of the device is facing.
+     * If false, the device is held flat,
+     * and the heading is the direction the top of the device is facing.
+     */
+    private boolean mUpright = false;
+
+    /**
+     * Rotation matrix, reused for each orientation calculation.
+     */
+    private final float[] mRotationMatrix = new float[MATRIX_SIZE];
+
+    /**
+     * Rotation matrix remapped to the device pose,
+     * reused for each orientation calculation.
+     */
+    private final float[] mRemappedRotationMatrix = new float[MATRIX_SIZE];
+
+    /**
+     * Orientation values (azimuth, pitch, roll),
+     * reused for each orientation calculation.
      */
-    private static final float LOW_PASS_ALPHA = 0.6f;
+    private final float[] mOrientationValues = new float[SENSOR_VALUES_SIZE];
+
+    /**
+     * Sensor update rate in microseconds, the filters were tuned for.
+     */
+    static final int SENSOR_UPDATE_RATE_REFERENCE = 200000;
+
+    /**
+     * Low pass filter alpha value of sensor values,
+     * at the reference update rate.
+     */
+    static final float LOW_PASS_ALPHA = 0.6f;
 
     /**
      * Alpha value of circular average
-     * of orientation value calculated from sensors.
+     * of orientation value calculated from sensors,
+     * at the reference update rate.
      */
-    private static final float ALPHA_ORIENTATION_SENSORS = 0.05f;
+    static final float ALPHA_ORIENTATION_SENSORS = 0.05f;
+
+    /**
+     * Time constant of the low pass filter of sensor values
+     * in nanoseconds (about 218 milliseconds).
+     * The alpha value is derived from the time between sensor events,
+     * so the smoothing doesn't depend on the sensor update rate.
+     */
+    static final long LOW_PASS_TIME_CONSTANT = LowPassFilter.getTimeConstant(
+            SENSOR_UPDATE_RATE_REFERENCE * Tools.MICRO_IN_NANO,
+            LOW_PASS_ALPHA);
+
+    /**
+     * Time constant of the circular average
+     * of orientation value calculated from sensors,
+     * in nanoseconds (about 3.9 seconds).
+     */
+    static final long ORIENTATION_TIME_CONSTANT
+            = LowPassFilter.getTimeConstant(
+                    SENSOR_UPDATE_RATE_REFERENCE * Tools.MICRO_IN_NANO,
+                    ALPHA_ORIENTATION_SENSORS);
+
+    /**
+     * Time constant of the reference orientation,
+     * used to determine the spread of the orientation values,
+     * 500 milliseconds in nanoseconds.
+     */
+    private static final long ORIENTATION_REFERENCE_TIME_CONSTANT
+            = 500 * Tools.MILLI_IN_NANO;
 
     /**
      * Constructor.
@@ -159,6 +412,7 @@ public class SensorOrientation implements SensorEventListener {
         }
 
         mContext = context;
+        mSettings = SettingsCache.getInstance(mContext);
         mSensorManager = (SensorManager) mContext.getSystemService(
                 Context.SENSOR_SERVICE);
 
@@ -182,17 +436,17 @@ public class SensorOrientation implements SensorEventListener {
             // reject values that arrive sooner than the update rate
             || Tools.isTimestampRecent(event.timestamp,
                 mAccelerometerTimestamp,
-                SENSOR_UPDATE_RATE * Tools.MICRO_IN_NANO)) {
+                mSensorUpdateRate * Tools.MICRO_IN_NANO)) {
             return;
         }
-        mAccelerometerValues
-            = LowPassFilter.filterValueSet(mAccelerometerValues,
-                event.values, LOW_PASS_ALPHA);
+        mAccelerometerFilter.setAlpha(LowPassFilter.getAlpha(
+                event.timestamp - mAccelerometerTimestamp,
+                LOW_PASS_TIME_CONSTANT));
+        mAccelerometerFilter.filter(event.values, mAccelerometerValues);
         mAccelerometerTimestamp = event.timestamp;
         mAccelerometerRTTimestamp = Tools.getTimestampNano();
 
-        calculateOrientation();
-        onOrientationChange();
+        scheduleOrientationUpdate(true);
     }
 
     /**
@@ -205,17 +459,23 @@ public class SensorOrientation implements SensorEventListener {
             // reject values that arrive sooner than the update rate
             || Tools.isTimestampRecent(event.timestamp,
                 mMagneticFieldTimestamp,
-                SENSOR_UPDATE_RATE * Tools.MICRO_IN_NANO)) {
+                mSensorUpdateRate * Tools.MICRO_IN_NANO)) {
             return;
         }
-        mMagneticFieldValues
-            = LowPassFilter.filterValueSet(mMagneticFieldValues,
-                event.values, LOW_PASS_ALPHA);
+        mMagneticFieldAccuracy = event.accuracy;
+
+        // correct hard- and soft-iron distortion, and filter
+        mMagneticFieldCalibration.addSample(event.values,
+                mMagneticFieldValues);
+        mMagneticFieldFilter.setAlpha(LowPassFilter.getAlpha(
+                event.timestamp - mMagneticFieldTimestamp,
+                LOW_PASS_TIME_CONSTANT));
+        mMagneticFieldFilter.filter(mMagneticFieldValues,
+                mMagneticFieldValues);
         mMagneticFieldTimestamp = event.timestamp;
         mMagneticFieldRTTimestamp = Tools.getTimestampNano();
 
-        calculateOrientation();
-        onOrientationChange();
+        scheduleOrientationUpdate(true);
     }
 
     /**
@@ -228,13 +488,58 @@ public class SensorOrientation implements SensorEventListener {
                 // reject values that arrive sooner than the update rate
                 || Tools.isTimestampRecent(event.timestamp,
                     mOrientationTimestamp,
-                    SENSOR_UPDATE_RATE * Tools.MICRO_IN_NANO)) {
+                    mSensorUpdateRate * Tools.MICRO_IN_NANO)) {
             return;
         }
-        mOrientation = event.values[0];
+        mOrientationAccuracy = event.accuracy;
+        mOrientation = FormatUtils.normalizeAngle(
+                event.values[0] + mDeclination);
         mOrientationTimestamp = event.timestamp;
         mOrientationRTTimestamp = Tools.getTimestampNano();
 
+        scheduleOrientationUpdate(false);
+    }
+
+    /**
+     * Updates the orientation after new sensor values were set.
+     *
+     * When sensor events are batched, a batch is delivered at once,
+     * every event updates the sensor values,
+     * but the orientation is only updated once,
+     * after all events of the batch are handled.
+     *
+     * @param calculated true to calculate the orientation
+     *                   from accelerometer and magnetic field values,
+     *                   false to use the value of the orientation sensor
+     */
+    private void scheduleOrientationUpdate(final boolean calculated) {
+        if (mMaxReportLatency <= 0) {
+            updateOrientation(calculated);
+            return;
+        }
+
+        mUpdateCalculated = calculated;
+        if (!mUpdatePending) {
+            mUpdatePending = true;
+            mHandler.post(mUpdateOrientation);
+        }
+    }
+
+    /**
+     * Updates the orientation and notifies the listeners.
+     *
+     * @param calculated true to calculate the orientation
+     *                   from accelerometer and magnetic field values,
+     *                   false to use the value of the orientation sensor
+     */
+    private void updateOrientation(final boolean calculated) {
+        if (calculated) {
+            calculateOrientation();
+        } else {
+            updateOrientationStatistics(mOrientation, mOrientationTimestamp);
+            updateAngularVelocity(mOrientation, mOrientationTimestamp);
+        }
+
         onOrientationChange();
     }
 
@@ -254,6 +559,43 @@ public class SensorOrientation implements SensorEventListener {
                 && isTimestampRecent(mOrientationRTTimestamp));
     }
 
+    /**
+     * Checks if the compass is unreliable :
+     * - the sensor providing the orientation reports unreliable accuracy
+     * - magnetic interference is detected.
+     *
+     * @return true if the orientation is unreliable
+     */
+    public boolean isOrientationUnreliable() {
+        if (isTimestampRecent(mMagneticFieldRTTimestamp)) {
+            return mMagneticFieldAccuracy
+                    <= SensorManager.SENSOR_STATUS_UNRELIABLE
+                    || mMagneticFieldCalibration.isInterference();
+        }
+
+        return isTimestampRecent(mOrientationRTTimestamp)
+                && mOrientationAccuracy
+                    <= SensorManager.SENSOR_STATUS_UNRELIABLE;
+    }
+
+    /**
+     * Gets accuracy of the magnetic field sensor.
+     *
+     * @return accuracy, fe. SensorManager.SENSOR_STATUS_ACCURACY_HIGH
+     */
+    public final int getMagneticFieldAccuracy() {
+        return mMagneticFieldAccuracy;
+    }
+
+    /**
+     * Gets online calibration of the magnetic field sensor.
+     *
+     * @return magnetic field calibration
+     */
+    public final MagneticFieldCalibration getMagneticFieldCalibration() {
+        return mMagneticFieldCalibration;
+    }
+
     /**
      * Gets current SensorOrientation.
      *
@@ -263,6 +605,34 @@ public class SensorOrientation implements SensorEventListener {
         return mOrientation;
     }
 
+    /**
+     * Sets current location, used to correct the magnetic orientation
+     * provided by the sensors to an orientation relative to true North.
+     *
+     * The magnetic declination is interpolated from cached values,
+     * the geomagnetic model is only evaluated when the location
+     * moves to another grid cell.
+     *
+     * @param location Current location
+     */
+    public void setLocation(final Location location) {
+        if (location == null) {
+            return;
+        }
+
+        mDeclination = mMagneticDeclination.getDeclination(
+                location.getLatitude(), location.getLongitude());
+    }
+
+    /**
+     * Gets magnetic declination at current location.
+     *
+     * @return magnetic declination in degrees
+     */
+    public double getDeclination() {
+        return mDeclination;
+    }
+
     /**
      * Returns true if the required sensors are available :
      * - TYPE_MAGNETIC_FIELD
@@ -288,10 +658,7 @@ public class SensorOrientation implements SensorEventListener {
      * @return true if sensors are enabled
      */
     public final boolean isSensorsEnabled() {
-        return PreferenceManager.getDefaultSharedPreferences(mContext)
-                .getBoolean(
-                        SettingsActivity.KEY_PREF_ENABLE_SENSORS,
-                        SettingsActivity.DEFAULT_PREF_ENABLE_SENSORS);
+        return mSettings.getSnapshot().isSensorsEnabled();
     }
 
     /**
@@ -305,11 +672,7 @@ public class SensorOrientation implements SensorEventListener {
             return;
         }
 
-        int sensor = Integer.parseInt(
-                PreferenceManager.getDefaultSharedPreferences(mContext)
-                .getString(
-                        SettingsActivity.KEY_PREF_GEO_ORIENTATION_SENSOR,
-                        SettingsActivity.DEFAULT_PREF_GEO_ORIENTATION_SENSOR));
+        int sensor = mSettings.getSnapshot().getGeoOrientationSensor();
 
         // use calculated orientation by default
         // (until raw sensor value is stable)
@@ -317,16 +680,198 @@ public class SensorOrientation implements SensorEventListener {
             || sensor == SettingsActivity.GEO_ORIENTATION_SENSOR_AUTO
             && mOrientationSensor != null) {
             // orientation sensor is deprecated
-            mSensorManager.registerListener(
-                    listener, mOrientationSensor, SENSOR_UPDATE_RATE);
+            registerSensor(listener, mOrientationSensor);
         } else if (mAccelerometer != null && mMagneticFieldSensor != null) {
+            registerSensor(listener, mAccelerometer);
+            registerSensor(listener, mMagneticFieldSensor);
+        }
+    }
+
+    /**
+     * Register for events of a sensor,
+     * with a maximum report latency when batching is enabled.
+     *
+     * @param listener SensorEventListener
+     * @param sensor Sensor to register for
+     */
+    @TargetApi(Build.VERSION_CODES.KITKAT)
+    private void registerSensor(final SensorEventListener listener,
+                                final Sensor sensor) {
+        if (mMaxReportLatency > 0
+                && Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT) {
+            // events are stored in the sensor hardware FIFO
+            // and delivered in batches
+            mSensorManager.registerListener(listener, sensor,
+                    mSensorUpdateRate, mMaxReportLatency);
+        } else {
             mSensorManager.registerListener(
-                    listener, mAccelerometer, SENSOR_UPDATE_RATE);
-            mSensorManager.registerListener(
-                    listener, mMagneticFieldSensor, SENSOR_UPDATE_RATE);
+                    listener, sensor, mSensorUpdateRate);
+        }
+    }
+
+    /**
+     * Enable or disable batching of sensor events.
+     *
+     * When batching is enabled, sensor events are collected in
+     * the hardware FIFO of the sensor and delivered at once, allowing
+     * the application processor to sleep in between.
+     * This is only supported on API 19 (KitKat) or higher,
+     * on older devices sensor events are delivered when they occur.
+     *
+     * @param batching true to enable batching of sensor events
+     */
+    public final void setBatching(final boolean batching) {
+        int maxReportLatency = 0;
+        if (batching
+                && Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT) {
+            maxReportLatency = SENSOR_MAX_REPORT_LATENCY;
+        }
+
+        if (maxReportLatency == mMaxReportLatency) {
+            return;
+        }
+        mMaxReportLatency = maxReportLatency;
+
+        // use slow update rate when events are batched
+        if (maxReportLatency > 0) {
+            mSensorUpdateRate = SENSOR_UPDATE_RATE_SLOW;
+        }
+
+        reRegisterEvents();
+    }
+
+    /**
+     * Reregister for sensor events, to apply a changed update rate
+     * or report latency, if there are listeners.
+     */
+    private void reRegisterEvents() {
+        if (eventListenerList.size() > 0) {
+            unRegisterEvents(this);
+            registerEvents(this);
         }
     }
 
+    /**
+     * Gets current sensor update rate.
+     *
+     * @return sensor update rate in microseconds
+     */
+    public final int getSensorUpdateRate() {
+        return mSensorUpdateRate;
+    }
+
+    /**
+     * Gets the number of times the sensor update rate was changed,
+     * because the angular velocity of the device changed.
+     *
+     * @return number of sensor update rate changes
+     */
+    public final int getSensorUpdateRateChanges() {
+        return mSensorUpdateRateChanges;
+    }
+
+    /**
+     * Gets angular velocity of the orientation.
+     *
+     * @return angular velocity in °/s
+     */
+    public final double getAngularVelocity() {
+        return mAngularVelocity;
+    }
+
+    /**
+     * Gets uncertainty of the orientation,
+     * the spread of the unfiltered orientation values
+     * around the smoothed orientation.
+     *
+     * @return uncertainty in degrees (0°-180°)
+     */
+    public double getOrientationUncertainty() {
+        return mOrientationStatistics.getUncertainty();
+    }
+
+    /**
+     * Update orientation statistics with a new unfiltered orientation value.
+     *
+     * The difference with a smoothed reference orientation is used,
+     * so turning the device doesn't increase the uncertainty,
+     * only noise on the orientation does.
+     *
+     * @param orientation new unfiltered orientation in degrees
+     * @param timestamp sensor event timestamp in nanoseconds
+     */
+    private void updateOrientationStatistics(final double orientation,
+                                             final long timestamp) {
+        mOrientationReference = CircularAverage.getAverageValue(
+                (float) mOrientationReference, (float) orientation,
+                timestamp - mOrientationReferenceTimestamp,
+                ORIENTATION_REFERENCE_TIME_CONSTANT);
+        mOrientationReferenceTimestamp = timestamp;
+
+        mOrientationStatistics.add(FormatUtils.getAngleDifference(
+                mOrientationReference, orientation));
+    }
+
+    /**
+     * Update angular velocity with a new unfiltered orientation value,
+     * and switch between the slow and fast sensor update rate
+     * if the velocity passes the thresholds.
+     *
+     * The velocity is calculated over a time window,
+     * so sensor noise doesn't look like turning at the fast update rate.
+     *
+     * @param orientation new unfiltered orientation in degrees
+     * @param timestamp sensor event timestamp in nanoseconds
+     */
+    private void updateAngularVelocity(final double orientation,
+                                       final long timestamp) {
+        long timeDifference = timestamp - mAngularVelocityTimestamp;
+
+        if (mAngularVelocityTimestamp > 0 && timeDifference > 0) {
+            // wait until the time window is complete
+            if (timeDifference < ANGULAR_VELOCITY_WINDOW) {
+                return;
+            }
+
+            double velocity = Math.abs(FormatUtils.getAngleDifference(
+                    mAngularVelocityOrientation, orientation))
+                    * Tools.SECOND_IN_MILLIS * Tools.MILLI_IN_NANO
+                    / timeDifference;
+            mAngularVelocity = LowPassFilter.filterValue(
+                    (float) mAngularVelocity, (float) velocity,
+                    timeDifference, ANGULAR_VELOCITY_TIME_CONSTANT);
+        }
+        mAngularVelocityOrientation = orientation;
+        mAngularVelocityTimestamp = timestamp;
+
+        // keep slow update rate when events are batched
+        if (mMaxReportLatency > 0) {
+            return;
+        }
+
+        int sensorUpdateRate = mSensorUpdateRate;
+        if (mAngularVelocity > ANGULAR_VELOCITY_FAST) {
+            sensorUpdateRate = SENSOR_UPDATE_RATE_FAST;
+        } else if (mAngularVelocity < ANGULAR_VELOCITY_SLOW) {
+            sensorUpdateRate = SENSOR_UPDATE_RATE_SLOW;
+        }
+
+        if (sensorUpdateRate != mSensorUpdateRate) {
+            mSensorUpdateRate = sensorUpdateRate;
+            mSensorUpdateRateChanges++;
+            reRegisterEvents();
+        }
+    }
+
+    /**
+     * Returns true if batching of sensor events is enabled.
+     *
+     * @return true if batching of sensor events is enabled
+     */
+    public final boolean isBatching() {
+        return mMaxReportLatency > 0;
+    }
+
     /**
      * Unregister for Sensor events of
      * TYPE_ACCELEROMETER and TYPE_MAGNETIC_FIELD.
@@ -350,34 +895,79 @@ public class SensorOrientation implements SensorEventListener {
      * @return current SensorOrientation
      */
     private double calculateOrientation() {
-        if (mAccelerometerValues == null
-                || mAccelerometerValues.length != SENSOR_VALUES_SIZE
-                || mMagneticFieldValues == null
-                || mMagneticFieldValues.length != SENSOR_VALUES_SIZE) {
+        // both sensors should have provided values
+        if (mAccelerometerTimestamp == 0 || mMagneticFieldTimestamp == 0) {
             return 0;
         }
 
-        float[] rotationMatrixR = new float[MATRIX_SIZE];
-        float[] orientationValues = new float[SENSOR_VALUES_SIZE];
-
-        if (SensorManager.getRotationMatrix(rotationMatrixR, null,
+        if (!SensorManager.getRotationMatrix(mRotationMatrix, null,
                 mAccelerometerValues, mMagneticFieldValues)) {
-            orientationValues = SensorManager.getOrientation(rotationMatrixR,
-                    orientationValues);
-
-            if (orientationValues.length == SENSOR_VALUES_SIZE) {
-                mOrientation = CircularAverage.getAverageValue(
-                        (float) mOrientation,
-                        (float) Math.toDegrees(orientationValues[0]),
-                        ALPHA_ORIENTATION_SENSORS);
-                mOrientationTimestamp = Tools.getMax(mMagneticFieldTimestamp,
-                        mAccelerometerTimestamp);
-
-                return mOrientation;
-            }
+            return 0;
         }
 
-        return 0;
+        // The rotation matrix is tilt compensated, but the azimuth
+        // is unstable when the device is held upright (gimbal lock).
+        // Use the direction of the back of the device in that case.
+        float[] rotationMatrix = mRotationMatrix;
+        updateDevicePose();
+        if (mUpright) {
+            SensorManager.remapCoordinateSystem(mRotationMatrix,
+                    SensorManager.AXIS_X, SensorManager.AXIS_Z,
+                    mRemappedRotationMatrix);
+            rotationMatrix = mRemappedRotationMatrix;
+        }
+
+        SensorManager.getOrientation(rotationMatrix, mOrientationValues);
+
+        // correct magnetic orientation to true North
+        double orientation = FormatUtils.normalizeAngle(
+                Math.toDegrees(mOrientationValues[0]) + mDeclination);
+        long timestamp = Tools.getMax(mMagneticFieldTimestamp,
+                mAccelerometerTimestamp);
+        mOrientation = CircularAverage.getAverageValue(
+                (float) mOrientation, (float) orientation,
+                timestamp - mOrientationTimestamp,
+                ORIENTATION_TIME_CONSTANT);
+        mOrientationTimestamp = timestamp;
+
+        updateOrientationStatistics(orientation, mOrientationTimestamp);
+        updateAngularVelocity(orientation, mOrientationTimestamp);
+
+        return mOrientation;
+    }
+
+    /**
+     * Updates device pose (flat or upright),
+     * based on the inclination of the device.
+     */
+    private void updateDevicePose() {
+        double gravity = Math.sqrt(
+                mAccelerometerValues[0] * mAccelerometerValues[0]
+                + mAccelerometerValues[1] * mAccelerometerValues[1]
+                + mAccelerometerValues[2] * mAccelerometerValues[2]);
+
+        if (gravity == 0) {
+            return;
+        }
+
+        double inclination = Math.toDegrees(
+                Math.acos(Math.abs(mAccelerometerValues[2]) / gravity));
+
+        if (mUpright && inclination < INCLINATION_FLAT) {
+            mUpright = false;
+        } else if (!mUpright && inclination > INCLINATION_UPRIGHT) {
+            mUpright = true;
+        }
+    }
+
+    /**
+     * Returns true if the device is held upright,
+     * the orientation is the direction the back of the device is facing.
+     *
+     * @return true if the device is held upright
+     */
+    public final boolean isUpright() {
+        return mUpright;
     }
 
     /**
@@ -401,15 +991,36 @@ public class SensorOrientation implements SensorEventListener {
     }
 
     /**
-     * Adds the listener to eventListenerList.
+     * Adds the listener to eventListenerList,
+     * the listener is notified of every orientation change.
+     *
      * @param listener SensorOrientation event listener
      */
     public final void addEventListener(
             final OrientationEventListener listener) {
-        eventListenerList.add(listener);
+        addEventListener(listener,
+                OrientationListenerRegistry.DELIVERY_RATE_UNLIMITED,
+                OrientationListenerRegistry.HEADING_DELTA_NONE);
+    }
+
+    /**
+     * Adds the listener to eventListenerList,
+     * with a maximum delivery rate and a minimum heading change.
+     *
+     * @param listener SensorOrientation event listener
+     * @param maxDeliveryRate Maximum number of events per second,
+     *                        0 to deliver every event
+     * @param minHeadingDelta Minimum heading change in degrees,
+     *                        since the last delivered event
+     */
+    public final void addEventListener(
+            final OrientationEventListener listener,
+            final int maxDeliveryRate, final double minHeadingDelta) {
+        int listeners = eventListenerList.add(
+                listener, maxDeliveryRate, minHeadingDelta);
 
         // register listening to events when the first listener is added
-        if (eventListenerList.size() == 1) {
+        if (listeners == 1) {
             registerEvents(this);
         }
     }
@@ -420,11 +1031,11 @@ public class SensorOrientation implements SensorEventListener {
      */
     public final void removeEventListener(
             final OrientationEventListener listener) {
-        eventListenerList.remove(listener);
-
         // unregister listening to events when the last listener is removed
-        if (eventListenerList.size() == 0) {
+        if (eventListenerList.remove(listener) == 0) {
             unRegisterEvents(this);
+            mHandler.removeCallbacks(mUpdateOrientation);
+            mUpdatePending = false;
         }
     }
 
@@ -432,19 +1043,36 @@ public class SensorOrientation implements SensorEventListener {
      * Notify all event listeners.
      */
     private void onOrientationChange() {
-        for (OrientationEventListener eventListener : eventListenerList) {
-            eventListener.onOrientationChanged();
-        }
+        eventListenerList.dispatch(mOrientation, mOrientationTimestamp);
     }
 
     /**
-     * Called when sensor accuracy changes, not implemented.
+     * Called when sensor accuracy changes.
+     *
+     * The magnetic field calibration is reset
+     * when the sensor reports it is unreliable,
+     * fe. after the device was exposed to a strong magnetic field.
      *
      * @param sensor Sensor that has a changed accuracy
      * @param accuracy New accuracy
      */
     public final void onAccuracyChanged(final Sensor sensor,
                                         final int accuracy) {
+        switch (sensor.getType()) {
+            case Sensor.TYPE_MAGNETIC_FIELD:
+                if (accuracy <= SensorManager.SENSOR_STATUS_UNRELIABLE
+                        && mMagneticFieldAccuracy
+                            > SensorManager.SENSOR_STATUS_UNRELIABLE) {
+                    mMagneticFieldCalibration.reset();
+                }
+                mMagneticFieldAccuracy = accuracy;
+                break;
+            case Sensor.TYPE_ORIENTATION:
+                mOrientationAccuracy = accuracy;
+                break;
+            default:
+                break;
+        }
     }
 
     /**
@@ -0,0 +1,111 @@
+/**
+ * Cache of the app settings.
+ *
+ * Copyright (C) 2015 Dieter Adriaenssens
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * @package com.github.ruleant.getback_gps.lib
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+package com.github.ruleant.getback_gps.lib;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.preference.PreferenceManager;
+
+/**
+ * Cache of the app settings.
+ *
+ * Holds a snapshot of the settings, which is replaced
+ * when a setting is changed in SharedPreferences.
+ * Getting the current snapshot is a single field read,
+ * so it can be used on hot paths, fe. when handling sensor events.
+ *
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+public final class SettingsCache
+        implements SharedPreferences.OnSharedPreferenceChangeListener {
+    /**
+     * Instance of the settings cache.
+     */
+    private static SettingsCache sInstance = null;
+
+    /**
+     * Application context.
+     */
+    private final Context mContext;
+
+    /**
+     * Snapshot of the current settings.
+     */
+    private volatile SettingsSnapshot mSnapshot;
+
+    /**
+     * Constructor.
+     *
+     * SharedPreferences only keeps a weak reference to its listeners,
+     * the instance is kept in sInstance, so it isn't garbage collected.
+     *
+     * @param context Application context
+     */
+    private SettingsCache(final Context context) {
+        mContext = context;
+
+        SharedPreferences sharedPref
+                = PreferenceManager.getDefaultSharedPreferences(mContext);
+        mSnapshot = new SettingsSnapshot(sharedPref);
+        sharedPref.registerOnSharedPreferenceChangeListener(this);
+    }
+
+    /**
+     * Gets the settings cache of the app.
+     *
+     * @param context Context of the App
+     * @return settings cache
+     * @throws IllegalArgumentException if context is not defined
+     */
+    public static synchronized SettingsCache getInstance(
+            final Context context) {
+        if (context == null) {
+            throw new IllegalArgumentException("context is not defined");
+        }
+
+        Context appContext = context.getApplicationContext();
+        if (appContext == null) {
+            appContext = context;
+        }
+
+        if (sInstance == null || sInstance.mContext != appContext) {
+            sInstance = new SettingsCache(appContext);
+        }
+
+        return sInstance;
+    }
+
+    /**
+     * Gets snapshot of the current settings.
+     *
+     * @return current settings
+     */
+    public SettingsSnapshot getSnapshot() {
+        return mSnapshot;
+    }
+
+    @Override
+    public void onSharedPreferenceChanged(final SharedPreferences sharedPref,
+                                          final String key) {
+        mSnapshot = new SettingsSnapshot(sharedPref);
+    }
+}
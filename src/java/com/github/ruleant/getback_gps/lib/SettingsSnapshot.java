@@ -0,0 +1,189 @@
+/**
+ * Immutable snapshot of the app settings.
+ *
+ * Copyright (C) 2015 Dieter Adriaenssens
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * @package com.github.ruleant.getback_gps.lib
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+package com.github.ruleant.getback_gps.lib;
+
+import android.content.SharedPreferences;
+
+import com.github.ruleant.getback_gps.BuildConfig;
+import com.github.ruleant.getback_gps.SettingsActivity;
+
+/**
+ * Immutable snapshot of the app settings.
+ *
+ * All settings are read and parsed from SharedPreferences once,
+ * when the snapshot is created, so getting a setting is a field read.
+ * Use SettingsCache to get the snapshot of the current settings.
+ *
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+public final class SettingsSnapshot {
+    /**
+     * True if use of sensors is enabled.
+     */
+    private final boolean mSensorsEnabled;
+
+    /**
+     * Sensor used to get the geographical orientation.
+     */
+    private final int mGeoOrientationSensor;
+
+    /**
+     * Minimum distance between location updates, in meters.
+     */
+    private final int mLocationUpdateDistance;
+
+    /**
+     * Minimum time between location updates, in milliseconds.
+     */
+    private final int mLocationUpdateTime;
+
+    /**
+     * Format of coordinates.
+     */
+    private final int mCoordinateFormat;
+
+    /**
+     * Unit system of distances, heights and speeds.
+     */
+    private final int mUnitSystem;
+
+    /**
+     * Debug level.
+     */
+    private final int mDebugLevel;
+
+    /**
+     * Constructor, creates snapshot of the settings
+     * stored in SharedPreferences.
+     *
+     * @param sharedPref SharedPreferences containing the settings
+     * @throws IllegalArgumentException if sharedPref is not defined
+     */
+    public SettingsSnapshot(final SharedPreferences sharedPref) {
+        if (sharedPref == null) {
+            throw new IllegalArgumentException("sharedPref is not defined");
+        }
+
+        mSensorsEnabled = sharedPref.getBoolean(
+                SettingsActivity.KEY_PREF_ENABLE_SENSORS,
+                SettingsActivity.DEFAULT_PREF_ENABLE_SENSORS);
+        mGeoOrientationSensor = Integer.parseInt(sharedPref.getString(
+                SettingsActivity.KEY_PREF_GEO_ORIENTATION_SENSOR,
+                SettingsActivity.DEFAULT_PREF_GEO_ORIENTATION_SENSOR));
+        mLocationUpdateDistance = Integer.parseInt(sharedPref.getString(
+                SettingsActivity.KEY_PREF_LOC_UPDATE_DIST,
+                SettingsActivity.DEFAULT_PREF_LOC_UPDATE_DIST));
+        mLocationUpdateTime = Integer.parseInt(sharedPref.getString(
+                SettingsActivity.KEY_PREF_LOC_UPDATE_TIME,
+                SettingsActivity.DEFAULT_PREF_LOC_UPDATE_TIME));
+        mCoordinateFormat = Integer.parseInt(sharedPref.getString(
+                SettingsActivity.KEY_PREF_COORDINATE_FORMAT,
+                SettingsActivity.DEFAULT_PREF_COORDINATE_FORMAT));
+        mUnitSystem = Integer.parseInt(sharedPref.getString(
+                SettingsActivity.KEY_PREF_UNITS,
+                SettingsActivity.DEFAULT_PREF_UNITS));
+
+        if (BuildConfig.DEBUG) {
+            mDebugLevel = Integer.parseInt(sharedPref.getString(
+                    DebugLevel.PREF_DEBUG_LEVEL,
+                    DebugLevel.DEFAULT_DEBUG_LEVEL));
+        } else {
+            mDebugLevel = DebugLevel.DEBUG_LEVEL_OFF;
+        }
+    }
+
+    /**
+     * Returns true if use of sensors is enabled.
+     *
+     * @return true if sensors are enabled
+     */
+    public boolean isSensorsEnabled() {
+        return mSensorsEnabled;
+    }
+
+    /**
+     * Gets sensor used to get the geographical orientation,
+     * fe. SettingsActivity.GEO_ORIENTATION_SENSOR_AUTO.
+     *
+     * @return geographical orientation sensor
+     */
+    public int getGeoOrientationSensor() {
+        return mGeoOrientationSensor;
+    }
+
+    /**
+     * Gets minimum distance between location updates.
+     *
+     * @return distance in meters
+     */
+    public int getLocationUpdateDistance() {
+        return mLocationUpdateDistance;
+    }
+
+    /**
+     * Gets minimum time between location updates.
+     *
+     * @return time in milliseconds
+     */
+    public int getLocationUpdateTime() {
+        return mLocationUpdateTime;
+    }
+
+    /**
+     * Gets format of coordinates,
+     * fe. SettingsActivity.COORDINATE_FORMAT_UTM.
+     *
+     * @return coordinate format
+     */
+    public int getCoordinateFormat() {
+        return mCoordinateFormat;
+    }
+
+    /**
+     * Gets unit system of distances, heights and speeds,
+     * fe. SettingsActivity.UNITS_METRIC.
+     *
+     * @return unit system
+     */
+    public int getUnitSystem() {
+        return mUnitSystem;
+    }
+
+    /**
+     * Gets debug level.
+     *
+     * @return debug level, fe. DebugLevel.DEBUG_LEVEL_LOW
+     */
+    public int getDebugLevel() {
+        return mDebugLevel;
+    }
+
+    /**
+     * Check if the debug level is set to the required level.
+     *
+     * @param debugLevel Debug level to check
+     * @return true if debugLevel is at least the needed level
+     */
+    public boolean checkDebugLevel(final int debugLevel) {
+        return BuildConfig.DEBUG && mDebugLevel >= debugLevel;
+    }
+}
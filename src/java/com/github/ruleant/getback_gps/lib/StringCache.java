@@ -0,0 +1,281 @@
+/**
+ * Cache of localized unit and label strings.
+ *
+ * Copyright (C) 2015 Dieter Adriaenssens
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * @package com.github.ruleant.getback_gps.lib
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+package com.github.ruleant.getback_gps.lib;
+
+import android.content.Context;
+import android.content.res.Resources;
+
+import com.github.ruleant.getback_gps.R;
+
+import java.util.Locale;
+
+/**
+ * Cache of localized strings, used to format units and labels.
+ *
+ * The strings are read from the resources once, and kept in an array,
+ * so getting a string is an array read,
+ * fe. when formatting a coordinate on every refresh.
+ * The cache is reloaded when the locale of the resources changes,
+ * fe. after a configuration change.
+ *
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+public final class StringCache {
+    /**
+     * String 'None'.
+     */
+    public static final int NONE = 0;
+
+    /**
+     * Unit North of a latitude.
+     */
+    public static final int LATITUDE_NORTH_UNIT = 1;
+
+    /**
+     * Unit South of a latitude.
+     */
+    public static final int LATITUDE_SOUTH_UNIT = 2;
+
+    /**
+     * Unit East of a longitude.
+     */
+    public static final int LONGITUDE_EAST_UNIT = 3;
+
+    /**
+     * Unit West of a longitude.
+     */
+    public static final int LONGITUDE_WEST_UNIT = 4;
+
+    /**
+     * Unit Northeast of a direction.
+     */
+    public static final int NORTHEAST_UNIT = 5;
+
+    /**
+     * Unit Southeast of a direction.
+     */
+    public static final int SOUTHEAST_UNIT = 6;
+
+    /**
+     * Unit Southwest of a direction.
+     */
+    public static final int SOUTHWEST_UNIT = 7;
+
+    /**
+     * Unit Northwest of a direction.
+     */
+    public static final int NORTHWEST_UNIT = 8;
+
+    /**
+     * Label Name.
+     */
+    public static final int NAME = 9;
+
+    /**
+     * Label Latitude.
+     */
+    public static final int LATITUDE = 10;
+
+    /**
+     * Label Longitude.
+     */
+    public static final int LONGITUDE = 11;
+
+    /**
+     * Label Altitude.
+     */
+    public static final int ALTITUDE = 12;
+
+    /**
+     * Label Bearing.
+     */
+    public static final int BEARING = 13;
+
+    /**
+     * Label Speed.
+     */
+    public static final int SPEED = 14;
+
+    /**
+     * Label Accuracy.
+     */
+    public static final int ACCURACY = 15;
+
+    /**
+     * Label Provider.
+     */
+    public static final int PROVIDER = 16;
+
+    /**
+     * Label Timestamp.
+     */
+    public static final int TIMESTAMP = 17;
+
+    /**
+     * Label Unformatted.
+     */
+    public static final int RAW = 18;
+
+    /**
+     * Message 'location recently updated'.
+     */
+    public static final int LOC_UPDATED_RECENT = 19;
+
+    /**
+     * Message 'location not recently updated'.
+     */
+    public static final int LOC_UPDATED_NOT_RECENT = 20;
+
+    /**
+     * Label UTM.
+     */
+    public static final int UTM = 21;
+
+    /**
+     * Label MGRS.
+     */
+    public static final int MGRS = 22;
+
+    /**
+     * Label Plus Code.
+     */
+    public static final int PLUS_CODE = 23;
+
+    /**
+     * Resource ids of the cached strings, by string index.
+     */
+    private static final int[] RESOURCE_IDS = {
+        R.string.none,
+        R.string.latitude_north_unit,
+        R.string.latitude_south_unit,
+        R.string.longitude_east_unit,
+        R.string.longitude_west_unit,
+        R.string.northeast_unit,
+        R.string.southeast_unit,
+        R.string.southwest_unit,
+        R.string.northwest_unit,
+        R.string.name,
+        R.string.latitude,
+        R.string.longitude,
+        R.string.altitude,
+        R.string.bearing,
+        R.string.speed,
+        R.string.accuracy,
+        R.string.provider,
+        R.string.timestamp,
+        R.string.raw,
+        R.string.loc_updated_recent,
+        R.string.loc_updated_not_recent,
+        R.string.utm,
+        R.string.mgrs,
+        R.string.plus_code,
+    };
+
+    /**
+     * Instance of the string cache.
+     */
+    private static StringCache sInstance = null;
+
+    /**
+     * Locale of the cached strings.
+     */
+    private final Locale mLocale;
+
+    /**
+     * Cached strings, by string index.
+     */
+    private final String[] mStrings = new String[RESOURCE_IDS.length];
+
+    /**
+     * Constructor.
+     *
+     * @param resources Resources to read the strings from
+     * @param locale Locale of the resources
+     */
+    private StringCache(final Resources resources, final Locale locale) {
+        mLocale = locale;
+
+        for (int i = 0; i < RESOURCE_IDS.length; i++) {
+            mStrings[i] = resources.getString(RESOURCE_IDS[i]);
+        }
+    }
+
+    /**
+     * Gets the string cache for the current locale of the app.
+     *
+     * @param context Context of the App
+     * @return string cache
+     * @throws IllegalArgumentException if context is not defined
+     */
+    public static synchronized StringCache getInstance(
+            final Context context) {
+        if (context == null) {
+            throw new IllegalArgumentException("context is not defined");
+        }
+
+        Resources resources = context.getResources();
+        Locale locale = resources.getConfiguration().locale;
+        if (locale == null) {
+            locale = Locale.getDefault();
+        }
+
+        if (sInstance == null || !sInstance.mLocale.equals(locale)) {
+            sInstance = new StringCache(resources, locale);
+        }
+
+        return sInstance;
+    }
+
+    /**
+     * Clears the cache, the strings are read again on the next
+     * call of getInstance().
+     */
+    public static synchronized void invalidate() {
+        sInstance = null;
+    }
+
+    /**
+     * Gets locale of the cached strings.
+     *
+     * @return locale
+     */
+    public Locale getLocale() {
+        return mLocale;
+    }
+
+    /**
+     * Gets a cached string.
+     *
+     * @param index String index, fe. LATITUDE_NORTH_UNIT
+     * @return localized string
+     * @throws IllegalArgumentException if index is out of range
+     */
+    public String get(final int index) {
+        if (index < 0 || index >= mStrings.length) {
+            throw new IllegalArgumentException(
+                    "parameter index is not in range 0 .. "
+                            + (mStrings.length - 1));
+        }
+
+        return mStrings[index];
+    }
+}
@@ -0,0 +1,139 @@
+/**
+ * Reusable text buffer for TextViews.
+ *
+ * Copyright (C) 2015 Dieter Adriaenssens
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * @package com.github.ruleant.getback_gps.lib
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+package com.github.ruleant.getback_gps.lib;
+
+import android.widget.TextView;
+
+/**
+ * Text buffer that is reused to display a changing text in a TextView.
+ *
+ * The text is built in a StringBuilder and copied to a char array,
+ * the TextView displays the characters of the array,
+ * so no String is allocated for each update.
+ * Both grow when needed, but are never shrunk.
+ * Use one buffer per TextView, the TextView keeps a reference to the array.
+ *
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+public class TextBuffer {
+    /**
+     * Default capacity.
+     */
+    private static final int DEFAULT_CAPACITY = 32;
+
+    /**
+     * Text builder.
+     */
+    private final StringBuilder mBuilder;
+
+    /**
+     * Characters of the text.
+     */
+    private char[] mChars;
+
+    /**
+     * Constructor.
+     */
+    public TextBuffer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param capacity Initial number of characters
+     * @throws IllegalArgumentException if capacity is smaller than 1
+     */
+    public TextBuffer(final int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException(
+                    "parameter capacity should be at least 1");
+        }
+
+        mBuilder = new StringBuilder(capacity);
+        mChars = new char[capacity];
+    }
+
+    /**
+     * Clears the text.
+     *
+     * @return empty builder, to append the new text to
+     */
+    public final StringBuilder reset() {
+        mBuilder.setLength(0);
+        return mBuilder;
+    }
+
+    /**
+     * Gets builder containing the text.
+     *
+     * @return builder
+     */
+    public final StringBuilder getBuilder() {
+        return mBuilder;
+    }
+
+    /**
+     * Gets length of the text.
+     *
+     * @return number of characters
+     */
+    public final int length() {
+        return mBuilder.length();
+    }
+
+    /**
+     * Gets characters of the text,
+     * the array can be longer than the text.
+     *
+     * @return characters, valid up to length()
+     */
+    public final char[] getChars() {
+        int length = mBuilder.length();
+
+        if (mChars.length < length) {
+            mChars = new char[mBuilder.capacity()];
+        }
+        mBuilder.getChars(0, length, mChars, 0);
+
+        return mChars;
+    }
+
+    /**
+     * Displays the text in a TextView.
+     *
+     * @param textView TextView to display the text in
+     */
+    public final void setText(final TextView textView) {
+        textView.setText(getChars(), 0, length());
+    }
+
+    /**
+     * Gets the text.
+     *
+     * @return text
+     */
+    @Override
+    public final String toString() {
+        return mBuilder.toString();
+    }
+}
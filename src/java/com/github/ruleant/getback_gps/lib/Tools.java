@@ -41,6 +41,11 @@ public class Tools {
      */
     public static final long MICRO_IN_NANO = 1000;
 
+    /**
+     * Millisecond to microsecond conversion rate.
+     */
+    public static final long MILLI_IN_MICRO = 1000;
+
     /**
      * Seconds to milliseconds conversion rate.
      */
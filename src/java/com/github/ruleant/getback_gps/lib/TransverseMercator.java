@@ -0,0 +1,483 @@
+/**
+ * Transverse Mercator projection for UTM coordinates.
+ *
+ * Copyright (C) 2015 Dieter Adriaenssens
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * @package com.github.ruleant.getback_gps.lib
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+package com.github.ruleant.getback_gps.lib;
+
+/**
+ * Converts WGS84 latitude and longitude to UTM coordinates and back.
+ *
+ * Uses the Krüger series of the transverse Mercator projection,
+ * expanded to the 6th power of the third flattening,
+ * which is accurate to well below a millimeter inside a UTM zone.
+ * The series coefficients only depend on the ellipsoid,
+ * so they are calculated once.
+ *
+ * The batch methods convert a track to one zone,
+ * so all points are in the same plane, even when the track
+ * crosses a zone border.
+ *
+ * UTM is defined from 80°S to 84°N, the polar regions (UPS)
+ * are not supported.
+ *
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+public final class TransverseMercator {
+    /**
+     * Southern limit of UTM (in degrees).
+     */
+    public static final double LATITUDE_MIN = -80;
+
+    /**
+     * Northern limit of UTM (in degrees).
+     */
+    public static final double LATITUDE_MAX = 84;
+
+    /**
+     * WGS84 semi-major axis (in meters).
+     */
+    private static final double SEMI_MAJOR_AXIS = 6378137;
+
+    /**
+     * WGS84 flattening.
+     */
+    private static final double FLATTENING = 1 / 298.257223563;
+
+    /**
+     * Scale factor on the central meridian.
+     */
+    private static final double SCALE = 0.9996;
+
+    /**
+     * False easting (in meters).
+     */
+    private static final double FALSE_EASTING = 500000;
+
+    /**
+     * False northing in the southern hemisphere (in meters).
+     */
+    private static final double FALSE_NORTHING = 10000000;
+
+    /**
+     * Zone width (in degrees).
+     */
+    private static final int ZONE_WIDTH = 6;
+
+    /**
+     * Latitude band height (in degrees).
+     */
+    private static final int BAND_HEIGHT = 8;
+
+    /**
+     * Index of the band at the equator.
+     */
+    private static final int BAND_EQUATOR = 10;
+
+    /**
+     * Longitude of the western border of zone 1 (in degrees).
+     */
+    private static final double LONGITUDE_MIN = -180;
+
+    /**
+     * Accuracy of the latitude iteration of the inverse projection.
+     */
+    private static final double TAU_ACCURACY = 1e-12;
+
+    /**
+     * Maximum number of latitude iterations.
+     */
+    private static final int MAX_ITERATIONS = 10;
+
+    /**
+     * Eccentricity.
+     */
+    private static final double ECCENTRICITY
+            = Math.sqrt(FLATTENING * (2 - FLATTENING));
+
+    /**
+     * Third flattening.
+     */
+    private static final double N = FLATTENING / (2 - FLATTENING);
+
+    /**
+     * Scaled radius of the rectifying sphere, k0 * A.
+     */
+    private static final double RADIUS;
+
+    /**
+     * Series coefficients of the forward projection.
+     */
+    private static final double[] ALPHA;
+
+    /**
+     * Series coefficients of the inverse projection.
+     */
+    private static final double[] BETA;
+
+    static {
+        final double n = N;
+        final double n2 = n * n;
+        final double n3 = n2 * n;
+        final double n4 = n3 * n;
+        final double n5 = n4 * n;
+        final double n6 = n5 * n;
+
+        RADIUS = SCALE * SEMI_MAJOR_AXIS / (1 + n)
+                * (1 + n2 / 4 + n4 / 64 + n6 / 256);
+
+        // coefficients from C.F.F. Karney, Transverse Mercator
+        // with an accuracy of a few nanometers, J Geodesy 85 (2011)
+        ALPHA = new double[] {
+            n / 2 - 2 * n2 / 3 + 5 * n3 / 16 + 41 * n4 / 180
+                    - 127 * n5 / 288 + 7891 * n6 / 37800,
+            13 * n2 / 48 - 3 * n3 / 5 + 557 * n4 / 1440
+                    + 281 * n5 / 630 - 1983433 * n6 / 1935360,
+            61 * n3 / 240 - 103 * n4 / 140 + 15061 * n5 / 26880
+                    + 167603 * n6 / 181440,
+            49561 * n4 / 161280 - 179 * n5 / 168
+                    + 6601661 * n6 / 7257600,
+            34729 * n5 / 80640 - 3418889 * n6 / 1995840,
+            212378941 * n6 / 319334400,
+        };
+        BETA = new double[] {
+            n / 2 - 2 * n2 / 3 + 37 * n3 / 96 - n4 / 360
+                    - 81 * n5 / 512 + 96199 * n6 / 604800,
+            n2 / 48 + n3 / 15 - 437 * n4 / 1440 + 46 * n5 / 105
+                    - 1118711 * n6 / 3870720,
+            17 * n3 / 480 - 37 * n4 / 840 - 209 * n5 / 4480
+                    + 5569 * n6 / 90720,
+            4397 * n4 / 161280 - 11 * n5 / 504 - 830251 * n6 / 7257600,
+            4583 * n5 / 161280 - 108847 * n6 / 3991680,
+            20648693 * n6 / 638668800,
+        };
+    }
+
+    /**
+     * Hidden constructor, to prevent instantiating.
+     */
+    private TransverseMercator() {
+    }
+
+    /**
+     * Returns true if the latitude is in the range of UTM.
+     *
+     * @param latitude Latitude in degrees
+     * @return true if latitude is between 80°S and 84°N
+     */
+    public static boolean isInRange(final double latitude) {
+        return latitude >= LATITUDE_MIN && latitude <= LATITUDE_MAX;
+    }
+
+    /**
+     * Gets the UTM zone of a location,
+     * including the exceptions for Norway and Svalbard.
+     *
+     * @param latitude Latitude in degrees
+     * @param longitude Longitude in degrees
+     * @return zone (1-60)
+     */
+    public static int getZone(final double latitude, final double longitude) {
+        double normalized = FormatUtils.normalizeAngle(
+                longitude - LONGITUDE_MIN);
+        int zone = (int) Math.floor(normalized / ZONE_WIDTH) + 1;
+        zone = Math.min(zone, UtmCoordinate.ZONE_MAX);
+
+        // exceptions to the regular grid, zone borders in degrees
+        // Norway
+        if (latitude >= 56 && latitude < 64 && zone == 31
+                && longitude >= 3) {
+            zone = 32;
+        }
+
+        // Svalbard
+        if (latitude >= 72) {
+            if (zone == 32) {
+                zone = longitude < 9 ? 31 : 33;
+            } else if (zone == 34) {
+                zone = longitude < 21 ? 33 : 35;
+            } else if (zone == 36) {
+                zone = longitude < 33 ? 35 : 37;
+            }
+        }
+
+        return zone;
+    }
+
+    /**
+     * Gets the latitude band letter.
+     *
+     * @param latitude Latitude in degrees (80°S-84°N)
+     * @return band letter, fe. 'U'
+     */
+    public static char getBand(final double latitude) {
+        int index = (int) Math.floor(latitude / BAND_HEIGHT) + BAND_EQUATOR;
+        index = Math.max(0,
+                Math.min(index, UtmCoordinate.BANDS.length() - 1));
+
+        return UtmCoordinate.BANDS.charAt(index);
+    }
+
+    /**
+     * Gets the southern limit of a latitude band.
+     *
+     * @param band Band letter, fe. 'U'
+     * @return latitude in degrees
+     * @throws IllegalArgumentException if band is not a latitude band
+     */
+    public static double getBandLatitude(final char band) {
+        int index = UtmCoordinate.BANDS.indexOf(Character.toUpperCase(band));
+        if (index < 0) {
+            throw new IllegalArgumentException(
+                    "parameter band is not a latitude band : " + band);
+        }
+
+        return (index - BAND_EQUATOR) * BAND_HEIGHT;
+    }
+
+    /**
+     * Converts latitude and longitude to a UTM coordinate,
+     * in the zone of the location.
+     *
+     * @param latitude Latitude in degrees (80°S-84°N)
+     * @param longitude Longitude in degrees
+     * @param dst UTM coordinate to set
+     * @throws IllegalArgumentException if latitude is out of UTM range
+     */
+    public static void toUtm(final double latitude, final double longitude,
+                             final UtmCoordinate dst) {
+        checkLatitude(latitude);
+        int zone = getZone(latitude, longitude);
+        double[] position = dst.getPosition();
+
+        project(zone, latitude >= 0, latitude, longitude, position, 0);
+        dst.set(zone, getBand(latitude), position[0], position[1]);
+    }
+
+    /**
+     * Converts a UTM coordinate to latitude and longitude.
+     *
+     * @param src UTM coordinate
+     * @param dst array to write latitude and longitude (in degrees) to
+     */
+    public static void fromUtm(final UtmCoordinate src, final double[] dst) {
+        dst[0] = src.getEasting();
+        dst[1] = src.getNorthing();
+        unproject(src.getZone(), src.isNorth(), dst, 0, dst, 0);
+    }
+
+    /**
+     * Converts a track of locations to easting and northing in one zone.
+     *
+     * @param zone Zone to project to (1-60)
+     * @param north true to use the northern hemisphere northing
+     * @param src latitude, longitude pairs (in degrees)
+     * @param dst array to write easting, northing pairs (in meters) to,
+     *            can be the same array as src
+     * @param n Number of locations
+     * @throws IllegalArgumentException if a latitude is out of UTM range
+     */
+    public static void toUtm(final int zone, final boolean north,
+                             final double[] src, final double[] dst,
+                             final int n) {
+        checkZone(zone);
+        for (int i = 0; i < n; i++) {
+            double latitude = src[2 * i];
+            checkLatitude(latitude);
+            project(zone, north, latitude, src[2 * i + 1], dst, 2 * i);
+        }
+    }
+
+    /**
+     * Converts a track of easting and northing in one zone
+     * to latitude and longitude.
+     *
+     * @param zone Zone of the coordinates (1-60)
+     * @param north true if northing is in the northern hemisphere
+     * @param src easting, northing pairs (in meters)
+     * @param dst array to write latitude, longitude pairs (in degrees) to,
+     *            can be the same array as src
+     * @param n Number of locations
+     */
+    public static void fromUtm(final int zone, final boolean north,
+                               final double[] src, final double[] dst,
+                               final int n) {
+        checkZone(zone);
+        for (int i = 0; i < n; i++) {
+            unproject(zone, north, src, 2 * i, dst, 2 * i);
+        }
+    }
+
+    /**
+     * Projects a location.
+     *
+     * @param zone Zone
+     * @param north true for the northern hemisphere
+     * @param latitude Latitude in degrees
+     * @param longitude Longitude in degrees
+     * @param dst array to write easting and northing to
+     * @param dstOffset index to write the easting to
+     */
+    private static void project(final int zone, final boolean north,
+                                final double latitude,
+                                final double longitude,
+                                final double[] dst, final int dstOffset) {
+        double phi = Math.toRadians(latitude);
+        double lambda = Math.toRadians(longitude - getCentralMeridian(zone));
+        double cosLambda = Math.cos(lambda);
+
+        // conformal latitude
+        double tau = Math.tan(phi);
+        double sigma = Math.sinh(ECCENTRICITY
+                * atanh(ECCENTRICITY * tau / Math.sqrt(1 + tau * tau)));
+        double tauPrime = tau * Math.sqrt(1 + sigma * sigma)
+                - sigma * Math.sqrt(1 + tau * tau);
+
+        double xiPrime = Math.atan2(tauPrime, cosLambda);
+        double etaPrime = asinh(Math.sin(lambda)
+                / Math.sqrt(tauPrime * tauPrime + cosLambda * cosLambda));
+
+        double xi = xiPrime;
+        double eta = etaPrime;
+        for (int j = 1; j <= ALPHA.length; j++) {
+            xi += ALPHA[j - 1] * Math.sin(2 * j * xiPrime)
+                    * Math.cosh(2 * j * etaPrime);
+            eta += ALPHA[j - 1] * Math.cos(2 * j * xiPrime)
+                    * Math.sinh(2 * j * etaPrime);
+        }
+
+        dst[dstOffset] = RADIUS * eta + FALSE_EASTING;
+        dst[dstOffset + 1] = RADIUS * xi + (north ? 0 : FALSE_NORTHING);
+    }
+
+    /**
+     * Inverse projects a location.
+     *
+     * @param zone Zone
+     * @param north true for the northern hemisphere
+     * @param src array containing easting and northing
+     * @param srcOffset index of the easting in src
+     * @param dst array to write latitude and longitude to
+     * @param dstOffset index to write the latitude to
+     */
+    private static void unproject(final int zone, final boolean north,
+                                  final double[] src, final int srcOffset,
+                                  final double[] dst, final int dstOffset) {
+        double eta = (src[srcOffset] - FALSE_EASTING) / RADIUS;
+        double xi = (src[srcOffset + 1] - (north ? 0 : FALSE_NORTHING))
+                / RADIUS;
+
+        double xiPrime = xi;
+        double etaPrime = eta;
+        for (int j = 1; j <= BETA.length; j++) {
+            xiPrime -= BETA[j - 1] * Math.sin(2 * j * xi)
+                    * Math.cosh(2 * j * eta);
+            etaPrime -= BETA[j - 1] * Math.cos(2 * j * xi)
+                    * Math.sinh(2 * j * eta);
+        }
+
+        double sinhEtaPrime = Math.sinh(etaPrime);
+        double sinXiPrime = Math.sin(xiPrime);
+        double cosXiPrime = Math.cos(xiPrime);
+
+        // conformal latitude, converted to latitude by Newton iteration
+        double tauPrime = sinXiPrime / Math.sqrt(
+                sinhEtaPrime * sinhEtaPrime + cosXiPrime * cosXiPrime);
+        double e2 = ECCENTRICITY * ECCENTRICITY;
+        double tau = tauPrime;
+        for (int i = 0; i < MAX_ITERATIONS; i++) {
+            double sigma = Math.sinh(ECCENTRICITY
+                    * atanh(ECCENTRICITY * tau / Math.sqrt(1 + tau * tau)));
+            double tauI = tau * Math.sqrt(1 + sigma * sigma)
+                    - sigma * Math.sqrt(1 + tau * tau);
+            double delta = (tauPrime - tauI) / Math.sqrt(1 + tauI * tauI)
+                    * (1 + (1 - e2) * tau * tau)
+                    / ((1 - e2) * Math.sqrt(1 + tau * tau));
+            tau += delta;
+            if (Math.abs(delta) < TAU_ACCURACY) {
+                break;
+            }
+        }
+
+        dst[dstOffset] = Math.toDegrees(Math.atan(tau));
+        dst[dstOffset + 1] = Math.toDegrees(
+                Math.atan2(sinhEtaPrime, cosXiPrime))
+                + getCentralMeridian(zone);
+    }
+
+    /**
+     * Gets central meridian of a zone.
+     *
+     * @param zone Zone (1-60)
+     * @return longitude in degrees
+     */
+    public static double getCentralMeridian(final int zone) {
+        return (zone - 1) * ZONE_WIDTH + LONGITUDE_MIN + ZONE_WIDTH / 2.0;
+    }
+
+    /**
+     * Checks if latitude is in UTM range.
+     *
+     * @param latitude Latitude in degrees
+     * @throws IllegalArgumentException if latitude is out of UTM range
+     */
+    private static void checkLatitude(final double latitude) {
+        if (!isInRange(latitude)) {
+            throw new IllegalArgumentException(
+                    "parameter latitude is not in range "
+                            + LATITUDE_MIN + " .. " + LATITUDE_MAX);
+        }
+    }
+
+    /**
+     * Checks if zone is valid.
+     *
+     * @param zone Zone
+     * @throws IllegalArgumentException if zone is out of range
+     */
+    private static void checkZone(final int zone) {
+        if (zone < UtmCoordinate.ZONE_MIN || zone > UtmCoordinate.ZONE_MAX) {
+            throw new IllegalArgumentException(
+                    "parameter zone is not in range "
+                            + UtmCoordinate.ZONE_MIN + " .. "
+                            + UtmCoordinate.ZONE_MAX);
+        }
+    }
+
+    /**
+     * Inverse hyperbolic sine.
+     *
+     * @param x value
+     * @return asinh(x)
+     */
+    private static double asinh(final double x) {
+        double abs = Math.abs(x);
+        return Math.copySign(Math.log(abs + Math.sqrt(abs * abs + 1)), x);
+    }
+
+    /**
+     * Inverse hyperbolic tangent.
+     *
+     * @param x value (-1 - 1)
+     * @return atanh(x)
+     */
+    private static double atanh(final double x) {
+        return Math.log((1 + x) / (1 - x)) / 2;
+    }
+}
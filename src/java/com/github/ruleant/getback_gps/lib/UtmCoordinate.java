@@ -0,0 +1,170 @@
+/**
+ * UTM coordinate.
+ *
+ * Copyright (C) 2015 Dieter Adriaenssens
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * @package com.github.ruleant.getback_gps.lib
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+package com.github.ruleant.getback_gps.lib;
+
+/**
+ * Universal Transverse Mercator (UTM) coordinate :
+ * zone, latitude band, easting and northing.
+ *
+ * The coordinate is mutable, so one instance can be reused
+ * to convert a series of locations, see TransverseMercator.
+ *
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+public final class UtmCoordinate {
+    /**
+     * Lowest zone number.
+     */
+    public static final int ZONE_MIN = 1;
+
+    /**
+     * Highest zone number.
+     */
+    public static final int ZONE_MAX = 60;
+
+    /**
+     * Latitude band letters, from South to North,
+     * each band is 8° high, except band X (72°-84°).
+     */
+    public static final String BANDS = "CDEFGHJKLMNPQRSTUVWX";
+
+    /**
+     * Zone number (1-60).
+     */
+    private int mZone = ZONE_MIN;
+
+    /**
+     * Latitude band letter, fe. 'U'.
+     */
+    private char mBand = 'N';
+
+    /**
+     * Easting and northing in meters, including false easting,
+     * and false northing in the southern hemisphere.
+     */
+    private final double[] mPosition = new double[2];
+
+    /**
+     * Sets coordinate.
+     *
+     * @param zone Zone number (1-60)
+     * @param band Latitude band letter, fe. 'U'
+     * @param easting Easting in meters
+     * @param northing Northing in meters
+     * @throws IllegalArgumentException if zone or band is invalid
+     */
+    public void set(final int zone, final char band, final double easting,
+                    final double northing) {
+        if (zone < ZONE_MIN || zone > ZONE_MAX) {
+            throw new IllegalArgumentException(
+                    "parameter zone is not in range "
+                            + ZONE_MIN + " .. " + ZONE_MAX);
+        }
+        char upperBand = Character.toUpperCase(band);
+        if (BANDS.indexOf(upperBand) < 0) {
+            throw new IllegalArgumentException(
+                    "parameter band is not a latitude band : " + band);
+        }
+
+        mZone = zone;
+        mBand = upperBand;
+        mPosition[0] = easting;
+        mPosition[1] = northing;
+    }
+
+    /**
+     * Gets zone number.
+     *
+     * @return zone (1-60)
+     */
+    public int getZone() {
+        return mZone;
+    }
+
+    /**
+     * Gets latitude band letter.
+     *
+     * @return band, fe. 'U'
+     */
+    public char getBand() {
+        return mBand;
+    }
+
+    /**
+     * Returns true if the coordinate is in the northern hemisphere.
+     *
+     * @return true if band is N or higher
+     */
+    public boolean isNorth() {
+        return mBand >= 'N';
+    }
+
+    /**
+     * Gets easting.
+     *
+     * @return easting in meters
+     */
+    public double getEasting() {
+        return mPosition[0];
+    }
+
+    /**
+     * Gets northing.
+     *
+     * @return northing in meters
+     */
+    public double getNorthing() {
+        return mPosition[1];
+    }
+
+    /**
+     * Gets array holding easting and northing,
+     * to let the projection write to it without allocating.
+     *
+     * @return easting, northing array
+     */
+    double[] getPosition() {
+        return mPosition;
+    }
+
+    /**
+     * Appends coordinate, rounded to meters, fe. 31U 448252 5411933.
+     *
+     * @param builder StringBuilder to append to
+     * @return builder
+     */
+    public StringBuilder appendTo(final StringBuilder builder) {
+        return builder.append(mZone).append(mBand)
+                .append(' ').append(Math.round(mPosition[0]))
+                .append(' ').append(Math.round(mPosition[1]));
+    }
+
+    /**
+     * Gets formatted coordinate.
+     *
+     * @return coordinate, fe. 31U 448252 5411933
+     */
+    @Override
+    public String toString() {
+        return appendTo(new StringBuilder()).toString();
+    }
+}
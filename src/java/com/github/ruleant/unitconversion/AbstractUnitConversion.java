@@ -0,0 +1,280 @@
+/**
+ * Base class of the unit conversions
+ *
+ * Copyright (C) 2015 Dieter Adriaenssens
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * @package com.github.ruleant.unitconversion
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+package com.github.ruleant.unitconversion;
+
+import java.util.Locale;
+
+/**
+ * Base class of the unit conversions.
+ *
+ * The conversion factors between every pair of units are precomputed,
+ * in a matrix indexed by source and target unit,
+ * so converting a value is a single multiplication.
+ * A conversion keeps its value, output unit and unit labels,
+ * so one instance can be reused to format every value.
+ *
+ * The unit used to display a value (fe. km instead of m for
+ * a long distance) and its number of decimals are decided
+ * by the subclass, so a formatter can append the digits itself.
+ *
+ * @author Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+public abstract class AbstractUnitConversion
+        implements UnitConversionInterface {
+    /**
+     * Conversion factors, by source unit and target unit.
+     */
+    private final double[][] mFactors;
+
+    /**
+     * Labels of the units.
+     */
+    private final String[] mUnits;
+
+    /**
+     * Value, in the default unit.
+     */
+    private double mValue = 0;
+
+    /**
+     * Output unit.
+     */
+    private int mOutputUnit = UNIT_DEFAULT;
+
+    /**
+     * Constructor.
+     *
+     * @param factors Conversion factors, by source unit and target unit,
+     *                fe. created by createFactors()
+     * @param units Untranslated labels of the units, by unit
+     * @throws IllegalArgumentException if there isn't a label for every unit
+     */
+    protected AbstractUnitConversion(final double[][] factors,
+                                     final String[] units) {
+        if (units == null || units.length != factors.length) {
+            throw new IllegalArgumentException(
+                    "parameter units should contain a label for every unit");
+        }
+
+        mFactors = factors;
+        mUnits = units.clone();
+    }
+
+    /**
+     * Creates the matrix of conversion factors between every pair of units.
+     * The factors to convert from the default unit are the scales
+     * themselves, so that conversion is as exact as the scale.
+     *
+     * @param unitScales Number of units in one default unit,
+     *                   fe. 0.001 for km if the default unit is m
+     * @return conversion factors, by source unit and target unit
+     */
+    protected static double[][] createFactors(final double[] unitScales) {
+        int units = unitScales.length;
+        double[][] factors = new double[units][units];
+
+        for (int from = 0; from < units; from++) {
+            for (int to = 0; to < units; to++) {
+                if (from == to) {
+                    factors[from][to] = 1;
+                } else {
+                    factors[from][to] = unitScales[to] / unitScales[from];
+                }
+            }
+        }
+
+        return factors;
+    }
+
+    /**
+     * Sets value, which will be converted to the default unit,
+     * if necessary.
+     *
+     * @param value New value
+     * @param unit Unit of the new value
+     * @throws IllegalArgumentException if unit is not valid
+     */
+    @Override
+    public final void setValue(final double value, final int unit) {
+        checkUnit(unit);
+        mValue = value * mFactors[unit][UNIT_DEFAULT];
+    }
+
+    /**
+     * Gets value, in the default unit.
+     *
+     * @return value
+     */
+    public final double getValue() {
+        return mValue;
+    }
+
+    /**
+     * Sets the unit that will be used when formatting a value.
+     *
+     * @param unit Unit of the formatted value.
+     * @throws IllegalArgumentException if unit is not valid
+     */
+    @Override
+    public final void setOutputUnit(final int unit) {
+        checkUnit(unit);
+        mOutputUnit = unit;
+    }
+
+    /**
+     * Gets the unit that will be used when formatting a value.
+     *
+     * @return output unit
+     */
+    public final int getOutputUnit() {
+        return mOutputUnit;
+    }
+
+    /**
+     * Sets a localized label of a unit.
+     *
+     * @param unit Unit
+     * @param label Localized label, fe. km
+     * @throws IllegalArgumentException if unit is not valid
+     */
+    public final void setUnitLabel(final int unit, final String label) {
+        checkUnit(unit);
+        mUnits[unit] = label;
+    }
+
+    /**
+     * Returns the label of the current output unit.
+     *
+     * @return localized unit string
+     */
+    @Override
+    public final String getUnit() {
+        return mUnits[mOutputUnit];
+    }
+
+    /**
+     * Returns the label of a unit.
+     *
+     * @param unit Unit
+     * @return localized unit string
+     * @throws IllegalArgumentException if unit is not valid
+     */
+    public final String getUnit(final int unit) {
+        checkUnit(unit);
+        return mUnits[unit];
+    }
+
+    /**
+     * Converts the current value to the output unit, if necessary.
+     *
+     * @return value converted to selected unit
+     */
+    @Override
+    public final double getConvertedValue() {
+        return mValue * mFactors[UNIT_DEFAULT][mOutputUnit];
+    }
+
+    /**
+     * Converts a value from one unit to another.
+     *
+     * @param value Value to convert
+     * @param fromUnit Unit of the value
+     * @param toUnit Unit to convert to
+     * @return converted value
+     * @throws IllegalArgumentException if one of the units is not valid
+     */
+    public final double convert(final double value, final int fromUnit,
+                                final int toUnit) {
+        checkUnit(fromUnit);
+        checkUnit(toUnit);
+        return value * mFactors[fromUnit][toUnit];
+    }
+
+    /**
+     * Gets the unit used to display the current value.
+     * By default this is the output unit.
+     *
+     * @return display unit
+     */
+    public int getDisplayUnit() {
+        return mOutputUnit;
+    }
+
+    /**
+     * Gets the current value, converted to the display unit.
+     *
+     * @return value in the display unit
+     */
+    public final double getDisplayValue() {
+        return mValue * mFactors[UNIT_DEFAULT][getDisplayUnit()];
+    }
+
+    /**
+     * Gets the number of decimals used to display the current value.
+     * By default the value is displayed as an integer.
+     *
+     * @return number of decimals
+     */
+    public int getDisplayDecimals() {
+        return 0;
+    }
+
+    /**
+     * Returns true if the digits of the displayed value are grouped.
+     * By default the digits are grouped.
+     *
+     * @return true if the digits are grouped
+     */
+    public boolean isDisplayGrouped() {
+        return true;
+    }
+
+    /**
+     * Converts the value to the display unit, scales and formats it,
+     * and adds a localized unit.
+     * The number format is localized to the default locale.
+     *
+     * @return formatted value
+     */
+    @Override
+    public final String getFormattedValue() {
+        String format = isDisplayGrouped() ? "%,." : "%.";
+
+        return String.format(Locale.getDefault(),
+                format + getDisplayDecimals() + "f%s",
+                getDisplayValue(), mUnits[getDisplayUnit()]);
+    }
+
+    /**
+     * Checks if a unit is valid.
+     *
+     * @param unit Unit
+     * @throws IllegalArgumentException if unit is not valid
+     */
+    private void checkUnit(final int unit) {
+        if (unit < 0 || unit >= mUnits.length) {
+            throw new IllegalArgumentException(
+                    "parameter unit is not in range 0 .. "
+                            + (mUnits.length - 1));
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/**
+ * Distance unit conversion
+ *
+ * Copyright (C) 2015 Dieter Adriaenssens
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * @package com.github.ruleant.unitconversion
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+package com.github.ruleant.unitconversion;
+
+/**
+ * Converts distances, fe. to a destination.
+ *
+ * Short distances are displayed in meter or feet, as an integer.
+ * From 1000 meter or feet, the distance is displayed in kilometer
+ * or mile, with 1 decimal below 10 and as an integer above.
+ * Nautical miles and other output units aren't scaled.
+ *
+ * @author Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+public class DistanceConversion extends LengthConversion {
+    /**
+     * Distance from which the long unit is used, in short units.
+     */
+    private static final long SHORT_UNIT_LIMIT = 1000;
+
+    /**
+     * Distance from which a long unit is displayed as an integer.
+     */
+    private static final double INTEGER_LIMIT = 10.0;
+
+    /**
+     * Gets the unit used to display the current value :
+     * the output unit for short distances,
+     * kilometer or mile for long distances.
+     *
+     * @return display unit
+     */
+    @Override
+    public final int getDisplayUnit() {
+        int outputUnit = getOutputUnit();
+        int longUnit = getLongUnit(outputUnit);
+
+        if (longUnit != outputUnit
+                && Math.round(Math.abs(getConvertedValue()))
+                        < SHORT_UNIT_LIMIT) {
+            return outputUnit;
+        }
+
+        return longUnit;
+    }
+
+    /**
+     * Gets the number of decimals used to display the current value :
+     * 1 decimal for long units below 10, 0 decimals otherwise.
+     *
+     * @return number of decimals
+     */
+    @Override
+    public final int getDisplayDecimals() {
+        if (isShortUnit(getDisplayUnit())) {
+            return 0;
+        }
+
+        // round to one decimal and check if it is
+        // smaller than a 1 decimal difference
+        double value = Math.abs(getDisplayValue());
+        if ((Math.round(value * INTEGER_LIMIT) / INTEGER_LIMIT)
+                < INTEGER_LIMIT) {
+            return 1;
+        }
+
+        return 0;
+    }
+
+    /**
+     * Returns true if the digits of the displayed value are grouped,
+     * short distances aren't grouped.
+     *
+     * @return true if the digits are grouped
+     */
+    @Override
+    public final boolean isDisplayGrouped() {
+        return !isShortUnit(getDisplayUnit());
+    }
+
+    /**
+     * Gets long unit of a short unit, fe. kilometer for meter.
+     *
+     * @param unit Unit
+     * @return long unit, unit itself if it has no long unit
+     */
+    private static int getLongUnit(final int unit) {
+        switch (unit) {
+            case METER:
+                return KILOMETER;
+            case FOOT:
+                return MILE;
+            default:
+                return unit;
+        }
+    }
+
+    /**
+     * Checks if a unit is a short unit, that has a long unit.
+     *
+     * @param unit Unit
+     * @return true if unit is a short unit
+     */
+    private static boolean isShortUnit(final int unit) {
+        return getLongUnit(unit) != unit;
+    }
+}
@@ -0,0 +1,81 @@
+/**
+ * Length unit conversion
+ *
+ * Copyright (C) 2015 Dieter Adriaenssens
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * @package com.github.ruleant.unitconversion
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+package com.github.ruleant.unitconversion;
+
+/**
+ * Converts lengths between metric, imperial and nautical units,
+ * fe. a height. The default unit is meter.
+ *
+ * @author Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+public class LengthConversion extends AbstractUnitConversion {
+    /**
+     * Unit : meter.
+     */
+    public static final int METER = UNIT_DEFAULT;
+
+    /**
+     * Unit : kilometer.
+     */
+    public static final int KILOMETER = 1;
+
+    /**
+     * Unit : international foot.
+     */
+    public static final int FOOT = 2;
+
+    /**
+     * Unit : international mile.
+     */
+    public static final int MILE = 3;
+
+    /**
+     * Unit : nautical mile.
+     */
+    public static final int NAUTICAL_MILE = 4;
+
+    /**
+     * Number of units in one meter.
+     */
+    private static final double[] UNIT_SCALES = {
+        1, 1 / 1000.0, 1 / 0.3048, 1 / 1609.344, 1 / 1852.0,
+    };
+
+    /**
+     * Untranslated labels of the units.
+     */
+    private static final String[] UNIT_LABELS = {
+        "m", "km", "ft", "mi", "NM",
+    };
+
+    /**
+     * Conversion factors, by source unit and target unit.
+     */
+    private static final double[][] FACTORS = createFactors(UNIT_SCALES);
+
+    /**
+     * Constructor.
+     */
+    public LengthConversion() {
+        super(FACTORS, UNIT_LABELS);
+    }
+}
@@ -0,0 +1,103 @@
+/**
+ * Speed unit conversion
+ *
+ * Copyright (C) 2015 Dieter Adriaenssens
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * @package com.github.ruleant.unitconversion
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+package com.github.ruleant.unitconversion;
+
+/**
+ * Converts speeds between metric, imperial and nautical units.
+ * The default unit is meter per second.
+ *
+ * Speeds are displayed with 1 decimal below 10, as an integer above.
+ *
+ * @author Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+public class SpeedConversion extends AbstractUnitConversion {
+    /**
+     * Unit : meter per second.
+     */
+    public static final int METER_PER_SECOND = UNIT_DEFAULT;
+
+    /**
+     * Unit : kilometer per hour.
+     */
+    public static final int KILOMETER_PER_HOUR = 1;
+
+    /**
+     * Unit : mile per hour.
+     */
+    public static final int MILE_PER_HOUR = 2;
+
+    /**
+     * Unit : knot (nautical mile per hour).
+     */
+    public static final int KNOT = 3;
+
+    /**
+     * Seconds in an hour.
+     */
+    private static final double HOUR = 3600;
+
+    /**
+     * Number of units in one meter per second.
+     */
+    private static final double[] UNIT_SCALES = {
+        1, HOUR / 1000, HOUR / 1609.344, HOUR / 1852,
+    };
+
+    /**
+     * Untranslated labels of the units.
+     */
+    private static final String[] UNIT_LABELS = {
+        "m/s", "km/h", "mph", "kn",
+    };
+
+    /**
+     * Conversion factors, by source unit and target unit.
+     */
+    private static final double[][] FACTORS = createFactors(UNIT_SCALES);
+
+    /**
+     * Speed from which the speed is displayed as an integer.
+     */
+    private static final double INTEGER_LIMIT = 10.0;
+
+    /**
+     * Constructor.
+     */
+    public SpeedConversion() {
+        super(FACTORS, UNIT_LABELS);
+    }
+
+    /**
+     * Gets the number of decimals used to display the current value :
+     * 1 decimal below 10, 0 decimals otherwise.
+     *
+     * @return number of decimals
+     */
+    @Override
+    public final int getDisplayDecimals() {
+        if (Math.abs(getDisplayValue()) < INTEGER_LIMIT) {
+            return 1;
+        }
+
+        return 0;
+    }
+}
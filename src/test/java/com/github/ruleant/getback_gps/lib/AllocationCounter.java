@@ -0,0 +1,92 @@
+/**
+ * Counts memory allocated by the current thread
+ *
+ * Copyright (C) 2015 Dieter Adriaenssens
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * @package com.github.ruleant.getback_gps
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+package com.github.ruleant.getback_gps.lib;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Counts memory allocated by the current thread, used by tests and
+ * benchmarks to check code doesn't allocate memory.
+ *
+ * Counting depends on the JVM supporting thread allocated memory
+ * (com.sun.management.ThreadMXBean), tests should skip
+ * if isSupported() is false.
+ *
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+final class AllocationCounter {
+    /**
+     * Thread bean, to measure allocated memory, null if not supported.
+     */
+    private final com.sun.management.ThreadMXBean mThreadBean;
+
+    /**
+     * Constructor.
+     */
+    AllocationCounter() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) bean)
+                    .isThreadAllocatedMemorySupported()
+                && ((com.sun.management.ThreadMXBean) bean)
+                    .isThreadAllocatedMemoryEnabled()) {
+            mThreadBean = (com.sun.management.ThreadMXBean) bean;
+        } else {
+            mThreadBean = null;
+        }
+    }
+
+    /**
+     * Checks if allocated memory can be counted.
+     *
+     * @return true if allocated memory can be counted
+     */
+    boolean isSupported() {
+        return mThreadBean != null;
+    }
+
+    /**
+     * Gets memory allocated by the current thread.
+     *
+     * @return allocated bytes, 0 if not supported
+     */
+    long getAllocatedBytes() {
+        if (mThreadBean == null) {
+            return 0;
+        }
+
+        return mThreadBean.getThreadAllocatedBytes(
+                Thread.currentThread().getId());
+    }
+
+    /**
+     * Gets memory allocated by counting itself, to compare with
+     * the memory counted for code that shouldn't allocate.
+     *
+     * @return allocated bytes of one count, 0 if not supported
+     */
+    long getOverhead() {
+        long start = getAllocatedBytes();
+        return getAllocatedBytes() - start;
+    }
+}
@@ -0,0 +1,136 @@
+/**
+ * Unit tests for AngleAnimator class
+ *
+ * Copyright (C) 2015 Dieter Adriaenssens
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * @package com.github.ruleant.getback_gps
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+package com.github.ruleant.getback_gps.lib;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for AngleAnimator class.
+ *
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+@RunWith(RobolectricTestRunner.class)
+public class AngleAnimatorTest {
+    /**
+     * Expected Exception.
+     */
+    @Rule public final ExpectedException thrown = ExpectedException.none();
+
+    /**
+     * Time constant (in nanoseconds).
+     */
+    private static final long TIME_CONSTANT = 100000000;
+
+    /**
+     * Frame interval (in nanoseconds).
+     */
+    private static final long FRAME = 16000000;
+
+    /**
+     * Maximum number of frames to reach the target.
+     */
+    private static final int MAX_FRAMES = 200;
+
+    /**
+     * Angle 10°.
+     */
+    private static final double ANGLE_10 = 10.0;
+
+    /**
+     * Angle 350°.
+     */
+    private static final double ANGLE_350 = 350.0;
+
+    /**
+     * Accuracy.
+     */
+    private static final double ACCURACY = 0.0001;
+
+    /**
+     * Tests invalid time constant.
+     */
+    @Test
+    public final void testTimeConstant() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("parameter timeConstant should be positive");
+
+        new AngleAnimator(0);
+    }
+
+    /**
+     * Tests setting the value without animating.
+     */
+    @Test
+    public final void testSetValue() {
+        AngleAnimator animator = new AngleAnimator(TIME_CONSTANT);
+
+        animator.setValue(ANGLE_350);
+        assertEquals(ANGLE_350, animator.getValue(), ACCURACY);
+        assertEquals(ANGLE_350, animator.getTarget(), ACCURACY);
+        assertFalse(animator.isRunning());
+        assertFalse(animator.update(FRAME));
+    }
+
+    /**
+     * Tests animating along the shortest arc, across North,
+     * until the target is reached.
+     */
+    @Test
+    public final void testShortestArc() {
+        AngleAnimator animator = new AngleAnimator(TIME_CONSTANT);
+
+        animator.setValue(ANGLE_350);
+        animator.setTarget(ANGLE_10);
+        assertTrue(animator.isRunning());
+
+        // first frame only sets the start time
+        long time = FRAME;
+        assertTrue(animator.update(time));
+        assertEquals(ANGLE_350, animator.getValue(), ACCURACY);
+
+        // next frame turns clockwise, crossing North
+        time += FRAME;
+        assertTrue(animator.update(time));
+        double difference = FormatUtils.getAngleDifference(
+                ANGLE_350, animator.getValue());
+        assertTrue(difference > 0);
+        assertTrue(difference < 2 * ANGLE_10);
+
+        int frames = 0;
+        while (animator.update(time) && frames < MAX_FRAMES) {
+            time += FRAME;
+            frames++;
+        }
+
+        assertTrue(frames < MAX_FRAMES);
+        assertFalse(animator.isRunning());
+        assertEquals(ANGLE_10, animator.getValue(), ACCURACY);
+    }
+}
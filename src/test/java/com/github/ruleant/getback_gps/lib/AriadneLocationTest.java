@@ -0,0 +1,163 @@
+/**
+ * Unit tests for AriadneLocation class
+ *
+ * Copyright (C) 2015 Dieter Adriaenssens
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * @package com.github.ruleant.getback_gps
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+package com.github.ruleant.getback_gps.lib;
+
+import android.preference.PreferenceManager;
+
+import com.github.ruleant.getback_gps.SettingsActivity;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for AriadneLocation class.
+ *
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+@RunWith(RobolectricTestRunner.class)
+public class AriadneLocationTest {
+    /**
+     * Latitude of the Eiffel Tower.
+     */
+    private static final double LATITUDE = 48.8582;
+
+    /**
+     * Longitude of the Eiffel Tower.
+     */
+    private static final double LONGITUDE = 2.2945;
+
+    /**
+     * Altitude in meter.
+     */
+    private static final double ALTITUDE = 324.4;
+
+    /**
+     * Location name.
+     */
+    private static final String NAME = "Eiffel Tower";
+
+    /**
+     * Location.
+     */
+    private AriadneLocation location;
+
+    /**
+     * Original Locale before tests.
+     */
+    private Locale originalLocale;
+
+    /**
+     * Sets up the test fixture.
+     * (Called before every test case method.)
+     */
+    @Before
+    public final void setUp() {
+        originalLocale = Locale.getDefault();
+        Locale.setDefault(Locale.US);
+        Robolectric.application.getResources().getConfiguration().locale
+                = Locale.US;
+
+        location = new AriadneLocation("");
+        location.setLatitude(LATITUDE);
+        location.setLongitude(LONGITUDE);
+        location.setAltitude(ALTITUDE);
+        location.setTime(0);
+    }
+
+    /**
+     * Restores original state after tests.
+     */
+    @After
+    public final void tearDown() {
+        Locale.setDefault(originalLocale);
+    }
+
+    /**
+     * Tests the formatted text of a location.
+     */
+    @Test
+    public final void testToFormattedString() {
+        assertEquals(" Latitude: "
+                + Latitude.appendFormatted(new StringBuilder(),
+                        Robolectric.application, LATITUDE)
+                + "\n Longitude: "
+                + Longitude.appendFormatted(new StringBuilder(),
+                        Robolectric.application, LONGITUDE)
+                + "\n Altitude: 324m",
+                location.toFormattedString(Robolectric.application));
+
+        location.setName(NAME);
+        assertTrue(location.toFormattedString(Robolectric.application)
+                .startsWith(" Name: " + NAME + "\n Latitude: "));
+    }
+
+    /**
+     * Tests the formatted text is cached, until the name changes.
+     */
+    @Test
+    public final void testCache() {
+        String text = location.toFormattedString(Robolectric.application);
+        assertSame(text,
+                location.toFormattedString(Robolectric.application));
+
+        location.setName(NAME);
+        String namedText
+                = location.toFormattedString(Robolectric.application);
+        assertNotSame(text, namedText);
+        assertSame(namedText,
+                location.toFormattedString(Robolectric.application));
+    }
+
+    /**
+     * Tests the formatted text is updated when the settings change.
+     */
+    @Test
+    public final void testCacheSettingsChanged() {
+        String text = location.toFormattedString(Robolectric.application);
+
+        PreferenceManager.getDefaultSharedPreferences(Robolectric.application)
+                .edit().putString(SettingsActivity.KEY_PREF_COORDINATE_FORMAT,
+                        String.valueOf(SettingsActivity.COORDINATE_FORMAT_UTM))
+                .commit();
+        // Robolectric returns a new SharedPreferences instance
+        // for every call, so the listener is notified here
+        SettingsCache.getInstance(Robolectric.application)
+                .onSharedPreferenceChanged(PreferenceManager
+                        .getDefaultSharedPreferences(Robolectric.application),
+                        SettingsActivity.KEY_PREF_COORDINATE_FORMAT);
+
+        String utmText = location.toFormattedString(Robolectric.application);
+        assertNotSame(text, utmText);
+        assertEquals(" UTM: 31U 448252 5411933\n Altitude: 324m", utmText);
+    }
+}
@@ -196,4 +196,37 @@ public class CardinalDirectionTest {
                 object.getConvertedValue(),
                 ACCURACY);
     }
+
+    /**
+     * Tests formatting without an instance is the same as with an instance.
+     */
+    @Test
+    public final void testAppendFormatted() {
+        double[] values = {CardinalDirection.SEGMENT_NE_LOW, VALID_COORDINATE,
+                CardinalDirection.SEGMENT_SE_HIGH,
+                CardinalDirection.SEGMENT_NW_HIGH};
+        StringBuilder builder = new StringBuilder();
+
+        for (double value : values) {
+            object.setValue(value);
+            builder.setLength(0);
+            assertEquals(object.format(),
+                    CardinalDirection.appendFormatted(builder, null, value)
+                            .toString());
+        }
+    }
+
+    /**
+     * Tests exception when formatting an out of range value
+     * without an instance.
+     */
+    @Test
+    public final void testAppendFormattedOutOfRange() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage(
+                "parameter coordinate is not in range 0.0 .. 360.0");
+
+        CardinalDirection.appendFormatted(
+                new StringBuilder(), null, OUT_OF_RANGE);
+    }
 }
@@ -45,6 +45,10 @@ public class CircularAverageTest {
      * Accuracy.
      */
     private static final double ACCURACY = 0.0001;
+    /**
+     * Time constant, 100 milliseconds in nanoseconds.
+     */
+    private static final long TIME_CONSTANT = 100 * Tools.MILLI_IN_NANO;
 
     /**
      * Angle first quadrant.
@@ -354,4 +358,24 @@ public class CircularAverageTest {
                 ACCURACY
         );
     }
+
+    /**
+     * Tests average value derived from elapsed time, crossing North.
+     */
+    @Test
+    public final void testAverageValueElapsedTime() {
+        float alpha = LowPassFilter.getAlpha(TIME_CONSTANT, TIME_CONSTANT);
+
+        assertEquals(
+                CircularAverage.getAverageValue(ANGLE_Q4, ANGLE_Q1, alpha),
+                CircularAverage.getAverageValue(ANGLE_Q4, ANGLE_Q1,
+                        TIME_CONSTANT, TIME_CONSTANT),
+                ACCURACY);
+
+        // no time elapsed, value doesn't change
+        assertEquals(ANGLE_Q4,
+                CircularAverage.getAverageValue(ANGLE_Q4, ANGLE_Q1,
+                        0, TIME_CONSTANT),
+                ACCURACY);
+    }
 }
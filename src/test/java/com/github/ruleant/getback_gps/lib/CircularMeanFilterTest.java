@@ -0,0 +1,102 @@
+/**
+ * Unit tests for CircularMeanFilter class
+ *
+ * Copyright (C) 2015 Dieter Adriaenssens
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * @package com.github.ruleant.getback_gps
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+package com.github.ruleant.getback_gps.lib;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests for CircularMeanFilter class.
+ *
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+@RunWith(RobolectricTestRunner.class)
+public class CircularMeanFilterTest {
+    /**
+     * Expected Exception.
+     */
+    @Rule public final ExpectedException thrown = ExpectedException.none();
+
+    /**
+     * Value for alpha parameter.
+     */
+    private static final double ALPHA_HALF = 0.5;
+
+    /**
+     * Accuracy.
+     */
+    private static final double ACCURACY = 0.0001;
+
+    /**
+     * Tests alpha value out of range.
+     */
+    @Test
+    public final void testAlphaOutOfRange() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("parameter alpha is not in range 0.0 .. 1.0");
+
+        new CircularMeanFilter(-1 * ALPHA_HALF);
+    }
+
+    /**
+     * Tests filtering angles, also when crossing North.
+     */
+    @Test
+    public final void testFilter() {
+        CircularMeanFilter filter = new CircularMeanFilter(ALPHA_HALF);
+
+        assertEquals(350.0, filter.filter(350.0), ACCURACY);
+        assertEquals(1.0, filter.getResultantLength(), ACCURACY);
+
+        // average of 350° and 10° is 0°
+        assertEquals(0.0,
+                FormatUtils.getAngleDifference(0, filter.filter(10.0)),
+                ACCURACY);
+
+        filter.reset();
+        assertEquals(90.0, filter.filter(90.0), ACCURACY);
+        assertEquals(45.0, filter.filter(0.0), ACCURACY);
+    }
+
+    /**
+     * Tests filtering a block of spread angles.
+     */
+    @Test
+    public final void testResultantLength() {
+        CircularMeanFilter filter = new CircularMeanFilter(ALPHA_HALF);
+        double[] angles = {0.0, 90.0, 180.0};
+
+        filter.filter(angles, angles, angles.length);
+
+        assertEquals(0.0, angles[0], ACCURACY);
+        assertEquals(45.0, angles[1], ACCURACY);
+        assertEquals(135.0, angles[2], ACCURACY);
+        // vector (-0.25, 0.25)
+        assertEquals(Math.sqrt(0.125), filter.getResultantLength(),
+                ACCURACY);
+    }
+}
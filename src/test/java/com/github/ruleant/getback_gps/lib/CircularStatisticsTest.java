@@ -0,0 +1,147 @@
+/**
+ * Unit tests for CircularStatistics class
+ *
+ * Copyright (C) 2015 Dieter Adriaenssens
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * @package com.github.ruleant.getback_gps
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+package com.github.ruleant.getback_gps.lib;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests for CircularStatistics class.
+ *
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+@RunWith(RobolectricTestRunner.class)
+public class CircularStatisticsTest {
+    /**
+     * Expected Exception.
+     */
+    @Rule public final ExpectedException thrown = ExpectedException.none();
+
+    /**
+     * Window size.
+     */
+    private static final int WINDOW_SIZE = 3;
+
+    /**
+     * Accuracy.
+     */
+    private static final double ACCURACY = 0.0001;
+
+    /**
+     * Angle 10°.
+     */
+    private static final double ANGLE_10 = 10.0;
+
+    /**
+     * Angle 20°.
+     */
+    private static final double ANGLE_20 = 20.0;
+
+    /**
+     * Angle 350°.
+     */
+    private static final double ANGLE_350 = 350.0;
+
+    /**
+     * Tests invalid window size.
+     */
+    @Test
+    public final void testWindowSize() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("parameter windowSize should be at least 1");
+
+        new CircularStatistics(0);
+    }
+
+    /**
+     * Tests statistics of an empty window.
+     */
+    @Test
+    public final void testEmpty() {
+        CircularStatistics statistics = new CircularStatistics(WINDOW_SIZE);
+
+        assertEquals(0, statistics.getCount());
+        assertEquals(0.0, statistics.getMean(), ACCURACY);
+        assertEquals(0.0, statistics.getResultantLength(), ACCURACY);
+        assertEquals(1.0, statistics.getVariance(), ACCURACY);
+        assertEquals(FormatUtils.CIRCLE_HALF, statistics.getUncertainty(),
+                ACCURACY);
+    }
+
+    /**
+     * Tests mean of angles around North.
+     */
+    @Test
+    public final void testMeanAroundNorth() {
+        CircularStatistics statistics = new CircularStatistics(WINDOW_SIZE);
+
+        statistics.add(ANGLE_350);
+        statistics.add(ANGLE_10);
+
+        assertEquals(2, statistics.getCount());
+        assertEquals(0.0, FormatUtils.getAngleDifference(
+                0.0, statistics.getMean()), ACCURACY);
+    }
+
+    /**
+     * Tests uncertainty of equal and opposite angles.
+     */
+    @Test
+    public final void testUncertainty() {
+        CircularStatistics statistics = new CircularStatistics(WINDOW_SIZE);
+
+        statistics.add(ANGLE_10);
+        statistics.add(ANGLE_10);
+        assertEquals(0.0, statistics.getVariance(), ACCURACY);
+        assertEquals(0.0, statistics.getUncertainty(), ACCURACY);
+
+        statistics.reset();
+        statistics.add(ANGLE_10);
+        statistics.add(ANGLE_10 + FormatUtils.CIRCLE_HALF);
+        assertEquals(1.0, statistics.getVariance(), ACCURACY);
+        assertEquals(FormatUtils.CIRCLE_HALF, statistics.getUncertainty(),
+                ACCURACY);
+    }
+
+    /**
+     * Tests replacing the oldest angle when the window is full.
+     */
+    @Test
+    public final void testWindow() {
+        CircularStatistics statistics = new CircularStatistics(WINDOW_SIZE);
+
+        statistics.add(ANGLE_10 + FormatUtils.CIRCLE_HALF);
+        statistics.add(ANGLE_20);
+        statistics.add(ANGLE_20);
+        // first angle is replaced
+        statistics.add(ANGLE_20);
+
+        assertEquals(WINDOW_SIZE, statistics.getCount());
+        assertEquals(ANGLE_20, statistics.getMean(), ACCURACY);
+        assertEquals(0.0, statistics.getUncertainty(), ACCURACY);
+    }
+}
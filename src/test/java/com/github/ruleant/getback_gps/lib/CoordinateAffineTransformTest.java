@@ -0,0 +1,222 @@
+/**
+ * Unit tests for CoordinateAffineTransform class
+ *
+ * Copyright (C) 2015 Dieter Adriaenssens
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * @package com.github.ruleant.getback_gps
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+package com.github.ruleant.getback_gps.lib;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests for CoordinateAffineTransform class.
+ *
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+@RunWith(RobolectricTestRunner.class)
+public class CoordinateAffineTransformTest {
+    /**
+     * Expected Exception.
+     */
+    @Rule public final ExpectedException thrown = ExpectedException.none();
+
+    /**
+     * Instance of the converter class.
+     */
+    private CoordinateAffineTransform converter;
+
+    /**
+     * Test points, packed as x0, y0, x1, y1.
+     */
+    private final double[] points = {UNIT_30, UNIT_40, -1 * UNIT_40, UNIT_30};
+
+    /**
+     * Converted points.
+     */
+    private final float[] converted = new float[points.length];
+
+    /**
+     * Center X coordinate.
+     */
+    private static final long CENTER_X = 100;
+
+    /**
+     * Center Y coordinate.
+     */
+    private static final long CENTER_Y = 150;
+
+    /**
+     * Unit 30 (for X and Y coordinates).
+     */
+    private static final long UNIT_30 = 30;
+
+    /**
+     * Unit 40 (for X and Y coordinates).
+     */
+    private static final long UNIT_40 = 40;
+
+    /**
+     * Scale to 50%.
+     */
+    private static final double SCALE_HALF = 0.5;
+
+    /**
+     * Angle 90°.
+     */
+    private static final double ANGLE_90 = 90.0;
+
+    /**
+     * Angle 135°.
+     */
+    private static final double ANGLE_135 = 135.0;
+
+    /**
+     * Accuracy.
+     */
+    private static final double ACCURACY = 0.0001;
+
+    /**
+     * Sets up the test fixture.
+     * (Called before every test case method.)
+     */
+    @Before
+    public final void setUp() {
+        converter = new CoordinateAffineTransform();
+    }
+
+    /**
+     * Tests identity transformation.
+     */
+    @Test
+    public final void testIdentity() {
+        converter.convert(points, converted, 2);
+
+        assertPoint(UNIT_30, UNIT_40, 0);
+        assertPoint(-1 * UNIT_40, UNIT_30, 1);
+    }
+
+    /**
+     * Tests translation, scaling and mirroring.
+     */
+    @Test
+    public final void testScaleTranslateMirror() {
+        converter.scale(SCALE_HALF, 2);
+        converter.translate(CENTER_X, CENTER_Y);
+        converter.convert(points, converted, 2);
+
+        assertPoint(CENTER_X + UNIT_30 * SCALE_HALF,
+                CENTER_Y + UNIT_40 * 2, 0);
+
+        converter.reset();
+        converter.mirrorX();
+        converter.mirrorY();
+        converter.convert(points, converted, 1);
+
+        assertPoint(-1 * UNIT_30, -1 * UNIT_40, 0);
+    }
+
+    /**
+     * Tests clockwise rotation (Y axis pointing down).
+     */
+    @Test
+    public final void testRotate() {
+        converter.rotate(ANGLE_90);
+        converter.convert(points, converted, 2);
+
+        assertPoint(-1 * UNIT_40, UNIT_30, 0);
+        assertPoint(-1 * UNIT_30, -1 * UNIT_40, 1);
+    }
+
+    /**
+     * Tests composed transformation, equal to CoordinateRotation.
+     */
+    @Test
+    public final void testCompareRotation() {
+        Coordinate center = new Coordinate(CENTER_X, CENTER_Y);
+        CoordinateRotation rotation
+                = new CoordinateRotation(center, ANGLE_135, SCALE_HALF);
+        float[] expected = new float[points.length];
+        rotation.convert(points, expected, 2);
+
+        // polar angle 0° points up, rotate, scale, move to center
+        converter.rotate(ANGLE_135 - ANGLE_90);
+        converter.scale(SCALE_HALF, SCALE_HALF);
+        converter.translate(CENTER_X, CENTER_Y);
+        converter.convert(points, converted, 2);
+
+        for (int i = 0; i < points.length; i++) {
+            assertEquals(expected[i], converted[i], ACCURACY);
+        }
+
+        Coordinate coordinate = converter.getConvertedCoordinate(
+                new Coordinate(UNIT_30, UNIT_40));
+        assertEquals(converted[0], coordinate.getPreciseCartesianX(),
+                ACCURACY);
+        assertEquals(converted[1], coordinate.getPreciseCartesianY(),
+                ACCURACY);
+    }
+
+    /**
+     * Tests concatenating and copying transformations.
+     */
+    @Test
+    public final void testConcat() {
+        CoordinateAffineTransform second = new CoordinateAffineTransform();
+        second.translate(CENTER_X, CENTER_Y);
+
+        converter.rotate(ANGLE_90);
+        converter.concat(second);
+        converter.convert(points, converted, 1);
+        assertPoint(CENTER_X - UNIT_40, CENTER_Y + UNIT_30, 0);
+
+        second.set(converter);
+        second.convert(points, converted, 1);
+        assertPoint(CENTER_X - UNIT_40, CENTER_Y + UNIT_30, 0);
+    }
+
+    /**
+     * Tests null value for concat.
+     */
+    @Test
+    public final void testConcatNull() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Parameter transform should not be null");
+
+        converter.concat(null);
+    }
+
+    /**
+     * Asserts a converted point.
+     *
+     * @param x expected X coordinate
+     * @param y expected Y coordinate
+     * @param point number of the point
+     */
+    private void assertPoint(final double x, final double y,
+                             final int point) {
+        assertEquals(x, converted[point * 2], ACCURACY);
+        assertEquals(y, converted[point * 2 + 1], ACCURACY);
+    }
+}
@@ -68,6 +68,11 @@ public class CoordinateRotationTest {
      */
     private static final long CENTER_Y = 150;
 
+    /**
+     * Accuracy of batch conversion (float).
+     */
+    private static final double CONVERT_ACCURACY = 0.0001;
+
     /**
      * Scale to 50%.
      */
@@ -279,4 +284,57 @@ public class CoordinateRotationTest {
         assertEquals(CENTER_X - UNIT_30, converted.getCartesianX());
         assertEquals(CENTER_Y, converted.getCartesianY());
     }
+
+    /**
+     * Tests batch conversion, compared to converting one coordinate.
+     */
+    @Test
+    public final void testConvert() {
+        rotationCenter.setCartesianCoordinate(CENTER_X, CENTER_Y);
+        converter.setScaleRadius(SCALE_HALF);
+        double[] angles = {0, ANGLE_90, ANGLE_180, ANGLE_270, ANGLE_360};
+        double[] src = {UNIT_30, UNIT_40, -1 * UNIT_40, UNIT_30};
+        float[] dst = new float[src.length];
+
+        for (double angle : angles) {
+            converter.setRotationAngle(angle);
+            converter.convert(src, dst, 2);
+
+            for (int i = 0; i < 2; i++) {
+                Coordinate converted = converter.getConvertedCoordinate(
+                        new Coordinate((long) src[i * 2],
+                                (long) src[i * 2 + 1]));
+                assertEquals(converted.getPreciseCartesianX(), dst[i * 2],
+                        CONVERT_ACCURACY);
+                assertEquals(converted.getPreciseCartesianY(),
+                        dst[i * 2 + 1], CONVERT_ACCURACY);
+            }
+        }
+    }
+
+    /**
+     * Tests conversion follows a rotation center that is moved
+     * after it was set.
+     */
+    @Test
+    public final void testMovedCenter() {
+        converter.setRotationAngle(ANGLE_90);
+        double[] src = {UNIT_30, UNIT_40};
+        float[] before = new float[src.length];
+        float[] after = new float[src.length];
+
+        converter.convert(src, before, 1);
+        rotationCenter.setCartesianCoordinate(CENTER_X, CENTER_Y);
+        converter.convert(src, after, 1);
+
+        assertEquals(before[0] + CENTER_X, after[0], CONVERT_ACCURACY);
+        assertEquals(before[1] + CENTER_Y, after[1], CONVERT_ACCURACY);
+
+        Coordinate converted = converter.getConvertedCoordinate(
+                new Coordinate((long) src[0], (long) src[1]));
+        assertEquals(after[0], converted.getPreciseCartesianX(),
+                CONVERT_ACCURACY);
+        assertEquals(after[1], converted.getPreciseCartesianY(),
+                CONVERT_ACCURACY);
+    }
 }
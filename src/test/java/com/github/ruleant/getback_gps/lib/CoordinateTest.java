@@ -113,6 +113,21 @@ public class CoordinateTest {
      */
     public static final double POLAR_ACCURACY = 0.00000000000001;
 
+    /**
+     * Sub-pixel coordinate.
+     */
+    private static final double SUB_PIXEL = 1.25;
+
+    /**
+     * Polar radius of a Cartesian coordinate (1.25, -1.25).
+     */
+    private static final double RADIUS_SUB_PIXEL = 1.7677669529663689;
+
+    /**
+     * Sub-pixel Cartesian accuracy.
+     */
+    private static final double CARTESIAN_ACCURACY = 0.0000000001;
+
     /**
      * Sets up the test fixture.
      * (Called before every test case method.)
@@ -323,6 +338,25 @@ public class CoordinateTest {
         assertEquals(-1 * UNIT_20, coordinate.getCartesianY());
     }
 
+    /**
+     * Tests setting and getting Cartesian coordinates
+     * with sub-pixel precision.
+     */
+    @Test
+    public final void testPreciseCartesianCoordinate() {
+        coordinate.setPreciseCartesianCoordinate(SUB_PIXEL, -1 * SUB_PIXEL);
+        assertEquals(SUB_PIXEL, coordinate.getPreciseCartesianX(),
+                CARTESIAN_ACCURACY);
+        assertEquals(-1 * SUB_PIXEL, coordinate.getPreciseCartesianY(),
+                CARTESIAN_ACCURACY);
+        assertEquals(RADIUS_SUB_PIXEL, coordinate.getPolarRadius(),
+                CARTESIAN_ACCURACY);
+
+        // rounded coordinates
+        assertEquals(1, coordinate.getCartesianX());
+        assertEquals(-1, coordinate.getCartesianY());
+    }
+
     /**
      * Tests Cartesian to Cartesian conversion.
      */
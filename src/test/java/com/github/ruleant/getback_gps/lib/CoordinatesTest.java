@@ -30,8 +30,7 @@ import org.robolectric.RobolectricTestRunner;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
+import static org.junit.Assume.assumeTrue;
 
 /**
  * Unit tests for Coordinates class.
@@ -51,9 +50,9 @@ public class CoordinatesTest {
     private Coordinates coordinates;
 
     /**
-     * Mock for objectConverter class.
+     * Coordinate converter, mirroring around the line y = -x.
      */
-    private CoordinateConverterInterface converter;
+    private CoordinateAffineTransform converter;
 
     /**
      * Test coordinate 0 (0, 0).
@@ -75,6 +74,16 @@ public class CoordinatesTest {
      */
     public static final int NUM_POINTS_3 = 3;
 
+    /**
+     * Number of iterations when counting allocations.
+     */
+    private static final int ITERATIONS = 1000;
+
+    /**
+     * Sub-pixel coordinate.
+     */
+    private static final float SUB_PIXEL = 1.25f;
+
     /**
      * Cartesian accuracy.
      */
@@ -93,20 +102,9 @@ public class CoordinatesTest {
         coordinate2 = new Coordinate(CoordinateTest.UNIT_30,
                 CoordinateTest.UNIT_40);
 
-        Coordinate convertedCoordinate1
-                = new Coordinate(-1 * CoordinateTest.UNIT_20, 0);
-        Coordinate convertedCoordinate2
-                = new Coordinate(-1 * CoordinateTest.UNIT_40,
-                -1 * CoordinateTest.UNIT_30);
-
-        // create mock object
-        converter = mock(CoordinateConverterInterface.class);
-
-        // setup mock object
-        when(converter.getConvertedCoordinate(coordinate1))
-                .thenReturn(convertedCoordinate1);
-        when(converter.getConvertedCoordinate(coordinate2))
-                .thenReturn(convertedCoordinate2);
+        // converts (x, y) to (-y, -x)
+        converter = new CoordinateAffineTransform();
+        converter.setMatrix(0, -1, -1, 0, 0, 0);
     }
 
     /**
@@ -436,4 +434,123 @@ public class CoordinatesTest {
         coordinates.setCoordinateConverter(null);
         fail("Expected an IllegalArgumentException to be thrown");
     }
+
+    /**
+     * Tests transforming coordinates, without and with converter.
+     */
+    @Test
+    public final void testTransform() {
+        coordinates.addCoordinate(coordinate1);
+        coordinates.addCoordinate(coordinate2);
+        float[] points = new float[2 * 2];
+
+        assertEquals(2, coordinates.transform(points));
+        assertEquals(0f, points[0], CARTESIAN_ACCURACY);
+        assertEquals((float) CoordinateTest.UNIT_20, points[1],
+                CARTESIAN_ACCURACY);
+        assertEquals((float) CoordinateTest.UNIT_30, points[2],
+                CARTESIAN_ACCURACY);
+        assertEquals((float) CoordinateTest.UNIT_40, points[NUM_POINTS_3],
+                CARTESIAN_ACCURACY);
+
+        // rotating 0° around (0, 0), polar angle 0° points up
+        coordinates.setCoordinateConverter(
+                new CoordinateRotation(coordinate0, 0, 1));
+        assertEquals(2, coordinates.transform(points));
+        assertEquals((float) CoordinateTest.UNIT_20, points[0],
+                CARTESIAN_ACCURACY);
+        assertEquals(0f, points[1], CARTESIAN_ACCURACY);
+        assertEquals((float) CoordinateTest.UNIT_40, points[2],
+                CARTESIAN_ACCURACY);
+        assertEquals((float) -1 * CoordinateTest.UNIT_30,
+                points[NUM_POINTS_3], CARTESIAN_ACCURACY);
+    }
+
+    /**
+     * Tests transforming coordinates to an array that is too short.
+     */
+    @Test
+    public final void testTransformShortArray() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage(
+                "Parameter dst should contain at least 2 * size values");
+
+        coordinates.addCoordinate(coordinate1);
+        coordinates.transform(new float[1]);
+    }
+
+    /**
+     * Tests writing lines to an existing array, and its length.
+     */
+    @Test
+    public final void testToLinesArrayExisting() {
+        coordinates.addCoordinate(coordinate0);
+        coordinates.addCoordinate(coordinate1);
+        coordinates.addCoordinate(coordinate2);
+        float[] coordinatesArray
+                = new float[coordinates.getLinesArrayLength()];
+
+        assertEquals(NUM_POINTS_3 * Coordinates.NUM_COORD_LINE,
+                coordinatesArray.length);
+        assertEquals(coordinatesArray.length,
+                coordinates.toLinesArray(coordinatesArray));
+        assertCoordinates(coordinatesArray, 1);
+
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Parameter array should contain at least "
+                + "getLinesArrayLength() values");
+        coordinates.toLinesArray(new float[1]);
+    }
+
+    /**
+     * Tests converting coordinates to existing arrays doesn't allocate
+     * memory, as it is done every time a view is drawn.
+     */
+    @Test
+    public final void testNoAllocation() {
+        AllocationCounter counter = new AllocationCounter();
+        assumeTrue(counter.isSupported());
+
+        coordinates.setCoordinateConverter(
+                new CoordinateRotation(coordinate0, 0, 1));
+        coordinates.addCoordinate(coordinate0);
+        coordinates.addCoordinate(coordinate1);
+        coordinates.addCoordinate(coordinate2);
+        float[] points = new float[coordinates.getSize() * 2];
+        float[] lines = new float[coordinates.getLinesArrayLength()];
+
+        // warm up, and measure allocations of measuring itself
+        coordinates.transform(points);
+        coordinates.toLinesArray(lines);
+        long overhead = counter.getOverhead();
+
+        long start = counter.getAllocatedBytes();
+        for (int i = 0; i < ITERATIONS; i++) {
+            coordinates.transform(points);
+            coordinates.toLinesArray(lines);
+        }
+        long allocated = counter.getAllocatedBytes() - start;
+
+        assertEquals(overhead, allocated);
+    }
+
+    /**
+     * Tests sub-pixel coordinates aren't rounded.
+     */
+    @Test
+    public final void testPreciseCoordinate() {
+        coordinates.addPreciseCoordinate(SUB_PIXEL, 0);
+        coordinates.addPreciseCoordinate(0, -1 * SUB_PIXEL);
+        float[] coordinatesArray = coordinates.toLinesArray();
+
+        assertEquals(Coordinates.NUM_COORD_LINE, coordinatesArray.length);
+        assertEquals(SUB_PIXEL, coordinatesArray[Coordinates.POS_START_X],
+                CARTESIAN_ACCURACY);
+        assertEquals(0f, coordinatesArray[Coordinates.POS_START_Y],
+                CARTESIAN_ACCURACY);
+        assertEquals(0f, coordinatesArray[Coordinates.POS_END_X],
+                CARTESIAN_ACCURACY);
+        assertEquals(-1 * SUB_PIXEL, coordinatesArray[Coordinates.POS_END_Y],
+                CARTESIAN_ACCURACY);
+    }
 }
@@ -0,0 +1,151 @@
+/**
+ * Unit tests for ExponentialFilter class
+ *
+ * Copyright (C) 2015 Dieter Adriaenssens
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * @package com.github.ruleant.getback_gps
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+package com.github.ruleant.getback_gps.lib;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests for ExponentialFilter class.
+ *
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ExponentialFilterTest {
+    /**
+     * Expected Exception.
+     */
+    @Rule public final ExpectedException thrown = ExpectedException.none();
+
+    /**
+     * Value for alpha parameter.
+     */
+    private static final double ALPHA_VALUE = 0.6;
+
+    /**
+     * Accuracy.
+     */
+    private static final double ACCURACY = 0.0001;
+
+    /**
+     * Exception message when alpha is out of range.
+     */
+    private static final String MESSAGE_VALUE_RANGE
+            = "parameter alpha is not in range 0.0 .. 1.0";
+
+    /**
+     * Tests alpha value out of range.
+     */
+    @Test
+    public final void testAlphaOutOfRange() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage(MESSAGE_VALUE_RANGE);
+
+        new ExponentialFilter(1, 1.1);
+    }
+
+    /**
+     * Tests number of channels.
+     */
+    @Test
+    public final void testNoChannels() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("parameter channels should be at least 1");
+
+        new ExponentialFilter(0, ALPHA_VALUE);
+    }
+
+    /**
+     * Tests filtering single values,
+     * results are the same as LowPassFilter.filterValue().
+     */
+    @Test
+    public final void testFilterValue() {
+        ExponentialFilter filter = new ExponentialFilter(1, ALPHA_VALUE);
+
+        // first value sets the filter state
+        assertEquals(10.0, filter.filter(10.0), ACCURACY);
+        assertEquals(LowPassFilter.filterValue(10, 20, (float) ALPHA_VALUE),
+                filter.filter(20.0), ACCURACY);
+        assertEquals(16.0, filter.getValue(0), ACCURACY);
+
+        filter.reset();
+        assertEquals(5.0, filter.filter(5.0), ACCURACY);
+    }
+
+    /**
+     * Tests filtering one sample of several channels.
+     */
+    @Test
+    public final void testFilterChannels() {
+        ExponentialFilter filter = new ExponentialFilter(3, ALPHA_VALUE);
+        float[] values = {1.0f, 2.0f, 3.0f};
+        float[] result = new float[3];
+
+        filter.filter(values, result);
+        assertEquals(1.0, result[0], ACCURACY);
+        assertEquals(2.0, result[1], ACCURACY);
+        assertEquals(3.0, result[2], ACCURACY);
+
+        float[] newValues = {2.0f, 4.0f, 6.0f};
+        // filter in place
+        filter.filter(newValues, newValues);
+        assertEquals(1.6, newValues[0], ACCURACY);
+        assertEquals(3.2, newValues[1], ACCURACY);
+        assertEquals(4.8, newValues[2], ACCURACY);
+    }
+
+    /**
+     * Tests filtering a block of interleaved samples.
+     */
+    @Test
+    public final void testFilterBlock() {
+        ExponentialFilter filter = new ExponentialFilter(2, ALPHA_VALUE);
+        double[] src = {0.0, 10.0, 10.0, 0.0, 10.0, 0.0};
+        double[] dst = new double[src.length];
+
+        filter.filter(src, dst, 3);
+
+        assertEquals(0.0, dst[0], ACCURACY);
+        assertEquals(10.0, dst[1], ACCURACY);
+        assertEquals(6.0, dst[2], ACCURACY);
+        assertEquals(4.0, dst[3], ACCURACY);
+        assertEquals(8.4, dst[4], ACCURACY);
+        assertEquals(1.6, dst[5], ACCURACY);
+
+        // float block gives the same result
+        ExponentialFilter floatFilter = new ExponentialFilter(2, ALPHA_VALUE);
+        float[] floatSrc = new float[src.length];
+        for (int i = 0; i < src.length; i++) {
+            floatSrc[i] = (float) src[i];
+        }
+        floatFilter.filter(floatSrc, floatSrc, 3);
+        for (int i = 0; i < src.length; i++) {
+            assertEquals(dst[i], floatSrc[i], ACCURACY);
+        }
+    }
+}
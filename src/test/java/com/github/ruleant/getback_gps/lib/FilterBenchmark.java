@@ -0,0 +1,226 @@
+/**
+ * Benchmark of the filter classes
+ *
+ * Copyright (C) 2015 Dieter Adriaenssens
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * @package com.github.ruleant.getback_gps
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+package com.github.ruleant.getback_gps.lib;
+
+/**
+ * Benchmark of filtering sensor values.
+ * Compares the static per sample calls of LowPassFilter and CircularAverage
+ * with ExponentialFilter and CircularMeanFilter, filtering
+ * one sample at a time (as a sensor event is handled)
+ * and a block of samples at once.
+ * Reports time and allocated memory per sample.
+ *
+ * It isn't run as a unit test, run it with :
+ * java -cp <test and app classes> \
+ *   com.github.ruleant.getback_gps.lib.FilterBenchmark
+ *
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+public final class FilterBenchmark {
+    /**
+     * Number of channels of a sensor sample (x, y, z).
+     */
+    private static final int CHANNELS = 3;
+
+    /**
+     * Number of samples in a block.
+     */
+    private static final int BLOCK_SAMPLES = 1000;
+
+    /**
+     * Blocks filtered to warm up the JIT compiler.
+     */
+    private static final int WARM_UP_BLOCKS = 1000;
+
+    /**
+     * Blocks measured.
+     */
+    private static final int BLOCKS = 10000;
+
+    /**
+     * Alpha value of the filters.
+     */
+    private static final float ALPHA = 0.6f;
+
+    /**
+     * Amplitude of the simulated sensor values.
+     */
+    private static final float AMPLITUDE = 50f;
+
+    /**
+     * Names of the benchmarked methods.
+     */
+    private static final String[] METHODS = {
+        "LowPassFilter.filterValueSet",
+        "ExponentialFilter per sample",
+        "ExponentialFilter block",
+        "CircularAverage.getAverageValue",
+        "CircularMeanFilter per sample",
+        "CircularMeanFilter block",
+    };
+
+    /**
+     * Sensor samples, interleaved channels.
+     */
+    private final float[] mSamples = new float[BLOCK_SAMPLES * CHANNELS];
+
+    /**
+     * Angle samples (in degrees).
+     */
+    private final float[] mAngles = new float[BLOCK_SAMPLES];
+
+    /**
+     * Filtered samples.
+     */
+    private final float[] mResult = new float[BLOCK_SAMPLES * CHANNELS];
+
+    /**
+     * Sample of one sensor event.
+     */
+    private final float[] mEvent = new float[CHANNELS];
+
+    /**
+     * Exponential filter.
+     */
+    private final ExponentialFilter mExponentialFilter
+            = new ExponentialFilter(CHANNELS, ALPHA);
+
+    /**
+     * Circular mean filter.
+     */
+    private final CircularMeanFilter mCircularMeanFilter
+            = new CircularMeanFilter(ALPHA);
+
+    /**
+     * Counter of allocated memory.
+     */
+    private final AllocationCounter mAllocationCounter
+            = new AllocationCounter();
+
+    /**
+     * Hidden constructor.
+     */
+    private FilterBenchmark() {
+        for (int i = 0; i < BLOCK_SAMPLES; i++) {
+            double angle = Math.toRadians(i);
+            mSamples[i * CHANNELS] = (float) (AMPLITUDE * Math.cos(angle));
+            mSamples[i * CHANNELS + 1] = (float) (AMPLITUDE * Math.sin(angle));
+            mSamples[i * CHANNELS + 2] = AMPLITUDE * (i % 2);
+            mAngles[i] = (float) FormatUtils.normalizeAngle(i * i);
+        }
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args not used
+     */
+    public static void main(final String[] args) {
+        new FilterBenchmark().run();
+    }
+
+    /**
+     * Runs the benchmark for all methods.
+     */
+    private void run() {
+        for (int method = 0; method < METHODS.length; method++) {
+            filterBlocks(method, WARM_UP_BLOCKS);
+        }
+
+        System.out.println("method\tns/sample\tbytes/sample");
+        for (int method = 0; method < METHODS.length; method++) {
+            long bytes = mAllocationCounter.getAllocatedBytes();
+            long start = System.nanoTime();
+            double checksum = filterBlocks(method, BLOCKS);
+            long time = System.nanoTime() - start;
+            bytes = mAllocationCounter.getAllocatedBytes() - bytes;
+
+            System.out.println(METHODS[method]
+                    + "\t" + (double) time / BLOCKS / BLOCK_SAMPLES
+                    + "\t" + (double) bytes / BLOCKS / BLOCK_SAMPLES
+                    + "\t(" + checksum + ")");
+        }
+    }
+
+    /**
+     * Filters blocks of samples with a method.
+     *
+     * @param method Index of the method in METHODS
+     * @param blocks Number of blocks
+     * @return checksum of the filtered values
+     */
+    private double filterBlocks(final int method, final int blocks) {
+        double checksum = 0;
+
+        for (int b = 0; b < blocks; b++) {
+            checksum += filterBlock(method);
+        }
+
+        return checksum;
+    }
+
+    /**
+     * Filters a block of samples with a method.
+     *
+     * @param method Index of the method in METHODS
+     * @return last filtered value
+     */
+    private double filterBlock(final int method) {
+        switch (method) {
+            case 0:
+                float[] values = null;
+                for (int i = 0; i < BLOCK_SAMPLES; i++) {
+                    System.arraycopy(mSamples, i * CHANNELS,
+                            mEvent, 0, CHANNELS);
+                    values = LowPassFilter.filterValueSet(
+                            values, mEvent, ALPHA);
+                }
+                return values[0];
+            case 1:
+                for (int i = 0; i < BLOCK_SAMPLES; i++) {
+                    System.arraycopy(mSamples, i * CHANNELS,
+                            mEvent, 0, CHANNELS);
+                    mExponentialFilter.filter(mEvent, mResult);
+                }
+                return mResult[0];
+            case 2:
+                mExponentialFilter.filter(mSamples, mResult, BLOCK_SAMPLES);
+                return mResult[0];
+            case 3:
+                float angle = mAngles[0];
+                for (int i = 0; i < BLOCK_SAMPLES; i++) {
+                    angle = CircularAverage.getAverageValue(
+                            angle, mAngles[i], ALPHA);
+                }
+                return angle;
+            case 4:
+                double mean = 0;
+                for (int i = 0; i < BLOCK_SAMPLES; i++) {
+                    mean = mCircularMeanFilter.filter(mAngles[i]);
+                }
+                return mean;
+            default:
+                mCircularMeanFilter.filter(mAngles, mResult, BLOCK_SAMPLES);
+                return mResult[0];
+        }
+    }
+}
@@ -617,4 +617,28 @@ public class FormatUtilsTest {
         assertEquals(A_225, FormatUtils.inverseAngle(A_45), ANGLE_ACCURACY);
         assertEquals(A_45, FormatUtils.inverseAngle(A_225), ANGLE_ACCURACY);
     }
+
+    /**
+     * Tests getAngleDifference.
+     */
+    @Test
+    public final void testGetAngleDifference() {
+        assertEquals(A_0, FormatUtils.getAngleDifference(A_45, A_45),
+                ANGLE_ACCURACY);
+        assertEquals(A_180, FormatUtils.getAngleDifference(A_0, A_180),
+                ANGLE_ACCURACY);
+        assertEquals(A_180, FormatUtils.getAngleDifference(A_45, A_225),
+                ANGLE_ACCURACY);
+        assertEquals(A_45, FormatUtils.getAngleDifference(A_0, A_45),
+                ANGLE_ACCURACY);
+        assertEquals(-1 * A_45, FormatUtils.getAngleDifference(A_45, A_0),
+                ANGLE_ACCURACY);
+        // crossing 0°
+        assertEquals(A_45 + A_45,
+                FormatUtils.getAngleDifference(-1 * A_45, A_405),
+                ANGLE_ACCURACY);
+        assertEquals(-1 * A_45 - A_45,
+                FormatUtils.getAngleDifference(A_45, -1 * A_45),
+                ANGLE_ACCURACY);
+    }
 }
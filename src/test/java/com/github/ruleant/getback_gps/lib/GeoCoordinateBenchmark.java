@@ -0,0 +1,171 @@
+/**
+ * Benchmark of formatting geo coordinates on a refresh.
+ *
+ * Copyright (C) 2015 Dieter Adriaenssens
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * @package com.github.ruleant.getback_gps
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+package com.github.ruleant.getback_gps.lib;
+
+/**
+ * Benchmark of formatting the coordinates displayed on a refresh :
+ * latitude, longitude and a direction.
+ * Compares creating a Latitude, Longitude and CardinalDirection instance
+ * per refresh, with the static entry points appending to a reused builder.
+ * Reports time and allocated memory per refresh.
+ *
+ * It isn't run as a unit test, run it with :
+ * java -cp <test and app classes> \
+ *   com.github.ruleant.getback_gps.lib.GeoCoordinateBenchmark
+ *
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+public final class GeoCoordinateBenchmark {
+    /**
+     * Refreshes to warm up the JIT compiler.
+     */
+    private static final int WARM_UP_REFRESHES = 100000;
+
+    /**
+     * Refreshes measured.
+     */
+    private static final int REFRESHES = 1000000;
+
+    /**
+     * Latitude step between refreshes (in degrees).
+     */
+    private static final double STEP = 0.0001;
+
+    /**
+     * Reused builder.
+     */
+    private final StringBuilder mBuilder = new StringBuilder();
+
+    /**
+     * Counter of allocated memory.
+     */
+    private final AllocationCounter mAllocationCounter
+            = new AllocationCounter();
+
+    /**
+     * Hidden constructor.
+     */
+    private GeoCoordinateBenchmark() {
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args not used
+     */
+    public static void main(final String[] args) {
+        new GeoCoordinateBenchmark().run();
+    }
+
+    /**
+     * Runs the benchmark for both ways of formatting.
+     */
+    private void run() {
+        refreshInstances(WARM_UP_REFRESHES);
+        refreshStatic(WARM_UP_REFRESHES);
+
+        System.out.println("method\tns/refresh\tbytes/refresh");
+
+        long bytes = mAllocationCounter.getAllocatedBytes();
+        long start = System.nanoTime();
+        int length = refreshInstances(REFRESHES);
+        long time = System.nanoTime() - start;
+        bytes = mAllocationCounter.getAllocatedBytes() - bytes;
+        report("instances", time, bytes, length);
+
+        bytes = mAllocationCounter.getAllocatedBytes();
+        start = System.nanoTime();
+        length = refreshStatic(REFRESHES);
+        time = System.nanoTime() - start;
+        bytes = mAllocationCounter.getAllocatedBytes() - bytes;
+        report("static", time, bytes, length);
+    }
+
+    /**
+     * Formats coordinates, creating new instances on each refresh.
+     *
+     * @param refreshes Number of refreshes
+     * @return total length of the formatted text
+     */
+    private int refreshInstances(final int refreshes) {
+        int length = 0;
+
+        for (int i = 0; i < refreshes; i++) {
+            double value = getValue(i);
+            length += new Latitude(value).format().length();
+            length += new Longitude(-2 * value).format().length();
+            length += new CardinalDirection(2 * value + FormatUtils.CIRCLE_HALF)
+                    .format().length();
+        }
+
+        return length;
+    }
+
+    /**
+     * Formats coordinates, with the static entry points.
+     *
+     * @param refreshes Number of refreshes
+     * @return total length of the formatted text
+     */
+    private int refreshStatic(final int refreshes) {
+        int length = 0;
+
+        for (int i = 0; i < refreshes; i++) {
+            double value = getValue(i);
+            mBuilder.setLength(0);
+            Latitude.appendFormatted(mBuilder, null, value);
+            Longitude.appendFormatted(mBuilder, null, -2 * value);
+            CardinalDirection.appendFormatted(mBuilder, null,
+                    2 * value + FormatUtils.CIRCLE_HALF);
+            length += mBuilder.length();
+        }
+
+        return length;
+    }
+
+    /**
+     * Gets value for a refresh, sweeping the latitude range.
+     *
+     * @param refresh Refresh number
+     * @return value (-90°-90°)
+     */
+    private static double getValue(final int refresh) {
+        return (refresh * STEP) % FormatUtils.CIRCLE_HALF
+                - FormatUtils.CIRCLE_1Q;
+    }
+
+    /**
+     * Prints the result of a method.
+     *
+     * @param method Name of the method
+     * @param time Elapsed time in nanoseconds
+     * @param bytes Allocated bytes
+     * @param length Total length of the formatted text
+     */
+    private static void report(final String method, final long time,
+                               final long bytes, final int length) {
+        System.out.println(method
+                + "\t" + time / REFRESHES
+                + "\t" + (double) bytes / REFRESHES
+                + "\t(" + length + " chars)");
+    }
+}
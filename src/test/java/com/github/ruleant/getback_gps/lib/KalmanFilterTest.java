@@ -0,0 +1,117 @@
+/**
+ * Unit tests for KalmanFilter class
+ *
+ * Copyright (C) 2015 Dieter Adriaenssens
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * @package com.github.ruleant.getback_gps
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+package com.github.ruleant.getback_gps.lib;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for KalmanFilter class.
+ *
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+@RunWith(RobolectricTestRunner.class)
+public class KalmanFilterTest {
+    /**
+     * Expected Exception.
+     */
+    @Rule public final ExpectedException thrown = ExpectedException.none();
+
+    /**
+     * Process noise variance.
+     */
+    private static final double PROCESS_NOISE = 0.01;
+
+    /**
+     * Measurement noise variance.
+     */
+    private static final double MEASUREMENT_NOISE = 4.0;
+
+    /**
+     * Accuracy.
+     */
+    private static final double ACCURACY = 0.0001;
+
+    /**
+     * Tests negative process noise.
+     */
+    @Test
+    public final void testNegativeProcessNoise() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("parameter processNoise should not be negative");
+
+        new KalmanFilter(-1 * PROCESS_NOISE, MEASUREMENT_NOISE);
+    }
+
+    /**
+     * Tests measurement noise of zero.
+     */
+    @Test
+    public final void testNoMeasurementNoise() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("parameter measurementNoise should be positive");
+
+        new KalmanFilter(PROCESS_NOISE, 0);
+    }
+
+    /**
+     * Tests filtering.
+     */
+    @Test
+    public final void testFilter() {
+        KalmanFilter filter = new KalmanFilter(0, MEASUREMENT_NOISE);
+
+        // first measurement sets the estimate
+        assertEquals(10.0, filter.filter(10.0), ACCURACY);
+        assertEquals(MEASUREMENT_NOISE, filter.getErrorVariance(), ACCURACY);
+
+        // without process noise, the estimate is the average
+        assertEquals(15.0, filter.filter(20.0), ACCURACY);
+        assertEquals(20.0, filter.filter(30.0), ACCURACY);
+        assertEquals(MEASUREMENT_NOISE / 3, filter.getErrorVariance(),
+                ACCURACY);
+
+        filter.reset();
+        assertEquals(5.0, filter.filter(5.0), ACCURACY);
+    }
+
+    /**
+     * Tests filtering a block of noisy samples.
+     */
+    @Test
+    public final void testFilterBlock() {
+        KalmanFilter filter = new KalmanFilter(PROCESS_NOISE,
+                MEASUREMENT_NOISE);
+        double[] samples = {12.0, 8.0, 11.0, 9.0, 12.0, 8.0, 10.0, 10.0};
+
+        filter.filter(samples, samples, samples.length);
+
+        assertEquals(10.0, filter.getEstimate(), 0.5);
+        assertTrue(filter.getErrorVariance() < MEASUREMENT_NOISE);
+    }
+}
@@ -0,0 +1,479 @@
+/**
+ * Unit tests for LocalizedFormatter class
+ *
+ * Copyright (C) 2015 Dieter Adriaenssens
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * @package com.github.ruleant.getback_gps
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+package com.github.ruleant.getback_gps.lib;
+
+import com.github.ruleant.getback_gps.SettingsActivity;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Unit tests for LocalizedFormatter class.
+ *
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+@RunWith(RobolectricTestRunner.class)
+public class LocalizedFormatterTest {
+    /**
+     * Expected Exception.
+     */
+    @Rule public final ExpectedException thrown = ExpectedException.none();
+
+    /**
+     * Original Locale before tests.
+     */
+    private Locale originalLocale;
+
+    /**
+     * Locales to compare formatting with String.format().
+     */
+    private static final Locale[] LOCALES = {
+        Locale.US,
+        new Locale("nl", "BE"),
+        Locale.FRANCE,
+        Locale.GERMANY,
+        new Locale("de", "CH"),
+        new Locale("hi", "IN"),
+        new Locale("ar", "EG"),
+    };
+
+    /**
+     * Values to compare formatting with String.format().
+     */
+    private static final double[] VALUES = {
+        0, 0.04, 0.05, 0.45, 0.5, 1.25, 2.777, 9.94, 9.96, 12.3456, 999.3,
+        999.9, 1330, 1370, 9930, 9980, 12345, 12345678.9, -0.04, -9.96,
+        -1234.5,
+    };
+
+    /**
+     * Conversion rate from m/s to km/h.
+     */
+    private static final double SPEED_CONV_MPS_KPH = 3.6;
+
+    /**
+     * Short distance, in meter.
+     */
+    private static final double DISTANCE_SHORT = 140;
+
+    /**
+     * Long distance, in meter.
+     */
+    private static final double DISTANCE_LONG = 12345;
+
+    /**
+     * Speed, in m/s.
+     */
+    private static final double SPEED = 2;
+
+    /**
+     * Maximum precision of formatted angles.
+     */
+    private static final int MAX_PRECISION = 12;
+
+    /**
+     * Fraction : .045 with 5 decimals.
+     */
+    private static final long FRACTION = 4500;
+
+    /**
+     * Number of decimals of the fraction.
+     */
+    private static final int FRACTION_DECIMALS = 5;
+
+    /**
+     * Angle.
+     */
+    private static final double ANGLE = 123.456789;
+
+    /**
+     * Number of formatting iterations.
+     */
+    private static final int ITERATIONS = 1000;
+
+    /**
+     * Number of allocation measurements.
+     */
+    private static final int ROUNDS = 5;
+
+    /**
+     * Sets up test.
+     */
+    @Before
+    public final void setUp() {
+        originalLocale = Locale.getDefault();
+        Locale.setDefault(Locale.US);
+    }
+
+    /**
+     * Restores original state after tests.
+     */
+    @After
+    public final void tearDown() {
+        Locale.setDefault(originalLocale);
+    }
+
+    /**
+     * Tests distances are formatted as with String.format().
+     */
+    @Test
+    public final void testAppendDist() {
+        for (Locale locale : LOCALES) {
+            LocalizedFormatter formatter = new LocalizedFormatter(locale, null);
+            for (double value : VALUES) {
+                assertEquals(locale + " " + value,
+                        expectedDist(locale, value),
+                        formatter.appendDist(new StringBuilder(), value)
+                                .toString());
+            }
+        }
+    }
+
+    /**
+     * Tests heights are formatted as with String.format().
+     */
+    @Test
+    public final void testAppendHeight() {
+        for (Locale locale : LOCALES) {
+            LocalizedFormatter formatter = new LocalizedFormatter(locale, null);
+            for (double value : VALUES) {
+                assertEquals(locale + " " + value,
+                        String.format(locale, "%1$,dm", Math.round(value)),
+                        formatter.appendHeight(new StringBuilder(), value)
+                                .toString());
+            }
+        }
+    }
+
+    /**
+     * Tests speeds are formatted as with String.format().
+     */
+    @Test
+    public final void testAppendSpeed() {
+        for (Locale locale : LOCALES) {
+            LocalizedFormatter formatter = new LocalizedFormatter(locale, null);
+            for (double value : VALUES) {
+                assertEquals(locale + " " + value,
+                        expectedSpeed(locale, value),
+                        formatter.appendSpeed(new StringBuilder(), value)
+                                .toString());
+            }
+        }
+    }
+
+    /**
+     * Tests angles are formatted as with String.format(),
+     * including precisions that fall back to String.format().
+     */
+    @Test
+    public final void testAppendAngle() {
+        for (Locale locale : LOCALES) {
+            LocalizedFormatter formatter = new LocalizedFormatter(locale, null);
+            for (int precision = 0; precision <= MAX_PRECISION; precision++) {
+                assertEquals(locale + " " + precision,
+                        String.format(locale, "%." + precision + "f°", ANGLE),
+                        formatter.appendAngle(
+                                new StringBuilder(), ANGLE, precision)
+                                .toString());
+            }
+            for (double value : VALUES) {
+                assertEquals(locale + " " + value,
+                        String.format(locale, "%.1f°", value),
+                        formatter.appendAngle(new StringBuilder(), value, 1)
+                                .toString());
+            }
+        }
+    }
+
+    /**
+     * Tests decimals are rounded half up on the decimal value,
+     * as with String.format(), not on the binary value.
+     */
+    @Test
+    public final void testAppendDecimalRounding() {
+        LocalizedFormatter formatter = new LocalizedFormatter(Locale.US, null);
+        double[] values = {1.005, 0.125, 2.675, -1.005, 1.0049, 1234.5};
+        for (double value : values) {
+            for (int decimals = 0; decimals <= 3; decimals++) {
+                assertEquals(value + " " + decimals,
+                        String.format(Locale.US, "%,." + decimals + "f",
+                                value),
+                        formatter.appendDecimal(new StringBuilder(), value,
+                                decimals, true).toString());
+            }
+        }
+        assertEquals("1.01", formatter.appendDecimal(
+                new StringBuilder(), 1.005, 2, true).toString());
+    }
+
+    /**
+     * Tests exception when precision is negative.
+     */
+    @Test
+    public final void testAppendAngleNegativePrecision() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Precision can't be a negative value");
+
+        LocalizedFormatter.getInstance().appendAngle(
+                new StringBuilder(), ANGLE, -1);
+    }
+
+    /**
+     * Tests formatting in the imperial and nautical unit systems.
+     */
+    @Test
+    public final void testUnitSystem() {
+        LocalizedFormatter formatter
+                = new LocalizedFormatter(Locale.US, null);
+        assertEquals(SettingsActivity.UNITS_METRIC,
+                formatter.getUnitSystem());
+
+        formatter.setUnitSystem(SettingsActivity.UNITS_IMPERIAL);
+        assertEquals(SettingsActivity.UNITS_IMPERIAL,
+                formatter.getUnitSystem());
+        assertEquals("459ft", formatter.appendDist(
+                new StringBuilder(), DISTANCE_SHORT).toString());
+        assertEquals("7.7mi", formatter.appendDist(
+                new StringBuilder(), DISTANCE_LONG).toString());
+        assertEquals("459ft", formatter.appendHeight(
+                new StringBuilder(), DISTANCE_SHORT).toString());
+        assertEquals("4.5mph", formatter.appendSpeed(
+                new StringBuilder(), SPEED).toString());
+
+        formatter.setUnitSystem(SettingsActivity.UNITS_NAUTICAL);
+        assertEquals("6.7NM", formatter.appendDist(
+                new StringBuilder(), DISTANCE_LONG).toString());
+        assertEquals("140m", formatter.appendHeight(
+                new StringBuilder(), DISTANCE_SHORT).toString());
+        assertEquals("3.9kn", formatter.appendSpeed(
+                new StringBuilder(), SPEED).toString());
+
+        formatter.setUnitSystem(SettingsActivity.UNITS_METRIC);
+        assertEquals("12km", formatter.appendDist(
+                new StringBuilder(), DISTANCE_LONG).toString());
+        assertEquals("7.2km/h", formatter.appendSpeed(
+                new StringBuilder(), SPEED).toString());
+    }
+
+    /**
+     * Tests exception when unit system is not valid.
+     */
+    @Test
+    public final void testInvalidUnitSystem() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage(
+                "parameter unitSystem is not a valid unit system : 3");
+
+        new LocalizedFormatter(Locale.US, null).setUnitSystem(
+                SettingsActivity.UNITS_NAUTICAL + 1);
+    }
+
+    /**
+     * Tests values are appended to the existing content of the builder.
+     */
+    @Test
+    public final void testAppendToBuilder() {
+        StringBuilder builder = new StringBuilder("Distance : ");
+        LocalizedFormatter formatter = LocalizedFormatter.getInstance();
+
+        assertSame(builder, formatter.appendDist(builder, VALUES[2]));
+        builder.append(", ");
+        formatter.appendSpeed(builder, VALUES[1]);
+
+        assertEquals("Distance : 0m, 0.1km/h", builder.toString());
+    }
+
+    /**
+     * Tests appending a fraction without trailing zeros.
+     */
+    @Test
+    public final void testAppendFraction() {
+        LocalizedFormatter formatter = LocalizedFormatter.getInstance();
+
+        assertEquals("", formatter.appendFraction(
+                new StringBuilder(), 0, FRACTION_DECIMALS).toString());
+        assertEquals(".045", formatter.appendFraction(
+                new StringBuilder(), FRACTION, FRACTION_DECIMALS).toString());
+        assertEquals("", formatter.appendFraction(
+                new StringBuilder(), FRACTION, 0).toString());
+    }
+
+    /**
+     * Tests exception when the number of decimals is out of range.
+     */
+    @Test
+    public final void testAppendFractionInvalidDecimals() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Parameter decimals should be in range 0 .. 9");
+
+        LocalizedFormatter.getInstance().appendFraction(
+                new StringBuilder(), FRACTION, MAX_PRECISION);
+    }
+
+    /**
+     * Tests exception when locale is null.
+     */
+    @Test
+    public final void testNullLocale() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Parameter locale should not be null");
+
+        new LocalizedFormatter(null, null);
+    }
+
+    /**
+     * Tests the formatter is reused until the default locale changes.
+     */
+    @Test
+    public final void testGetInstance() {
+        LocalizedFormatter formatter = LocalizedFormatter.getInstance();
+        assertEquals(Locale.US, formatter.getLocale());
+        assertSame(formatter, LocalizedFormatter.getInstance());
+
+        Locale.setDefault(Locale.GERMANY);
+        LocalizedFormatter germanFormatter = LocalizedFormatter.getInstance();
+        assertNotSame(formatter, germanFormatter);
+        assertEquals(Locale.GERMANY, germanFormatter.getLocale());
+        assertSame(germanFormatter, LocalizedFormatter.getInstance());
+    }
+
+    /**
+     * Tests the formatter with context uses units from the resources.
+     */
+    @Test
+    public final void testGetInstanceContext() {
+        LocalizedFormatter formatter
+                = LocalizedFormatter.getInstance(Robolectric.application);
+        assertSame(formatter,
+                LocalizedFormatter.getInstance(Robolectric.application));
+        assertSame(LocalizedFormatter.getInstance(),
+                LocalizedFormatter.getInstance(null));
+
+        assertEquals(
+                FormatUtils.formatSpeed(VALUES[2], Robolectric.application),
+                formatter.appendSpeed(new StringBuilder(), VALUES[2])
+                        .toString());
+    }
+
+    /**
+     * Tests formatting to a reused builder doesn't allocate memory,
+     * as it is done every time an activity is refreshed.
+     */
+    @Test
+    public final void testNoAllocation() {
+        AllocationCounter counter = new AllocationCounter();
+        assumeTrue(counter.isSupported());
+
+        LocalizedFormatter formatter = LocalizedFormatter.getInstance();
+        StringBuilder builder = new StringBuilder();
+
+        // warm up until compiled, and measure allocations of measuring itself
+        for (int i = 0; i < ITERATIONS; i++) {
+            formatValues(formatter, builder);
+        }
+        long overhead = counter.getOverhead();
+
+        // a round can include a one-off allocation by the JIT compiler,
+        // keep the smallest measurement
+        long allocated = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = counter.getAllocatedBytes();
+            for (int i = 0; i < ITERATIONS; i++) {
+                formatValues(formatter, builder);
+            }
+            allocated = Math.min(allocated,
+                    counter.getAllocatedBytes() - start);
+        }
+
+        assertEquals(overhead, allocated);
+    }
+
+    /**
+     * Formats all test values to a reused builder.
+     *
+     * @param formatter Formatter
+     * @param builder Builder to format to
+     */
+    private void formatValues(final LocalizedFormatter formatter,
+                              final StringBuilder builder) {
+        for (double value : VALUES) {
+            builder.setLength(0);
+            formatter.appendDist(builder, value);
+            builder.setLength(0);
+            formatter.appendHeight(builder, value);
+            builder.setLength(0);
+            formatter.appendSpeed(builder, value);
+            builder.setLength(0);
+            formatter.appendAngle(builder, value, 1);
+        }
+    }
+
+    /**
+     * Formats a distance with String.format(), as FormatUtils used to.
+     *
+     * @param locale Locale
+     * @param distance distance in m
+     * @return formatted distance
+     */
+    private static String expectedDist(final Locale locale,
+                                       final double distance) {
+        double distanceAbs = Math.abs(distance);
+        if (Math.round(distanceAbs) < 1000) {
+            return String.format(locale, "%1$dm", Math.round(distanceAbs));
+        }
+
+        double scaledDistance = distanceAbs / 1000;
+        if ((Math.round(scaledDistance * 10) / 10.0) < 10) {
+            return String.format(locale, "%1$,.1fkm", scaledDistance);
+        }
+        return String.format(locale, "%1$,dkm", Math.round(scaledDistance));
+    }
+
+    /**
+     * Formats a speed with String.format(), as FormatUtils used to.
+     *
+     * @param locale Locale
+     * @param speed speed in m/s
+     * @return formatted speed
+     */
+    private static String expectedSpeed(final Locale locale,
+                                        final double speed) {
+        double convertedSpeed = Math.abs(speed) * SPEED_CONV_MPS_KPH;
+        if (convertedSpeed < 10) {
+            return String.format(locale, "%1$,.1fkm/h", convertedSpeed);
+        }
+        return String.format(locale, "%1$,dkm/h", Math.round(convertedSpeed));
+    }
+}
@@ -21,6 +21,7 @@
  */
 package com.github.ruleant.getback_gps.lib;
 
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -28,7 +29,10 @@ import org.junit.rules.ExpectedException;
 import org.junit.runner.RunWith;
 import org.robolectric.RobolectricTestRunner;
 
+import java.util.Locale;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.fail;
 
 /**
@@ -69,15 +73,45 @@ public class LongitudeTest {
     private static final String MESSAGE_VALUE_RANGE
             = "newValue is not in range -180.0 .. 180.0";
 
+    /**
+     * Coordinate value with seconds : 4° 7' 24.4416".
+     */
+    private static final double COORDINATE_SECONDS = 4.123456;
+
+    /**
+     * Coordinate value rounding up to the next degree.
+     */
+    private static final double COORDINATE_CARRY = 10.9999999999;
+
+    /**
+     * Coordinate value with a fraction of a second : 0.045".
+     */
+    private static final double COORDINATE_FRACTION = 0.0000125;
+
+    /**
+     * Original Locale before tests.
+     */
+    private Locale originalLocale;
+
     /**
      * Sets up the test fixture.
      * (Called before every test case method.)
      */
     @Before
     public final void setUp() {
+        originalLocale = Locale.getDefault();
+        Locale.setDefault(Locale.US);
         longitude = new Longitude(0.0);
     }
 
+    /**
+     * Restores original state after tests.
+     */
+    @After
+    public final void tearDown() {
+        Locale.setDefault(originalLocale);
+    }
+
     /**
      * Tests empty value.
      */
@@ -211,4 +245,80 @@ public class LongitudeTest {
                 longitude.getConvertedValue(),
                 ACCURACY);
     }
+
+    /**
+     * Tests formatting in degrees, minutes and seconds.
+     */
+    @Test
+    public final void testFormat() {
+        assertEquals("0° 0' 0\" E", longitude.format());
+
+        longitude.setValue(COORDINATE_SECONDS);
+        assertEquals("4° 7' 24.4416\" E", longitude.format());
+
+        longitude.setValue(-1 * COORDINATE_SECONDS);
+        assertEquals("4° 7' 24.4416\" W", longitude.format());
+
+        longitude.setValue(COORDINATE_FRACTION);
+        assertEquals("0° 0' 0.045\" E", longitude.format());
+
+        longitude.setValue(Longitude.SEGMENT_EAST_HIGH);
+        assertEquals("180° 0' 0\" E", longitude.format());
+    }
+
+    /**
+     * Tests rounded seconds carry over to minutes and degrees.
+     */
+    @Test
+    public final void testFormatCarry() {
+        longitude.setValue(COORDINATE_CARRY);
+        assertEquals("11° 0' 0\" E", longitude.format());
+
+        longitude.setValue(-1 * COORDINATE_CARRY);
+        assertEquals("11° 0' 0\" W", longitude.format());
+    }
+
+    /**
+     * Tests appending to an existing builder.
+     */
+    @Test
+    public final void testAppendTo() {
+        StringBuilder builder = new StringBuilder("Longitude : ");
+        longitude.setValue(COORDINATE_SECONDS);
+
+        assertSame(builder, longitude.appendTo(builder));
+        assertEquals("Longitude : 4° 7' 24.4416\" E", builder.toString());
+    }
+
+    /**
+     * Tests formatting without an instance is the same as with an instance.
+     */
+    @Test
+    public final void testAppendFormatted() {
+        double[] values = {Longitude.SEGMENT_WEST_LOW, -1 * VALID_COORDINATE, 0,
+                VALID_COORDINATE, Longitude.SEGMENT_EAST_HIGH};
+        StringBuilder builder = new StringBuilder();
+
+        for (double value : values) {
+            longitude.setValue(value);
+            builder.setLength(0);
+            assertEquals(longitude.format(),
+                    Longitude.appendFormatted(builder, null, value)
+                            .toString());
+        }
+    }
+
+    /**
+     * Tests exception when formatting an out of range value
+     * without an instance.
+     */
+    @Test
+    public final void testAppendFormattedOutOfRange() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage(
+                "parameter coordinate is not in range -180.0 .. 180.0");
+
+        Longitude.appendFormatted(
+                new StringBuilder(), null, OUT_OF_RANGE);
+    }
 }
@@ -52,6 +52,11 @@ public class LowPassFilterTest {
      */
     private static final double ACCURACY = 0.0001;
 
+    /**
+     * Time constant, 100 milliseconds in nanoseconds.
+     */
+    private static final long TIME_CONSTANT = 100 * Tools.MILLI_IN_NANO;
+
     /**
      * Exception message when value is out of range.
      */
@@ -245,4 +250,85 @@ public class LowPassFilterTest {
         assertEquals(ALPHA_VALUE, filteredArray[0], ACCURACY);
         assertEquals(1 - ALPHA_VALUE, filteredArray[1], ACCURACY);
     }
+
+    /**
+     * Tests getAlpha() derived from elapsed time.
+     */
+    @Test
+    public final void testGetAlpha() {
+        // no time elapsed
+        assertEquals(0.0f, LowPassFilter.getAlpha(0, TIME_CONSTANT),
+                ACCURACY);
+        assertEquals(0.0f, LowPassFilter.getAlpha(-1, TIME_CONSTANT),
+                ACCURACY);
+
+        // after one time constant, 63% of a step is reached
+        assertEquals(1 - Math.exp(-1),
+                LowPassFilter.getAlpha(TIME_CONSTANT, TIME_CONSTANT),
+                ACCURACY);
+
+        // two samples half a time constant apart give the same result
+        // as one sample after a full time constant
+        float halfStep = LowPassFilter.filterValue(
+                0, 1, TIME_CONSTANT / 2, TIME_CONSTANT);
+        assertEquals(
+                LowPassFilter.filterValue(0, 1, TIME_CONSTANT, TIME_CONSTANT),
+                LowPassFilter.filterValue(
+                        halfStep, 1, TIME_CONSTANT / 2, TIME_CONSTANT),
+                ACCURACY);
+    }
+
+    /**
+     * Tests getAlpha() with invalid time constant.
+     */
+    @Test
+    public final void testGetAlphaInvalidTimeConstant() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("parameter timeConstant should be positive");
+
+        LowPassFilter.getAlpha(TIME_CONSTANT, 0);
+    }
+
+    /**
+     * Tests getTimeConstant(), the derived alpha value
+     * at the same sample interval is the original alpha value.
+     */
+    @Test
+    public final void testGetTimeConstant() {
+        // alpha 1 - e^-1 is reached after one time constant
+        assertEquals(TIME_CONSTANT, LowPassFilter.getTimeConstant(
+                TIME_CONSTANT, (float) (1 - Math.exp(-1))), 1);
+
+        float[] alphas = {0.05f, 0.5f, 0.6f, 0.95f};
+        for (float alpha : alphas) {
+            long timeConstant
+                    = LowPassFilter.getTimeConstant(TIME_CONSTANT, alpha);
+            assertEquals(alpha,
+                    LowPassFilter.getAlpha(TIME_CONSTANT, timeConstant),
+                    ACCURACY);
+        }
+    }
+
+    /**
+     * Tests getTimeConstant() with invalid sample interval.
+     */
+    @Test
+    public final void testGetTimeConstantInvalidInterval() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("parameter sampleInterval should be positive");
+
+        LowPassFilter.getTimeConstant(0, 0.5f);
+    }
+
+    /**
+     * Tests getTimeConstant() with invalid alpha value.
+     */
+    @Test
+    public final void testGetTimeConstantInvalidAlpha() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage(
+                "parameter alpha is not in range 0.0 .. 1.0 (exclusive)");
+
+        LowPassFilter.getTimeConstant(TIME_CONSTANT, 1);
+    }
 }
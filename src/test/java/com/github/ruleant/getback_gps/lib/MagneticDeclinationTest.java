@@ -0,0 +1,171 @@
+/**
+ * Unit tests for MagneticDeclination class
+ *
+ * Copyright (C) 2015 Dieter Adriaenssens
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * @package com.github.ruleant.getback_gps
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+package com.github.ruleant.getback_gps.lib;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests for MagneticDeclination class.
+ *
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+@RunWith(RobolectricTestRunner.class)
+public class MagneticDeclinationTest {
+    /**
+     * Instance of the magnetic declination class,
+     * with a linear declination model.
+     */
+    private MagneticDeclination declination;
+
+    /**
+     * Declination change per degree latitude, in the linear model.
+     */
+    private static final double LATITUDE_FACTOR = 0.5;
+
+    /**
+     * Declination change per degree longitude, in the linear model.
+     */
+    private static final double LONGITUDE_FACTOR = 0.1;
+
+    /**
+     * Test latitude.
+     */
+    private static final double LATITUDE = 51.2;
+
+    /**
+     * Test longitude.
+     */
+    private static final double LONGITUDE = 4.4;
+
+    /**
+     * Test latitude in the same grid cell.
+     */
+    private static final double LATITUDE_SAME_CELL = 53.7;
+
+    /**
+     * Test longitude in another grid cell.
+     */
+    private static final double LONGITUDE_OTHER_CELL = -3.1;
+
+    /**
+     * Latitude close to the North Pole.
+     */
+    private static final double LATITUDE_POLE = 90;
+
+    /**
+     * Number of corners of a grid cell.
+     */
+    private static final int CORNERS = 4;
+
+    /**
+     * Allowed difference with the geomagnetic model, in degrees.
+     */
+    private static final double MODEL_ACCURACY = 0.5;
+
+    /**
+     * Accuracy of interpolated values.
+     */
+    private static final double ACCURACY = 0.00001;
+
+    /**
+     * Sets up test.
+     */
+    @Before
+    public final void setUp() {
+        declination = new MagneticDeclination() {
+            @Override
+            protected double calculateDeclination(final double latitude,
+                                                  final double longitude) {
+                return latitude * LATITUDE_FACTOR
+                        + longitude * LONGITUDE_FACTOR;
+            }
+        };
+    }
+
+    /**
+     * Tests interpolation inside a grid cell.
+     */
+    @Test
+    public final void testInterpolation() {
+        assertEquals(LATITUDE * LATITUDE_FACTOR
+                + LONGITUDE * LONGITUDE_FACTOR,
+                declination.getDeclination(LATITUDE, LONGITUDE),
+                ACCURACY);
+        assertEquals(LATITUDE_SAME_CELL * LATITUDE_FACTOR
+                + LONGITUDE * LONGITUDE_FACTOR,
+                declination.getDeclination(LATITUDE_SAME_CELL, LONGITUDE),
+                ACCURACY);
+        assertEquals(LATITUDE * LATITUDE_FACTOR
+                + LONGITUDE_OTHER_CELL * LONGITUDE_FACTOR,
+                declination.getDeclination(LATITUDE, LONGITUDE_OTHER_CELL),
+                ACCURACY);
+    }
+
+    /**
+     * Tests if the model is only evaluated when the grid cell changes.
+     */
+    @Test
+    public final void testModelEvaluations() {
+        assertEquals(0, declination.getModelEvaluations());
+
+        declination.getDeclination(LATITUDE, LONGITUDE);
+        assertEquals(CORNERS, declination.getModelEvaluations());
+
+        // same cell, cached corners are used
+        declination.getDeclination(LATITUDE, LONGITUDE);
+        declination.getDeclination(LATITUDE_SAME_CELL, LONGITUDE);
+        assertEquals(CORNERS, declination.getModelEvaluations());
+
+        // other cell
+        declination.getDeclination(LATITUDE, LONGITUDE_OTHER_CELL);
+        assertEquals(CORNERS * 2, declination.getModelEvaluations());
+    }
+
+    /**
+     * Tests declination at the North Pole.
+     */
+    @Test
+    public final void testPole() {
+        assertEquals(LATITUDE_POLE * LATITUDE_FACTOR
+                + LONGITUDE * LONGITUDE_FACTOR,
+                declination.getDeclination(LATITUDE_POLE, LONGITUDE),
+                ACCURACY);
+    }
+
+    /**
+     * Tests interpolated declination against the geomagnetic model.
+     */
+    @Test
+    public final void testGeomagneticModel() {
+        MagneticDeclination cached = new MagneticDeclination();
+
+        assertEquals(
+                cached.calculateDeclination(LATITUDE, LONGITUDE),
+                cached.getDeclination(LATITUDE, LONGITUDE),
+                MODEL_ACCURACY);
+    }
+}
@@ -0,0 +1,261 @@
+/**
+ * Unit tests for MagneticFieldCalibration class
+ *
+ * Copyright (C) 2015 Dieter Adriaenssens
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * @package com.github.ruleant.getback_gps
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+package com.github.ruleant.getback_gps.lib;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for MagneticFieldCalibration class.
+ *
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+@RunWith(RobolectricTestRunner.class)
+public class MagneticFieldCalibrationTest {
+    /**
+     * Expected Exception.
+     */
+    @Rule public final ExpectedException thrown = ExpectedException.none();
+
+    /**
+     * Instance of the calibration class.
+     */
+    private MagneticFieldCalibration calibration;
+
+    /**
+     * Hard-iron offset of the simulated sensor, in µT.
+     */
+    private static final double[] OFFSET = {10.0, -20.0, 5.0};
+
+    /**
+     * Radii of the simulated sensor ellipsoid, in µT.
+     */
+    private static final double[] RADIUS = {45.0, 50.0, 55.0};
+
+    /**
+     * Number of simulated samples.
+     */
+    private static final int SAMPLES = 500;
+
+    /**
+     * Number of simulated samples that don't lie on an ellipsoid.
+     */
+    private static final int INVALID_SAMPLES = 2000;
+
+    /**
+     * Seed of the random number generator.
+     */
+    private static final long SEED = 42;
+
+    /**
+     * Field strength of an undisturbed magnetic field, in µT.
+     */
+    private static final float FIELD_NORMAL = 48.0f;
+
+    /**
+     * Field strength of a disturbed magnetic field, in µT.
+     */
+    private static final float FIELD_DISTURBED = 120.0f;
+
+    /**
+     * Accuracy of the calibrated offset, in µT.
+     */
+    private static final double OFFSET_ACCURACY = 0.5;
+
+    /**
+     * Relative accuracy of the corrected field strength.
+     */
+    private static final double FIELD_ACCURACY = 0.02;
+
+    /**
+     * Accuracy of uncorrected values.
+     */
+    private static final double ACCURACY = 0.00001;
+
+    /**
+     * Sets up test.
+     */
+    @Before
+    public final void setUp() {
+        calibration = new MagneticFieldCalibration();
+    }
+
+    /**
+     * Tests adding a sample with less than 3 axes.
+     */
+    @Test
+    public final void testAddSampleInvalid() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("values and result should contain 3 axes");
+
+        calibration.addSample(new float[2], new float[2]);
+    }
+
+    /**
+     * Tests that values aren't corrected before the fit is valid.
+     */
+    @Test
+    public final void testNotCalibrated() {
+        float[] values = {FIELD_NORMAL, 0, 0};
+        float[] result = new float[values.length];
+
+        calibration.addSample(values, result);
+
+        assertFalse(calibration.isCalibrated());
+        assertEquals(FIELD_NORMAL, result[0], ACCURACY);
+        assertEquals(FIELD_NORMAL, calibration.getFieldStrength(), ACCURACY);
+    }
+
+    /**
+     * Tests fitting hard- and soft-iron distortion
+     * of a simulated sensor that is rotated in all directions.
+     */
+    @Test
+    public final void testCalibration() {
+        Random random = new Random(SEED);
+        float[] values = new float[3];
+        float[] result = new float[3];
+
+        for (int i = 0; i < SAMPLES; i++) {
+            simulateSample(random, values);
+            calibration.addSample(values, result);
+        }
+
+        assertTrue(calibration.isCalibrated());
+        for (int axis = 0; axis < OFFSET.length; axis++) {
+            assertEquals(OFFSET[axis], calibration.getOffset(axis),
+                    OFFSET_ACCURACY);
+        }
+
+        // corrected values lie on a sphere
+        double expectedRadius = Math.cbrt(RADIUS[0] * RADIUS[1] * RADIUS[2]);
+        for (int i = 0; i < SAMPLES; i++) {
+            simulateSample(random, values);
+            calibration.correct(values, result);
+            double strength = Math.sqrt(result[0] * result[0]
+                    + result[1] * result[1] + result[2] * result[2]);
+            assertEquals(expectedRadius, strength,
+                    expectedRadius * FIELD_ACCURACY);
+        }
+    }
+
+    /**
+     * Tests that a calibration is no longer used
+     * when the fit is no longer a valid ellipsoid.
+     */
+    @Test
+    public final void testCalibrationInvalidated() {
+        Random random = new Random(SEED);
+        float[] values = new float[3];
+        float[] result = new float[3];
+
+        for (int i = 0; i < SAMPLES; i++) {
+            simulateSample(random, values);
+            calibration.addSample(values, result);
+        }
+        assertTrue(calibration.isCalibrated());
+
+        // samples on a hyperboloid can't be fitted by an ellipsoid
+        for (int i = 0; i < INVALID_SAMPLES; i++) {
+            simulateInvalidSample(random, values);
+            calibration.addSample(values, result);
+        }
+        assertFalse(calibration.isCalibrated());
+
+        for (int axis = 0; axis < OFFSET.length; axis++) {
+            assertEquals(0, calibration.getOffset(axis), ACCURACY);
+            assertEquals(1, calibration.getScale(axis), ACCURACY);
+        }
+
+        // values are no longer corrected
+        simulateSample(random, values);
+        calibration.correct(values, result);
+        for (int axis = 0; axis < values.length; axis++) {
+            assertEquals(values[axis], result[axis], ACCURACY);
+        }
+    }
+
+    /**
+     * Tests detection of magnetic interference.
+     */
+    @Test
+    public final void testInterference() {
+        float[] normal = {0, FIELD_NORMAL, 0};
+        float[] disturbed = {0, FIELD_DISTURBED, 0};
+        float[] result = new float[3];
+
+        calibration.addSample(normal, result);
+        assertFalse(calibration.isInterference());
+
+        calibration.addSample(disturbed, result);
+        assertTrue(calibration.isInterference());
+
+        calibration.addSample(normal, result);
+        assertFalse(calibration.isInterference());
+    }
+
+    /**
+     * Simulates a sample of a distorted sensor,
+     * in a random direction.
+     *
+     * @param random Random number generator
+     * @param values Array to write the sample to
+     */
+    private void simulateSample(final Random random, final float[] values) {
+        double x = random.nextGaussian();
+        double y = random.nextGaussian();
+        double z = random.nextGaussian();
+        double length = Math.sqrt(x * x + y * y + z * z);
+
+        values[0] = (float) (OFFSET[0] + RADIUS[0] * x / length);
+        values[1] = (float) (OFFSET[1] + RADIUS[1] * y / length);
+        values[2] = (float) (OFFSET[2] + RADIUS[2] * z / length);
+    }
+
+    /**
+     * Simulates a sample on a hyperboloid,
+     * x² + y² - z² = r², in a random direction.
+     *
+     * @param random Random number generator
+     * @param values Array to write the sample to
+     */
+    private void simulateInvalidSample(final Random random,
+                                       final float[] values) {
+        double z = RADIUS[2] * (2 * random.nextDouble() - 1);
+        double radius = Math.sqrt(FIELD_NORMAL * FIELD_NORMAL + z * z);
+        double angle = 2 * Math.PI * random.nextDouble();
+
+        values[0] = (float) (radius * Math.cos(angle));
+        values[1] = (float) (radius * Math.sin(angle));
+        values[2] = (float) z;
+    }
+}
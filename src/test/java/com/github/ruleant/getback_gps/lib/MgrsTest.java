@@ -0,0 +1,201 @@
+/**
+ * Unit tests for Mgrs class
+ *
+ * Copyright (C) 2015 Dieter Adriaenssens
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * @package com.github.ruleant.getback_gps
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+package com.github.ruleant.getback_gps.lib;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests for Mgrs class.
+ *
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+@RunWith(RobolectricTestRunner.class)
+public class MgrsTest {
+    /**
+     * Expected Exception.
+     */
+    @Rule public final ExpectedException thrown = ExpectedException.none();
+
+    /**
+     * Accuracy of a parsed coordinate, in meters.
+     */
+    private static final double ACCURACY = 1e-6;
+
+    /**
+     * Latitude of the Eiffel Tower.
+     */
+    private static final double PARIS_LATITUDE = 48.8582;
+
+    /**
+     * Longitude of the Eiffel Tower.
+     */
+    private static final double PARIS_LONGITUDE = 2.2945;
+
+    /**
+     * MGRS coordinate of the Eiffel Tower.
+     */
+    private static final String PARIS_MGRS = "31U DQ 48251 11932";
+
+    /**
+     * Latitude of Sydney.
+     */
+    private static final double SYDNEY_LATITUDE = -33.857;
+
+    /**
+     * Longitude of Sydney.
+     */
+    private static final double SYDNEY_LONGITUDE = 151.215;
+
+    /**
+     * MGRS coordinate of Sydney.
+     */
+    private static final String SYDNEY_MGRS = "56H LH 34873 52266";
+
+    /**
+     * MGRS coordinate of 0°, 0°.
+     */
+    private static final String EQUATOR_MGRS = "31N AA 66021 00000";
+
+    /**
+     * UTM coordinate, reused in the tests.
+     */
+    private final UtmCoordinate utm = new UtmCoordinate();
+
+    /**
+     * Tests formatting known coordinates.
+     */
+    @Test
+    public final void testAppend() {
+        TransverseMercator.toUtm(PARIS_LATITUDE, PARIS_LONGITUDE, utm);
+        assertEquals(PARIS_MGRS, Mgrs.append(new StringBuilder(), utm,
+                Mgrs.PRECISION_DEFAULT).toString());
+
+        TransverseMercator.toUtm(SYDNEY_LATITUDE, SYDNEY_LONGITUDE, utm);
+        assertEquals(SYDNEY_MGRS, Mgrs.append(new StringBuilder(), utm,
+                Mgrs.PRECISION_DEFAULT).toString());
+
+        TransverseMercator.toUtm(0, 0, utm);
+        assertEquals(EQUATOR_MGRS, Mgrs.append(new StringBuilder(), utm,
+                Mgrs.PRECISION_DEFAULT).toString());
+    }
+
+    /**
+     * Tests formatting with a lower precision, the digits are truncated.
+     */
+    @Test
+    public final void testAppendPrecision() {
+        TransverseMercator.toUtm(PARIS_LATITUDE, PARIS_LONGITUDE, utm);
+
+        assertEquals("31U DQ 482 119",
+                Mgrs.append(new StringBuilder(), utm, 3).toString());
+        assertEquals("31U DQ",
+                Mgrs.append(new StringBuilder(), utm, 0).toString());
+    }
+
+    /**
+     * Tests parsing, with and without spaces.
+     */
+    @Test
+    public final void testParse() {
+        Mgrs.parse(PARIS_MGRS, utm);
+        assertEquals(31, utm.getZone());
+        assertEquals('U', utm.getBand());
+        assertEquals(448251, utm.getEasting(), ACCURACY);
+        assertEquals(5411932, utm.getNorthing(), ACCURACY);
+
+        Mgrs.parse("56HLH3487352266", utm);
+        assertEquals(56, utm.getZone());
+        assertEquals('H', utm.getBand());
+        assertEquals(334873, utm.getEasting(), ACCURACY);
+        assertEquals(6252266, utm.getNorthing(), ACCURACY);
+
+        Mgrs.parse("31U DQ 482 119", utm);
+        assertEquals(448200, utm.getEasting(), ACCURACY);
+        assertEquals(5411900, utm.getNorthing(), ACCURACY);
+    }
+
+    /**
+     * Tests formatting and parsing give the same coordinate.
+     */
+    @Test
+    public final void testRoundTrip() {
+        UtmCoordinate parsed = new UtmCoordinate();
+
+        for (double latitude = TransverseMercator.LATITUDE_MIN;
+             latitude <= TransverseMercator.LATITUDE_MAX; latitude += 3.7) {
+            for (double longitude = -180; longitude < 180;
+                 longitude += 11.3) {
+                TransverseMercator.toUtm(latitude, longitude, utm);
+                String mgrs = Mgrs.append(new StringBuilder(), utm,
+                        Mgrs.PRECISION_DEFAULT).toString();
+                Mgrs.parse(mgrs, parsed);
+
+                assertEquals(mgrs, utm.getZone(), parsed.getZone());
+                assertEquals(mgrs, utm.getBand(), parsed.getBand());
+                assertEquals(mgrs, Math.floor(utm.getEasting() + 0.0005),
+                        parsed.getEasting(), ACCURACY);
+                assertEquals(mgrs, Math.floor(utm.getNorthing() + 0.0005),
+                        parsed.getNorthing(), ACCURACY);
+            }
+        }
+    }
+
+    /**
+     * Tests exception when precision is out of range.
+     */
+    @Test
+    public final void testAppendPrecisionOutOfRange() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("parameter precision is not in range 0 .. 5");
+
+        TransverseMercator.toUtm(0, 0, utm);
+        Mgrs.append(new StringBuilder(), utm, Mgrs.PRECISION_MAX + 1);
+    }
+
+    /**
+     * Tests exception when parsing an invalid coordinate.
+     */
+    @Test
+    public final void testParseInvalid() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("parameter text is not a valid MGRS coordinate");
+
+        Mgrs.parse("31U DQ 4825 11932", utm);
+    }
+
+    /**
+     * Tests exception when text is not defined.
+     */
+    @Test
+    public final void testParseNull() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Parameter text should not be null");
+
+        Mgrs.parse(null, utm);
+    }
+}
@@ -0,0 +1,103 @@
+/**
+ * Unit tests for MovingMedianFilter class
+ *
+ * Copyright (C) 2015 Dieter Adriaenssens
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * @package com.github.ruleant.getback_gps
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+package com.github.ruleant.getback_gps.lib;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests for MovingMedianFilter class.
+ *
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+@RunWith(RobolectricTestRunner.class)
+public class MovingMedianFilterTest {
+    /**
+     * Expected Exception.
+     */
+    @Rule public final ExpectedException thrown = ExpectedException.none();
+
+    /**
+     * Window size.
+     */
+    private static final int WINDOW_SIZE = 3;
+
+    /**
+     * Accuracy.
+     */
+    private static final double ACCURACY = 0.0001;
+
+    /**
+     * Tests invalid window size.
+     */
+    @Test
+    public final void testWindowSize() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("parameter windowSize should be at least 1");
+
+        new MovingMedianFilter(0);
+    }
+
+    /**
+     * Tests median while the window fills up and moves.
+     */
+    @Test
+    public final void testFilter() {
+        MovingMedianFilter filter = new MovingMedianFilter(WINDOW_SIZE);
+
+        assertEquals(0.0, filter.getMedian(), ACCURACY);
+        assertEquals(5.0, filter.filter(5.0), ACCURACY);
+        // median of 5 and 1
+        assertEquals(3.0, filter.filter(1.0), ACCURACY);
+        // median of 5, 1, 3
+        assertEquals(3.0, filter.filter(3.0), ACCURACY);
+        // 5 is replaced : 1, 3, 7
+        assertEquals(3.0, filter.filter(7.0), ACCURACY);
+        // 1 is replaced : 3, 7, 8
+        assertEquals(7.0, filter.filter(8.0), ACCURACY);
+        // 3 is replaced : 7, 8, 2
+        assertEquals(7.0, filter.filter(2.0), ACCURACY);
+
+        filter.reset();
+        assertEquals(4.0, filter.filter(4.0), ACCURACY);
+    }
+
+    /**
+     * Tests removing a spike from a block of samples.
+     */
+    @Test
+    public final void testFilterBlock() {
+        MovingMedianFilter filter = new MovingMedianFilter(WINDOW_SIZE);
+        float[] samples = {10.0f, 10.0f, 100.0f, 10.0f, 10.0f};
+
+        filter.filter(samples, samples, samples.length);
+
+        for (float sample : samples) {
+            assertEquals(10.0, sample, ACCURACY);
+        }
+    }
+}
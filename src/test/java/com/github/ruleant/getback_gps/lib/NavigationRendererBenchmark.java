@@ -0,0 +1,155 @@
+/**
+ * Benchmark of the NavigationRenderer geometry
+ *
+ * Copyright (C) 2015 Dieter Adriaenssens
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * @package com.github.ruleant.getback_gps
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+package com.github.ruleant.getback_gps.lib;
+
+/**
+ * Benchmark of NavigationRenderer, rendering frames into a RecordingSink
+ * on a JVM, for sweeping angles and sizes.
+ * Reports time and allocated memory per frame, and per geometry update
+ * (Coordinates, CoordinateRotation and shape building).
+ *
+ * It isn't run as a unit test, run it with :
+ * java -cp <test and app classes> \
+ *   com.github.ruleant.getback_gps.lib.NavigationRendererBenchmark
+ *
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+public final class NavigationRendererBenchmark {
+    /**
+     * View sizes (in pixels).
+     */
+    private static final int[] SIZES = {120, 240, 480, 720, 1080};
+
+    /**
+     * Frames rendered to warm up the JIT compiler.
+     */
+    private static final int WARM_UP_FRAMES = 100000;
+
+    /**
+     * Frames rendered for each size, sweeping the angles.
+     */
+    private static final int FRAMES = 360000;
+
+    /**
+     * Geometry updates measured.
+     */
+    private static final int GEOMETRY_UPDATES = 10000;
+
+    /**
+     * Uncertainty of the direction (in degrees).
+     */
+    private static final double UNCERTAINTY = 15.0;
+
+    /**
+     * Nanoseconds in a microsecond.
+     */
+    private static final double NS_PER_US = 1000.0;
+
+    /**
+     * Renderer.
+     */
+    private final NavigationRenderer mRenderer = new NavigationRenderer();
+
+    /**
+     * Sink.
+     */
+    private final RecordingSink mSink = new RecordingSink();
+
+    /**
+     * Counter of allocated memory.
+     */
+    private final AllocationCounter mAllocationCounter
+            = new AllocationCounter();
+
+    /**
+     * Hidden constructor.
+     */
+    private NavigationRendererBenchmark() {
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args not used
+     */
+    public static void main(final String[] args) {
+        new NavigationRendererBenchmark().run();
+    }
+
+    /**
+     * Runs the benchmark for all sizes.
+     */
+    private void run() {
+        mRenderer.setSize(SIZES[0], SIZES[0]);
+        renderFrames(WARM_UP_FRAMES);
+
+        System.out.println("size\tns/frame\tbytes/frame\tvertices/frame");
+        for (int size : SIZES) {
+            mRenderer.setSize(size, size);
+
+            long bytes = mAllocationCounter.getAllocatedBytes();
+            long start = System.nanoTime();
+            int vertices = renderFrames(FRAMES);
+            long time = System.nanoTime() - start;
+            bytes = mAllocationCounter.getAllocatedBytes() - bytes;
+
+            System.out.println(size
+                    + "\t" + time / FRAMES
+                    + "\t" + (double) bytes / FRAMES
+                    + "\t" + vertices / FRAMES);
+        }
+
+        // geometry is recalculated when the size changes
+        long bytes = mAllocationCounter.getAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < GEOMETRY_UPDATES; i++) {
+            int size = SIZES[i % SIZES.length];
+            mRenderer.setSize(size, size);
+        }
+        long time = System.nanoTime() - start;
+        bytes = mAllocationCounter.getAllocatedBytes() - bytes;
+
+        System.out.println("geometry update : "
+                + time / GEOMETRY_UPDATES / NS_PER_US + " us, "
+                + (double) bytes / GEOMETRY_UPDATES + " bytes");
+    }
+
+    /**
+     * Renders frames, sweeping direction and azimuth.
+     *
+     * @param frames Number of frames
+     * @return number of vertices emitted
+     */
+    private int renderFrames(final int frames) {
+        int vertices = 0;
+
+        for (int i = 0; i < frames; i++) {
+            double angle = i % (int) FormatUtils.CIRCLE_FULL;
+            mSink.reset();
+            mRenderer.render(mSink, angle, FormatUtils.CIRCLE_FULL - angle,
+                    UNCERTAINTY, true);
+            vertices += mSink.getVertices();
+        }
+
+        return vertices;
+    }
+}
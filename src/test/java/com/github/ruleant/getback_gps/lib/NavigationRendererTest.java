@@ -0,0 +1,236 @@
+/**
+ * Unit tests for NavigationRenderer class
+ *
+ * Copyright (C) 2015 Dieter Adriaenssens
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * @package com.github.ruleant.getback_gps
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+package com.github.ruleant.getback_gps.lib;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Unit tests for NavigationRenderer class.
+ *
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+@RunWith(RobolectricTestRunner.class)
+public class NavigationRendererTest {
+    /**
+     * Instance of the renderer class.
+     */
+    private NavigationRenderer renderer;
+
+    /**
+     * Sink recording the draw commands.
+     */
+    private RecordingSink sink;
+
+    /**
+     * View size.
+     */
+    private static final int SIZE = 200;
+
+    /**
+     * Other view size.
+     */
+    private static final int SIZE_LARGE = 400;
+
+    /**
+     * Direction 45°.
+     */
+    private static final double DIRECTION_45 = 45.0;
+
+    /**
+     * Azimuth 30°.
+     */
+    private static final double AZIMUTH_30 = 30.0;
+
+    /**
+     * Uncertainty 10°.
+     */
+    private static final double UNCERTAINTY_10 = 10.0;
+
+    /**
+     * Index of the command rotating the arrow, when drawing the rose.
+     */
+    private static final int INDEX_ARROW_ROTATE = 8;
+
+    /**
+     * Index of the right arrow shape, without rose and wedge.
+     */
+    private static final int INDEX_ARROW_RIGHT = 2;
+
+    /**
+     * Number of frames rendered when counting allocations.
+     */
+    private static final int FRAMES = 1000;
+
+    /**
+     * Accuracy.
+     */
+    private static final double ACCURACY = 0.001;
+
+    /**
+     * Sets up the test fixture.
+     * (Called before every test case method.)
+     */
+    @Before
+    public final void setUp() {
+        renderer = new NavigationRenderer();
+        renderer.setSize(SIZE, SIZE);
+        sink = new RecordingSink();
+    }
+
+    /**
+     * Tests draw commands with compass rose.
+     */
+    @Test
+    public final void testRenderWithRose() {
+        renderer.render(sink, DIRECTION_45, AZIMUTH_30, 0, true);
+
+        int[] commands = {
+            RecordingSink.CIRCLE,
+            RecordingSink.ROTATE,
+            RecordingSink.POLYGON,
+            RecordingSink.POLYGON,
+            RecordingSink.POLYGON,
+            RecordingSink.POLYGON,
+            RecordingSink.LINES,
+            RecordingSink.RESTORE,
+            RecordingSink.ROTATE,
+            RecordingSink.POLYGON,
+            RecordingSink.POLYGON,
+            RecordingSink.LINES,
+            RecordingSink.RESTORE,
+        };
+        assertCommands(commands);
+
+        // compass rose and arrow are rotated
+        assertEquals(AZIMUTH_30, sink.getValue(1), ACCURACY);
+        assertEquals(DIRECTION_45, sink.getValue(INDEX_ARROW_ROTATE),
+                ACCURACY);
+
+        // shapes, starting with the North quadrant
+        assertEquals(NavigationRenderer.SHAPE_ROSE_QUADRANT, sink.getId(2));
+        assertEquals(NavigationRenderer.SHAPE_ARROW_RIGHT,
+                sink.getId(INDEX_ARROW_ROTATE + 1));
+    }
+
+    /**
+     * Tests rendering a frame doesn't allocate memory,
+     * as it is done every time the view is drawn.
+     */
+    @Test
+    public final void testRenderNoAllocation() {
+        AllocationCounter counter = new AllocationCounter();
+        assumeTrue(counter.isSupported());
+
+        // warm up, and measure allocations of measuring itself
+        renderFrames(FRAMES);
+        long overhead = counter.getOverhead();
+
+        long start = counter.getAllocatedBytes();
+        renderFrames(FRAMES);
+        long allocated = counter.getAllocatedBytes() - start;
+
+        assertEquals(overhead, allocated);
+    }
+
+    /**
+     * Renders frames, sweeping direction, azimuth and uncertainty,
+     * with and without compass rose.
+     *
+     * @param frames Number of frames
+     */
+    private void renderFrames(final int frames) {
+        for (int i = 0; i < frames; i++) {
+            double angle = i % (int) FormatUtils.CIRCLE_FULL;
+            sink.reset();
+            renderer.render(sink, angle, FormatUtils.CIRCLE_FULL - angle,
+                    i % (int) FormatUtils.CIRCLE_1Q, i % 2 == 0);
+        }
+    }
+
+    /**
+     * Tests draw commands without compass rose, with uncertainty wedge.
+     */
+    @Test
+    public final void testRenderWithUncertainty() {
+        renderer.render(sink, DIRECTION_45, AZIMUTH_30, UNCERTAINTY_10,
+                false);
+
+        int[] commands = {
+            RecordingSink.CIRCLE,
+            RecordingSink.WEDGE,
+            RecordingSink.ROTATE,
+            RecordingSink.POLYGON,
+            RecordingSink.POLYGON,
+            RecordingSink.LINES,
+            RecordingSink.RESTORE,
+        };
+        assertCommands(commands);
+
+        // wedge is centered around the direction, 0° points up
+        assertEquals(DIRECTION_45 - FormatUtils.CIRCLE_1Q - UNCERTAINTY_10,
+                sink.getValue(1), ACCURACY);
+        assertEquals(NavigationRenderer.PAINT_UNCERTAINTY, sink.getId(1));
+    }
+
+    /**
+     * Tests geometry is pointing North, and only recalculated
+     * when the size changes.
+     */
+    @Test
+    public final void testGeometry() {
+        int version = renderer.getGeometryVersion();
+
+        renderer.setSize(SIZE, SIZE);
+        assertEquals(version, renderer.getGeometryVersion());
+
+        renderer.render(sink, 0, 0, 0, false);
+        // arrow points up, tip is above the center
+        assertEquals(SIZE / 2, sink.getValue(INDEX_ARROW_RIGHT), ACCURACY);
+
+        renderer.setSize(SIZE_LARGE, SIZE_LARGE);
+        assertFalse(version == renderer.getGeometryVersion());
+
+        sink.reset();
+        renderer.render(sink, 0, 0, 0, false);
+        assertEquals(SIZE_LARGE / 2, sink.getValue(INDEX_ARROW_RIGHT),
+                ACCURACY);
+    }
+
+    /**
+     * Asserts recorded commands.
+     *
+     * @param commands expected commands
+     */
+    private void assertCommands(final int[] commands) {
+        assertEquals(commands.length, sink.getCount());
+        for (int i = 0; i < commands.length; i++) {
+            assertEquals(commands[i], sink.getCommand(i));
+        }
+    }
+}
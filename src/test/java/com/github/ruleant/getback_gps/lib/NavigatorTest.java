@@ -158,6 +158,11 @@ public class NavigatorTest {
      */
     private static final float ACCURACY_LOW_60 = 60;
 
+    /**
+     * Large bearing uncertainty (in degrees).
+     */
+    private static final double UNCERTAINTY_LARGE = 45.0;
+
     /**
      * Test location 1.
      */
@@ -948,5 +953,19 @@ public class NavigatorTest {
         when(sensorOrientation.hasOrientation()).thenReturn(true);
         assertTrue(navigator.isSensorBearingAccurate());
         assertTrue(navigator.isBearingAccurate());
+
+        // compass is unreliable
+        when(sensorOrientation.isOrientationUnreliable()).thenReturn(true);
+        assertFalse(navigator.isSensorBearingAccurate());
+        assertFalse(navigator.isBearingAccurate());
+
+        // compass is reliable, but orientation is too uncertain
+        when(sensorOrientation.isOrientationUnreliable()).thenReturn(false);
+        when(sensorOrientation.getOrientationUncertainty())
+                .thenReturn(UNCERTAINTY_LARGE);
+        assertFalse(navigator.isSensorBearingAccurate());
+        assertFalse(navigator.isBearingAccurate());
+        assertEquals(UNCERTAINTY_LARGE,
+                navigator.getSensorBearingUncertainty(), ASSERT_ACCURACY);
     }
 }
@@ -0,0 +1,200 @@
+/**
+ * Unit tests for OpenLocationCode class
+ *
+ * Copyright (C) 2015 Dieter Adriaenssens
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * @package com.github.ruleant.getback_gps
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+package com.github.ruleant.getback_gps.lib;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests for OpenLocationCode class.
+ *
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+@RunWith(RobolectricTestRunner.class)
+public class OpenLocationCodeTest {
+    /**
+     * Expected Exception.
+     */
+    @Rule public final ExpectedException thrown = ExpectedException.none();
+
+    /**
+     * Accuracy of a decoded position, in degrees.
+     */
+    private static final double ACCURACY = 1e-9;
+
+    /**
+     * Positions to encode : latitude, longitude and code length.
+     */
+    private static final double[][] POSITIONS = {
+        {20.3700625, 2.7821875, 10},
+        {-41.2730625, 174.7859375, 10},
+        {47.0000625, 8.0000625, 10},
+        {90, 1, 4},
+        {1, 180, 4},
+        {20.375, 2.775, 6},
+        {1, 1, 11},
+    };
+
+    /**
+     * Codes of the positions.
+     */
+    private static final String[] CODES = {
+        "7FG49QCJ+2V",
+        "4VCPPQGP+Q9",
+        "8FVC2222+22",
+        "CFX30000+",
+        "62H20000+",
+        "7FG49Q00+",
+        "6FH32222+222",
+    };
+
+    /**
+     * Code of a cell of 1/8000° by 1/8000°.
+     */
+    private static final String CODE = "8FVC2222+22";
+
+    /**
+     * Latitude of the center of the cell of CODE.
+     */
+    private static final double CODE_LATITUDE = 47.0000625;
+
+    /**
+     * Longitude of the center of the cell of CODE.
+     */
+    private static final double CODE_LONGITUDE = 8.0000625;
+
+    /**
+     * Tests encoding known positions.
+     */
+    @Test
+    public final void testAppend() {
+        for (int i = 0; i < POSITIONS.length; i++) {
+            assertEquals(CODES[i], OpenLocationCode.append(
+                    new StringBuilder(), POSITIONS[i][0], POSITIONS[i][1],
+                    (int) POSITIONS[i][2]).toString());
+        }
+    }
+
+    /**
+     * Tests codes of all lengths start with the same digits.
+     */
+    @Test
+    public final void testAppendLengths() {
+        String code = OpenLocationCode.append(new StringBuilder(),
+                CODE_LATITUDE, CODE_LONGITUDE,
+                OpenLocationCode.CODE_LENGTH_MAX).toString();
+        assertEquals(OpenLocationCode.CODE_LENGTH_MAX + 1, code.length());
+
+        for (int length = OpenLocationCode.CODE_LENGTH_MIN + 8;
+             length < OpenLocationCode.CODE_LENGTH_MAX; length++) {
+            assertEquals(code.substring(0, length + 1),
+                    OpenLocationCode.append(new StringBuilder(),
+                            CODE_LATITUDE, CODE_LONGITUDE, length)
+                            .toString());
+        }
+        assertEquals("8F000000+", OpenLocationCode.append(
+                new StringBuilder(), CODE_LATITUDE, CODE_LONGITUDE,
+                OpenLocationCode.CODE_LENGTH_MIN).toString());
+    }
+
+    /**
+     * Tests decoding to the center of the cell.
+     */
+    @Test
+    public final void testDecode() {
+        double[] position = new double[2];
+
+        assertEquals(OpenLocationCode.CODE_LENGTH_DEFAULT,
+                OpenLocationCode.decode(CODE, position));
+        assertEquals(CODE_LATITUDE, position[0], ACCURACY);
+        assertEquals(CODE_LONGITUDE, position[1], ACCURACY);
+
+        // lower case, padded
+        assertEquals(6, OpenLocationCode.decode("7fg49q00+", position));
+        assertEquals(20.375, position[0], ACCURACY);
+        assertEquals(2.775, position[1], ACCURACY);
+    }
+
+    /**
+     * Tests encoding the decoded center gives the same code.
+     */
+    @Test
+    public final void testRoundTrip() {
+        double[] position = new double[2];
+
+        for (String code : CODES) {
+            int length = OpenLocationCode.decode(code, position);
+            assertEquals(code, OpenLocationCode.append(new StringBuilder(),
+                    position[0], position[1], length).toString());
+        }
+    }
+
+    /**
+     * Tests exception when code length is not valid.
+     */
+    @Test
+    public final void testAppendInvalidLength() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage(
+                "parameter codeLength should be 2, 4, 6, 8 or 10-15");
+
+        OpenLocationCode.append(new StringBuilder(), 0, 0, 3);
+    }
+
+    /**
+     * Tests exception when decoding a short code.
+     */
+    @Test
+    public final void testDecodeShortCode() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("parameter code is not a valid full");
+
+        OpenLocationCode.decode("9QCJ+2V", new double[2]);
+    }
+
+    /**
+     * Tests exception when decoding an invalid digit.
+     */
+    @Test
+    public final void testDecodeInvalidDigit() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("parameter code is not a valid full");
+
+        OpenLocationCode.decode("8FVC2222+2A", new double[2]);
+    }
+
+    /**
+     * Tests exception when code is not defined.
+     */
+    @Test
+    public final void testDecodeNull() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("Parameter code should not be null");
+
+        OpenLocationCode.decode(null, new double[2]);
+    }
+}
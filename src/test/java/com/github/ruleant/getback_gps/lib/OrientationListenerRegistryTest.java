@@ -0,0 +1,275 @@
+/**
+ * Unit tests for OrientationListenerRegistry class
+ *
+ * Copyright (C) 2015 Dieter Adriaenssens
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * @package com.github.ruleant.getback_gps
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+package com.github.ruleant.getback_gps.lib;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests for OrientationListenerRegistry class.
+ *
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+@RunWith(RobolectricTestRunner.class)
+public class OrientationListenerRegistryTest {
+    /**
+     * Expected Exception.
+     */
+    @Rule public final ExpectedException thrown = ExpectedException.none();
+
+    /**
+     * Instance of the registry.
+     */
+    private OrientationListenerRegistry registry;
+
+    /**
+     * Maximum delivery rate : 10 events per second.
+     */
+    private static final int RATE_10 = 10;
+
+    /**
+     * 50 milliseconds in nanoseconds.
+     */
+    private static final long TIME_50MS = 50 * Tools.MILLI_IN_NANO;
+
+    /**
+     * 100 milliseconds in nanoseconds.
+     */
+    private static final long TIME_100MS = 100 * Tools.MILLI_IN_NANO;
+
+    /**
+     * Minimum heading change : 5°.
+     */
+    private static final double DELTA_5 = 5.0;
+
+    /**
+     * Heading 3°.
+     */
+    private static final double HEADING_3 = 3.0;
+
+    /**
+     * Heading 10°.
+     */
+    private static final double HEADING_10 = 10.0;
+
+    /**
+     * Heading 357°.
+     */
+    private static final double HEADING_357 = 357.0;
+
+    /**
+     * Orientation event listener counting delivered events.
+     */
+    private static class CountingListener
+            implements SensorOrientation.OrientationEventListener {
+        /**
+         * Number of delivered events.
+         */
+        private int mEvents = 0;
+
+        @Override
+        public void onOrientationChanged() {
+            mEvents++;
+        }
+
+        /**
+         * Gets number of delivered events.
+         *
+         * @return number of delivered events
+         */
+        public int getEvents() {
+            return mEvents;
+        }
+    }
+
+    /**
+     * Sets up test.
+     */
+    @Before
+    public final void setUp() {
+        registry = new OrientationListenerRegistry();
+    }
+
+    /**
+     * Tests adding and removing listeners.
+     */
+    @Test
+    public final void testAddRemove() {
+        CountingListener listener1 = new CountingListener();
+        CountingListener listener2 = new CountingListener();
+
+        assertEquals(0, registry.size());
+        assertEquals(1, registry.add(listener1));
+        assertEquals(2, registry.add(listener2));
+
+        // adding a registered listener again doesn't add it twice
+        assertEquals(2, registry.add(listener1, RATE_10, DELTA_5));
+
+        assertEquals(1, registry.remove(listener1));
+        // removing an unregistered listener
+        assertEquals(1, registry.remove(listener1));
+        assertEquals(0, registry.remove(listener2));
+        assertEquals(0, registry.size());
+    }
+
+    /**
+     * Tests adding an undefined listener.
+     */
+    @Test
+    public final void testAddNoListener() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("listener is not defined");
+
+        registry.add(null);
+    }
+
+    /**
+     * Tests adding a listener with a negative delivery rate.
+     */
+    @Test
+    public final void testAddNegativeRate() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("maxDeliveryRate should not be negative");
+
+        registry.add(new CountingListener(), -1 * RATE_10, DELTA_5);
+    }
+
+    /**
+     * Tests adding a listener with a negative heading delta.
+     */
+    @Test
+    public final void testAddNegativeDelta() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("minHeadingDelta should not be negative");
+
+        registry.add(new CountingListener(), RATE_10, -1 * DELTA_5);
+    }
+
+    /**
+     * Tests dispatching to a listener without throttling.
+     */
+    @Test
+    public final void testDispatchUnlimited() {
+        CountingListener listener = new CountingListener();
+        registry.add(listener);
+
+        registry.dispatch(HEADING_10, TIME_50MS);
+        registry.dispatch(HEADING_10, TIME_50MS);
+        registry.dispatch(HEADING_3, TIME_50MS);
+
+        assertEquals(3, listener.getEvents());
+    }
+
+    /**
+     * Tests maximum delivery rate.
+     */
+    @Test
+    public final void testDispatchRate() {
+        CountingListener listener = new CountingListener();
+        registry.add(listener, RATE_10,
+                OrientationListenerRegistry.HEADING_DELTA_NONE);
+
+        registry.dispatch(HEADING_10, 0);
+        assertEquals(1, listener.getEvents());
+
+        // too soon
+        registry.dispatch(HEADING_3, TIME_50MS);
+        assertEquals(1, listener.getEvents());
+
+        registry.dispatch(HEADING_3, TIME_100MS);
+        assertEquals(2, listener.getEvents());
+    }
+
+    /**
+     * Tests minimum heading change, also when crossing North.
+     */
+    @Test
+    public final void testDispatchHeadingDelta() {
+        CountingListener listener = new CountingListener();
+        registry.add(listener,
+                OrientationListenerRegistry.DELIVERY_RATE_UNLIMITED, DELTA_5);
+
+        registry.dispatch(HEADING_3, 0);
+        assertEquals(1, listener.getEvents());
+
+        // 6° difference, crossing North
+        registry.dispatch(HEADING_357, TIME_50MS);
+        assertEquals(2, listener.getEvents());
+
+        // 4° difference from last delivered heading
+        registry.dispatch(0, TIME_100MS);
+        assertEquals(2, listener.getEvents());
+
+        // 13° difference from last delivered heading
+        registry.dispatch(HEADING_10, TIME_100MS);
+        assertEquals(3, listener.getEvents());
+    }
+
+    /**
+     * Tests throttling is applied per listener.
+     */
+    @Test
+    public final void testDispatchPerListener() {
+        CountingListener throttled = new CountingListener();
+        CountingListener unlimited = new CountingListener();
+        registry.add(throttled, RATE_10, DELTA_5);
+        registry.add(unlimited);
+
+        registry.dispatch(HEADING_3, 0);
+        registry.dispatch(HEADING_10, TIME_50MS);
+
+        assertEquals(1, throttled.getEvents());
+        assertEquals(2, unlimited.getEvents());
+    }
+
+    /**
+     * Tests removing a listener while an event is dispatched.
+     */
+    @Test
+    public final void testRemoveDuringDispatch() {
+        final CountingListener other = new CountingListener();
+        SensorOrientation.OrientationEventListener removing
+                = new SensorOrientation.OrientationEventListener() {
+            @Override
+            public void onOrientationChanged() {
+                registry.remove(this);
+                registry.remove(other);
+            }
+        };
+        registry.add(removing);
+        registry.add(other);
+
+        // the event is delivered to the listeners registered at dispatch
+        registry.dispatch(HEADING_10, 0);
+        assertEquals(1, other.getEvents());
+        assertEquals(0, registry.size());
+
+        registry.dispatch(HEADING_10, TIME_100MS);
+        assertEquals(1, other.getEvents());
+    }
+}
@@ -0,0 +1,204 @@
+/**
+ * Unit tests for PositionFormatter class
+ *
+ * Copyright (C) 2015 Dieter Adriaenssens
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * @package com.github.ruleant.getback_gps
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+package com.github.ruleant.getback_gps.lib;
+
+import com.github.ruleant.getback_gps.SettingsActivity;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests for PositionFormatter class.
+ *
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+@RunWith(RobolectricTestRunner.class)
+public class PositionFormatterTest {
+    /**
+     * Expected Exception.
+     */
+    @Rule public final ExpectedException thrown = ExpectedException.none();
+
+    /**
+     * Latitude of the Eiffel Tower.
+     */
+    private static final double PARIS_LATITUDE = 48.8582;
+
+    /**
+     * Longitude of the Eiffel Tower.
+     */
+    private static final double PARIS_LONGITUDE = 2.2945;
+
+    /**
+     * Latitude north of the UTM range.
+     */
+    private static final double POLAR_LATITUDE = 85.5;
+
+    /**
+     * Invalid coordinate format.
+     */
+    private static final int INVALID_FORMAT = 5;
+
+    /**
+     * Position formatter.
+     */
+    private PositionFormatter formatter;
+
+    /**
+     * Original Locale before tests.
+     */
+    private Locale originalLocale;
+
+    /**
+     * Sets up the test fixture.
+     * (Called before every test case method.)
+     */
+    @Before
+    public final void setUp() {
+        originalLocale = Locale.getDefault();
+        Locale.setDefault(Locale.US);
+        Robolectric.application.getResources().getConfiguration().locale
+                = Locale.US;
+        formatter = new PositionFormatter();
+    }
+
+    /**
+     * Restores original state after tests.
+     */
+    @After
+    public final void tearDown() {
+        Locale.setDefault(originalLocale);
+    }
+
+    /**
+     * Tests formatting a position in all formats.
+     */
+    @Test
+    public final void testAppend() {
+        assertEquals(Latitude.appendFormatted(new StringBuilder(),
+                Robolectric.application, PARIS_LATITUDE).append(' ')
+                .append(Longitude.appendFormatted(new StringBuilder(),
+                        Robolectric.application, PARIS_LONGITUDE))
+                .toString(),
+                format(SettingsActivity.COORDINATE_FORMAT_DMS,
+                        PARIS_LATITUDE, PARIS_LONGITUDE));
+        assertEquals("48.858200° 2.294500°",
+                format(SettingsActivity.COORDINATE_FORMAT_DECIMAL,
+                        PARIS_LATITUDE, PARIS_LONGITUDE));
+        assertEquals("31U 448252 5411933",
+                format(SettingsActivity.COORDINATE_FORMAT_UTM,
+                        PARIS_LATITUDE, PARIS_LONGITUDE));
+        assertEquals("31U DQ 48251 11932",
+                format(SettingsActivity.COORDINATE_FORMAT_MGRS,
+                        PARIS_LATITUDE, PARIS_LONGITUDE));
+        assertEquals("8FW4V75V+7R",
+                format(SettingsActivity.COORDINATE_FORMAT_OLC,
+                        PARIS_LATITUDE, PARIS_LONGITUDE));
+    }
+
+    /**
+     * Tests positions outside the UTM range are formatted
+     * as decimal degrees.
+     */
+    @Test
+    public final void testAppendPolar() {
+        assertEquals("85.500000° 2.294500°",
+                format(SettingsActivity.COORDINATE_FORMAT_UTM,
+                        POLAR_LATITUDE, PARIS_LONGITUDE));
+        assertEquals("-85.500000° 2.294500°",
+                format(SettingsActivity.COORDINATE_FORMAT_MGRS,
+                        -POLAR_LATITUDE, PARIS_LONGITUDE));
+    }
+
+    /**
+     * Tests formatting a track, one position per line.
+     */
+    @Test
+    public final void testAppendTrack() {
+        double[] track = {
+            PARIS_LATITUDE, PARIS_LONGITUDE,
+            POLAR_LATITUDE, PARIS_LONGITUDE,
+        };
+
+        assertEquals("31U 448252 5411933\n85.500000° 2.294500°",
+                formatter.appendTrack(new StringBuilder(),
+                        Robolectric.application,
+                        SettingsActivity.COORDINATE_FORMAT_UTM,
+                        track, 2).toString());
+        assertEquals("31U 448252 5411933",
+                formatter.appendTrack(new StringBuilder(),
+                        Robolectric.application,
+                        SettingsActivity.COORDINATE_FORMAT_UTM,
+                        track, 1).toString());
+    }
+
+    /**
+     * Tests the labels of the formats.
+     */
+    @Test
+    public final void testGetLabel() {
+        assertEquals(StringCache.NONE, PositionFormatter.getLabel(
+                SettingsActivity.COORDINATE_FORMAT_DMS));
+        assertEquals(StringCache.UTM, PositionFormatter.getLabel(
+                SettingsActivity.COORDINATE_FORMAT_UTM));
+        assertEquals(StringCache.MGRS, PositionFormatter.getLabel(
+                SettingsActivity.COORDINATE_FORMAT_MGRS));
+        assertEquals(StringCache.PLUS_CODE, PositionFormatter.getLabel(
+                SettingsActivity.COORDINATE_FORMAT_OLC));
+    }
+
+    /**
+     * Tests exception when format is not valid.
+     */
+    @Test
+    public final void testInvalidFormat() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage(
+                "parameter format is not a valid coordinate format : 5");
+
+        format(INVALID_FORMAT, PARIS_LATITUDE, PARIS_LONGITUDE);
+    }
+
+    /**
+     * Formats a position.
+     *
+     * @param format Coordinate format
+     * @param latitude Latitude in degrees
+     * @param longitude Longitude in degrees
+     * @return formatted position
+     */
+    private String format(final int format, final double latitude,
+                          final double longitude) {
+        return formatter.append(new StringBuilder(), Robolectric.application,
+                format, latitude, longitude).toString();
+    }
+}
@@ -0,0 +1,205 @@
+/**
+ * Sink recording NavigationRenderer draw commands
+ *
+ * Copyright (C) 2015 Dieter Adriaenssens
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * @package com.github.ruleant.getback_gps
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+package com.github.ruleant.getback_gps.lib;
+
+/**
+ * NavigationRenderer Sink that records the draw commands of a frame,
+ * without drawing them. Used by tests and benchmarks
+ * to run the renderer on a JVM.
+ *
+ * Commands are stored in preallocated arrays, so recording
+ * doesn't allocate memory.
+ *
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+public class RecordingSink implements NavigationRenderer.Sink {
+    /**
+     * drawCircle command.
+     */
+    public static final int CIRCLE = 0;
+
+    /**
+     * drawWedge command.
+     */
+    public static final int WEDGE = 1;
+
+    /**
+     * drawPolygon command.
+     */
+    public static final int POLYGON = 2;
+
+    /**
+     * drawLines command.
+     */
+    public static final int LINES = 3;
+
+    /**
+     * rotate command.
+     */
+    public static final int ROTATE = 4;
+
+    /**
+     * restore command.
+     */
+    public static final int RESTORE = 5;
+
+    /**
+     * Maximum number of recorded commands.
+     */
+    private static final int MAX_COMMANDS = 64;
+
+    /**
+     * Recorded commands.
+     */
+    private final int[] mCommands = new int[MAX_COMMANDS];
+
+    /**
+     * Paint id (or shape id for polygons) of the recorded commands.
+     */
+    private final int[] mIds = new int[MAX_COMMANDS];
+
+    /**
+     * First value of the recorded commands :
+     * radius, start angle, first X coordinate, rotation angle.
+     */
+    private final float[] mValues = new float[MAX_COMMANDS];
+
+    /**
+     * Number of recorded commands.
+     */
+    private int mCount = 0;
+
+    /**
+     * Number of recorded points and line coordinates.
+     */
+    private int mVertices = 0;
+
+    /**
+     * Removes recorded commands.
+     */
+    public final void reset() {
+        mCount = 0;
+        mVertices = 0;
+    }
+
+    /**
+     * Gets number of recorded commands.
+     *
+     * @return number of commands
+     */
+    public final int getCount() {
+        return mCount;
+    }
+
+    /**
+     * Gets number of recorded polygon points and line coordinates.
+     *
+     * @return number of vertices
+     */
+    public final int getVertices() {
+        return mVertices;
+    }
+
+    /**
+     * Gets a recorded command.
+     *
+     * @param index Index of the command
+     * @return command, fe. POLYGON
+     */
+    public final int getCommand(final int index) {
+        return mCommands[index];
+    }
+
+    /**
+     * Gets paint id (shape id for polygons) of a recorded command.
+     *
+     * @param index Index of the command
+     * @return paint or shape id
+     */
+    public final int getId(final int index) {
+        return mIds[index];
+    }
+
+    /**
+     * Gets first value of a recorded command.
+     *
+     * @param index Index of the command
+     * @return radius, start angle, first X coordinate or rotation angle
+     */
+    public final float getValue(final int index) {
+        return mValues[index];
+    }
+
+    @Override
+    public final void drawCircle(final float centerX, final float centerY,
+                                 final float radius, final int paint) {
+        record(CIRCLE, paint, radius);
+    }
+
+    @Override
+    public final void drawWedge(final float centerX, final float centerY,
+                                final float radius, final float startAngle,
+                                final float sweepAngle, final int paint) {
+        record(WEDGE, paint, startAngle);
+    }
+
+    @Override
+    public final void drawPolygon(final int shape, final float[] points,
+                                  final int count, final int paint) {
+        record(POLYGON, shape, points[0]);
+        mVertices += count;
+    }
+
+    @Override
+    public final void drawLines(final float[] lines, final int count,
+                                final int paint) {
+        record(LINES, paint, lines[0]);
+        mVertices += count / 2;
+    }
+
+    @Override
+    public final void rotate(final float angle, final float centerX,
+                             final float centerY) {
+        record(ROTATE, 0, angle);
+    }
+
+    @Override
+    public final void restore() {
+        record(RESTORE, 0, 0);
+    }
+
+    /**
+     * Records a command.
+     *
+     * @param command Command
+     * @param id Paint or shape id
+     * @param value First value
+     */
+    private void record(final int command, final int id, final float value) {
+        if (mCount < MAX_COMMANDS) {
+            mCommands[mCount] = command;
+            mIds[mCount] = id;
+            mValues[mCount] = value;
+            mCount++;
+        }
+    }
+}
@@ -0,0 +1,353 @@
+/**
+ * Unit tests for SensorOrientation class
+ *
+ * Copyright (C) 2015 Dieter Adriaenssens
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * @package com.github.ruleant.getback_gps
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+package com.github.ruleant.getback_gps.lib;
+
+import android.content.Context;
+import android.hardware.Sensor;
+import android.hardware.SensorEvent;
+import android.hardware.SensorManager;
+import android.os.Build;
+import android.preference.PreferenceManager;
+
+import com.github.ruleant.getback_gps.SettingsActivity;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+import java.lang.reflect.Field;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for SensorOrientation class.
+ *
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+@RunWith(RobolectricTestRunner.class)
+public class SensorOrientationTest {
+    /**
+     * Instance of the class under test.
+     */
+    private SensorOrientation sensorOrientation;
+
+    /**
+     * Mocked sensor manager.
+     */
+    private SensorManager sensorManager;
+
+    /**
+     * Orientation sensor.
+     */
+    private Sensor orientationSensor;
+
+    /**
+     * Timestamp of the next sensor event in nanoseconds.
+     */
+    private long timestamp;
+
+    /**
+     * SDK version of the test environment.
+     */
+    private int sdkVersion;
+
+    /**
+     * Sensor noise : ±1°.
+     */
+    private static final float NOISE = 1;
+
+    /**
+     * Heading 100°.
+     */
+    private static final float HEADING_100 = 100;
+
+    /**
+     * Angular velocity of a fast turn : 90°/s.
+     */
+    private static final float FAST_TURN = 90;
+
+    /**
+     * Delay of a sensor event after the update interval,
+     * 1 millisecond in nanoseconds.
+     */
+    private static final long EVENT_DELAY = Tools.MILLI_IN_NANO;
+
+    /**
+     * Heading step : 10°.
+     */
+    private static final float HEADING_STEP = 10;
+
+    /**
+     * Accuracy of a filtered value.
+     */
+    private static final double ACCURACY = 0.001;
+
+    /**
+     * Sensor update rate the filters were tuned for,
+     * in nanoseconds.
+     */
+    private static final long REFERENCE_INTERVAL
+            = SensorOrientation.SENSOR_UPDATE_RATE_REFERENCE
+            * Tools.MICRO_IN_NANO;
+
+    /**
+     * Number of events in a batch.
+     */
+    private static final int BATCH_EVENTS = 5;
+
+    /**
+     * Report latency of batched events, 2 seconds in microseconds.
+     */
+    private static final int BATCH_LATENCY = 2000000;
+
+    /**
+     * Duration of a test sequence : 5 seconds in nanoseconds.
+     */
+    private static final long DURATION = 5000 * Tools.MILLI_IN_NANO;
+
+    /**
+     * Sets up test.
+     *
+     * @throws Exception if the sensor type can't be set
+     */
+    @Before
+    public final void setUp() throws Exception {
+        // SystemClock.elapsedRealtimeNanos() is not available
+        // in the test environment, use elapsedRealtime() instead
+        sdkVersion = Build.VERSION.SDK_INT;
+        Robolectric.Reflection.setFinalStaticField(Build.VERSION.class,
+                "SDK_INT", Build.VERSION_CODES.JELLY_BEAN);
+
+        PreferenceManager.getDefaultSharedPreferences(
+                Robolectric.application).edit()
+                .putBoolean(SettingsActivity.KEY_PREF_ENABLE_SENSORS, true)
+                .putString(SettingsActivity.KEY_PREF_GEO_ORIENTATION_SENSOR,
+                        String.valueOf(
+                        SettingsActivity.GEO_ORIENTATION_SENSOR_AUTO))
+                .commit();
+
+        orientationSensor = Robolectric.newInstanceOf(Sensor.class);
+        Field type = Sensor.class.getDeclaredField("mType");
+        type.setAccessible(true);
+        type.setInt(orientationSensor, Sensor.TYPE_ORIENTATION);
+
+        sensorManager = mock(SensorManager.class);
+        when(sensorManager.getSensorList(anyInt())).thenReturn(
+                Collections.singletonList(orientationSensor));
+        when(sensorManager.getDefaultSensor(Sensor.TYPE_ORIENTATION))
+                .thenReturn(orientationSensor);
+
+        Context context = mock(Context.class);
+        when(context.getApplicationContext())
+                .thenReturn(Robolectric.application);
+        when(context.getSystemService(Context.SENSOR_SERVICE))
+                .thenReturn(sensorManager);
+
+        sensorOrientation = new SensorOrientation(context);
+        sensorOrientation.addEventListener(
+                mock(SensorOrientation.OrientationEventListener.class));
+
+        timestamp = Tools.getTimestampNano();
+    }
+
+    /**
+     * Restores SDK version of the test environment.
+     */
+    @After
+    public final void tearDown() {
+        Robolectric.Reflection.setFinalStaticField(Build.VERSION.class,
+                "SDK_INT", sdkVersion);
+    }
+
+    /**
+     * Sends orientation sensor events at the current update rate,
+     * every event arrives just after the update interval,
+     * with a constant angular velocity and alternating noise.
+     *
+     * @param heading heading of the first event in degrees
+     * @param velocity angular velocity in °/s
+     * @param noise amplitude of the noise in degrees
+     * @param duration duration in nanoseconds
+     * @return heading after the last event, without noise
+     */
+    private float sendEvents(final float heading, final float velocity,
+                             final float noise, final long duration) {
+        long end = timestamp + duration;
+        float currentHeading = heading;
+        float currentNoise = noise;
+
+        while (timestamp < end) {
+            long interval = sensorOrientation.getSensorUpdateRate()
+                    * Tools.MICRO_IN_NANO + EVENT_DELAY;
+            sensorOrientation.onSensorChanged(createEvent(
+                    currentHeading + currentNoise));
+
+            timestamp += interval;
+            currentHeading += velocity * interval
+                    / (Tools.SECOND_IN_MILLIS * Tools.MILLI_IN_NANO);
+            currentNoise = -currentNoise;
+        }
+
+        return currentHeading;
+    }
+
+    /**
+     * Creates an orientation sensor event at the current timestamp.
+     *
+     * @param heading heading in degrees
+     * @return sensor event
+     */
+    private SensorEvent createEvent(final double heading) {
+        SensorEvent event = Robolectric.newInstance(SensorEvent.class,
+                new Class<?>[]{int.class}, new Object[]{1});
+        event.sensor = orientationSensor;
+        event.accuracy = SensorManager.SENSOR_STATUS_ACCURACY_HIGH;
+        event.timestamp = timestamp;
+        event.values[0] = (float) FormatUtils.normalizeAngle(heading);
+
+        return event;
+    }
+
+    /**
+     * Tests a batch of sensor events results in a single orientation
+     * update, after all events of the batch are handled.
+     *
+     * @throws Exception if the report latency can't be set
+     */
+    @Test
+    public final void testBatchedEvents() throws Exception {
+        // batching requires API 19, enable it directly
+        Field latency = SensorOrientation.class.getDeclaredField(
+                "mMaxReportLatency");
+        latency.setAccessible(true);
+        latency.setInt(sensorOrientation, BATCH_LATENCY);
+
+        SensorOrientation.OrientationEventListener listener
+                = mock(SensorOrientation.OrientationEventListener.class);
+        sensorOrientation.addEventListener(listener);
+
+        // a batch is delivered at once, before posted tasks run
+        Robolectric.pauseMainLooper();
+        for (int i = 0; i < BATCH_EVENTS; i++) {
+            sensorOrientation.onSensorChanged(
+                    createEvent(HEADING_100 + i));
+            timestamp += SensorOrientation.SENSOR_UPDATE_RATE_SLOW
+                    * Tools.MICRO_IN_NANO + EVENT_DELAY;
+        }
+        verify(listener, never()).onOrientationChanged();
+
+        Robolectric.unPauseMainLooper();
+        verify(listener, times(1)).onOrientationChanged();
+        assertEquals(HEADING_100 + BATCH_EVENTS - 1,
+                sensorOrientation.getOrientation(), ACCURACY);
+    }
+
+    /**
+     * Tests slow update rate is kept when the device is held still,
+     * with sensor noise.
+     */
+    @Test
+    public final void testUpdateRateStill() {
+        assertEquals(SensorOrientation.SENSOR_UPDATE_RATE_SLOW,
+                sensorOrientation.getSensorUpdateRate());
+
+        sendEvents(HEADING_100, 0, NOISE, DURATION);
+
+        assertEquals(SensorOrientation.SENSOR_UPDATE_RATE_SLOW,
+                sensorOrientation.getSensorUpdateRate());
+        assertEquals(0, sensorOrientation.getSensorUpdateRateChanges());
+        verify(sensorManager, times(1)).registerListener(sensorOrientation,
+                orientationSensor, SensorOrientation.SENSOR_UPDATE_RATE_SLOW);
+    }
+
+    /**
+     * Tests fast update rate is used when the device turns,
+     * and the slow update rate is restored when it is held still again,
+     * despite the sensor noise at the fast update rate.
+     */
+    @Test
+    public final void testUpdateRateTurn() {
+        float heading = sendEvents(HEADING_100, FAST_TURN, 0, DURATION);
+
+        assertEquals(SensorOrientation.SENSOR_UPDATE_RATE_FAST,
+                sensorOrientation.getSensorUpdateRate());
+        assertEquals(1, sensorOrientation.getSensorUpdateRateChanges());
+        verify(sensorManager).registerListener(sensorOrientation,
+                orientationSensor, SensorOrientation.SENSOR_UPDATE_RATE_FAST);
+
+        sendEvents(heading, 0, NOISE, DURATION);
+
+        assertEquals(SensorOrientation.SENSOR_UPDATE_RATE_SLOW,
+                sensorOrientation.getSensorUpdateRate());
+        assertEquals(2, sensorOrientation.getSensorUpdateRateChanges());
+        verify(sensorManager, times(2)).registerListener(sensorOrientation,
+                orientationSensor, SensorOrientation.SENSOR_UPDATE_RATE_SLOW);
+    }
+
+    /**
+     * Tests the step response of the sensor value filter
+     * at the reference update rate matches the alpha value it was tuned with.
+     */
+    @Test
+    public final void testLowPassTimeConstant() {
+        ExponentialFilter filter = new ExponentialFilter(1, 1);
+        filter.filter(0);
+        filter.setAlpha(LowPassFilter.getAlpha(REFERENCE_INTERVAL,
+                SensorOrientation.LOW_PASS_TIME_CONSTANT));
+
+        assertEquals(SensorOrientation.LOW_PASS_ALPHA,
+                filter.filter(1), ACCURACY);
+        assertEquals(LowPassFilter.filterValue(0, 1,
+                SensorOrientation.LOW_PASS_ALPHA),
+                filter.getValue(0), ACCURACY);
+    }
+
+    /**
+     * Tests the step response of the orientation filter
+     * at the reference update rate matches the alpha value it was tuned with.
+     */
+    @Test
+    public final void testOrientationTimeConstant() {
+        assertEquals(SensorOrientation.ALPHA_ORIENTATION_SENSORS,
+                LowPassFilter.getAlpha(REFERENCE_INTERVAL,
+                        SensorOrientation.ORIENTATION_TIME_CONSTANT),
+                ACCURACY);
+        assertEquals(CircularAverage.getAverageValue(
+                HEADING_100, HEADING_100 + HEADING_STEP,
+                SensorOrientation.ALPHA_ORIENTATION_SENSORS),
+                CircularAverage.getAverageValue(
+                        HEADING_100, HEADING_100 + HEADING_STEP,
+                        REFERENCE_INTERVAL,
+                        SensorOrientation.ORIENTATION_TIME_CONSTANT),
+                ACCURACY);
+    }
+}
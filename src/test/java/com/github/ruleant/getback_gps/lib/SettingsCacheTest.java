@@ -0,0 +1,180 @@
+/**
+ * Unit tests for SettingsCache class
+ *
+ * Copyright (C) 2015 Dieter Adriaenssens
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * @package com.github.ruleant.getback_gps
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+package com.github.ruleant.getback_gps.lib;
+
+import android.content.SharedPreferences;
+import android.preference.PreferenceManager;
+
+import com.github.ruleant.getback_gps.SettingsActivity;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for SettingsCache class.
+ *
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+@RunWith(RobolectricTestRunner.class)
+public class SettingsCacheTest {
+    /**
+     * Expected Exception.
+     */
+    @Rule public final ExpectedException thrown = ExpectedException.none();
+
+    /**
+     * Instance of the settings cache.
+     */
+    private SettingsCache settingsCache;
+
+    /**
+     * Shared preferences of the app.
+     */
+    private SharedPreferences sharedPref;
+
+    /**
+     * Location update distance.
+     */
+    private static final String LOC_UPDATE_DIST = "50";
+
+    /**
+     * Location update time.
+     */
+    private static final String LOC_UPDATE_TIME = "30000";
+
+    /**
+     * Sets up test.
+     */
+    @Before
+    public final void setUp() {
+        sharedPref = PreferenceManager.getDefaultSharedPreferences(
+                Robolectric.application);
+        settingsCache = SettingsCache.getInstance(Robolectric.application);
+    }
+
+    /**
+     * Tests getInstance with undefined context.
+     */
+    @Test
+    public final void testGetInstanceNoContext() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("context is not defined");
+
+        SettingsCache.getInstance(null);
+    }
+
+    /**
+     * Tests if the same instance is returned.
+     */
+    @Test
+    public final void testGetInstance() {
+        assertSame(settingsCache,
+                SettingsCache.getInstance(Robolectric.application));
+    }
+
+    /**
+     * Tests snapshot with default settings.
+     */
+    @Test
+    public final void testDefaultSnapshot() {
+        SettingsSnapshot snapshot = settingsCache.getSnapshot();
+
+        assertEquals(SettingsActivity.DEFAULT_PREF_ENABLE_SENSORS,
+                snapshot.isSensorsEnabled());
+        assertEquals(SettingsActivity.GEO_ORIENTATION_SENSOR_AUTO,
+                snapshot.getGeoOrientationSensor());
+        assertEquals(Integer.parseInt(
+                SettingsActivity.DEFAULT_PREF_LOC_UPDATE_DIST),
+                snapshot.getLocationUpdateDistance());
+        assertEquals(Integer.parseInt(
+                SettingsActivity.DEFAULT_PREF_LOC_UPDATE_TIME),
+                snapshot.getLocationUpdateTime());
+        assertEquals(SettingsActivity.COORDINATE_FORMAT_DMS,
+                snapshot.getCoordinateFormat());
+        assertEquals(SettingsActivity.UNITS_METRIC,
+                snapshot.getUnitSystem());
+        assertEquals(DebugLevel.DEBUG_LEVEL_OFF, snapshot.getDebugLevel());
+        assertFalse(snapshot.checkDebugLevel(DebugLevel.DEBUG_LEVEL_LOW));
+    }
+
+    /**
+     * Tests if snapshot is refreshed when a setting is changed.
+     */
+    @Test
+    public final void testChangedSetting() {
+        SettingsSnapshot snapshot = settingsCache.getSnapshot();
+        assertTrue(snapshot.isSensorsEnabled());
+
+        sharedPref.edit()
+                .putBoolean(SettingsActivity.KEY_PREF_ENABLE_SENSORS, false)
+                .putString(SettingsActivity.KEY_PREF_LOC_UPDATE_DIST,
+                        LOC_UPDATE_DIST)
+                .putString(SettingsActivity.KEY_PREF_LOC_UPDATE_TIME,
+                        LOC_UPDATE_TIME)
+                .putString(SettingsActivity.KEY_PREF_COORDINATE_FORMAT,
+                        String.valueOf(SettingsActivity.COORDINATE_FORMAT_UTM))
+                .putString(SettingsActivity.KEY_PREF_UNITS,
+                        String.valueOf(SettingsActivity.UNITS_NAUTICAL))
+                .commit();
+        // Robolectric returns a new SharedPreferences instance
+        // for every call, so the listener is notified here
+        settingsCache.onSharedPreferenceChanged(sharedPref,
+                SettingsActivity.KEY_PREF_ENABLE_SENSORS);
+
+        SettingsSnapshot newSnapshot = settingsCache.getSnapshot();
+        assertNotSame(snapshot, newSnapshot);
+        assertFalse(newSnapshot.isSensorsEnabled());
+        assertEquals(Integer.parseInt(LOC_UPDATE_DIST),
+                newSnapshot.getLocationUpdateDistance());
+        assertEquals(Integer.parseInt(LOC_UPDATE_TIME),
+                newSnapshot.getLocationUpdateTime());
+        assertEquals(SettingsActivity.COORDINATE_FORMAT_UTM,
+                newSnapshot.getCoordinateFormat());
+        assertEquals(SettingsActivity.UNITS_NAUTICAL,
+                newSnapshot.getUnitSystem());
+
+        // previous snapshot is not modified
+        assertTrue(snapshot.isSensorsEnabled());
+    }
+
+    /**
+     * Tests creating a snapshot with undefined SharedPreferences.
+     */
+    @Test
+    public final void testSnapshotNoSharedPref() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("sharedPref is not defined");
+
+        new SettingsSnapshot(null);
+    }
+}
@@ -0,0 +1,165 @@
+/**
+ * Unit tests for StringCache class
+ *
+ * Copyright (C) 2015 Dieter Adriaenssens
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * @package com.github.ruleant.getback_gps
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+package com.github.ruleant.getback_gps.lib;
+
+import android.content.res.Configuration;
+import android.content.res.Resources;
+
+import com.github.ruleant.getback_gps.R;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Unit tests for StringCache class.
+ *
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+@RunWith(RobolectricTestRunner.class)
+public class StringCacheTest {
+    /**
+     * Expected Exception.
+     */
+    @Rule public final ExpectedException thrown = ExpectedException.none();
+
+    /**
+     * Original locale of the resources.
+     */
+    private Locale originalLocale;
+
+    /**
+     * Configuration of the app resources.
+     */
+    private Configuration configuration;
+
+    /**
+     * App resources.
+     */
+    private Resources resources;
+
+    /**
+     * Sets up test.
+     */
+    @Before
+    public final void setUp() {
+        resources = Robolectric.application.getResources();
+        configuration = resources.getConfiguration();
+        originalLocale = configuration.locale;
+        StringCache.invalidate();
+    }
+
+    /**
+     * Restores original state after tests.
+     */
+    @After
+    public final void tearDown() {
+        configuration.locale = originalLocale;
+        StringCache.invalidate();
+    }
+
+    /**
+     * Tests cached strings are the resource strings.
+     */
+    @Test
+    public final void testGet() {
+        StringCache strings = StringCache.getInstance(Robolectric.application);
+
+        assertEquals(resources.getString(R.string.none),
+                strings.get(StringCache.NONE));
+        assertEquals(resources.getString(R.string.latitude_north_unit),
+                strings.get(StringCache.LATITUDE_NORTH_UNIT));
+        assertEquals(resources.getString(R.string.northwest_unit),
+                strings.get(StringCache.NORTHWEST_UNIT));
+        assertEquals(resources.getString(R.string.latitude),
+                strings.get(StringCache.LATITUDE));
+        assertEquals(resources.getString(R.string.loc_updated_not_recent),
+                strings.get(StringCache.LOC_UPDATED_NOT_RECENT));
+        assertEquals(resources.getString(R.string.plus_code),
+                strings.get(StringCache.PLUS_CODE));
+    }
+
+    /**
+     * Tests the cache is reused, until it is invalidated.
+     */
+    @Test
+    public final void testGetInstance() {
+        StringCache strings = StringCache.getInstance(Robolectric.application);
+        assertSame(strings,
+                StringCache.getInstance(Robolectric.application));
+
+        StringCache.invalidate();
+        assertNotSame(strings,
+                StringCache.getInstance(Robolectric.application));
+    }
+
+    /**
+     * Tests the cache is reloaded when the locale changes.
+     */
+    @Test
+    public final void testLocaleChange() {
+        configuration.locale = Locale.US;
+        StringCache strings = StringCache.getInstance(Robolectric.application);
+        assertEquals(Locale.US, strings.getLocale());
+
+        Locale localeDutchBelgian = new Locale("nl", "BE");
+        configuration.locale = localeDutchBelgian;
+        StringCache dutchStrings
+                = StringCache.getInstance(Robolectric.application);
+        assertNotSame(strings, dutchStrings);
+        assertEquals(localeDutchBelgian, dutchStrings.getLocale());
+    }
+
+    /**
+     * Tests exception when index is out of range.
+     */
+    @Test
+    public final void testGetOutOfRange() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("parameter index is not in range");
+
+        StringCache.getInstance(Robolectric.application)
+                .get(StringCache.PLUS_CODE + 1);
+    }
+
+    /**
+     * Tests exception when context is not defined.
+     */
+    @Test
+    public final void testNoContext() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("context is not defined");
+
+        StringCache.getInstance(null);
+    }
+}
@@ -0,0 +1,123 @@
+/**
+ * Unit tests for TextBuffer class
+ *
+ * Copyright (C) 2015 Dieter Adriaenssens
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * @package com.github.ruleant.getback_gps
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+package com.github.ruleant.getback_gps.lib;
+
+import android.widget.TextView;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Unit tests for TextBuffer class.
+ *
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+@RunWith(RobolectricTestRunner.class)
+public class TextBufferTest {
+    /**
+     * Expected Exception.
+     */
+    @Rule public final ExpectedException thrown = ExpectedException.none();
+
+    /**
+     * Short text.
+     */
+    private static final String TEXT_SHORT = "12m";
+
+    /**
+     * Text longer than the initial capacity.
+     */
+    private static final String TEXT_LONG = "12,345,678km/h";
+
+    /**
+     * Initial capacity.
+     */
+    private static final int CAPACITY = 4;
+
+    /**
+     * Tests resetting and building a text.
+     */
+    @Test
+    public final void testReset() {
+        TextBuffer buffer = new TextBuffer(CAPACITY);
+        assertEquals(0, buffer.length());
+
+        buffer.reset().append(TEXT_LONG);
+        assertEquals(TEXT_LONG.length(), buffer.length());
+        assertEquals(TEXT_LONG, buffer.toString());
+
+        assertSame(buffer.getBuilder(), buffer.reset());
+        buffer.reset().append(TEXT_SHORT);
+        assertEquals(TEXT_SHORT, buffer.toString());
+    }
+
+    /**
+     * Tests the char array grows, and is reused for a shorter text.
+     */
+    @Test
+    public final void testGetChars() {
+        TextBuffer buffer = new TextBuffer(CAPACITY);
+
+        buffer.reset().append(TEXT_LONG);
+        char[] chars = buffer.getChars();
+        assertEquals(TEXT_LONG, new String(chars, 0, buffer.length()));
+
+        buffer.reset().append(TEXT_SHORT);
+        assertSame(chars, buffer.getChars());
+        assertEquals(TEXT_SHORT, new String(chars, 0, buffer.length()));
+    }
+
+    /**
+     * Tests displaying the text in a TextView.
+     */
+    @Test
+    public final void testSetText() {
+        TextBuffer buffer = new TextBuffer();
+        TextView textView = new TextView(Robolectric.application);
+
+        buffer.reset().append(TEXT_LONG);
+        buffer.setText(textView);
+        assertEquals(TEXT_LONG, textView.getText().toString());
+
+        buffer.reset().append(TEXT_SHORT);
+        buffer.setText(textView);
+        assertEquals(TEXT_SHORT, textView.getText().toString());
+    }
+
+    /**
+     * Tests exception when capacity is too small.
+     */
+    @Test
+    public final void testInvalidCapacity() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("parameter capacity should be at least 1");
+
+        new TextBuffer(0);
+    }
+}
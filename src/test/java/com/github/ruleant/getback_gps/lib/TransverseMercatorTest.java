@@ -0,0 +1,300 @@
+/**
+ * Unit tests for TransverseMercator class
+ *
+ * Copyright (C) 2015 Dieter Adriaenssens
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * @package com.github.ruleant.getback_gps
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+package com.github.ruleant.getback_gps.lib;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for TransverseMercator class.
+ *
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+@RunWith(RobolectricTestRunner.class)
+public class TransverseMercatorTest {
+    /**
+     * Expected Exception.
+     */
+    @Rule public final ExpectedException thrown = ExpectedException.none();
+
+    /**
+     * Accuracy of easting and northing, in meters.
+     */
+    private static final double ACCURACY_METER = 1;
+
+    /**
+     * Accuracy of a round trip, in degrees (about 0.1 mm).
+     */
+    private static final double ACCURACY_DEGREE = 1e-9;
+
+    /**
+     * Latitude of the Eiffel Tower.
+     */
+    private static final double PARIS_LATITUDE = 48.8582;
+
+    /**
+     * Longitude of the Eiffel Tower.
+     */
+    private static final double PARIS_LONGITUDE = 2.2945;
+
+    /**
+     * UTM zone of the Eiffel Tower.
+     */
+    private static final int PARIS_ZONE = 31;
+
+    /**
+     * Easting of the Eiffel Tower.
+     */
+    private static final double PARIS_EASTING = 448251.8;
+
+    /**
+     * Northing of the Eiffel Tower.
+     */
+    private static final double PARIS_NORTHING = 5411932.7;
+
+    /**
+     * Latitude of Sydney.
+     */
+    private static final double SYDNEY_LATITUDE = -33.857;
+
+    /**
+     * Longitude of Sydney.
+     */
+    private static final double SYDNEY_LONGITUDE = 151.215;
+
+    /**
+     * UTM zone of Sydney.
+     */
+    private static final int SYDNEY_ZONE = 56;
+
+    /**
+     * Easting of Sydney.
+     */
+    private static final double SYDNEY_EASTING = 334873;
+
+    /**
+     * Northing of Sydney.
+     */
+    private static final double SYDNEY_NORTHING = 6252266;
+
+    /**
+     * Easting of the central meridian.
+     */
+    private static final double FALSE_EASTING = 500000;
+
+    /**
+     * Easting of 0°, 0° in zone 31.
+     */
+    private static final double EQUATOR_EASTING = 166021.4;
+
+    /**
+     * Latitude in the southern Norway exception.
+     */
+    private static final double NORWAY_LATITUDE = 60;
+
+    /**
+     * Longitude in the southern Norway exception.
+     */
+    private static final double NORWAY_LONGITUDE = 5;
+
+    /**
+     * Latitude in the Svalbard exception.
+     */
+    private static final double SVALBARD_LATITUDE = 78;
+
+    /**
+     * Longitude in the Svalbard exception.
+     */
+    private static final double SVALBARD_LONGITUDE = 15;
+
+    /**
+     * Latitude north of the UTM range.
+     */
+    private static final double POLAR_LATITUDE = 85;
+
+    /**
+     * Track in a single zone, latitude and longitude pairs.
+     */
+    private static final double[] TRACK = {
+        PARIS_LATITUDE, PARIS_LONGITUDE,
+        50.85, 4.35,
+        43.3, 5.37,
+        51.5, 0.5,
+    };
+
+    /**
+     * Tests the zones, including the Norway and Svalbard exceptions.
+     */
+    @Test
+    public final void testGetZone() {
+        assertEquals(PARIS_ZONE,
+                TransverseMercator.getZone(PARIS_LATITUDE, PARIS_LONGITUDE));
+        assertEquals(SYDNEY_ZONE, TransverseMercator.getZone(
+                SYDNEY_LATITUDE, SYDNEY_LONGITUDE));
+        assertEquals(1, TransverseMercator.getZone(0, -180));
+        assertEquals(UtmCoordinate.ZONE_MAX,
+                TransverseMercator.getZone(0, 179.9));
+        assertEquals(32, TransverseMercator.getZone(
+                NORWAY_LATITUDE, NORWAY_LONGITUDE));
+        assertEquals(33, TransverseMercator.getZone(
+                SVALBARD_LATITUDE, SVALBARD_LONGITUDE));
+    }
+
+    /**
+     * Tests the latitude bands.
+     */
+    @Test
+    public final void testGetBand() {
+        assertEquals('C', TransverseMercator.getBand(
+                TransverseMercator.LATITUDE_MIN));
+        assertEquals('N', TransverseMercator.getBand(0));
+        assertEquals('M', TransverseMercator.getBand(-0.1));
+        assertEquals('U', TransverseMercator.getBand(PARIS_LATITUDE));
+        assertEquals('X', TransverseMercator.getBand(
+                TransverseMercator.LATITUDE_MAX));
+        assertEquals(48.0, TransverseMercator.getBandLatitude('U'), 0);
+    }
+
+    /**
+     * Tests the UTM range.
+     */
+    @Test
+    public final void testIsInRange() {
+        assertTrue(TransverseMercator.isInRange(PARIS_LATITUDE));
+        assertTrue(TransverseMercator.isInRange(
+                TransverseMercator.LATITUDE_MIN));
+        assertFalse(TransverseMercator.isInRange(POLAR_LATITUDE));
+        assertFalse(TransverseMercator.isInRange(-POLAR_LATITUDE));
+    }
+
+    /**
+     * Tests conversion to UTM with known coordinates.
+     */
+    @Test
+    public final void testToUtm() {
+        UtmCoordinate utm = new UtmCoordinate();
+
+        TransverseMercator.toUtm(PARIS_LATITUDE, PARIS_LONGITUDE, utm);
+        assertEquals(PARIS_ZONE, utm.getZone());
+        assertEquals('U', utm.getBand());
+        assertTrue(utm.isNorth());
+        assertEquals(PARIS_EASTING, utm.getEasting(), ACCURACY_METER);
+        assertEquals(PARIS_NORTHING, utm.getNorthing(), ACCURACY_METER);
+
+        TransverseMercator.toUtm(SYDNEY_LATITUDE, SYDNEY_LONGITUDE, utm);
+        assertEquals(SYDNEY_ZONE, utm.getZone());
+        assertEquals('H', utm.getBand());
+        assertFalse(utm.isNorth());
+        assertEquals(SYDNEY_EASTING, utm.getEasting(), ACCURACY_METER);
+        assertEquals(SYDNEY_NORTHING, utm.getNorthing(), ACCURACY_METER);
+
+        TransverseMercator.toUtm(0, 0, utm);
+        assertEquals(EQUATOR_EASTING, utm.getEasting(), ACCURACY_METER);
+        assertEquals(0, utm.getNorthing(), ACCURACY_METER);
+
+        // central meridian
+        TransverseMercator.toUtm(PARIS_LATITUDE,
+                TransverseMercator.getCentralMeridian(PARIS_ZONE), utm);
+        assertEquals(FALSE_EASTING, utm.getEasting(), ACCURACY_METER);
+    }
+
+    /**
+     * Tests converting to UTM and back.
+     */
+    @Test
+    public final void testRoundTrip() {
+        UtmCoordinate utm = new UtmCoordinate();
+        double[] position = new double[2];
+
+        for (double latitude = TransverseMercator.LATITUDE_MIN;
+             latitude <= TransverseMercator.LATITUDE_MAX; latitude += 7.5) {
+            for (double longitude = -180; longitude < 180;
+                 longitude += 13.7) {
+                TransverseMercator.toUtm(latitude, longitude, utm);
+                TransverseMercator.fromUtm(utm, position);
+                assertEquals(latitude, position[0], ACCURACY_DEGREE);
+                assertEquals(longitude, position[1], ACCURACY_DEGREE);
+            }
+        }
+    }
+
+    /**
+     * Tests batch conversion gives the same result as single conversion.
+     */
+    @Test
+    public final void testBatch() {
+        int count = TRACK.length / 2;
+        double[] utmTrack = new double[TRACK.length];
+        double[] track = new double[TRACK.length];
+        UtmCoordinate utm = new UtmCoordinate();
+
+        TransverseMercator.toUtm(PARIS_ZONE, true, TRACK, utmTrack, count);
+        for (int i = 0; i < count; i++) {
+            TransverseMercator.toUtm(TRACK[2 * i], TRACK[2 * i + 1], utm);
+            assertEquals(utm.getEasting(), utmTrack[2 * i], ACCURACY_DEGREE);
+            assertEquals(utm.getNorthing(), utmTrack[2 * i + 1],
+                    ACCURACY_DEGREE);
+        }
+
+        TransverseMercator.fromUtm(PARIS_ZONE, true, utmTrack, track, count);
+        for (int i = 0; i < TRACK.length; i++) {
+            assertEquals(TRACK[i], track[i], ACCURACY_DEGREE);
+        }
+
+        // in place conversion
+        System.arraycopy(TRACK, 0, track, 0, TRACK.length);
+        TransverseMercator.toUtm(PARIS_ZONE, true, track, track, count);
+        for (int i = 0; i < TRACK.length; i++) {
+            assertEquals(utmTrack[i], track[i], ACCURACY_DEGREE);
+        }
+    }
+
+    /**
+     * Tests exception when latitude is out of the UTM range.
+     */
+    @Test
+    public final void testToUtmOutOfRange() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("parameter latitude is not in range");
+
+        TransverseMercator.toUtm(POLAR_LATITUDE, 0, new UtmCoordinate());
+    }
+
+    /**
+     * Tests exception when zone is out of range.
+     */
+    @Test
+    public final void testBatchZoneOutOfRange() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("parameter zone is not in range 1 .. 60");
+
+        TransverseMercator.toUtm(UtmCoordinate.ZONE_MAX + 1, true,
+                TRACK, new double[TRACK.length], 1);
+    }
+}
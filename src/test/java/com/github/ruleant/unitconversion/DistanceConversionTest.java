@@ -0,0 +1,144 @@
+/**
+ * Unit tests for DistanceConversion class
+ *
+ * Copyright (C) 2015 Dieter Adriaenssens
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * @package com.github.ruleant.unitconversion
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+package com.github.ruleant.unitconversion;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for DistanceConversion class.
+ *
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+@RunWith(RobolectricTestRunner.class)
+public class DistanceConversionTest {
+    /**
+     * Short distance, in meter.
+     */
+    private static final double SHORT_DISTANCE = 999.4;
+
+    /**
+     * Distance displayed with one decimal, in meter.
+     */
+    private static final double MEDIUM_DISTANCE = 1370;
+
+    /**
+     * Long distance, in meter.
+     */
+    private static final double LONG_DISTANCE = 12345;
+
+    /**
+     * Distance conversion.
+     */
+    private DistanceConversion conversion;
+
+    /**
+     * Original Locale before tests.
+     */
+    private Locale originalLocale;
+
+    /**
+     * Sets up the test fixture.
+     * (Called before every test case method.)
+     */
+    @Before
+    public final void setUp() {
+        originalLocale = Locale.getDefault();
+        Locale.setDefault(Locale.US);
+        conversion = new DistanceConversion();
+    }
+
+    /**
+     * Restores original state after tests.
+     */
+    @After
+    public final void tearDown() {
+        Locale.setDefault(originalLocale);
+    }
+
+    /**
+     * Tests metric distances, in meter or kilometer.
+     */
+    @Test
+    public final void testMetric() {
+        conversion.setValue(SHORT_DISTANCE, LengthConversion.METER);
+        assertEquals(LengthConversion.METER, conversion.getDisplayUnit());
+        assertEquals(0, conversion.getDisplayDecimals());
+        assertFalse(conversion.isDisplayGrouped());
+        assertEquals("999m", conversion.getFormattedValue());
+
+        conversion.setValue(MEDIUM_DISTANCE, LengthConversion.METER);
+        assertEquals(LengthConversion.KILOMETER,
+                conversion.getDisplayUnit());
+        assertEquals(1, conversion.getDisplayDecimals());
+        assertTrue(conversion.isDisplayGrouped());
+        assertEquals("1.4km", conversion.getFormattedValue());
+
+        conversion.setValue(LONG_DISTANCE, LengthConversion.METER);
+        assertEquals(0, conversion.getDisplayDecimals());
+        assertEquals("12km", conversion.getFormattedValue());
+    }
+
+    /**
+     * Tests imperial distances, in feet or mile.
+     */
+    @Test
+    public final void testImperial() {
+        conversion.setOutputUnit(LengthConversion.FOOT);
+
+        conversion.setValue(MEDIUM_DISTANCE / 10, LengthConversion.METER);
+        assertEquals(LengthConversion.FOOT, conversion.getDisplayUnit());
+        assertEquals("449ft", conversion.getFormattedValue());
+
+        conversion.setValue(MEDIUM_DISTANCE, LengthConversion.METER);
+        assertEquals(LengthConversion.MILE, conversion.getDisplayUnit());
+        assertEquals("0.9mi", conversion.getFormattedValue());
+
+        conversion.setValue(LONG_DISTANCE * 10, LengthConversion.METER);
+        assertEquals("77mi", conversion.getFormattedValue());
+    }
+
+    /**
+     * Tests nautical distances aren't scaled.
+     */
+    @Test
+    public final void testNautical() {
+        conversion.setOutputUnit(LengthConversion.NAUTICAL_MILE);
+
+        conversion.setValue(SHORT_DISTANCE, LengthConversion.METER);
+        assertEquals(LengthConversion.NAUTICAL_MILE,
+                conversion.getDisplayUnit());
+        assertEquals("0.5NM", conversion.getFormattedValue());
+
+        conversion.setValue(LONG_DISTANCE * 10, LengthConversion.METER);
+        assertEquals("67NM", conversion.getFormattedValue());
+    }
+}
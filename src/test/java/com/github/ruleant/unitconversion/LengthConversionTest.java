@@ -0,0 +1,164 @@
+/**
+ * Unit tests for LengthConversion class
+ *
+ * Copyright (C) 2015 Dieter Adriaenssens
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * @package com.github.ruleant.unitconversion
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+package com.github.ruleant.unitconversion;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests for LengthConversion class.
+ *
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+@RunWith(RobolectricTestRunner.class)
+public class LengthConversionTest {
+    /**
+     * Expected Exception.
+     */
+    @Rule public final ExpectedException thrown = ExpectedException.none();
+
+    /**
+     * Accuracy.
+     */
+    private static final double ACCURACY = 1e-9;
+
+    /**
+     * Feet in a mile.
+     */
+    private static final double FEET_MILE = 5280;
+
+    /**
+     * Meters in a nautical mile.
+     */
+    private static final double METERS_NAUTICAL_MILE = 1852;
+
+    /**
+     * Height in meter.
+     */
+    private static final double HEIGHT = 1234.5;
+
+    /**
+     * Height in feet.
+     */
+    private static final double HEIGHT_FEET = 4050.19685;
+
+    /**
+     * Invalid unit.
+     */
+    private static final int INVALID_UNIT = 5;
+
+    /**
+     * Length conversion.
+     */
+    private LengthConversion conversion;
+
+    /**
+     * Original Locale before tests.
+     */
+    private Locale originalLocale;
+
+    /**
+     * Sets up the test fixture.
+     * (Called before every test case method.)
+     */
+    @Before
+    public final void setUp() {
+        originalLocale = Locale.getDefault();
+        Locale.setDefault(Locale.US);
+        conversion = new LengthConversion();
+    }
+
+    /**
+     * Restores original state after tests.
+     */
+    @After
+    public final void tearDown() {
+        Locale.setDefault(originalLocale);
+    }
+
+    /**
+     * Tests converting between units.
+     */
+    @Test
+    public final void testConvert() {
+        assertEquals(1000, conversion.convert(1,
+                LengthConversion.KILOMETER, LengthConversion.METER),
+                ACCURACY);
+        assertEquals(FEET_MILE, conversion.convert(1,
+                LengthConversion.MILE, LengthConversion.FOOT), ACCURACY);
+        assertEquals(METERS_NAUTICAL_MILE, conversion.convert(1,
+                LengthConversion.NAUTICAL_MILE, LengthConversion.METER),
+                ACCURACY);
+        assertEquals(HEIGHT, conversion.convert(HEIGHT,
+                LengthConversion.FOOT, LengthConversion.FOOT), 0);
+    }
+
+    /**
+     * Tests value and output unit.
+     */
+    @Test
+    public final void testValue() {
+        assertEquals(LengthConversion.METER, conversion.getOutputUnit());
+        assertEquals("m", conversion.getUnit());
+
+        conversion.setValue(HEIGHT_FEET, LengthConversion.FOOT);
+        assertEquals(HEIGHT, conversion.getValue(), 1e-5);
+        assertEquals(HEIGHT, conversion.getConvertedValue(), 1e-5);
+
+        conversion.setOutputUnit(LengthConversion.FOOT);
+        assertEquals("ft", conversion.getUnit());
+        assertEquals(HEIGHT_FEET, conversion.getConvertedValue(), ACCURACY);
+    }
+
+    /**
+     * Tests formatting a value, in the output unit, as an integer.
+     */
+    @Test
+    public final void testGetFormattedValue() {
+        conversion.setValue(HEIGHT, LengthConversion.METER);
+        assertEquals("1,235m", conversion.getFormattedValue());
+
+        conversion.setOutputUnit(LengthConversion.FOOT);
+        conversion.setUnitLabel(LengthConversion.FOOT, " feet");
+        assertEquals("4,050 feet", conversion.getFormattedValue());
+    }
+
+    /**
+     * Tests exception when unit is out of range.
+     */
+    @Test
+    public final void testInvalidUnit() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("parameter unit is not in range 0 .. 4");
+
+        conversion.setOutputUnit(INVALID_UNIT);
+    }
+}
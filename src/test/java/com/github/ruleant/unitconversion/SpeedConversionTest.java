@@ -0,0 +1,122 @@
+/**
+ * Unit tests for SpeedConversion class
+ *
+ * Copyright (C) 2015 Dieter Adriaenssens
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * @package com.github.ruleant.unitconversion
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+package com.github.ruleant.unitconversion;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests for SpeedConversion class.
+ *
+ * @author  Dieter Adriaenssens <ruleant@users.sourceforge.net>
+ */
+@RunWith(RobolectricTestRunner.class)
+public class SpeedConversionTest {
+    /**
+     * Accuracy.
+     */
+    private static final double ACCURACY = 1e-9;
+
+    /**
+     * Speed in m/s.
+     */
+    private static final double SPEED = 10;
+
+    /**
+     * Slow speed in m/s.
+     */
+    private static final double SPEED_SLOW = 2;
+
+    /**
+     * Speed conversion.
+     */
+    private SpeedConversion conversion;
+
+    /**
+     * Original Locale before tests.
+     */
+    private Locale originalLocale;
+
+    /**
+     * Sets up the test fixture.
+     * (Called before every test case method.)
+     */
+    @Before
+    public final void setUp() {
+        originalLocale = Locale.getDefault();
+        Locale.setDefault(Locale.US);
+        conversion = new SpeedConversion();
+    }
+
+    /**
+     * Restores original state after tests.
+     */
+    @After
+    public final void tearDown() {
+        Locale.setDefault(originalLocale);
+    }
+
+    /**
+     * Tests converting between units.
+     */
+    @Test
+    public final void testConvert() {
+        assertEquals(3.6, conversion.convert(1,
+                SpeedConversion.METER_PER_SECOND,
+                SpeedConversion.KILOMETER_PER_HOUR), 0);
+        assertEquals(1.609344, conversion.convert(1,
+                SpeedConversion.MILE_PER_HOUR,
+                SpeedConversion.KILOMETER_PER_HOUR), ACCURACY);
+        assertEquals(1.852, conversion.convert(1,
+                SpeedConversion.KNOT,
+                SpeedConversion.KILOMETER_PER_HOUR), ACCURACY);
+    }
+
+    /**
+     * Tests formatting speeds in all units.
+     */
+    @Test
+    public final void testGetFormattedValue() {
+        conversion.setValue(SPEED, SpeedConversion.METER_PER_SECOND);
+        assertEquals("10m/s", conversion.getFormattedValue());
+
+        conversion.setOutputUnit(SpeedConversion.KILOMETER_PER_HOUR);
+        assertEquals("36km/h", conversion.getFormattedValue());
+
+        conversion.setOutputUnit(SpeedConversion.MILE_PER_HOUR);
+        assertEquals("22mph", conversion.getFormattedValue());
+
+        conversion.setOutputUnit(SpeedConversion.KNOT);
+        assertEquals("19kn", conversion.getFormattedValue());
+
+        conversion.setValue(SPEED_SLOW, SpeedConversion.METER_PER_SECOND);
+        assertEquals(1, conversion.getDisplayDecimals());
+        assertEquals("3.9kn", conversion.getFormattedValue());
+    }
+}